@@ -0,0 +1,56 @@
+package com.badrelahlou.taskmanager.benchmark;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares two JMH JSON result files and reports benchmarks whose score moved by more than
+ * the threshold in the bad direction. Exits with status 1 when any regression is found.
+ *
+ * Usage: BenchmarkComparator &lt;baseline.json&gt; &lt;candidate.json&gt; [threshold-percent, default 10]
+ */
+public class BenchmarkComparator {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparator <baseline.json> <candidate.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> candidate = load(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW         %s%n", entry.getKey());
+                continue;
+            }
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = entry.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+            // Throughput modes: higher is better; time-per-op modes: lower is better
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore * 100.0;
+            boolean regressed = higherIsBetter ? change < -threshold : change > threshold;
+            if (regressed) regressions++;
+            System.out.printf("%-11s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                    regressed ? "REGRESSION" : "ok", entry.getKey(), oldScore, newScore, unit, change);
+        }
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> load(File file) throws Exception {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            run.path("params").fields().forEachRemaining(p -> key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText()));
+            byKey.put(key.toString(), run);
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,32 @@
+package com.badrelahlou.taskmanager.benchmark;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and always writes a JSON result file, so results from two releases
+ * can be diffed with {@link BenchmarkComparator}.
+ *
+ * Usage: BenchmarkRunner &lt;result-file.json&gt; [jmh options...]
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: BenchmarkRunner <result-file.json> [jmh options...]");
+            System.exit(2);
+        }
+        String resultFile = args[0];
+        CommandLineOptions cmd = new CommandLineOptions(Arrays.copyOfRange(args, 1, args.length));
+        Options options = new OptionsBuilder()
+                .parent(cmd)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,57 @@
+package com.badrelahlou.taskmanager.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badrelahlou.taskmanager.analytics.TaskColumnStore;
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.repository.TaskRepository;
+import com.badrelahlou.taskmanager.service.DashboardDTO;
+import com.badrelahlou.taskmanager.service.DashboardService;
+
+// Aggregation cost of the per-user dashboard, without the cache in front of it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardBenchmark {
+    @Param({ "100", "10000" })
+    private int tasksPerUser;
+
+    private DashboardService dashboardService;
+
+    @Setup
+    public void setUp() {
+        List<Task> tasks = TaskFixtures.tasks(tasksPerUser * 10, TaskFixtures.users(10), 7L);
+        Map<Long, List<Task>> byUser = tasks.stream()
+                .filter(t -> t.getAssignedUser() != null)
+                .collect(Collectors.groupingBy(t -> t.getAssignedUser().getId()));
+        TaskRepository repository = TaskFixtures.stubRepository(TaskRepository.class,
+                Map.of("findByAssignedUserId", args -> byUser.getOrDefault((Long) args[0], List.of())));
+        dashboardService = new DashboardService();
+        TaskFixtures.inject(dashboardService, "taskRepository", repository);
+        // Never loaded, so the service keeps taking the repository path measured here
+        TaskFixtures.inject(dashboardService, "taskColumnStore", new TaskColumnStore());
+    }
+
+    @Benchmark
+    public DashboardDTO userDashboard() {
+        return dashboardService.getUserDashboard(1L);
+    }
+}
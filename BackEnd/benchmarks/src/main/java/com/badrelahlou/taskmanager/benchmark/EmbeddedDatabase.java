@@ -0,0 +1,14 @@
+package com.badrelahlou.taskmanager.benchmark;
+
+// Command-line overrides (highest precedence) selecting the application's embedded profile, shared with the load-test harness
+final class EmbeddedDatabase {
+    private EmbeddedDatabase() {}
+
+    static String[] args(String name) {
+        return new String[] {
+            "--spring.profiles.active=embedded",
+            "--embedded.database-name=" + name,
+            "--spring.jpa.properties.hibernate.jdbc.batch_size=500"
+        };
+    }
+}
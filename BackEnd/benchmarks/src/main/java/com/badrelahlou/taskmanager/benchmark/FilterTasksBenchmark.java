@@ -0,0 +1,54 @@
+package com.badrelahlou.taskmanager.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.repository.TaskRepository;
+import com.badrelahlou.taskmanager.service.TaskService;
+
+// Predicate evaluation only: the repository is stubbed to hand back an in-memory list
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterTasksBenchmark {
+    @Param({ "10000", "100000" })
+    private int taskCount;
+
+    private TaskService taskService;
+
+    @Setup
+    public void setUp() {
+        List<Task> tasks = TaskFixtures.tasks(taskCount, TaskFixtures.users(200), 42L);
+        TaskRepository repository = TaskFixtures.stubRepository(TaskRepository.class,
+                Map.of("findAll", args -> tasks));
+        taskService = new TaskService();
+        TaskFixtures.inject(taskService, "taskRepository", repository);
+    }
+
+    @Benchmark
+    public List<Task> statusOnly() {
+        return taskService.filterTasks("IN_PROGRESS", null, null, null);
+    }
+
+    @Benchmark
+    public List<Task> statusPriorityAndDateRange() {
+        return taskService.filterTasks("todo", "HIGH", "2025-03-01", "2025-09-30");
+    }
+}
@@ -0,0 +1,96 @@
+package com.badrelahlou.taskmanager.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.badrelahlou.taskmanager.TaskmanagerApplication;
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.repository.TaskRepository;
+import com.badrelahlou.taskmanager.repository.UserRepository;
+
+/**
+ * Repository queries through the real JPA stack against an embedded H2 database in
+ * PostgreSQL compatibility mode. The schema is generated by Hibernate from the entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryQueryBenchmark {
+    @Param({ "10000" })
+    private int taskCount;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private List<Long> userIds;
+    private List<Long> taskIds;
+    private final Random random = new Random(1);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskmanagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(EmbeddedDatabase.args("bench"));
+        taskRepository = context.getBean(TaskRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        List<User> users = TaskFixtures.users(200);
+        users.forEach(u -> {
+            u.setId(null);
+            u.setPasswordHash("not-a-real-hash");
+        });
+        users = userRepository.saveAll(users);
+        userIds = users.stream().map(User::getId).toList();
+
+        List<Task> tasks = TaskFixtures.tasks(taskCount, users, 42L);
+        tasks.forEach(t -> {
+            t.setId(null);
+            t.setDependencies(null);
+        });
+        taskIds = taskRepository.saveAll(tasks).stream().map(Task::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        return taskRepository.findById(taskIds.get(random.nextInt(taskIds.size())));
+    }
+
+    @Benchmark
+    public List<Task> findByAssignedUserId() {
+        return taskRepository.findByAssignedUserId(userIds.get(random.nextInt(userIds.size())));
+    }
+
+    @Benchmark
+    public Page<Task> findAllFirstPage() {
+        return taskRepository.findAll(PageRequest.of(0, 10));
+    }
+}
@@ -0,0 +1,88 @@
+package com.badrelahlou.taskmanager.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.Role;
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+import com.badrelahlou.taskmanager.model.User;
+
+// Deterministic in-memory data shared by the benchmarks, so runs on different releases see the same input
+final class TaskFixtures {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private TaskFixtures() {}
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setUsername("user" + i + "@example.com");
+            user.setEmail("user" + i + "@example.com");
+            user.setRole(Role.TEAM_MEMBER);
+            users.add(user);
+        }
+        return users;
+    }
+
+    static List<Task> tasks(int count, List<User> users, long seed) {
+        Random random = new Random(seed);
+        TaskStatus[] statuses = TaskStatus.values();
+        Priority[] priorities = Priority.values();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setId((long) i + 1);
+            task.setTitle("Task " + i);
+            task.setDescription("Synthetic task " + i + " used for benchmarking");
+            task.setStatus(statuses[random.nextInt(statuses.length)]);
+            task.setPriority(priorities[random.nextInt(priorities.length)]);
+            LocalDateTime start = BASE.plusHours(random.nextInt(24 * 365));
+            task.setStartTime(start);
+            task.setEndTime(start.plusMinutes(30 + random.nextInt(8 * 60)));
+            task.setTimeSpent((long) random.nextInt(600));
+            task.setAssignedUser(users.isEmpty() || random.nextInt(10) == 0 ? null : users.get(random.nextInt(users.size())));
+            List<Task> dependencies = new ArrayList<>();
+            if (i > 0 && random.nextInt(4) == 0) {
+                dependencies.add(tasks.get(random.nextInt(i)));
+            }
+            task.setDependencies(dependencies);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Builds a repository proxy where only the named methods are implemented; anything else
+     * throws, so a benchmark silently hitting an unexpected query shows up immediately.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stubRepository(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Function<Object[], Object> handler = methods.get(method.getName());
+            if (handler == null) {
+                throw new UnsupportedOperationException("Not stubbed: " + method.getName());
+            }
+            return handler.apply(args);
+        });
+    }
+
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
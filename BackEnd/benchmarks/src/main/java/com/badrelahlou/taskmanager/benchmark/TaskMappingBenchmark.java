@@ -0,0 +1,45 @@
+package com.badrelahlou.taskmanager.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badrelahlou.taskmanager.dto.TaskResponse;
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.service.TaskService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMappingBenchmark {
+    @Param({ "1000", "100000" })
+    private int taskCount;
+
+    private TaskService taskService;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        taskService = new TaskService();
+        tasks = TaskFixtures.tasks(taskCount, TaskFixtures.users(200), 42L);
+    }
+
+    @Benchmark
+    public List<TaskResponse> toTaskResponse() {
+        return tasks.stream().map(taskService::toTaskResponse).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.badrelahlou.taskmanager.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.badrelahlou.taskmanager.dto.TaskResponse;
+import com.badrelahlou.taskmanager.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of TaskResponse lists, using the same ObjectMapper defaults Spring MVC
+ * applies. Output goes to a discarding stream so only encoding is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskSerializationBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    private int taskCount;
+
+    private ObjectMapper objectMapper;
+    private List<TaskResponse> responses;
+    private final OutputStream sink = new DiscardingOutputStream();
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        TaskService taskService = new TaskService();
+        responses = TaskFixtures.tasks(taskCount, TaskFixtures.users(500), 42L).stream()
+                .map(taskService::toTaskResponse)
+                .toList();
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        objectMapper.writeValue(sink, responses);
+    }
+
+    // Jackson closes the target after each write, so the sink must stay usable after close()
+    private static final class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
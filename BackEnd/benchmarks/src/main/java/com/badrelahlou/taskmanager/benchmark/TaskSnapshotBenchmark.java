@@ -0,0 +1,67 @@
+package com.badrelahlou.taskmanager.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badrelahlou.taskmanager.analytics.TaskAggregate;
+import com.badrelahlou.taskmanager.analytics.TaskColumnStore;
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+
+// Full scans of the columnar task snapshot; 10M rows need a heap of about 1 GB
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TaskSnapshotBenchmark {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Param({ "1000000", "10000000" })
+    private int tasks;
+
+    private TaskColumnStore store;
+
+    @Setup
+    public void setUp() {
+        store = new TaskColumnStore();
+        TaskFixtures.inject(store, "chunkRows", 65536);
+        TaskStatus[] statuses = TaskStatus.values();
+        Priority[] priorities = Priority.values();
+        SplittableRandom random = new SplittableRandom(7L);
+        for (long id = 1; id <= tasks; id++) {
+            LocalDateTime start = BASE.plusMinutes(random.nextInt(525_600));
+            store.put(id, statuses[random.nextInt(statuses.length)], priorities[random.nextInt(priorities.length)],
+                    (long) random.nextInt(1, 1001), (long) random.nextInt(480), start, start.plusHours(1));
+        }
+    }
+
+    @Benchmark
+    public TaskAggregate allTasks() {
+        return store.aggregate(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public TaskAggregate oneAssignee() {
+        return store.aggregate(42L, null, null, null, null);
+    }
+
+    @Benchmark
+    public TaskAggregate openHighPriorityInMarch() {
+        return store.aggregate(null, TaskStatus.IN_PROGRESS, Priority.HIGH, BASE.plusMonths(2), BASE.plusMonths(3));
+    }
+}
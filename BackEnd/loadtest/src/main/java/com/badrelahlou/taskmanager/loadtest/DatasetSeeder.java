@@ -0,0 +1,138 @@
+package com.badrelahlou.taskmanager.loadtest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Writes a synthetic, reproducible dataset straight through JDBC batches: users, teams with
+ * members, a task forest (top-level tasks with subtasks), dependency edges between earlier and
+ * later tasks, tracked time and a notification backlog per user. The same seed always produces
+ * the same rows, so runs are comparable.
+ */
+public class DatasetSeeder {
+    private static final int BATCH_SIZE = 1000;
+    private static final String PASSWORD = "loadtest-password";
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 8, 0);
+    private static final String[] STATUSES = { "TODO", "IN_PROGRESS", "DONE" };
+    private static final String[] PRIORITIES = { "HIGH", "MEDIUM", "LOW" };
+    private static final String TASK_INSERT = "INSERT INTO tasks (title, description, start_time, end_time, time_spent, priority, status, "
+            + "assigned_user_id, created_at, updated_at, created_by, parent_task_id, timer_running, timer_accumulated) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+
+    public DatasetSeeder(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+    }
+
+    public SeededDataset seed(LoadTestOptions options) {
+        // Every seeded user shares one hash; hashing per user would dominate seeding time
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+        List<Long> userIds = seedUsers(options.users, passwordHash);
+        List<Long> teamIds = seedTeams(options.teams, userIds);
+        List<Long> taskIds = seedTasks(options.tasks, userIds);
+        seedDependencies(taskIds);
+        seedNotifications(userIds, options.notificationsPerUser);
+        return new SeededDataset(userIds, teamIds, taskIds, "loadtest-user-0@example.com", PASSWORD);
+    }
+
+    private List<Long> seedUsers(int count, String passwordHash) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = "loadtest-user-" + i + "@example.com";
+            String role = i == 0 ? "ADMIN" : (i % 20 == 0 ? "PROJECT_MANAGER" : "TEAM_MEMBER");
+            rows.add(new Object[] { email, email, role, passwordHash, false });
+        }
+        batch("INSERT INTO users (username, email, role, password_hash, is_two_factor_enabled) VALUES (?, ?, ?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+    }
+
+    private List<Long> seedTeams(int count, List<Long> userIds) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { "Load test team " + i });
+        }
+        batch("INSERT INTO teams (name) VALUES (?)", rows);
+        List<Long> teamIds = jdbcTemplate.queryForList("SELECT id FROM teams ORDER BY id", Long.class);
+
+        List<Object[]> members = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size() && !teamIds.isEmpty(); i++) {
+            members.add(new Object[] { teamIds.get(i % teamIds.size()), userIds.get(i) });
+        }
+        batch("INSERT INTO team_members (team_id, user_id) VALUES (?, ?)", members);
+        return teamIds;
+    }
+
+    // Roughly a quarter of tasks become subtasks of an earlier top-level task
+    private List<Long> seedTasks(int count, List<Long> userIds) {
+        int topLevel = Math.max(1, count * 3 / 4);
+        List<Object[]> parents = new ArrayList<>(topLevel);
+        for (int i = 0; i < topLevel; i++) {
+            parents.add(taskRow(i, userIds, null));
+        }
+        batch(TASK_INSERT, parents);
+        List<Long> parentIds = jdbcTemplate.queryForList("SELECT id FROM tasks ORDER BY id", Long.class);
+
+        List<Object[]> children = new ArrayList<>(count - topLevel);
+        for (int i = topLevel; i < count; i++) {
+            children.add(taskRow(i, userIds, parentIds.get(random.nextInt(parentIds.size()))));
+        }
+        batch(TASK_INSERT, children);
+        return jdbcTemplate.queryForList("SELECT id FROM tasks ORDER BY id", Long.class);
+    }
+
+    private Object[] taskRow(int index, List<Long> userIds, Long parentId) {
+        LocalDateTime start = BASE.plusMinutes(random.nextInt(60 * 24 * 365));
+        LocalDateTime end = start.plusMinutes(15 + random.nextInt(60 * 16));
+        String status = STATUSES[random.nextInt(STATUSES.length)];
+        long timeSpent = "TODO".equals(status) ? 0 : random.nextInt(60 * 16);
+        Long assignee = random.nextInt(10) == 0 ? null : userIds.get(random.nextInt(userIds.size()));
+        return new Object[] {
+            "Task " + index, "Synthetic load-test task " + index,
+            Timestamp.valueOf(start), Timestamp.valueOf(end), timeSpent,
+            PRIORITIES[random.nextInt(PRIORITIES.length)], status, assignee,
+            Timestamp.valueOf(start.minusDays(1)), Timestamp.valueOf(start), "loadtest",
+            parentId, false, timeSpent * 60
+        };
+    }
+
+    // Each edge points from a task to one created before it, so the graph stays acyclic
+    private void seedDependencies(List<Long> taskIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i < taskIds.size(); i++) {
+            if (random.nextInt(5) == 0) {
+                rows.add(new Object[] { taskIds.get(i), taskIds.get(random.nextInt(i)) });
+            }
+        }
+        batch("INSERT INTO task_dependencies (task_id, dependency_id) VALUES (?, ?)", rows);
+    }
+
+    private void seedNotifications(List<Long> userIds, int perUser) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (Long userId : userIds) {
+            for (int i = 0; i < perUser; i++) {
+                LocalDateTime createdAt = BASE.plusHours(random.nextInt(24 * 365));
+                rows.add(new Object[] { userId, "Reminder " + i + " for user " + userId, Timestamp.valueOf(createdAt), random.nextBoolean() });
+                if (rows.size() == BATCH_SIZE) {
+                    batch("INSERT INTO notification (user_id, message, created_at, is_read) VALUES (?, ?, ?, ?)", rows);
+                    rows.clear();
+                }
+            }
+        }
+        batch("INSERT INTO notification (user_id, message, created_at, is_read) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+}
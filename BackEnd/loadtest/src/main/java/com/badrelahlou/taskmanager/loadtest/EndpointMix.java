@@ -0,0 +1,97 @@
+package com.badrelahlou.taskmanager.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Weighted list of endpoints, one per line: {@code weight METHOD path [json body]}.
+ * Blank lines and lines starting with '#' are ignored.
+ */
+public class EndpointMix {
+    final List<Endpoint> endpoints;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private EndpointMix(List<Endpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("Endpoint mix is empty");
+        }
+        this.endpoints = endpoints;
+        this.cumulativeWeights = new int[endpoints.size()];
+        int sum = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            sum += endpoints.get(i).weight;
+            cumulativeWeights[i] = sum;
+        }
+        this.totalWeight = sum;
+    }
+
+    static EndpointMix load(String file) throws IOException {
+        if (file == null) {
+            try (InputStream in = EndpointMix.class.getResourceAsStream("/default-mix.txt")) {
+                return parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines().toList());
+            }
+        }
+        return parse(Files.readAllLines(Path.of(file)));
+    }
+
+    static EndpointMix parse(List<String> lines) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String raw : lines) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s+", 4);
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Bad mix line: " + raw);
+            }
+            endpoints.add(new Endpoint(Integer.parseInt(parts[0]), parts[1].toUpperCase(), parts[2], parts.length > 3 ? parts[3] : null));
+        }
+        return new EndpointMix(endpoints);
+    }
+
+    Endpoint pick(Random random) {
+        int r = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) return endpoints.get(i);
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    static class Endpoint {
+        final int weight;
+        final String method;
+        final String pathTemplate;
+        final String body;
+
+        Endpoint(int weight, String method, String pathTemplate, String body) {
+            this.weight = weight;
+            this.method = method;
+            this.pathTemplate = pathTemplate;
+            this.body = body;
+        }
+
+        // Report key: method plus the unexpanded template, e.g. "GET /api/tasks/{taskId}"
+        String name() {
+            return method + " " + pathTemplate;
+        }
+
+        String path(SeededDataset dataset, Random random) {
+            return pathTemplate
+                    .replace("{userId}", String.valueOf(randomId(dataset.userIds, random)))
+                    .replace("{taskId}", String.valueOf(randomId(dataset.taskIds, random)))
+                    .replace("{teamId}", String.valueOf(randomId(dataset.teamIds, random)));
+        }
+
+        private static long randomId(List<Long> ids, Random random) {
+            return ids.isEmpty() ? 0L : ids.get(random.nextInt(ids.size()));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.badrelahlou.taskmanager.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Per-endpoint latency percentiles and throughput over the measured window
+public class LatencyReport {
+    private final List<EndpointStats> endpoints;
+    private final int durationSeconds;
+
+    LatencyReport(List<EndpointStats> endpoints, int durationSeconds) {
+        this.endpoints = endpoints;
+        this.durationSeconds = durationSeconds;
+        this.endpoints.sort(Comparator.comparing((EndpointStats e) -> e.histogram.getTotalCount()).reversed());
+    }
+
+    public void print() {
+        System.out.printf("%n%-52s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (EndpointStats e : endpoints) {
+            Histogram h = e.histogram;
+            System.out.printf("%-52s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    truncate(e.name, 52), h.getTotalCount(), e.errors.sum(), throughput(h),
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(95)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getMaxValue()));
+        }
+        long total = endpoints.stream().mapToLong(e -> e.histogram.getTotalCount()).sum();
+        System.out.printf("%ntotal: %d requests in %ds (%.1f req/s)%n", total, durationSeconds, (double) total / durationSeconds);
+    }
+
+    public void write(Path file) throws IOException {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("durationSeconds", durationSeconds);
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+        for (EndpointStats e : endpoints) {
+            Histogram h = e.histogram;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", h.getTotalCount());
+            row.put("errors", e.errors.sum());
+            row.put("throughputPerSecond", throughput(h));
+            row.put("p50Ms", millis(h.getValueAtPercentile(50)));
+            row.put("p95Ms", millis(h.getValueAtPercentile(95)));
+            row.put("p99Ms", millis(h.getValueAtPercentile(99)));
+            row.put("maxMs", millis(h.getMaxValue()));
+            byEndpoint.put(e.name, row);
+        }
+        root.put("endpoints", byEndpoint);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), root);
+    }
+
+    // All endpoints combined, for comparing whole runs
+    Histogram overall() {
+        Histogram merged = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+        endpoints.forEach(e -> merged.add(e.histogram));
+        return merged;
+    }
+
+    long errors() {
+        return endpoints.stream().mapToLong(e -> e.errors.sum()).sum();
+    }
+
+    int durationSeconds() {
+        return durationSeconds;
+    }
+
+    private double throughput(Histogram h) {
+        return durationSeconds == 0 ? 0 : (double) h.getTotalCount() / durationSeconds;
+    }
+
+    static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static String truncate(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max - 3) + "...";
+    }
+
+    static class EndpointStats {
+        final String name;
+        // Up to one minute at three significant digits
+        final Histogram histogram = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+        final LongAdder errors = new LongAdder();
+
+        EndpointStats(String name) {
+            this.name = name;
+        }
+
+        void record(long latencyNanos, int status) {
+            histogram.recordValue(Math.min(latencyNanos, histogram.getHighestTrackableValue()));
+            if (status < 200 || status >= 400) {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.badrelahlou.taskmanager.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load: each worker thread picks an endpoint from the mix, sends it and waits for
+ * the response before sending the next one. Latencies recorded during warm-up are discarded.
+ */
+public class LoadGenerator {
+    private final String baseUrl;
+    private final String bearerToken;
+    private final EndpointMix mix;
+    private final SeededDataset dataset;
+    private final HttpClient client;
+
+    public LoadGenerator(String baseUrl, String bearerToken, EndpointMix mix, SeededDataset dataset) {
+        this.baseUrl = baseUrl;
+        this.bearerToken = bearerToken;
+        this.mix = mix;
+        this.dataset = dataset;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    public LatencyReport run(int threads, int warmupSeconds, int durationSeconds, long seed) throws InterruptedException {
+        Map<String, LatencyReport.EndpointStats> stats = new ConcurrentHashMap<>();
+        mix.endpoints.forEach(e -> stats.put(e.name(), new LatencyReport.EndpointStats(e.name())));
+
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Runnable> loops = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(seed + t);
+            loops.add(() -> loop(random, stats, measureFrom, stopAt));
+        }
+        loops.forEach(workers::execute);
+        workers.shutdown();
+        workers.awaitTermination(warmupSeconds + durationSeconds + 60L, TimeUnit.SECONDS);
+        return new LatencyReport(new ArrayList<>(stats.values()), durationSeconds);
+    }
+
+    private void loop(Random random, Map<String, LatencyReport.EndpointStats> stats, long measureFrom, long stopAt) {
+        while (System.nanoTime() < stopAt) {
+            EndpointMix.Endpoint endpoint = mix.pick(random);
+            HttpRequest request = buildRequest(endpoint, random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                status = -1;
+            }
+            long end = System.nanoTime();
+            if (start >= measureFrom && end <= stopAt) {
+                stats.get(endpoint.name()).record(end - start, status);
+            }
+        }
+    }
+
+    private HttpRequest buildRequest(EndpointMix.Endpoint endpoint, Random random) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + endpoint.path(dataset, random)))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (bearerToken != null) {
+            builder.header("Authorization", "Bearer " + bearerToken);
+        }
+        HttpRequest.BodyPublisher body = endpoint.body != null
+                ? HttpRequest.BodyPublishers.ofString(endpoint.body)
+                : HttpRequest.BodyPublishers.noBody();
+        if (endpoint.body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        return builder.method(endpoint.method, body).build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.badrelahlou.taskmanager.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.badrelahlou.taskmanager.TaskmanagerApplication;
+import com.badrelahlou.taskmanager.analytics.TaskColumnStore;
+import com.badrelahlou.taskmanager.service.TaskHierarchyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Boots the application in-process on a random port against an in-memory H2 database, seeds
+ * the synthetic dataset, logs in as the seeded admin, replays the endpoint mix and prints the
+ * latency report. Nothing leaves the machine.
+ */
+public class LoadTestMain {
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LatencyReport report = run(options);
+        report.print();
+        report.write(Path.of(options.reportFile));
+        System.out.println("Report written to " + options.reportFile);
+    }
+
+    /**
+     * One complete run: fresh application context and database, seed, warm up, measure.
+     * Extra arguments are passed to the application, e.g. to switch thread mode.
+     */
+    static LatencyReport run(LoadTestOptions options, String... applicationArgs) throws Exception {
+        EndpointMix mix = EndpointMix.load(options.mixFile);
+        try (ConfigurableApplicationContext context = start(applicationArgs)) {
+            long seedStart = System.nanoTime();
+            SeededDataset dataset = new DatasetSeeder(context.getBean(JdbcTemplate.class), options.seed).seed(options);
+            // Seeded over JDBC, so the subtask closure, rollups and task snapshot are built once afterwards
+            context.getBean(TaskHierarchyService.class).rebuild();
+            context.getBean(TaskColumnStore.class).rebuild();
+            System.out.printf("Seeded %d users, %d teams, %d tasks in %.1fs%n", dataset.userIds.size(),
+                    dataset.teamIds.size(), dataset.taskIds.size(), (System.nanoTime() - seedStart) / 1e9);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+            String token = login(baseUrl, dataset);
+
+            System.out.printf("Running %d threads: %ds warm-up, %ds measured%n",
+                    options.threads, options.warmupSeconds, options.durationSeconds);
+            return new LoadGenerator(baseUrl, token, mix, dataset)
+                    .run(options.threads, options.warmupSeconds, options.durationSeconds, options.seed);
+        }
+    }
+
+    static ConfigurableApplicationContext start(String... applicationArgs) {
+        String[] base = embeddedDatabaseArgs();
+        String[] args = Arrays.copyOf(base, base.length + applicationArgs.length);
+        System.arraycopy(applicationArgs, 0, args, base.length, applicationArgs.length);
+        return new SpringApplicationBuilder(TaskmanagerApplication.class, OfflineBroker.class).run(args);
+    }
+
+    // The embedded profile (shared with the benchmarks) holds the H2 and offline settings; these add the harness's own
+    static String[] embeddedDatabaseArgs() {
+        return new String[] {
+            "--spring.profiles.active=embedded",
+            "--embedded.database-name=loadtest-" + System.nanoTime(),
+            "--server.port=0",
+            "--spring.datasource.hikari.maximum-pool-size=20"
+        };
+    }
+
+    private static String login(String baseUrl, SeededDataset dataset) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        String body = mapper.writeValueAsString(Map.of("email", dataset.adminEmail, "password", dataset.adminPassword));
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed (" + response.statusCode() + "): " + response.body());
+        }
+        return mapper.readTree(response.body()).path("token").asText();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class OfflineBroker {
+        @Bean
+        NoopRabbitTemplate rabbitTemplate() {
+            return new NoopRabbitTemplate();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.badrelahlou.taskmanager.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line flags, all of the form --name=value:
+ * <pre>
+ *   --users=500 --teams=25 --tasks=20000 --notifications-per-user=40 --seed=42
+ *   --threads=16 --warmup=10 --duration=30 --mix=path/to/mix.txt --report=report.json
+ *   --server-threads=50   (Tomcat max threads, used by ThreadModeComparison for the platform run)
+ * </pre>
+ * Durations are in seconds. Without --mix the bundled default-mix.txt is used.
+ */
+public class LoadTestOptions {
+    int users = 500;
+    int teams = 25;
+    int tasks = 20_000;
+    int notificationsPerUser = 40;
+    long seed = 42L;
+    int threads = 16;
+    int warmupSeconds = 10;
+    int durationSeconds = 30;
+    String mixFile;
+    String reportFile = "loadtest-report.json";
+    int serverThreads = 50;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions();
+        options.users = intValue(values, "users", options.users);
+        options.teams = intValue(values, "teams", options.teams);
+        options.tasks = intValue(values, "tasks", options.tasks);
+        options.notificationsPerUser = intValue(values, "notifications-per-user", options.notificationsPerUser);
+        options.seed = Long.parseLong(values.getOrDefault("seed", String.valueOf(options.seed)));
+        options.threads = intValue(values, "threads", options.threads);
+        options.warmupSeconds = intValue(values, "warmup", options.warmupSeconds);
+        options.durationSeconds = intValue(values, "duration", options.durationSeconds);
+        options.mixFile = values.get("mix");
+        options.reportFile = values.getOrDefault("report", options.reportFile);
+        options.serverThreads = intValue(values, "server-threads", options.serverThreads);
+        return options;
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,23 @@
+package com.badrelahlou.taskmanager.loadtest;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+/**
+ * Stands in for the broker so the harness runs offline. Registering any RabbitTemplate bean
+ * makes Boot's auto-configured one back off.
+ */
+public class NoopRabbitTemplate extends RabbitTemplate {
+    public NoopRabbitTemplate() {
+        super(new CachingConnectionFactory("localhost"));
+    }
+
+    @Override
+    public void convertAndSend(String routingKey, Object object) throws AmqpException {
+    }
+
+    @Override
+    public void convertAndSend(String exchange, String routingKey, Object object) throws AmqpException {
+    }
+}
@@ -0,0 +1,20 @@
+package com.badrelahlou.taskmanager.loadtest;
+
+import java.util.List;
+
+// Ids produced by the seeder, used to fill path placeholders in the endpoint mix
+public class SeededDataset {
+    final List<Long> userIds;
+    final List<Long> teamIds;
+    final List<Long> taskIds;
+    final String adminEmail;
+    final String adminPassword;
+
+    SeededDataset(List<Long> userIds, List<Long> teamIds, List<Long> taskIds, String adminEmail, String adminPassword) {
+        this.userIds = userIds;
+        this.teamIds = teamIds;
+        this.taskIds = taskIds;
+        this.adminEmail = adminEmail;
+        this.adminPassword = adminPassword;
+    }
+}
@@ -0,0 +1,66 @@
+package com.badrelahlou.taskmanager.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Runs the same seeded workload twice, once on the fixed Tomcat pool and once with
+ * spring.threads.virtual.enabled=true, and prints throughput and latency side by side.
+ * Needs Java 21+. Use more client threads than --server-threads to make the pool the
+ * bottleneck, e.g. --threads=200 --server-threads=50.
+ */
+public class ThreadModeComparison {
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            System.err.println("Virtual threads need Java 21+, this JVM is " + Runtime.version());
+            System.exit(2);
+        }
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        LatencyReport platform = LoadTestMain.run(options,
+                "--spring.threads.virtual.enabled=false",
+                "--server.tomcat.threads.max=" + options.serverThreads);
+        LatencyReport virtual = LoadTestMain.run(options,
+                "--spring.profiles.active=virtual-threads");
+
+        System.out.printf("%n%-10s %10s %8s %9s %9s %9s %9s%n", "mode", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("platform", row("platform", platform));
+        json.put("virtual", row("virtual", virtual));
+
+        Path file = Path.of(options.reportFile);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        write(file, json);
+        System.out.println("Comparison written to " + file);
+    }
+
+    private static Map<String, Object> row(String mode, LatencyReport report) {
+        Histogram h = report.overall();
+        double throughput = (double) h.getTotalCount() / report.durationSeconds();
+        System.out.printf("%-10s %10.1f %8d %9.2f %9.2f %9.2f %9.2f%n", mode, throughput, report.errors(),
+                LatencyReport.millis(h.getValueAtPercentile(50)), LatencyReport.millis(h.getValueAtPercentile(95)),
+                LatencyReport.millis(h.getValueAtPercentile(99)), LatencyReport.millis(h.getMaxValue()));
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("throughputPerSecond", throughput);
+        row.put("errors", report.errors());
+        row.put("p50Ms", LatencyReport.millis(h.getValueAtPercentile(50)));
+        row.put("p95Ms", LatencyReport.millis(h.getValueAtPercentile(95)));
+        row.put("p99Ms", LatencyReport.millis(h.getValueAtPercentile(99)));
+        row.put("maxMs", LatencyReport.millis(h.getMaxValue()));
+        return row;
+    }
+
+    private static void write(Path file, Map<String, Object> json) throws IOException {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+    }
+}
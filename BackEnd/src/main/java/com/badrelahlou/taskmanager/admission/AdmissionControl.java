@@ -0,0 +1,145 @@
+package com.badrelahlou.taskmanager.admission;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admission for the expensive endpoint classes in admission.classes. A request first takes a
+ * slot from its class's global concurrency cap, so heavy reports cannot hold every pooled
+ * connection while interactive requests wait, and then its class's cost from the caller's
+ * token bucket. A full class answers 503 and an empty bucket 429, both with Retry-After;
+ * a request refused for either reason holds neither a slot nor tokens.
+ */
+@Component
+public class AdmissionControl {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final long burstNanos;
+    private final long busyRetryAfterSeconds;
+    private final List<EndpointClass> classes = new ArrayList<>();
+    private final Cache<String, TokenBucket> buckets;
+
+    public AdmissionControl(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.busyRetryAfterSeconds = Math.max(1, properties.getBusyRetryAfterSeconds());
+        double nanosPerToken = NANOS_PER_SECOND / properties.getRefillPerSecond();
+        this.burstNanos = (long) (properties.getBurst() * nanosPerToken);
+        for (Map.Entry<String, AdmissionProperties.EndpointClass> entry : properties.getClasses().entrySet()) {
+            AdmissionProperties.EndpointClass config = entry.getValue();
+            if (config.getCost() > properties.getBurst()) {
+                throw new IllegalStateException("admission.classes." + entry.getKey() + ".cost exceeds admission.burst");
+            }
+            classes.add(new EndpointClass(entry.getKey(), config, (long) (config.getCost() * nanosPerToken), meterRegistry));
+        }
+        // An idle bucket is full again after burstNanos, so dropping it then loses nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(Duration.ofNanos(burstNanos).plusSeconds(1))
+                .build();
+    }
+
+    /** Admits or refuses a request for path from client. An admitted request must be released when it completes. */
+    public Admission admit(String path, String client) {
+        if (!enabled) return Admission.UNMETERED;
+        EndpointClass endpointClass = classify(path);
+        if (endpointClass == null) return Admission.UNMETERED;
+
+        if (endpointClass.slots != null && !endpointClass.slots.tryAcquire()) {
+            endpointClass.busy.increment();
+            return Admission.refused(HttpStatus.SERVICE_UNAVAILABLE, busyRetryAfterSeconds,
+                    "Too many " + endpointClass.name + " requests in progress, try again shortly");
+        }
+        long now = System.nanoTime();
+        long waitNanos = buckets.get(client, k -> new TokenBucket(now)).tryTake(endpointClass.costNanos, burstNanos, now);
+        if (waitNanos > 0) {
+            if (endpointClass.slots != null) endpointClass.slots.release();
+            endpointClass.limited.increment();
+            long retryAfter = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+            return Admission.refused(HttpStatus.TOO_MANY_REQUESTS, retryAfter,
+                    "Rate limit exceeded, retry in " + retryAfter + " seconds");
+        }
+        return endpointClass.slots != null ? new Admission(null, 0, null, endpointClass.slots) : Admission.UNMETERED;
+    }
+
+    private EndpointClass classify(String path) {
+        PathContainer container = null;
+        for (EndpointClass endpointClass : classes) {
+            if (container == null) container = PathContainer.parsePath(path);
+            for (PathPattern pattern : endpointClass.patterns) {
+                if (pattern.matches(container)) return endpointClass;
+            }
+        }
+        return null;
+    }
+
+    /** Outcome of admit: either admitted, holding a concurrency slot to release, or refused with a status. */
+    public static final class Admission {
+        static final Admission UNMETERED = new Admission(null, 0, null, null);
+
+        private final HttpStatus rejection;
+        private final long retryAfterSeconds;
+        private final String message;
+        private final Semaphore slot;
+
+        private Admission(HttpStatus rejection, long retryAfterSeconds, String message, Semaphore slot) {
+            this.rejection = rejection;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.message = message;
+            this.slot = slot;
+        }
+
+        static Admission refused(HttpStatus status, long retryAfterSeconds, String message) {
+            return new Admission(status, retryAfterSeconds, message, null);
+        }
+
+        public boolean isAdmitted() { return rejection == null; }
+        public HttpStatus getRejection() { return rejection; }
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+        public String getMessage() { return message; }
+
+        public void release() {
+            if (slot != null) slot.release();
+        }
+    }
+
+    private static final class EndpointClass {
+        final String name;
+        final List<PathPattern> patterns = new ArrayList<>();
+        final long costNanos;
+        final Semaphore slots;
+        final Counter limited;
+        final Counter busy;
+
+        EndpointClass(String name, AdmissionProperties.EndpointClass config, long costNanos, MeterRegistry meterRegistry) {
+            this.name = name;
+            config.getPaths().forEach(p -> patterns.add(PathPatternParser.defaultInstance.parse(p)));
+            this.costNanos = costNanos;
+            int maxConcurrent = config.getMaxConcurrent();
+            this.slots = maxConcurrent < Integer.MAX_VALUE ? new Semaphore(maxConcurrent) : null;
+            this.limited = Counter.builder("admission.rejected").tag("class", name).tag("reason", "rate").register(meterRegistry);
+            this.busy = Counter.builder("admission.rejected").tag("class", name).tag("reason", "busy").register(meterRegistry);
+            if (slots != null) {
+                Gauge.builder("admission.in.flight", slots, s -> maxConcurrent - s.availablePermits())
+                        .tag("class", name).register(meterRegistry);
+            }
+        }
+    }
+}
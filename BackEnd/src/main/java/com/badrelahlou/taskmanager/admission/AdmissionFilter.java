@@ -0,0 +1,50 @@
+package com.badrelahlou.taskmanager.admission;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.badrelahlou.taskmanager.admission.AdmissionControl.Admission;
+import com.badrelahlou.taskmanager.security.CurrentUser;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Runs AdmissionControl ahead of the controllers. Sits after JwtAuthenticationFilter so an
+ * authenticated caller is metered by user id across all of their tokens; anonymous callers
+ * are metered by remote address.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+    private final AdmissionControl admissionControl;
+
+    public AdmissionFilter(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Admission admission = admissionControl.admit(path, clientKey(request));
+        if (!admission.isAdmitted()) {
+            response.setStatus(admission.getRejection().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admission.getRetryAfterSeconds()));
+            response.setContentType("text/plain");
+            response.getWriter().write(admission.getMessage());
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admission.release();
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        return CurrentUser.id().map(id -> "user:" + id).orElseGet(() -> "addr:" + request.getRemoteAddr());
+    }
+}
@@ -0,0 +1,50 @@
+package com.badrelahlou.taskmanager.admission;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * admission.* settings. Every client gets one token bucket refilled at refillPerSecond and
+ * holding at most burst tokens. Each entry under admission.classes names the paths of an
+ * expensive endpoint class, how many tokens one request costs, and how many requests of that
+ * class may run at once across all clients. Paths outside every class are not metered.
+ */
+@ConfigurationProperties("admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+    private double refillPerSecond = 10;
+    private int burst = 100;
+    private long maxClients = 100_000;
+    private long busyRetryAfterSeconds = 1;
+    private Map<String, EndpointClass> classes = new LinkedHashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public double getRefillPerSecond() { return refillPerSecond; }
+    public void setRefillPerSecond(double refillPerSecond) { this.refillPerSecond = refillPerSecond; }
+    public int getBurst() { return burst; }
+    public void setBurst(int burst) { this.burst = burst; }
+    public long getMaxClients() { return maxClients; }
+    public void setMaxClients(long maxClients) { this.maxClients = maxClients; }
+    public long getBusyRetryAfterSeconds() { return busyRetryAfterSeconds; }
+    public void setBusyRetryAfterSeconds(long busyRetryAfterSeconds) { this.busyRetryAfterSeconds = busyRetryAfterSeconds; }
+    public Map<String, EndpointClass> getClasses() { return classes; }
+    public void setClasses(Map<String, EndpointClass> classes) { this.classes = classes; }
+
+    public static class EndpointClass {
+        private List<String> paths = new ArrayList<>();
+        private int cost = 1;
+        private int maxConcurrent = Integer.MAX_VALUE;
+
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+        public int getCost() { return cost; }
+        public void setCost(int cost) { this.cost = cost; }
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+    }
+}
@@ -0,0 +1,32 @@
+package com.badrelahlou.taskmanager.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single theoretical arrival time (the GCRA form): the instant, in
+ * System.nanoTime units, at which the bucket would be full again. Taking tokens pushes that
+ * instant forward by their refill time; a request is refused when doing so would put it
+ * further ahead of now than a full burst takes to refill. One compare-and-set per request,
+ * no locks, and no background refill.
+ */
+final class TokenBucket {
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes tokens worth costNanos of refill time if the bucket holds them. Returns 0 when
+     * admitted, otherwise how many nanoseconds until it would be; nothing is taken on refusal.
+     */
+    long tryTake(long costNanos, long burstNanos, long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + costNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) return excess;
+            if (fullAt.compareAndSet(current, next)) return 0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.badrelahlou.taskmanager.analytics;
+
+import java.util.Map;
+
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+
+// Result of TaskColumnStore.aggregate; rows is the snapshot size scanned, tombstones included
+public class TaskAggregate {
+    private final long count;
+    private final long timeSpent;
+    private final Map<TaskStatus, Long> byStatus;
+    private final Map<Priority, Long> byPriority;
+    private final int rows;
+
+    public TaskAggregate(long count, long timeSpent, Map<TaskStatus, Long> byStatus, Map<Priority, Long> byPriority, int rows) {
+        this.count = count;
+        this.timeSpent = timeSpent;
+        this.byStatus = byStatus;
+        this.byPriority = byPriority;
+        this.rows = rows;
+    }
+
+    public long getCount() { return count; }
+    public long getTimeSpent() { return timeSpent; }
+    public Map<TaskStatus, Long> getByStatus() { return byStatus; }
+    public Map<Priority, Long> getByPriority() { return byPriority; }
+    public int getRows() { return rows; }
+
+    public long status(TaskStatus status) {
+        return byStatus.getOrDefault(status, 0L);
+    }
+}
@@ -0,0 +1,482 @@
+package com.badrelahlou.taskmanager.analytics;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.cache.RemoteChangeListener;
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Column-per-field copy of the tasks table for aggregate queries: 42 bytes a row, so 10M
+ * tasks take about 420 MB. Rows are kept in id order as loaded; committed entity writes are
+ * applied by TaskSnapshotListener, JDBC write paths call reloadAfterCommit, and a periodic
+ * rebuild fixes any drift. Both announce the changed ids through the near cache manager, and
+ * the other instances re-read those rows before they evict the dashboards computed from them;
+ * if announcements were lost, they rebuild. Deleted rows stay
+ * as tombstones until the next rebuild. Times are UTC epoch seconds of the task's
+ * LocalDateTime, as in ResourceBookingIndex.
+ *
+ * Scans never lock and read whichever arrays were current when they started. A scan running
+ * alongside an update to a row may see some of that row's new fields and not others; the
+ * status byte is written last, so a new row is only counted once it is complete.
+ */
+@Component
+public class TaskColumnStore {
+    private static final Logger log = LoggerFactory.getLogger(TaskColumnStore.class);
+
+    // Near cache topic carrying the ids of changed tasks between instances
+    public static final String CHANGES_TOPIC = "taskRows";
+
+    // status and priority are stored as enum ordinals; these mark a deleted row and a null priority
+    static final byte TOMBSTONE = -1;
+    static final byte NO_PRIORITY = -1;
+    // Filter value matching any status or priority
+    static final byte ANY = Byte.MIN_VALUE;
+
+    private static final String LOAD_SQL =
+            "select id, status, priority, assigned_user_id, time_spent, start_time, end_time from tasks";
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NearCacheManager cacheManager;
+
+    // Rows per fork/join leaf; smaller ranges are scanned in one loop
+    @Value("${analytics.snapshot.scan-chunk-rows:65536}")
+    private int chunkRows;
+
+    private volatile Columns columns = new Columns(0);
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+    // One rebuild at a time: each one owns touchedDuringRebuild from start to swap
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Set when lost announcements call for a rebuild; whoever holds rebuildLock next runs one more
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    // Tasks changed while a rebuild was loading. Their state is copied over instead of the possibly older loaded rows.
+    private volatile Set<Long> touchedDuringRebuild;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void init() {
+        rebuildTimer = Timer.builder("analytics.snapshot.rebuild").register(meterRegistry);
+        Gauge.builder("analytics.snapshot.rows", this, store -> store.columns.size).register(meterRegistry);
+        cacheManager.onRemoteChange(CHANGES_TOPIC, new RemoteChangeListener() {
+            @Override
+            public void changed(Set<Object> keys) {
+                List<Long> taskIds = new ArrayList<>(keys.size());
+                for (Object key : keys) taskIds.add(((Number) key).longValue());
+                reload(taskIds);
+            }
+
+            // Runs on the delivering thread, so the caches cleared after it are recomputed from fresh rows,
+            // unless a rebuild is already loading; that one then runs again once it is done
+            @Override
+            public void missed() {
+                requestRebuild();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${analytics.snapshot.rebuild-interval-ms:300000}",
+               fixedDelayString = "${analytics.snapshot.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            rebuildRequested.set(false);
+            load();
+        } finally {
+            rebuildLock.unlock();
+        }
+        if (rebuildRequested.get()) requestRebuild();
+    }
+
+    // A request made while another rebuild holds the lock is left in the flag, which that rebuild checks after unlocking
+    private void requestRebuild() {
+        rebuildRequested.set(true);
+        while (rebuildRequested.get() && rebuildLock.tryLock()) {
+            try {
+                if (rebuildRequested.getAndSet(false)) load();
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    private void load() {
+        long started = System.nanoTime();
+        synchronized (this) {
+            touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+        }
+        // Sorted load keeps the id column ordered, which is what lookups binary-search
+        Columns[] loading = { new Columns(Math.max(1024, columns.size)) };
+        jdbcTemplate.query(LOAD_SQL + " order by id", (RowCallbackHandler) rs -> loading[0] = loading[0].append(rs));
+        Columns fresh = loading[0];
+        synchronized (this) {
+            Columns previous = columns;
+            for (Long taskId : touchedDuringRebuild) {
+                int from = previous.find(taskId);
+                int to = fresh.find(taskId);
+                if (from < 0 && to >= 0) {
+                    fresh.status[to] = TOMBSTONE;
+                } else if (from >= 0) {
+                    fresh = fresh.copyRow(previous, from, to);
+                }
+            }
+            columns = fresh;
+            touchedDuringRebuild = null;
+            loaded = true;
+            loadedAt = System.currentTimeMillis();
+        }
+        long elapsed = System.nanoTime() - started;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.debug("Loaded {} task rows in {} ms", fresh.size, elapsed / 1_000_000);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public synchronized void put(long taskId, TaskStatus status, Priority priority, Long assigneeId, Long timeSpent,
+                                 LocalDateTime start, LocalDateTime end) {
+        touch(taskId);
+        Columns current = columns;
+        int row = current.find(taskId);
+        if (row >= 0) {
+            current.set(row, taskId, status, priority, assigneeId, timeSpent, start, end);
+            return;
+        }
+        Columns target = current.grow();
+        target.set(target.size, taskId, status, priority, assigneeId, timeSpent, start, end);
+        target.publish(taskId, target.size);
+        columns = target;
+    }
+
+    public synchronized void remove(long taskId) {
+        touch(taskId);
+        int row = columns.find(taskId);
+        if (row >= 0) columns.status[row] = TOMBSTONE;
+    }
+
+    /**
+     * For writes made through JDBC: re-reads the tasks once the surrounding transaction commits
+     * and announces them to the other instances.
+     */
+    public void reloadAfterCommit(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(taskIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload(ids);
+            announce(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload(ids);
+                announce(ids);
+            }
+        });
+    }
+
+    /** Tells the other instances to re-read these committed tasks. */
+    public void announce(Collection<Long> taskIds) {
+        cacheManager.announce(CHANGES_TOPIC, taskIds);
+    }
+
+    // Ids the query no longer returns were deleted
+    private void reload(List<Long> taskIds) {
+        for (int i = 0; i < taskIds.size(); i += 1000) {
+            List<Long> batch = taskIds.subList(i, Math.min(taskIds.size(), i + 1000));
+            Set<Long> missing = new HashSet<>(batch);
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            jdbcTemplate.query(LOAD_SQL + " where id in (" + placeholders + ")", (RowCallbackHandler) rs -> {
+                long taskId = rs.getLong("id");
+                missing.remove(taskId);
+                put(taskId, parseStatus(rs.getString("status")), parsePriority(rs.getString("priority")),
+                        nullableLong(rs, "assigned_user_id"), nullableLong(rs, "time_spent"),
+                        localDateTime(rs.getTimestamp("start_time")), localDateTime(rs.getTimestamp("end_time")));
+            }, batch.toArray());
+            missing.forEach(this::remove);
+        }
+    }
+
+    /**
+     * Counts and time totals over the live rows matching every given filter; null filters
+     * match everything. The start range is half-open, [startFrom, startTo).
+     */
+    public TaskAggregate aggregate(Long assigneeId, TaskStatus status, Priority priority,
+                                   LocalDateTime startFrom, LocalDateTime startTo) {
+        Columns snapshot = columns;
+        Scan scan = new Scan(snapshot, 0, snapshot.size, chunkRows,
+                assigneeId != null ? assigneeId : 0, assigneeId != null,
+                status != null ? (byte) status.ordinal() : ANY,
+                priority != null ? (byte) priority.ordinal() : ANY,
+                startFrom != null ? toEpoch(startFrom) : Long.MIN_VALUE,
+                startTo != null ? toEpoch(startTo) : Long.MAX_VALUE);
+        long[] totals = snapshot.size > chunkRows ? scan.invoke() : scan.compute();
+
+        Map<TaskStatus, Long> byStatus = new HashMap<>();
+        for (TaskStatus s : STATUSES) byStatus.put(s, totals[Scan.STATUS_SLOTS + s.ordinal()]);
+        Map<Priority, Long> byPriority = new HashMap<>();
+        for (Priority p : PRIORITIES) byPriority.put(p, totals[Scan.PRIORITY_SLOTS + 1 + p.ordinal()]);
+        return new TaskAggregate(totals[Scan.COUNT], totals[Scan.TIME_SPENT], byStatus, byPriority, snapshot.size);
+    }
+
+    private void touch(long taskId) {
+        Set<Long> touched = touchedDuringRebuild;
+        if (touched != null) touched.add(taskId);
+    }
+
+    static long toEpoch(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static TaskStatus parseStatus(String status) {
+        return status != null ? TaskStatus.valueOf(status) : null;
+    }
+
+    private static Priority parsePriority(String priority) {
+        return priority != null ? Priority.valueOf(priority) : null;
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static LocalDateTime localDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * The column arrays. Rows below size are readable; a writer fills a new row first and then
+     * publishes it by raising size, which is volatile. Ids in [0, sorted) ascend and are found
+     * by binary search; rows appended out of id order until the next rebuild go in outOfOrder.
+     */
+    static final class Columns {
+        long[] id;
+        byte[] status;
+        byte[] priority;
+        long[] assignee;
+        long[] timeSpent;
+        long[] start;
+        long[] end;
+        volatile int size;
+        int sorted;
+        Map<Long, Integer> outOfOrder = new HashMap<>();
+
+        Columns(int capacity) {
+            id = new long[capacity];
+            status = new byte[capacity];
+            priority = new byte[capacity];
+            assignee = new long[capacity];
+            timeSpent = new long[capacity];
+            start = new long[capacity];
+            end = new long[capacity];
+        }
+
+        int find(long taskId) {
+            int index = Arrays.binarySearch(id, 0, sorted, taskId);
+            if (index >= 0) return index;
+            Integer row = outOfOrder.get(taskId);
+            return row != null ? row : -1;
+        }
+
+        /** This instance if the next row fits, otherwise a larger copy. */
+        Columns grow() {
+            if (size < id.length) return this;
+            Columns larger = new Columns(Math.max(1024, id.length + (id.length >> 1)));
+            System.arraycopy(id, 0, larger.id, 0, size);
+            System.arraycopy(status, 0, larger.status, 0, size);
+            System.arraycopy(priority, 0, larger.priority, 0, size);
+            System.arraycopy(assignee, 0, larger.assignee, 0, size);
+            System.arraycopy(timeSpent, 0, larger.timeSpent, 0, size);
+            System.arraycopy(start, 0, larger.start, 0, size);
+            System.arraycopy(end, 0, larger.end, 0, size);
+            larger.sorted = sorted;
+            larger.outOfOrder = new HashMap<>(outOfOrder);
+            larger.size = size;
+            return larger;
+        }
+
+        void set(int row, long taskId, TaskStatus status, Priority priority, Long assigneeId, Long timeSpent,
+                 LocalDateTime start, LocalDateTime end) {
+            this.id[row] = taskId;
+            this.priority[row] = priority != null ? (byte) priority.ordinal() : NO_PRIORITY;
+            this.assignee[row] = assigneeId != null ? assigneeId : 0;
+            this.timeSpent[row] = timeSpent != null ? timeSpent : 0;
+            this.start[row] = start != null ? toEpoch(start) : Long.MIN_VALUE;
+            this.end[row] = end != null ? toEpoch(end) : Long.MIN_VALUE;
+            // Written last: a scan skips the row until it has a status
+            this.status[row] = status != null ? (byte) status.ordinal() : TOMBSTONE;
+        }
+
+        /** Makes a row written at index size visible and findable. */
+        void publish(long taskId, int row) {
+            if (row != size) return;
+            if (sorted == size && (size == 0 || id[size - 1] < taskId)) {
+                sorted++;
+            } else {
+                outOfOrder.put(taskId, row);
+            }
+            size = row + 1;
+        }
+
+        Columns append(ResultSet rs) throws SQLException {
+            long taskId = rs.getLong("id");
+            Columns target = grow();
+            target.set(target.size, taskId, parseStatus(rs.getString("status")), parsePriority(rs.getString("priority")),
+                    nullableLong(rs, "assigned_user_id"), nullableLong(rs, "time_spent"),
+                    localDateTime(rs.getTimestamp("start_time")), localDateTime(rs.getTimestamp("end_time")));
+            target.publish(taskId, target.size);
+            return target;
+        }
+
+        /** Copies a row of another Columns over row to, or appends it when to is negative. */
+        Columns copyRow(Columns source, int from, int to) {
+            Columns target = to >= 0 ? this : grow();
+            int row = to >= 0 ? to : target.size;
+            target.id[row] = source.id[from];
+            target.priority[row] = source.priority[from];
+            target.assignee[row] = source.assignee[from];
+            target.timeSpent[row] = source.timeSpent[from];
+            target.start[row] = source.start[from];
+            target.end[row] = source.end[from];
+            target.status[row] = source.status[from];
+            if (to < 0) target.publish(source.id[from], row);
+            return target;
+        }
+    }
+
+    /**
+     * Fork/join scan over a row range. Leaves run one flat loop over the arrays with the
+     * filters folded into a 0/1 match, so there is no branch per row for the JIT to predict.
+     */
+    static final class Scan extends RecursiveTask<long[]> {
+        static final int COUNT = 0;
+        static final int TIME_SPENT = 1;
+        // Slot per status ordinal
+        static final int STATUS_SLOTS = 2;
+        // Slot per priority ordinal plus one, slot 0 counting tasks without a priority
+        static final int PRIORITY_SLOTS = STATUS_SLOTS + 3;
+        static final int WIDTH = PRIORITY_SLOTS + 4;
+
+        private final Columns columns;
+        private final int from;
+        private final int to;
+        private final int chunkRows;
+        private final long assigneeId;
+        private final boolean byAssignee;
+        private final byte status;
+        private final byte priority;
+        private final long startFrom;
+        private final long startTo;
+
+        Scan(Columns columns, int from, int to, int chunkRows, long assigneeId, boolean byAssignee,
+             byte status, byte priority, long startFrom, long startTo) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.chunkRows = Math.max(1024, chunkRows);
+            this.assigneeId = assigneeId;
+            this.byAssignee = byAssignee;
+            this.status = status;
+            this.priority = priority;
+            this.startFrom = startFrom;
+            this.startTo = startTo;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > chunkRows) {
+                int mid = (from + to) >>> 1;
+                Scan left = new Scan(columns, from, mid, chunkRows, assigneeId, byAssignee, status, priority, startFrom, startTo);
+                Scan right = new Scan(columns, mid, to, chunkRows, assigneeId, byAssignee, status, priority, startFrom, startTo);
+                left.fork();
+                long[] totals = right.compute();
+                long[] other = left.join();
+                for (int i = 0; i < WIDTH; i++) totals[i] += other[i];
+                return totals;
+            }
+            byte[] statuses = columns.status;
+            byte[] priorities = columns.priority;
+            long[] assignees = columns.assignee;
+            long[] timeSpent = columns.timeSpent;
+            long[] starts = columns.start;
+            long count = 0;
+            long time = 0;
+            long[] perStatus = new long[4];
+            long[] perPriority = new long[4];
+            for (int i = from; i < to; i++) {
+                byte s = statuses[i];
+                byte p = priorities[i];
+                long start = starts[i];
+                int match = (s != TOMBSTONE)
+                        & (!byAssignee | assignees[i] == assigneeId)
+                        & (status == ANY | s == status)
+                        & (priority == ANY | p == priority)
+                        & (start >= startFrom) & (start < startTo) ? 1 : 0;
+                count += match;
+                time += timeSpent[i] * match;
+                // Tombstones land in slot 0 with a zero match, so they never count
+                perStatus[s + 1] += match;
+                perPriority[p + 1] += match;
+            }
+            long[] totals = new long[WIDTH];
+            totals[COUNT] = count;
+            totals[TIME_SPENT] = time;
+            for (int i = 0; i < 3; i++) totals[STATUS_SLOTS + i] = perStatus[i + 1];
+            for (int i = 0; i < 4; i++) totals[PRIORITY_SLOTS + i] = perPriority[i];
+            return totals;
+        }
+    }
+}
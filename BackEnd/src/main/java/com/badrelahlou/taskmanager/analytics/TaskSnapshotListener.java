@@ -0,0 +1,71 @@
+package com.badrelahlou.taskmanager.analytics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+import com.badrelahlou.taskmanager.model.User;
+
+// Copies committed task writes into the TaskColumnStore and announces them to the other instances
+public class TaskSnapshotListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    private final TaskColumnStore store;
+
+    public TaskSnapshotListener(TaskColumnStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Task) put(event.getPersister(), (Long) event.getId(), event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Task) put(event.getPersister(), (Long) event.getId(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Task) {
+            store.remove((Long) event.getId());
+            store.announce(List.of((Long) event.getId()));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Task.class;
+    }
+
+    private void put(EntityPersister persister, Long taskId, Object[] state) {
+        Object user = state[persister.getPropertyIndex("assignedUser")];
+        store.put(taskId,
+                (TaskStatus) state[persister.getPropertyIndex("status")],
+                (Priority) state[persister.getPropertyIndex("priority")],
+                user instanceof User u ? u.getId() : null,
+                (Long) state[persister.getPropertyIndex("timeSpent")],
+                (LocalDateTime) state[persister.getPropertyIndex("startTime")],
+                (LocalDateTime) state[persister.getPropertyIndex("endTime")]);
+        store.announce(List.of(taskId));
+    }
+}
@@ -0,0 +1,121 @@
+package com.badrelahlou.taskmanager.audit;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded queue between the persistence event listener and AuditWriter. Offers never
+ * take a lock: the size is tracked with an AtomicInteger next to a ConcurrentLinkedQueue,
+ * and the capacity check reserves a slot before enqueueing.
+ */
+@Component
+public class AuditBuffer {
+    private static final Logger log = LoggerFactory.getLogger(AuditBuffer.class);
+
+    private final ConcurrentLinkedQueue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    @Value("${audit.buffer.capacity:10000}")
+    private int capacity;
+
+    @Value("${audit.buffer.overflow-policy:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy;
+
+    @Autowired
+    @Lazy
+    private AuditWriter writer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        dropped = Counter.builder("audit.events.dropped").tag("reason", "overflow").register(meterRegistry);
+        Gauge.builder("audit.buffer.size", size, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public void offer(AuditEvent event) {
+        while (true) {
+            int current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) {
+                    queue.offer(event);
+                    writer.onEnqueued(current + 1);
+                    return;
+                }
+                continue;
+            }
+            switch (overflowPolicy) {
+                case DROP_NEWEST:
+                    dropped.increment();
+                    return;
+                case DROP_OLDEST:
+                    if (queue.poll() != null) {
+                        size.decrementAndGet();
+                        dropped.increment();
+                    } else {
+                        // Full but nothing to poll: another producer has reserved a slot and not enqueued
+                        // yet, or a drain has taken events and not released their slots; both are brief
+                        Thread.onSpinWait();
+                    }
+                    break;
+                case CALLER_FLUSHES:
+                    try {
+                        writer.flush();
+                    } catch (RuntimeException e) {
+                        // The caller is usually a post-commit listener on a request thread; the writer has
+                        // already counted the lost batch, and its slots are free for this event
+                        log.warn("Audit flush on the calling thread failed: {}", e.getMessage());
+                    }
+                    break;
+            }
+        }
+    }
+
+    /** For writes the persistence listener never sees: enqueues once the transaction commits. */
+    public void offerAfterCommit(List<AuditEvent> events) {
+        if (events.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            events.forEach(this::offer);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(AuditBuffer.this::offer);
+            }
+        });
+    }
+
+    public int drainTo(List<AuditEvent> target, int max) {
+        int drained = 0;
+        AuditEvent event;
+        while (drained < max && (event = queue.poll()) != null) {
+            target.add(event);
+            drained++;
+        }
+        size.addAndGet(-drained);
+        return drained;
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
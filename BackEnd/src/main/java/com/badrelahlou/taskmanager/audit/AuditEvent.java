@@ -0,0 +1,22 @@
+package com.badrelahlou.taskmanager.audit;
+
+import java.time.LocalDateTime;
+
+// One captured mutation, queued until the writer turns it into an audit_logs row
+public final class AuditEvent {
+    final Long userId;
+    final String action;
+    final String entityType;
+    final Long entityId;
+    final String details;
+    final LocalDateTime timestamp;
+
+    public AuditEvent(Long userId, String action, String entityType, Long entityId, String details) {
+        this.userId = userId;
+        this.action = action;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.details = details;
+        this.timestamp = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,77 @@
+package com.badrelahlou.taskmanager.audit;
+
+import java.util.Set;
+import java.util.StringJoiner;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.model.Team;
+import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.security.CurrentUser;
+
+/**
+ * Turns committed inserts, updates and deletes of audited entities into AuditEvents.
+ * Registered for the post-commit event types so rolled-back writes never reach the trail.
+ * Runs on the committing thread and only enqueues; the insert happens in AuditWriter.
+ */
+public class AuditEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    private static final Set<Class<?>> AUDITED = Set.of(Task.class, User.class, Team.class);
+
+    private final AuditBuffer buffer;
+
+    public AuditEventListener(AuditBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record("CREATE", event.getPersister(), event.getId(), null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        String details = null;
+        if (dirty != null && dirty.length > 0) {
+            String[] names = event.getPersister().getPropertyNames();
+            StringJoiner joiner = new StringJoiner(",");
+            for (int index : dirty) joiner.add(names[index]);
+            details = joiner.toString();
+        }
+        record("UPDATE", event.getPersister(), event.getId(), details);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record("DELETE", event.getPersister(), event.getId(), null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return AUDITED.contains(persister.getMappedClass());
+    }
+
+    private void record(String action, EntityPersister persister, Object id, String details) {
+        Class<?> type = persister.getMappedClass();
+        if (!AUDITED.contains(type)) return;
+        buffer.offer(new AuditEvent(CurrentUser.id().orElse(null), action, type.getSimpleName(),
+                id instanceof Long longId ? longId : null, details));
+    }
+}
@@ -0,0 +1,137 @@
+package com.badrelahlou.taskmanager.audit;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Drains AuditBuffer into audit_logs with JDBC batch inserts. A single daemon thread
+ * wakes when audit.writer.batch-size events are queued or audit.writer.flush-interval-ms
+ * has passed, whichever comes first. Remaining events are flushed on shutdown. A batch whose
+ * insert fails is retried with a doubling back-off; once audit.writer.max-attempts is spent its
+ * events are counted in audit.events.dropped and the rest of the buffer waits for the next cycle.
+ */
+@Component
+public class AuditWriter {
+    private static final Logger log = LoggerFactory.getLogger(AuditWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (user_id, action, timestamp, entity_type, entity_id, details) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private AuditBuffer buffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${audit.writer.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.writer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${audit.writer.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${audit.writer.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    private volatile boolean running;
+    private Thread thread;
+    private Counter dropped;
+
+    @PostConstruct
+    void start() {
+        dropped = Counter.builder("audit.events.dropped").tag("reason", "write-failed").register(meterRegistry);
+        running = true;
+        thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        flush();
+    }
+
+    void onEnqueued(int queued) {
+        if (queued == batchSize) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            if (buffer.size() < batchSize) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Failed to write audit batch", e);
+            }
+        }
+    }
+
+    // Safe to call from several threads; each drains its own batch
+    public void flush() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insert(batch);
+                return;
+            } catch (DataAccessException e) {
+                if (attempt >= maxAttempts) {
+                    dropped.increment(batch.size());
+                    log.error("Dropped {} audit events after {} attempts", batch.size(), attempt);
+                    throw e;
+                }
+                log.warn("Audit batch of {} failed (attempt {} of {}), retrying in {} ms",
+                        batch.size(), attempt, maxAttempts, backoffMs, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+                backoffMs *= 2;
+            }
+        }
+    }
+
+    private void insert(List<AuditEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+            if (event.userId != null) ps.setLong(1, event.userId); else ps.setNull(1, Types.BIGINT);
+            ps.setString(2, event.action);
+            ps.setTimestamp(3, Timestamp.valueOf(event.timestamp));
+            ps.setString(4, event.entityType);
+            if (event.entityId != null) ps.setLong(5, event.entityId); else ps.setNull(5, Types.BIGINT);
+            ps.setString(6, event.details);
+        });
+    }
+}
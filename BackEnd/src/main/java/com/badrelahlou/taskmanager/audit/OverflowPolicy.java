@@ -0,0 +1,11 @@
+package com.badrelahlou.taskmanager.audit;
+
+// What AuditBuffer does with a new event once it already holds audit.buffer.capacity events
+public enum OverflowPolicy {
+    /** Discard the incoming event. */
+    DROP_NEWEST,
+    /** Discard the oldest queued event to make room. */
+    DROP_OLDEST,
+    /** Flush on the calling thread before enqueueing; nothing is lost but the writer pays the insert. */
+    CALLER_FLUSHES
+}
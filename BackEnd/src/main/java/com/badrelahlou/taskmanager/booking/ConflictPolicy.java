@@ -0,0 +1,9 @@
+package com.badrelahlou.taskmanager.booking;
+
+// What assigning a resource does when the task's window overlaps an existing booking
+public enum ConflictPolicy {
+    /** Refuse the whole assignment. */
+    REJECT,
+    /** Book anyway and report the overlapping bookings. */
+    FLAG
+}
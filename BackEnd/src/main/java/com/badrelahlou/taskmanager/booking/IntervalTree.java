@@ -0,0 +1,165 @@
+package com.badrelahlou.taskmanager.booking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Half-open [start, end) bookings of one resource, one per task. The tree is a treap ordered
+ * by (start, taskId), and each node also stores the largest end in its subtree. Insert and
+ * remove take expected O(log n). An overlap query takes O(log n + k) because it skips any
+ * subtree whose max end is before the query, and any right subtree that starts after it.
+ * Times are opaque longs; callers use epoch seconds. All methods synchronize on the tree.
+ */
+public final class IntervalTree {
+
+    public static final class Booking {
+        public final long taskId;
+        public final long start;
+        public final long end;
+
+        Booking(long taskId, long start, long end) {
+            this.taskId = taskId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final long taskId;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(long taskId, long start, long end) {
+            this.taskId = taskId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private final Map<Long, long[]> byTask = new HashMap<>();
+
+    public synchronized int size() {
+        return byTask.size();
+    }
+
+    public synchronized boolean contains(long taskId) {
+        return byTask.containsKey(taskId);
+    }
+
+    public synchronized Booking get(long taskId) {
+        long[] existing = byTask.get(taskId);
+        return existing == null ? null : new Booking(taskId, existing[0], existing[1]);
+    }
+
+    public synchronized void put(long taskId, long start, long end) {
+        remove(taskId);
+        root = insert(root, new Node(taskId, start, end));
+        byTask.put(taskId, new long[] { start, end });
+    }
+
+    public synchronized boolean remove(long taskId) {
+        long[] existing = byTask.remove(taskId);
+        if (existing == null) return false;
+        root = delete(root, existing[0], taskId);
+        return true;
+    }
+
+    /**
+     * Inserts the booking only if it overlaps nothing except the task's own current booking.
+     * Otherwise it returns the conflicts and leaves the tree unchanged. The check and insert
+     * are one atomic step.
+     */
+    public synchronized List<Booking> putIfFree(long taskId, long start, long end) {
+        List<Booking> conflicts = overlapping(start, end, taskId, Integer.MAX_VALUE);
+        if (conflicts.isEmpty()) put(taskId, start, end);
+        return conflicts;
+    }
+
+    public synchronized List<Booking> overlapping(long start, long end, long excludeTaskId, int limit) {
+        List<Booking> result = new ArrayList<>();
+        collect(root, start, end, excludeTaskId, limit, result);
+        return result;
+    }
+
+    private static void collect(Node node, long start, long end, long exclude, int limit, List<Booking> out) {
+        if (node == null || node.maxEnd <= start || out.size() >= limit) return;
+        collect(node.left, start, end, exclude, limit, out);
+        if (node.start >= end || out.size() >= limit) return;
+        if (node.end > start && node.taskId != exclude) out.add(new Booking(node.taskId, node.start, node.end));
+        collect(node.right, start, end, exclude, limit, out);
+    }
+
+    private static int compare(long start, long taskId, Node node) {
+        int c = Long.compare(start, node.start);
+        return c != 0 ? c : Long.compare(taskId, node.taskId);
+    }
+
+    private static Node insert(Node node, Node fresh) {
+        if (node == null) return fresh;
+        if (compare(fresh.start, fresh.taskId, node) < 0) {
+            node.left = insert(node.left, fresh);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, fresh);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, long start, long taskId) {
+        if (node == null) return null;
+        int c = compare(start, taskId, node);
+        if (c < 0) {
+            node.left = delete(node.left, start, taskId);
+        } else if (c > 0) {
+            node.right = delete(node.right, start, taskId);
+        } else {
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = delete(node.right, start, taskId);
+            } else {
+                node = rotateLeft(node);
+                node.left = delete(node.left, start, taskId);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        long max = node.end;
+        if (node.left != null && node.left.maxEnd > max) max = node.left.maxEnd;
+        if (node.right != null && node.right.maxEnd > max) max = node.right.maxEnd;
+        node.maxEnd = max;
+    }
+}
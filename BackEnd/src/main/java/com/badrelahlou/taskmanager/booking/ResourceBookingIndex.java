@@ -0,0 +1,334 @@
+package com.badrelahlou.taskmanager.booking;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.cache.RemoteChangeListener;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps one IntervalTree of bookings per resource, built from task_resources and the tasks'
+ * start and end times. Services update it as they assign resources and announce the changed
+ * tasks through the near cache manager; the other instances re-read those tasks' bookings, or
+ * rebuild if announcements were lost. A periodic rebuild fixes any remaining drift. Tasks
+ * whose window is missing or empty hold no booking. Times are stored as UTC epoch seconds of
+ * the task's LocalDateTime.
+ */
+@Component
+public class ResourceBookingIndex {
+    private static final Logger log = LoggerFactory.getLogger(ResourceBookingIndex.class);
+
+    // Near cache topic carrying the ids of tasks whose bookings changed
+    public static final String CHANGES_TOPIC = "taskBookings";
+
+    private static final String LOAD_SQL =
+            "select tr.resource_id, t.id, t.start_time, t.end_time from task_resources tr "
+            + "join tasks t on t.id = tr.task_id "
+            + "where t.start_time is not null and t.end_time is not null and t.end_time > t.start_time";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NearCacheManager cacheManager;
+
+    private volatile Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // Writers share the read lock; a rebuild takes the write lock only to swap in the new trees
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // One rebuild at a time; a lock rather than a monitor, so a virtual thread loading rows does not pin its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Tasks changed while a rebuild was loading. Their state is copied over instead of the possibly older loaded rows.
+    private volatile Set<Long> touchedDuringRebuild;
+
+    @PostConstruct
+    void subscribe() {
+        cacheManager.onRemoteChange(CHANGES_TOPIC, new RemoteChangeListener() {
+            @Override
+            public void changed(Set<Object> keys) {
+                List<Long> taskIds = new ArrayList<>(keys.size());
+                for (Object key : keys) taskIds.add(((Number) key).longValue());
+                reload(taskIds);
+            }
+
+            @Override
+            public void missed() {
+                rebuild();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${resources.booking.rebuild-interval-ms:600000}",
+               fixedDelayString = "${resources.booking.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            swapLock.writeLock().lock();
+            try {
+                touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            Map<Long, IntervalTree> fresh = new ConcurrentHashMap<>();
+            int[] rows = new int[1];
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                fresh.computeIfAbsent(rs.getLong(1), id -> new IntervalTree())
+                        .put(rs.getLong(2), toEpoch(rs.getTimestamp(3).toLocalDateTime()), toEpoch(rs.getTimestamp(4).toLocalDateTime()));
+                rows[0]++;
+            });
+            swapLock.writeLock().lock();
+            try {
+                Map<Long, IntervalTree> previous = trees;
+                for (Long taskId : touchedDuringRebuild) {
+                    fresh.values().forEach(tree -> tree.remove(taskId));
+                    previous.forEach((resourceId, tree) -> {
+                        IntervalTree.Booking booking = tree.get(taskId);
+                        if (booking != null) {
+                            fresh.computeIfAbsent(resourceId, id -> new IntervalTree()).put(taskId, booking.start, booking.end);
+                        }
+                    });
+                }
+                trees = fresh;
+                touchedDuringRebuild = null;
+                loaded = true;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            log.debug("Loaded {} bookings for {} resources in {} ms", rows[0], fresh.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Re-reads the bookings of these tasks; ids no longer found hold none. */
+    public void reload(List<Long> taskIds) {
+        for (int i = 0; i < taskIds.size(); i += 1000) {
+            List<Long> batch = taskIds.subList(i, Math.min(taskIds.size(), i + 1000));
+            List<long[]> rows = new ArrayList<>();
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            jdbcTemplate.query(LOAD_SQL + " and t.id in (" + placeholders + ")", rs -> {
+                rows.add(new long[] { rs.getLong(1), rs.getLong(2),
+                        toEpoch(rs.getTimestamp(3).toLocalDateTime()), toEpoch(rs.getTimestamp(4).toLocalDateTime()) });
+            }, batch.toArray());
+            swapLock.readLock().lock();
+            try {
+                for (Long taskId : batch) {
+                    touch(taskId);
+                    trees.values().forEach(tree -> tree.remove(taskId));
+                }
+                rows.forEach(row -> trees.computeIfAbsent(row[0], id -> new IntervalTree()).put(row[1], row[2], row[3]));
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Replaces the bookings of other tasks that overlap [start, end) on these resources with
+     * the committed rows. For callers holding the resources' row locks: the check that follows
+     * then sees what another instance booked, even before its announcement arrives.
+     */
+    public void refresh(Collection<Long> resourceIds, LocalDateTime start, LocalDateTime end, long taskId) {
+        if (resourceIds.isEmpty() || !isBookable(start, end)) return;
+        long from = toEpoch(start);
+        long to = toEpoch(end);
+        List<Long> ids = new ArrayList<>(resourceIds);
+        Map<Long, List<IntervalTree.Booking>> committed = new LinkedHashMap<>();
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids);
+        args.add(end);
+        args.add(start);
+        args.add(taskId);
+        jdbcTemplate.query(LOAD_SQL + " and tr.resource_id in (" + placeholders + ") and t.start_time < ? and t.end_time > ?"
+                + " and t.id <> ?", rs -> {
+            committed.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(new IntervalTree.Booking(rs.getLong(2),
+                    toEpoch(rs.getTimestamp(3).toLocalDateTime()), toEpoch(rs.getTimestamp(4).toLocalDateTime())));
+        }, args.toArray());
+        swapLock.readLock().lock();
+        try {
+            for (Long resourceId : ids) {
+                IntervalTree tree = trees.computeIfAbsent(resourceId, id -> new IntervalTree());
+                List<IntervalTree.Booking> rows = committed.getOrDefault(resourceId, List.of());
+                Set<Long> kept = new HashSet<>();
+                rows.forEach(booking -> kept.add(booking.taskId));
+                for (IntervalTree.Booking booking : tree.overlapping(from, to, taskId, Integer.MAX_VALUE)) {
+                    if (!kept.contains(booking.taskId)) {
+                        touch(booking.taskId);
+                        tree.remove(booking.taskId);
+                    }
+                }
+                rows.forEach(booking -> {
+                    touch(booking.taskId);
+                    tree.put(booking.taskId, booking.start, booking.end);
+                });
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /** Tells the other instances to re-read the bookings of these committed tasks. */
+    public void announce(Collection<Long> taskIds) {
+        cacheManager.announce(CHANGES_TOPIC, taskIds);
+    }
+
+    /**
+     * Books the task on each resource for [start, end) and returns the overlapping bookings of
+     * other tasks, grouped by resource. Each check and insert is atomic per resource. With
+     * REJECT, any conflict undoes the resources already booked in this call, so nothing is
+     * booked. With FLAG, every resource is booked and the conflicts are only reported. A
+     * missing or empty window releases the task's bookings on the resources instead.
+     */
+    public Map<Long, List<IntervalTree.Booking>> book(long taskId, Collection<Long> resourceIds,
+                                                      LocalDateTime start, LocalDateTime end, ConflictPolicy policy) {
+        Map<Long, List<IntervalTree.Booking>> conflicts = new LinkedHashMap<>();
+        if (!isBookable(start, end)) {
+            release(taskId, resourceIds);
+            return conflicts;
+        }
+        long from = toEpoch(start);
+        long to = toEpoch(end);
+        swapLock.readLock().lock();
+        try {
+            touch(taskId);
+            Map<Long, IntervalTree.Booking> undo = new LinkedHashMap<>();
+            for (Long resourceId : resourceIds) {
+                IntervalTree tree = trees.computeIfAbsent(resourceId, id -> new IntervalTree());
+                IntervalTree.Booking before = tree.get(taskId);
+                List<IntervalTree.Booking> overlapping = tree.putIfFree(taskId, from, to);
+                if (overlapping.isEmpty()) {
+                    undo.put(resourceId, before);
+                    continue;
+                }
+                conflicts.put(resourceId, overlapping);
+                if (policy == ConflictPolicy.FLAG) tree.put(taskId, from, to);
+            }
+            if (policy == ConflictPolicy.REJECT && !conflicts.isEmpty()) {
+                undo.forEach((resourceId, before) -> restore(trees.get(resourceId), taskId, before));
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        return conflicts;
+    }
+
+    /** Sets the task's bookings on the given resources without checking for conflicts. */
+    public void put(long taskId, Collection<Long> resourceIds, LocalDateTime start, LocalDateTime end) {
+        swapLock.readLock().lock();
+        try {
+            touch(taskId);
+            for (Long resourceId : resourceIds) {
+                if (isBookable(start, end)) {
+                    trees.computeIfAbsent(resourceId, id -> new IntervalTree()).put(taskId, toEpoch(start), toEpoch(end));
+                } else {
+                    release(resourceId, taskId);
+                }
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /** The task's current booking on each of the resources, null where it holds none. */
+    public Map<Long, IntervalTree.Booking> snapshot(long taskId, Collection<Long> resourceIds) {
+        Map<Long, IntervalTree.Booking> snapshot = new LinkedHashMap<>();
+        for (Long resourceId : resourceIds) {
+            IntervalTree tree = trees.get(resourceId);
+            snapshot.put(resourceId, tree == null ? null : tree.get(taskId));
+        }
+        return snapshot;
+    }
+
+    /** Puts the task's bookings back to a snapshot, for example after a rolled-back assignment. */
+    public void restore(long taskId, Map<Long, IntervalTree.Booking> snapshot) {
+        swapLock.readLock().lock();
+        try {
+            touch(taskId);
+            snapshot.forEach((resourceId, before) -> {
+                if (before != null) {
+                    trees.computeIfAbsent(resourceId, id -> new IntervalTree()).put(taskId, before.start, before.end);
+                } else {
+                    release(resourceId, taskId);
+                }
+            });
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public void release(long taskId, Collection<Long> resourceIds) {
+        swapLock.readLock().lock();
+        try {
+            touch(taskId);
+            resourceIds.forEach(resourceId -> release(resourceId, taskId));
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /** Bookings on the resource that overlap [from, to), in start order. */
+    public List<IntervalTree.Booking> bookings(long resourceId, LocalDateTime from, LocalDateTime to) {
+        IntervalTree tree = trees.get(resourceId);
+        if (tree == null) return List.of();
+        return tree.overlapping(toEpoch(from), toEpoch(to), Long.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public static boolean isBookable(LocalDateTime start, LocalDateTime end) {
+        return start != null && end != null && end.isAfter(start);
+    }
+
+    public static long toEpoch(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime fromEpoch(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    private void release(Long resourceId, long taskId) {
+        IntervalTree tree = trees.get(resourceId);
+        if (tree != null) tree.remove(taskId);
+    }
+
+    private void touch(long taskId) {
+        Set<Long> touched = touchedDuringRebuild;
+        if (touched != null) touched.add(taskId);
+    }
+
+    private static void restore(IntervalTree tree, long taskId, IntervalTree.Booking before) {
+        if (before == null) {
+            tree.remove(taskId);
+        } else {
+            tree.put(taskId, before.start, before.end);
+        }
+    }
+}
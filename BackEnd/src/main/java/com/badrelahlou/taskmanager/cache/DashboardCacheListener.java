@@ -0,0 +1,85 @@
+package com.badrelahlou.taskmanager.cache;
+
+import java.util.Set;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.model.User;
+
+/**
+ * Evicts the cached dashboard of a task's old and new assignee when a committed change moves
+ * the counts it shows, on this instance and, through the near cache, on the others.
+ */
+public class DashboardCacheListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    public static final String CACHE = "userDashboard";
+
+    private static final Set<String> COUNTED_PROPERTIES = Set.of("status", "assignedUser");
+
+    private final NearCacheManager cacheManager;
+
+    public DashboardCacheListener(NearCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Task) evict(assignee(event.getPersister(), event.getState()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Task)) return;
+        EntityPersister persister = event.getPersister();
+        int[] dirty = event.getDirtyProperties();
+        if (dirty != null) {
+            String[] names = persister.getPropertyNames();
+            boolean counted = false;
+            for (int index : dirty) counted |= COUNTED_PROPERTIES.contains(names[index]);
+            if (!counted) return;
+        }
+        evict(assignee(persister, event.getState()));
+        if (event.getOldState() != null) evict(assignee(persister, event.getOldState()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Task) {
+            evict(assignee(event.getPersister(), event.getDeletedState()));
+        } else if (event.getEntity() instanceof User) {
+            evict((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Task.class || type == User.class;
+    }
+
+    private void evict(Long userId) {
+        if (userId != null) cacheManager.getCache(CACHE).evict(userId);
+    }
+
+    private static Long assignee(EntityPersister persister, Object[] state) {
+        if (state == null) return null;
+        Object user = state[persister.getPropertyIndex("assignedUser")];
+        return user instanceof User u ? u.getId() : null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.badrelahlou.taskmanager.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Stands in for the fanout exchange inside one JVM: each published batch is delivered to every
+ * connected transport, in publish order, on the publishing thread. Used by single-instance
+ * deployments and by tests that run several NearCacheManagers side by side.
+ */
+public class InProcessInvalidationBroker {
+    private final List<Consumer<InvalidationBatch>> receivers = new CopyOnWriteArrayList<>();
+    private final AtomicLong published = new AtomicLong();
+
+    public InvalidationTransport connect() {
+        return new InvalidationTransport() {
+            @Override
+            public void publish(InvalidationBatch batch) {
+                published.incrementAndGet();
+                receivers.forEach(receiver -> receiver.accept(batch));
+            }
+
+            @Override
+            public void subscribe(Consumer<InvalidationBatch> receiver) {
+                receivers.add(receiver);
+            }
+        };
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+}
@@ -0,0 +1,33 @@
+package com.badrelahlou.taskmanager.cache;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evictions one instance made during a flush interval. The sequence counts the origin's batches
+ * from 1, so a receiver can tell when one went missing. Keys travel with Java serialization and
+ * must be serializable, which the Long ids the caches use are.
+ */
+public class InvalidationBatch implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String origin;
+    private final long sequence;
+    private final HashMap<String, HashSet<Object>> keys;
+    private final HashSet<String> cleared;
+
+    public InvalidationBatch(String origin, long sequence, HashMap<String, HashSet<Object>> keys, HashSet<String> cleared) {
+        this.origin = origin;
+        this.sequence = sequence;
+        this.keys = keys;
+        this.cleared = cleared;
+    }
+
+    public String getOrigin() { return origin; }
+    public long getSequence() { return sequence; }
+    public Map<String, HashSet<Object>> getKeys() { return keys; }
+    public Set<String> getCleared() { return cleared; }
+}
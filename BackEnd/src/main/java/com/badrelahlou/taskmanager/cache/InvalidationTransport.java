@@ -0,0 +1,10 @@
+package com.badrelahlou.taskmanager.cache;
+
+import java.util.function.Consumer;
+
+// Carries invalidation batches to every instance, the publishing one included
+public interface InvalidationTransport {
+    void publish(InvalidationBatch batch);
+
+    void subscribe(Consumer<InvalidationBatch> receiver);
+}
@@ -0,0 +1,115 @@
+package com.badrelahlou.taskmanager.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * A local Caffeine cache whose evictions NearCacheManager broadcasts to the other instances.
+ * Puts stay local: each instance loads its own copy. Every eviction and clear, local or
+ * received, first bumps a version for the stripes it covers, and a load keeps its result only
+ * if its stripe's version did not move while it ran. An eviction of the key being loaded waits
+ * for the load anyway, but a clear, or the non-sync get-then-put path, does not; the version
+ * check keeps a value read before the write from landing after its invalidation.
+ */
+public class NearCache extends AbstractValueAdaptingCache {
+    private static final int STRIPES = 64;
+
+    private final String name;
+    private final Cache<Object, Object> store;
+    private final NearCacheManager manager;
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    NearCache(String name, Cache<Object, Object> store, NearCacheManager manager) {
+        super(true);
+        this.name = name;
+        this.store = store;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Cache<Object, Object> getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return store.getIfPresent(key);
+    }
+
+    /** Concurrent callers for one key wait for a single load. */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object[] loaded = new Object[1];
+        Object stored = store.get(key, k -> {
+            long version = versions.get(stripe(k));
+            try {
+                loaded[0] = toStoreValue(valueLoader.call());
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+            return versions.get(stripe(k)) == version ? loaded[0] : null;
+        });
+        return (T) fromStoreValue(stored != null ? stored : loaded[0]);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store.put(key, toStoreValue(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return toValueWrapper(store.asMap().putIfAbsent(key, toStoreValue(value)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictLocally(key);
+        manager.evicted(name, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = store.getIfPresent(key) != null;
+        evict(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        clearLocally();
+        manager.cleared(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = store.estimatedSize() > 0;
+        clear();
+        return notEmpty;
+    }
+
+    void evictLocally(Object key) {
+        versions.incrementAndGet(stripe(key));
+        store.invalidate(key);
+    }
+
+    void clearLocally() {
+        for (int i = 0; i < STRIPES; i++) versions.incrementAndGet(i);
+        store.invalidateAll();
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
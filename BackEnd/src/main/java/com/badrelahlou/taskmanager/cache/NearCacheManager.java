@@ -0,0 +1,233 @@
+package com.badrelahlou.taskmanager.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Spring CacheManager of NearCaches. Evictions are collected and flushed as one
+ * InvalidationBatch every flush interval, or as soon as maxBatch keys are pending, so a burst of
+ * writes costs a handful of messages. Received batches are applied to the local caches unless
+ * this instance sent them. Batches from one origin arrive in order over its queue, so a gap in
+ * an origin's sequence means batches were lost, for instance while this instance's queue was
+ * being re-created after a broker outage; every cache is cleared then, as any key may be stale.
+ *
+ * Batches also carry topics: keys announced for state kept outside the caches, such as the
+ * task rows of TaskColumnStore. A receiver hands them to the topic's RemoteChangeListener before
+ * it evicts, so a value recomputed after the eviction reads the updated state. Topic names must
+ * not be cache names.
+ */
+public class NearCacheManager implements CacheManager, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(NearCacheManager.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationTransport transport;
+    private final MeterRegistry meterRegistry;
+    private final String spec;
+    private final int maxBatch;
+    private final Map<String, NearCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, RemoteChangeListener> changeListeners = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastSequence = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    // Held across a publish so batches leave in sequence order
+    private final Object publishLock = new Object();
+    private final Counter sentBatches;
+    private final Counter receivedBatches;
+    private final Counter missedBatches;
+    private final Counter failedBatches;
+
+    // Guarded by this; swapped out whole on each flush
+    private HashMap<String, HashSet<Object>> pendingKeys = new HashMap<>();
+    private HashSet<String> pendingClears = new HashSet<>();
+    private int pendingCount;
+    private long sequence;
+
+    public NearCacheManager(InvalidationTransport transport, MeterRegistry meterRegistry, String spec,
+                            List<String> cacheNames, long flushIntervalMs, int maxBatch) {
+        this.transport = transport;
+        this.meterRegistry = meterRegistry;
+        this.spec = spec;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.sentBatches = Counter.builder("cache.invalidation.batches").tag("outcome", "sent").register(meterRegistry);
+        this.receivedBatches = Counter.builder("cache.invalidation.batches").tag("outcome", "received").register(meterRegistry);
+        this.missedBatches = Counter.builder("cache.invalidation.batches").tag("outcome", "missed").register(meterRegistry);
+        this.failedBatches = Counter.builder("cache.invalidation.batches").tag("outcome", "failed").register(meterRegistry);
+        cacheNames.forEach(this::getCache);
+        transport.subscribe(this::receive);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "near-cache-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** The named cache, created from the default spec on first use. */
+    @Override
+    public NearCache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> build(n, Caffeine.from(spec)));
+    }
+
+    /** For components that size their own cache; the name must not be in use yet. */
+    public NearCache createCache(String name, Caffeine<Object, Object> builder) {
+        NearCache cache = build(name, builder);
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalStateException("Cache already exists: " + name);
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return List.copyOf(caches.keySet());
+    }
+
+    /** For writes whose transaction may still roll back: evicts once it commits. */
+    public void evictAfterCommit(String cacheName, Collection<?> keys) {
+        if (keys.isEmpty()) return;
+        NearCache cache = getCache(cacheName);
+        List<?> pending = List.copyOf(keys);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.forEach(cache::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pending.forEach(cache::evict);
+            }
+        });
+    }
+
+    /**
+     * Tells the other instances these keys of a topic changed. Announced before the evictions
+     * that depend on them, they travel in the same batch or an earlier one.
+     */
+    public void announce(String topic, Collection<?> keys) {
+        keys.forEach(key -> evicted(topic, key));
+    }
+
+    public void onRemoteChange(String topic, RemoteChangeListener listener) {
+        if (caches.containsKey(topic) || changeListeners.putIfAbsent(topic, listener) != null) {
+            throw new IllegalStateException("Topic already in use: " + topic);
+        }
+    }
+
+    void evicted(String cacheName, Object key) {
+        boolean full;
+        synchronized (this) {
+            if (pendingKeys.computeIfAbsent(cacheName, n -> new HashSet<>()).add(key)) pendingCount++;
+            full = pendingCount >= maxBatch;
+        }
+        if (full) flusher.execute(this::flush);
+    }
+
+    void cleared(String cacheName) {
+        synchronized (this) {
+            pendingClears.add(cacheName);
+            // Keys pending for a cleared cache are covered by the clear
+            HashSet<Object> covered = pendingKeys.remove(cacheName);
+            if (covered != null) pendingCount -= covered.size();
+        }
+    }
+
+    /** Publishes the evictions collected since the last flush, if any. */
+    public void flush() {
+        synchronized (publishLock) {
+            InvalidationBatch batch;
+            synchronized (this) {
+                if (pendingKeys.isEmpty() && pendingClears.isEmpty()) return;
+                batch = new InvalidationBatch(nodeId, ++sequence, pendingKeys, pendingClears);
+                pendingKeys = new HashMap<>();
+                pendingClears = new HashSet<>();
+                pendingCount = 0;
+            }
+            try {
+                transport.publish(batch);
+                sentBatches.increment();
+            } catch (RuntimeException e) {
+                // Other instances see the gap in our sequence on the next batch and clear their caches
+                failedBatches.increment();
+                log.warn("Could not publish cache invalidations: {}", e.getMessage());
+            }
+        }
+    }
+
+    void receive(InvalidationBatch batch) {
+        if (nodeId.equals(batch.getOrigin())) return;
+        receivedBatches.increment();
+        Long previous = lastSequence.get(batch.getOrigin());
+        // A redelivered batch: its evictions are applied again, which is harmless
+        if (previous != null && batch.getSequence() <= previous) {
+            apply(batch);
+            return;
+        }
+        lastSequence.put(batch.getOrigin(), batch.getSequence());
+        if (previous != null && batch.getSequence() > previous + 1) {
+            missedBatches.increment(Math.max(1, batch.getSequence() - previous - 1));
+            log.warn("Missed cache invalidations from {} (batch {} after {}); clearing all caches",
+                    batch.getOrigin(), batch.getSequence(), previous);
+            changeListeners.forEach((topic, listener) -> notify(topic, () -> listener.missed()));
+            caches.values().forEach(NearCache::clearLocally);
+            return;
+        }
+        apply(batch);
+    }
+
+    private void apply(InvalidationBatch batch) {
+        batch.getKeys().forEach((name, keys) -> {
+            RemoteChangeListener listener = changeListeners.get(name);
+            if (listener != null) notify(name, () -> listener.changed(keys));
+        });
+        batch.getCleared().forEach(name -> {
+            NearCache cache = caches.get(name);
+            if (cache != null) cache.clearLocally();
+        });
+        batch.getKeys().forEach((name, keys) -> {
+            NearCache cache = caches.get(name);
+            if (cache != null) keys.forEach(cache::evictLocally);
+        });
+    }
+
+    // A failing listener must not keep the batch's evictions from being applied
+    private static void notify(String topic, Runnable call) {
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            log.warn("Change listener for {} failed: {}", topic, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+        flush();
+    }
+
+    private NearCache build(String name, Caffeine<Object, Object> builder) {
+        NearCache cache = new NearCache(name, builder.build(), this);
+        // Same tag keys as the caches Boot binds, otherwise Prometheus rejects one of the two meter families
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), name, "cache.manager", "cacheManager", "name", name);
+        return cache;
+    }
+}
@@ -0,0 +1,43 @@
+package com.badrelahlou.taskmanager.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+/**
+ * Publishes batches to a fanout exchange and receives them from this instance's own queue, bound
+ * to it by CacheConfig. Conversion is done here rather than by the template, so only the batch
+ * classes are ever deserialized from the wire.
+ */
+public class RabbitInvalidationTransport implements InvalidationTransport, MessageListener {
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+    private final SimpleMessageConverter converter = new SimpleMessageConverter();
+    private volatile Consumer<InvalidationBatch> receiver = batch -> {};
+
+    public RabbitInvalidationTransport(RabbitTemplate rabbitTemplate, String exchange) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = exchange;
+        converter.setAllowedListPatterns(List.of(InvalidationBatch.class.getName(), "java.util.*", "java.lang.*"));
+    }
+
+    @Override
+    public void publish(InvalidationBatch batch) {
+        rabbitTemplate.send(exchange, "", converter.toMessage(batch, new MessageProperties()));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationBatch> receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        if (converter.fromMessage(message) instanceof InvalidationBatch batch) receiver.accept(batch);
+    }
+}
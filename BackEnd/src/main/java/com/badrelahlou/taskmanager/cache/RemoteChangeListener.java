@@ -0,0 +1,15 @@
+package com.badrelahlou.taskmanager.cache;
+
+import java.util.Set;
+
+/**
+ * Receives the keys other instances announced on one NearCacheManager topic, for local state
+ * that is not a cache but must follow their writes. Called on the delivering thread, before
+ * the cache evictions of the same batch are applied.
+ */
+public interface RemoteChangeListener {
+    void changed(Set<Object> keys);
+
+    /** Announcements were lost; any key may have changed. */
+    void missed();
+}
@@ -0,0 +1,192 @@
+package com.badrelahlou.taskmanager.calendar;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpBackOffIOExceptionHandler;
+import com.google.api.client.http.HttpBackOffUnsuccessfulResponseHandler;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.ExponentialBackOff;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.Events;
+
+/**
+ * Thin wrapper over the Calendar v3 client. Pushes go out as batch requests of at most
+ * batchSize operations. Pulls use incremental sync tokens.
+ *
+ * Every HTTP call, including each batch and its parts, retries 429 and 5xx responses and
+ * I/O errors with exponential backoff. Operations that still fail are reported back as
+ * retryable so the caller can requeue them. rootUrl is configurable so tests can point the
+ * client at a local stand-in.
+ */
+public class CalendarGateway {
+    public static final String TASK_ID_PROPERTY = "chronosTaskId";
+
+    private static final HttpTransport TRANSPORT = new NetHttpTransport();
+    private static final JsonFactory JSON = GsonFactory.getDefaultInstance();
+
+    private final String rootUrl;
+    private final String applicationName;
+    private final int batchSize;
+    private final int initialBackoffMillis;
+    private final int maxBackoffElapsedMillis;
+
+    public CalendarGateway(String rootUrl, String applicationName, int batchSize,
+                           int initialBackoffMillis, int maxBackoffElapsedMillis) {
+        this.rootUrl = rootUrl.endsWith("/") ? rootUrl : rootUrl + "/";
+        this.applicationName = applicationName;
+        this.batchSize = batchSize;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffElapsedMillis = maxBackoffElapsedMillis;
+    }
+
+    /** One operation for a task: insert when eventId is null, delete when event is null, patch otherwise. */
+    public static final class Change {
+        public final long taskId;
+        public final String eventId;
+        public final Event event;
+
+        public Change(long taskId, String eventId, Event event) {
+            this.taskId = taskId;
+            this.eventId = eventId;
+            this.event = event;
+        }
+
+        boolean isDelete() {
+            return event == null;
+        }
+    }
+
+    public static final class Result {
+        public final Change change;
+        public final boolean ok;
+        public final boolean retryable;
+        public final int status;
+        public final String eventId;
+        public final String etag;
+        public final String error;
+
+        Result(Change change, boolean ok, boolean retryable, int status, String eventId, String etag, String error) {
+            this.change = change;
+            this.ok = ok;
+            this.retryable = retryable;
+            this.status = status;
+            this.eventId = eventId;
+            this.etag = etag;
+            this.error = error;
+        }
+    }
+
+    public static final class ChangeSet {
+        public final List<Event> events;
+        public final String nextSyncToken;
+        // The sync token was rejected (410 Gone); the caller has to drop it and pull everything again
+        public final boolean tokenExpired;
+
+        ChangeSet(List<Event> events, String nextSyncToken, boolean tokenExpired) {
+            this.events = events;
+            this.nextSyncToken = nextSyncToken;
+            this.tokenExpired = tokenExpired;
+        }
+    }
+
+    public List<Result> push(String accessToken, String calendarId, List<Change> changes) throws IOException {
+        HttpRequestInitializer initializer = initializer(accessToken);
+        Calendar client = client(initializer);
+        List<Result> results = new ArrayList<>(changes.size());
+        for (int from = 0; from < changes.size(); from += batchSize) {
+            BatchRequest batch = client.batch(initializer);
+            for (Change change : changes.subList(from, Math.min(changes.size(), from + batchSize))) {
+                if (change.isDelete()) {
+                    client.events().delete(calendarId, change.eventId).queue(batch, callback(change, results));
+                } else if (change.eventId == null) {
+                    client.events().insert(calendarId, change.event).queue(batch, callback(change, results));
+                } else {
+                    client.events().patch(calendarId, change.eventId, change.event).queue(batch, callback(change, results));
+                }
+            }
+            batch.execute();
+        }
+        return results;
+    }
+
+    /** Changes since syncToken, or every event when it is null, following all pages. */
+    public ChangeSet pull(String accessToken, String calendarId, String syncToken) throws IOException {
+        Calendar client = client(initializer(accessToken));
+        List<Event> events = new ArrayList<>();
+        String pageToken = null;
+        Events page;
+        try {
+            do {
+                Calendar.Events.List list = client.events().list(calendarId).setMaxResults(250).setPageToken(pageToken);
+                if (syncToken != null) {
+                    list.setSyncToken(syncToken).setShowDeleted(true);
+                }
+                page = list.execute();
+                if (page.getItems() != null) events.addAll(page.getItems());
+                pageToken = page.getNextPageToken();
+            } while (pageToken != null);
+        } catch (GoogleJsonResponseException e) {
+            if (e.getStatusCode() == 410) return new ChangeSet(List.of(), null, true);
+            throw e;
+        }
+        return new ChangeSet(events, page.getNextSyncToken(), false);
+    }
+
+    private <T> JsonBatchCallback<T> callback(Change change, List<Result> results) {
+        return new JsonBatchCallback<T>() {
+            @Override
+            public void onSuccess(T response, HttpHeaders headers) {
+                Event event = response instanceof Event e ? e : null;
+                results.add(new Result(change, true, false, 200,
+                        event != null ? event.getId() : change.eventId, event != null ? event.getEtag() : null, null));
+            }
+
+            @Override
+            public void onFailure(GoogleJsonError error, HttpHeaders headers) {
+                int status = error.getCode();
+                boolean retryable = status == 429 || status >= 500 || (status == 403 && isRateLimit(error));
+                results.add(new Result(change, false, retryable, status, change.eventId, null, error.getMessage()));
+            }
+        };
+    }
+
+    private static boolean isRateLimit(GoogleJsonError error) {
+        return error.getErrors() != null && error.getErrors().stream()
+                .anyMatch(e -> "rateLimitExceeded".equals(e.getReason()) || "userRateLimitExceeded".equals(e.getReason()));
+    }
+
+    private Calendar client(HttpRequestInitializer initializer) {
+        return new Calendar.Builder(TRANSPORT, JSON, initializer)
+                .setApplicationName(applicationName)
+                .setRootUrl(rootUrl)
+                .build();
+    }
+
+    private HttpRequestInitializer initializer(String accessToken) {
+        return request -> {
+            request.getHeaders().setAuthorization("Bearer " + accessToken);
+            request.setUnsuccessfulResponseHandler(new HttpBackOffUnsuccessfulResponseHandler(backOff())
+                    .setBackOffRequired(response -> response.getStatusCode() == 429 || response.getStatusCode() / 100 == 5));
+            request.setIOExceptionHandler(new HttpBackOffIOExceptionHandler(backOff()));
+        };
+    }
+
+    private ExponentialBackOff backOff() {
+        return new ExponentialBackOff.Builder()
+                .setInitialIntervalMillis(initialBackoffMillis)
+                .setMaxElapsedTimeMillis(maxBackoffElapsedMillis)
+                .build();
+    }
+}
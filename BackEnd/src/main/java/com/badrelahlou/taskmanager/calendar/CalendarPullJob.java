@@ -0,0 +1,20 @@
+package com.badrelahlou.taskmanager.calendar;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import com.badrelahlou.taskmanager.service.CalendarSyncService;
+
+// Pulls remote edits from every connected calendar; the clustered job store fires it on one instance at a time
+@DisallowConcurrentExecution
+public class CalendarPullJob extends QuartzJobBean {
+    @Autowired
+    private CalendarSyncService calendarSyncService;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        calendarSyncService.pullAll();
+    }
+}
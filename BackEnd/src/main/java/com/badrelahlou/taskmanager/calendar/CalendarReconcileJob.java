@@ -0,0 +1,20 @@
+package com.badrelahlou.taskmanager.calendar;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import com.badrelahlou.taskmanager.service.CalendarSyncService;
+
+// Queues stale calendar copies on the instance the clustered job store picks, which then pushes them
+@DisallowConcurrentExecution
+public class CalendarReconcileJob extends QuartzJobBean {
+    @Autowired
+    private CalendarSyncService calendarSyncService;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        calendarSyncService.reconcile();
+    }
+}
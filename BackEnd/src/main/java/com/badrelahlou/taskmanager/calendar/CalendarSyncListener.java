@@ -0,0 +1,82 @@
+package com.badrelahlou.taskmanager.calendar;
+
+import java.util.Set;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.model.User;
+
+/**
+ * Queues committed Task changes for calendar push when the old or new assignee has a
+ * calendar connection. Updates only count when a field that appears on the event, or the
+ * assignee, changed, so timer ticks and status changes cause no calendar traffic.
+ */
+public class CalendarSyncListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    private static final Set<String> SYNCED_PROPERTIES = Set.of("title", "description", "startTime", "endTime", "assignedUser");
+
+    private final CalendarSyncQueue queue;
+
+    public CalendarSyncListener(CalendarSyncQueue queue) {
+        this.queue = queue;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Task && queue.isConnected(assignee(event.getPersister(), event.getState()))) {
+            queue.markDirty((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Task) || !queue.hasConnections()) return;
+        EntityPersister persister = event.getPersister();
+        int[] dirty = event.getDirtyProperties();
+        if (dirty != null) {
+            String[] names = persister.getPropertyNames();
+            boolean synced = false;
+            for (int index : dirty) synced |= SYNCED_PROPERTIES.contains(names[index]);
+            if (!synced) return;
+        }
+        Object[] old = event.getOldState();
+        if (queue.isConnected(assignee(persister, event.getState()))
+                || (old != null && queue.isConnected(assignee(persister, old)))) {
+            queue.markDirty((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Task && queue.isConnected(assignee(event.getPersister(), event.getDeletedState()))) {
+            queue.markDirty((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Task.class;
+    }
+
+    private static Long assignee(EntityPersister persister, Object[] state) {
+        if (state == null) return null;
+        Object user = state[persister.getPropertyIndex("assignedUser")];
+        return user instanceof User u ? u.getId() : null;
+    }
+}
@@ -0,0 +1,103 @@
+package com.badrelahlou.taskmanager.calendar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tasks whose calendar event has to be pushed, plus the set of users with a calendar
+ * connection. A task is queued once however often it changes before the next push, and
+ * the push reads its current state, so only the latest version goes out. Failed pushes are
+ * requeued with a per-task exponential delay. The queue is in memory; the periodic
+ * reconcile in CalendarSyncService finds anything lost on restart.
+ */
+@Component
+public class CalendarSyncQueue {
+    private static final class Entry {
+        final int attempts;
+        final long notBefore;
+
+        Entry(int attempts, long notBefore) {
+            this.attempts = attempts;
+            this.notBefore = notBefore;
+        }
+    }
+
+    private final Map<Long, Entry> dirty = new ConcurrentHashMap<>();
+    private final Set<Long> connectedUsers = ConcurrentHashMap.newKeySet();
+
+    public void connect(Long userId) {
+        connectedUsers.add(userId);
+    }
+
+    public void disconnect(Long userId) {
+        connectedUsers.remove(userId);
+    }
+
+    public boolean isConnected(Long userId) {
+        return userId != null && connectedUsers.contains(userId);
+    }
+
+    public boolean hasConnections() {
+        return !connectedUsers.isEmpty();
+    }
+
+    /** A fresh change resets any pending backoff for the task. */
+    public void markDirty(Long taskId) {
+        dirty.put(taskId, new Entry(0, 0));
+    }
+
+    /** For writes made through JDBC: queues the tasks once the surrounding transaction commits. */
+    public void markDirtyAfterCommit(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(taskIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(this::markDirty);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(CalendarSyncQueue.this::markDirty);
+            }
+        });
+    }
+
+    public boolean contains(Long taskId) {
+        return dirty.containsKey(taskId);
+    }
+
+    public int size() {
+        return dirty.size();
+    }
+
+    /**
+     * Removes up to limit tasks that are due at now and returns them with their failed attempt
+     * counts. An entry replaced by a newer markDirty in the meantime stays queued.
+     */
+    public Map<Long, Integer> drain(int limit, long now) {
+        Map<Long, Integer> due = new LinkedHashMap<>();
+        for (Map.Entry<Long, Entry> e : dirty.entrySet()) {
+            if (due.size() >= limit) break;
+            Entry entry = e.getValue();
+            if (entry.notBefore <= now && dirty.remove(e.getKey(), entry)) {
+                due.put(e.getKey(), entry.attempts);
+            }
+        }
+        return due;
+    }
+
+    /** Requeues a failed task after initialDelayMillis * 2^attempts, capped at maxDelayMillis, unless it changed again meanwhile. */
+    public void retry(Long taskId, int attempts, long initialDelayMillis, long maxDelayMillis, long now) {
+        long delay = Math.min(maxDelayMillis, initialDelayMillis << Math.min(attempts, 30));
+        dirty.putIfAbsent(taskId, new Entry(attempts + 1, now + delay));
+    }
+}
@@ -0,0 +1,233 @@
+package com.badrelahlou.taskmanager.calendar;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Rendered iCalendar feeds, one per user, holding the tasks assigned to them. A feed is
+ * rendered on the first poll by streaming the user's rows straight into the output, and is
+ * then served from memory until IcsFeedListener, or a JDBC write path, invalidates it. The
+ * ETag is a digest of the bytes, so a re-render of unchanged tasks keeps the same ETag. The
+ * TTL only bounds staleness from writes made by other instances.
+ */
+@Component
+public class IcsFeedCache {
+    private static final String TASKS_SQL =
+            "select id, title, description, start_time, end_time, status, priority, created_at, updated_at "
+            + "from tasks where assigned_user_id = ? order by start_time, id";
+
+    private static final DateTimeFormatter UTC_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    /** Immutable rendered feed. lastModified is when it was rendered, in epoch millis truncated to seconds. */
+    public static final class Feed {
+        public final byte[] body;
+        public final String etag;
+        public final long lastModified;
+
+        Feed(byte[] body, String etag, long lastModified) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${calendar.feed.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${calendar.feed.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    // Task times are stored as local date-times in this zone, the same one the Google sync uses
+    @Value("${calendar.sync.time-zone:UTC}")
+    private String timeZone;
+
+    private Cache<Long, Feed> feeds;
+
+    @PostConstruct
+    void init() {
+        feeds = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long userId, Feed feed) -> feed.body.length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * The user's feed, rendered if absent. Concurrent polls for the same user wait for one
+     * render. An invalidation during a render waits for it and then removes the result, so a
+     * feed that started before a commit is never served after that commit's invalidation.
+     */
+    public Feed get(Long userId) {
+        return feeds.get(userId, this::render);
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) feeds.invalidate(userId);
+    }
+
+    /** For writes made through JDBC: drops the feeds once the surrounding transaction commits. */
+    public void invalidateAfterCommit(Collection<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(userIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(this::invalidate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(IcsFeedCache.this::invalidate);
+            }
+        });
+    }
+
+    private Feed render(Long userId) {
+        if (jdbcTemplate.queryForObject("select count(*) from users where id = ?", Long.class, userId) == 0) {
+            throw new RuntimeException("User not found with id: " + userId);
+        }
+        ZoneId zone = ZoneId.of(timeZone);
+        IcsWriter out = new IcsWriter();
+        out.line("BEGIN:VCALENDAR");
+        out.line("VERSION:2.0");
+        out.line("PRODID:-//Chronos Task Manager//Tasks//EN");
+        out.line("CALSCALE:GREGORIAN");
+        out.line("METHOD:PUBLISH");
+        out.property("X-WR-CALNAME", "Chronos tasks");
+        jdbcTemplate.query(TASKS_SQL, (RowCallbackHandler) rs -> writeEvent(out, rs, zone), userId);
+        out.line("END:VCALENDAR");
+        byte[] body = out.toByteArray();
+        return new Feed(body, digest(body), Instant.now().getEpochSecond() * 1000);
+    }
+
+    private static void writeEvent(IcsWriter out, ResultSet rs, ZoneId zone) throws SQLException {
+        long id = rs.getLong("id");
+        Timestamp start = rs.getTimestamp("start_time");
+        Timestamp end = rs.getTimestamp("end_time");
+        Timestamp updated = rs.getTimestamp("updated_at");
+        Timestamp created = rs.getTimestamp("created_at");
+        Timestamp stamp = updated != null ? updated : created != null ? created : start;
+        out.line("BEGIN:VEVENT");
+        out.line("UID:task-" + id + "@chronos");
+        if (stamp != null) out.line("DTSTAMP:" + utc(stamp, zone));
+        if (start != null) {
+            out.line("DTSTART:" + utc(start, zone));
+            // An event may not end before it starts; tasks with an inverted window become instants
+            out.line("DTEND:" + utc(end != null && end.after(start) ? end : start, zone));
+        }
+        out.property("SUMMARY", rs.getString("title"));
+        String description = rs.getString("description");
+        if (description != null && !description.isEmpty()) out.property("DESCRIPTION", description);
+        String status = rs.getString("status");
+        if (status != null) {
+            out.property("CATEGORIES", status);
+            out.line("STATUS:CONFIRMED");
+            if ("DONE".equals(status)) out.line("TRANSP:TRANSPARENT");
+        }
+        String priority = rs.getString("priority");
+        if (priority != null) out.line("PRIORITY:" + icsPriority(priority));
+        if (updated != null) out.line("LAST-MODIFIED:" + utc(updated, zone));
+        out.line("END:VEVENT");
+    }
+
+    // RFC 5545 priorities: 1 is highest, 5 normal, 9 lowest
+    private static int icsPriority(String priority) {
+        switch (priority) {
+            case "HIGH": return 1;
+            case "LOW": return 9;
+            default: return 5;
+        }
+    }
+
+    private static String utc(Timestamp timestamp, ZoneId zone) {
+        return UTC_STAMP.format(timestamp.toLocalDateTime().atZone(zone));
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Writes CRLF-terminated content lines, folded at 75 octets, with TEXT values escaped. */
+    static final class IcsWriter {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+
+        void property(String name, String text) {
+            line(name + ":" + escape(text != null ? text : ""));
+        }
+
+        void line(String content) {
+            byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+            int from = 0;
+            int limit = 75;
+            while (utf8.length - from > limit) {
+                int cut = from + limit;
+                // Never split a multi-byte character: back up to the start of the one at the cut
+                while ((utf8[cut] & 0xC0) == 0x80) cut--;
+                bytes.write(utf8, from, cut - from);
+                bytes.write('\r');
+                bytes.write('\n');
+                bytes.write(' ');
+                from = cut;
+                limit = 74;
+            }
+            bytes.write(utf8, from, utf8.length - from);
+            bytes.write('\r');
+            bytes.write('\n');
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+        static String escape(String text) {
+            StringBuilder sb = new StringBuilder(text.length() + 8);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\': sb.append("\\\\"); break;
+                    case ';': sb.append("\\;"); break;
+                    case ',': sb.append("\\,"); break;
+                    case '\n': sb.append("\\n"); break;
+                    default:
+                        // Other control characters are not allowed in content lines
+                        if (c >= 0x20 || c == '\t') sb.append(c);
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.badrelahlou.taskmanager.calendar;
+
+import java.util.Set;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.model.User;
+
+/**
+ * Drops the cached ICS feed of a task's old and new assignee when a committed change touches
+ * a field the feed renders. Deleting a user drops their own feed.
+ */
+public class IcsFeedListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    private static final Set<String> RENDERED_PROPERTIES = Set.of("title", "description", "startTime", "endTime",
+            "status", "priority", "assignedUser");
+
+    private final IcsFeedCache feeds;
+
+    public IcsFeedListener(IcsFeedCache feeds) {
+        this.feeds = feeds;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Task) {
+            feeds.invalidate(assignee(event.getPersister(), event.getState()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Task)) return;
+        EntityPersister persister = event.getPersister();
+        int[] dirty = event.getDirtyProperties();
+        if (dirty != null) {
+            String[] names = persister.getPropertyNames();
+            boolean rendered = false;
+            for (int index : dirty) rendered |= RENDERED_PROPERTIES.contains(names[index]);
+            if (!rendered) return;
+        }
+        feeds.invalidate(assignee(persister, event.getState()));
+        if (event.getOldState() != null) feeds.invalidate(assignee(persister, event.getOldState()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Task) {
+            feeds.invalidate(assignee(event.getPersister(), event.getDeletedState()));
+        } else if (event.getEntity() instanceof User) {
+            feeds.invalidate((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Task.class || persister.getMappedClass() == User.class;
+    }
+
+    private static Long assignee(EntityPersister persister, Object[] state) {
+        if (state == null) return null;
+        Object user = state[persister.getPropertyIndex("assignedUser")];
+        return user instanceof User u ? u.getId() : null;
+    }
+}
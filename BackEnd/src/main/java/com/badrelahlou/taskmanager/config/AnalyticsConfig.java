@@ -0,0 +1,42 @@
+package com.badrelahlou.taskmanager.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+import com.badrelahlou.taskmanager.analytics.TaskColumnStore;
+import com.badrelahlou.taskmanager.analytics.TaskSnapshotListener;
+import com.badrelahlou.taskmanager.cache.DashboardCacheListener;
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+@Configuration
+public class AnalyticsConfig {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskColumnStore taskColumnStore;
+
+    @Autowired
+    private NearCacheManager cacheManager;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        TaskSnapshotListener listener = new TaskSnapshotListener(taskColumnStore);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        // Dashboards are computed from the snapshot, so they are evicted only once it holds the write
+        DashboardCacheListener dashboards = new DashboardCacheListener(cacheManager);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, dashboards);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, dashboards);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, dashboards);
+    }
+}
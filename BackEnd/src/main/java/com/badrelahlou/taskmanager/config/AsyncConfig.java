@@ -0,0 +1,20 @@
+package com.badrelahlou.taskmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// Executors come from Boot: platform thread pools by default, virtual threads with spring.threads.virtual.enabled=true
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // Boot quietly stays on platform threads when the JVM has no virtual threads; an explicit opt-in should not
+    public AsyncConfig(Environment environment) {
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true needs Java 21+, this JVM is "
+                    + Runtime.version() + "; drop the virtual-threads profile or run on a newer JVM");
+        }
+    }
+}
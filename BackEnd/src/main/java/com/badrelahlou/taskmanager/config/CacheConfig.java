@@ -0,0 +1,82 @@
+package com.badrelahlou.taskmanager.config;
+
+import java.util.List;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.badrelahlou.taskmanager.cache.InProcessInvalidationBroker;
+import com.badrelahlou.taskmanager.cache.InvalidationTransport;
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.cache.RabbitInvalidationTransport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Cache names and the Caffeine spec (including recordStats for hit-ratio metrics) live in application.properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    @Bean
+    public NearCacheManager cacheManager(InvalidationTransport transport, MeterRegistry meterRegistry,
+                                         @Value("${cache.near.spec}") String spec,
+                                         @Value("${cache.near.cache-names:}") List<String> cacheNames,
+                                         @Value("${cache.near.flush-interval-ms:50}") long flushIntervalMs,
+                                         @Value("${cache.near.max-batch:500}") int maxBatch) {
+        return new NearCacheManager(transport, meterRegistry, spec, cacheNames, flushIntervalMs, maxBatch);
+    }
+
+    // A single instance has nobody to tell; the in-process broker only loops batches back to it
+    @Bean
+    @ConditionalOnProperty(name = "cache.near.broadcast", havingValue = "none")
+    public InvalidationTransport localInvalidationTransport() {
+        return new InProcessInvalidationBroker().connect();
+    }
+
+    // One durable fanout exchange, and an exclusive auto-delete queue per instance that Boot's RabbitAdmin declares on connect
+    @Configuration
+    @ConditionalOnProperty(name = "cache.near.broadcast", havingValue = "rabbit", matchIfMissing = true)
+    static class RabbitBroadcast {
+        @Bean
+        public FanoutExchange cacheInvalidationExchange(@Value("${cache.near.exchange:cache.invalidations}") String name) {
+            return new FanoutExchange(name, true, false);
+        }
+
+        @Bean
+        public Queue cacheInvalidationQueue() {
+            return new AnonymousQueue();
+        }
+
+        @Bean
+        public Binding cacheInvalidationBinding(FanoutExchange cacheInvalidationExchange, Queue cacheInvalidationQueue) {
+            return BindingBuilder.bind(cacheInvalidationQueue).to(cacheInvalidationExchange);
+        }
+
+        @Bean
+        public RabbitInvalidationTransport rabbitInvalidationTransport(RabbitTemplate rabbitTemplate,
+                                                                       FanoutExchange cacheInvalidationExchange) {
+            return new RabbitInvalidationTransport(rabbitTemplate, cacheInvalidationExchange.getName());
+        }
+
+        @Bean
+        public SimpleMessageListenerContainer cacheInvalidationListener(ConnectionFactory connectionFactory,
+                                                                        Queue cacheInvalidationQueue,
+                                                                        RabbitInvalidationTransport rabbitInvalidationTransport) {
+            SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+            container.setQueues(cacheInvalidationQueue);
+            container.setMessageListener(rabbitInvalidationTransport);
+            container.setDefaultRequeueRejected(false);
+            return container;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.badrelahlou.taskmanager.config;
+
+import java.util.Date;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.badrelahlou.taskmanager.calendar.CalendarGateway;
+import com.badrelahlou.taskmanager.calendar.CalendarPullJob;
+import com.badrelahlou.taskmanager.calendar.CalendarReconcileJob;
+import com.badrelahlou.taskmanager.calendar.CalendarSyncListener;
+import com.badrelahlou.taskmanager.calendar.CalendarSyncQueue;
+import com.badrelahlou.taskmanager.calendar.IcsFeedCache;
+import com.badrelahlou.taskmanager.calendar.IcsFeedListener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+@Configuration
+public class CalendarSyncConfig {
+    private static final String GROUP = "calendar-sync";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CalendarSyncQueue calendarSyncQueue;
+
+    @Autowired
+    private IcsFeedCache icsFeedCache;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        CalendarSyncListener listener = new CalendarSyncListener(calendarSyncQueue);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        IcsFeedListener feedListener = new IcsFeedListener(icsFeedCache);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, feedListener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, feedListener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, feedListener);
+    }
+
+    @Bean
+    public CalendarGateway calendarGateway(@Value("${calendar.sync.root-url:https://www.googleapis.com/}") String rootUrl,
+                                           @Value("${calendar.sync.application-name:Chronos Task Manager}") String applicationName,
+                                           @Value("${calendar.sync.batch-size:50}") int batchSize,
+                                           @Value("${calendar.sync.backoff.initial-ms:500}") int initialBackoffMillis,
+                                           @Value("${calendar.sync.backoff.max-elapsed-ms:30000}") int maxBackoffElapsedMillis) {
+        return new CalendarGateway(rootUrl, applicationName, batchSize, initialBackoffMillis, maxBackoffElapsedMillis);
+    }
+
+    @Bean
+    public JobDetail calendarPullJob() {
+        return JobBuilder.newJob(CalendarPullJob.class).withIdentity("pull", GROUP).storeDurably().build();
+    }
+
+    // Restarted from now whenever an instance starts; missed firings collapse into the next one
+    @Bean
+    public Trigger calendarPullTrigger(@Value("${calendar.sync.pull-interval-ms:60000}") long intervalMs) {
+        return TriggerBuilder.newTrigger()
+                .forJob("pull", GROUP)
+                .withIdentity("pull", GROUP)
+                .startAt(new Date(System.currentTimeMillis() + intervalMs))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInMilliseconds(intervalMs)
+                        .repeatForever()
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .build();
+    }
+
+    @Bean
+    public JobDetail calendarReconcileJob() {
+        return JobBuilder.newJob(CalendarReconcileJob.class).withIdentity("reconcile", GROUP).storeDurably().build();
+    }
+
+    // A cron rather than an interval, so restarts do not keep pushing the daily run back
+    @Bean
+    public Trigger calendarReconcileTrigger(@Value("${calendar.sync.reconcile-cron:0 30 3 * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .forJob("reconcile", GROUP)
+                .withIdentity("reconcile", GROUP)
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.badrelahlou.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.badrelahlou.taskmanager.metrics.QueryCountInterceptor;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    @Autowired
+    private QueryCountInterceptor queryCountInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryCountInterceptor).addPathPatterns("/api/**");
+    }
+}
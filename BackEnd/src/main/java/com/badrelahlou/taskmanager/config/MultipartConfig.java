@@ -0,0 +1,33 @@
+package com.badrelahlou.taskmanager.config;
+
+import java.util.regex.Pattern;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Spring's multipart parsing stays on for the API except attachment uploads, which
+ * AttachmentController streams with commons-fileupload. The resolver reports those requests
+ * as not multipart, so DispatcherServlet passes them through unparsed and the body is read
+ * once, by the controller.
+ */
+@Configuration
+public class MultipartConfig {
+    private static final Pattern STREAMED_UPLOAD = Pattern.compile("/api/tasks/[^/]+/attachments/?");
+
+    // Named so DispatcherServlet picks it up; Boot's own resolver backs off when one is defined
+    @Bean(name = "multipartResolver")
+    public MultipartResolver multipartResolver() {
+        return new StandardServletMultipartResolver() {
+            @Override
+            public boolean isMultipart(HttpServletRequest request) {
+                String path = request.getRequestURI().substring(request.getContextPath().length());
+                return !STREAMED_UPLOAD.matcher(path).matches() && super.isMultipart(request);
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.badrelahlou.taskmanager.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.badrelahlou.taskmanager.retention.PartitionMaintenance;
+import com.badrelahlou.taskmanager.retention.RetentionProperties;
+
+/**
+ * Retention windows are always bound so queries can apply them as partition-pruning lower
+ * bounds. Partitioning and expiry only run with retention.enabled=true, against PostgreSQL.
+ */
+@Configuration
+@EnableConfigurationProperties(RetentionProperties.class)
+public class RetentionConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "retention.enabled", havingValue = "true")
+    public PartitionMaintenance partitionMaintenance(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                                     RetentionProperties properties) {
+        return new PartitionMaintenance(jdbcTemplate, transactionTemplate, properties);
+    }
+}
@@ -0,0 +1,79 @@
+package com.badrelahlou.taskmanager.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.badrelahlou.taskmanager.datasource.ReadWriteRoutingDataSource;
+import com.badrelahlou.taskmanager.datasource.ReadYourWritesTracker;
+import com.badrelahlou.taskmanager.datasource.ReplicaHealthMonitor;
+import com.badrelahlou.taskmanager.datasource.RoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read/write split, enabled with datasource.routing.enabled=true. Without it the single
+ * auto-configured spring.datasource pool is used as before.
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingProperties.class)
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryPool(DataSourceProperties dataSourceProperties, RoutingProperties routing) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        pool.setMaximumPoolSize(routing.getPrimary().getMaximumPoolSize());
+        pool.setMinimumIdle(routing.getPrimary().getMinimumIdle());
+        return pool;
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(RoutingProperties routing, DataSourceProperties dataSourceProperties,
+                                                     MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < routing.getReplicas().size(); i++) {
+            RoutingProperties.Pool config = routing.getReplicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(config.getUrl());
+            pool.setUsername(config.getUsername());
+            pool.setPassword(config.getPassword());
+            pool.setDriverClassName(dataSourceProperties.getDriverClassName());
+            pool.setMaximumPoolSize(config.getMaximumPoolSize());
+            pool.setMinimumIdle(config.getMinimumIdle());
+            pool.setReadOnly(true);
+            pool.setMetricRegistry(meterRegistry);
+            replicas.put(pool.getPoolName(), pool);
+        }
+        ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(replicas, routing.getHealthCheckTimeoutSeconds());
+        Gauge.builder("datasource.replicas.healthy", monitor, m -> m.healthyReplicas().size()).register(meterRegistry);
+        return monitor;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(RoutingProperties routing) {
+        return new ReadYourWritesTracker(Duration.ofMillis(routing.getReadYourWritesMs()));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryPool, ReplicaHealthMonitor replicaHealthMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryPool, replicaHealthMonitor, readYourWritesTracker));
+    }
+}
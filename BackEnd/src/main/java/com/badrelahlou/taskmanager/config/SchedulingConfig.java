@@ -0,0 +1,10 @@
+package com.badrelahlou.taskmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// @Scheduled jobs (index rebuilds, retention, replica health, attachment sweeps) run on Boot's scheduler, so they follow spring.threads.virtual.enabled
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
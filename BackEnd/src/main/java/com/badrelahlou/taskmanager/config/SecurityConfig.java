@@ -1,5 +1,7 @@
 package com.badrelahlou.taskmanager.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -10,30 +12,45 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain; 
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import com.badrelahlou.taskmanager.admission.AdmissionControl;
+import com.badrelahlou.taskmanager.admission.AdmissionFilter;
+import com.badrelahlou.taskmanager.admission.AdmissionProperties;
+import com.badrelahlou.taskmanager.security.JwtAuthenticationFilter;
+import com.badrelahlou.taskmanager.security.TokenDenyList;
+import com.badrelahlou.taskmanager.security.VerifiedTokenCache;
+import com.badrelahlou.taskmanager.service.JwtUtils;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties(AdmissionProperties.class)
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtUtils jwtUtils,
+            VerifiedTokenCache tokenCache, TokenDenyList denyList, AdmissionControl admissionControl) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 // Allow all requests to API endpoints for development
                 .requestMatchers("/api/**").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) 
             .formLogin(form -> form.disable()) 
-            .httpBasic(Customizer.withDefaults()); 
+            .httpBasic(Customizer.withDefaults())
+            .addFilterBefore(new JwtAuthenticationFilter(jwtUtils, tokenCache, denyList),
+                UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(new AdmissionFilter(admissionControl), JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -0,0 +1,65 @@
+package com.badrelahlou.taskmanager.config;
+
+import javax.sql.DataSource;
+
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.quartz.QuartzProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.badrelahlou.taskmanager.sweep.QuartzSchemaInitializer;
+import com.badrelahlou.taskmanager.sweep.TaskSweep;
+import com.badrelahlou.taskmanager.sweep.TaskSweepJob;
+
+// Sweep jobs and their cron triggers, registered with the clustered scheduler at startup
+@Configuration
+public class TaskSweepConfig {
+    private static final String GROUP = "task-sweeps";
+
+    @Bean
+    public QuartzSchemaInitializer quartzSchemaInitializer(DataSource dataSource, QuartzProperties properties) {
+        return new QuartzSchemaInitializer(dataSource, properties);
+    }
+
+    @Bean
+    public JobDetail recurringTasksSweep() {
+        return sweepJob(TaskSweep.RECURRING_TASKS);
+    }
+
+    @Bean
+    public Trigger recurringTasksSweepTrigger(@Value("${task.sweep.recurring.cron:0 0 2 * * ?}") String cron) {
+        return sweepTrigger(TaskSweep.RECURRING_TASKS, cron);
+    }
+
+    @Bean
+    public JobDetail remindersSweep() {
+        return sweepJob(TaskSweep.REMINDERS);
+    }
+
+    @Bean
+    public Trigger remindersSweepTrigger(@Value("${task.sweep.reminders.cron:0 0 * * * ?}") String cron) {
+        return sweepTrigger(TaskSweep.REMINDERS, cron);
+    }
+
+    private static JobDetail sweepJob(TaskSweep sweep) {
+        return JobBuilder.newJob(TaskSweepJob.class)
+                .withIdentity(sweep.name(), GROUP)
+                .usingJobData("sweep", sweep.name())
+                .storeDurably()
+                .build();
+    }
+
+    // Firings missed while the whole cluster was down are skipped; the next one covers them
+    private static Trigger sweepTrigger(TaskSweep sweep, String cron) {
+        return TriggerBuilder.newTrigger()
+                .forJob(sweep.name(), GROUP)
+                .withIdentity(sweep.name(), GROUP)
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+}
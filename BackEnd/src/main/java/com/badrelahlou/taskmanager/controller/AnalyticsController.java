@@ -0,0 +1,42 @@
+package com.badrelahlou.taskmanager.controller;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.badrelahlou.taskmanager.analytics.TaskColumnStore;
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    @Autowired
+    private TaskColumnStore taskColumnStore;
+
+    // Ad-hoc task aggregates from the in-memory snapshot; startFrom/startTo bound the start time, end exclusive
+    @PreAuthorize("@authz.has('REPORT_VIEW')")
+    @GetMapping("/tasks")
+    public ResponseEntity<?> aggregateTasks(
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTo) {
+        if (!taskColumnStore.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body("Task snapshot is still loading");
+        }
+        return ResponseEntity.ok(taskColumnStore.aggregate(assigneeId, status, priority, startFrom, startTo));
+    }
+}
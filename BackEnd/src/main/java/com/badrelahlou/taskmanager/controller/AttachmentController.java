@@ -0,0 +1,191 @@
+package com.badrelahlou.taskmanager.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.badrelahlou.taskmanager.dto.TaskAttachmentResponse;
+import com.badrelahlou.taskmanager.model.TaskAttachment;
+import com.badrelahlou.taskmanager.security.CurrentUser;
+import com.badrelahlou.taskmanager.service.AttachmentService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Task attachments. Uploads are parsed with the commons-fileupload streaming API, so each
+ * file part is hashed and written to the store as it arrives. Spring's multipart resolver is
+ * disabled so nothing buffers the body first. Downloads honour single byte ranges. Under
+ * Tomcat they are handed to the connector's sendfile; elsewhere FileChannel.transferTo is used.
+ */
+@RestController
+@RequestMapping("/api/tasks/{taskId}/attachments")
+public class AttachmentController {
+    private static final Pattern RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Value("${attachments.max-file-size-bytes:104857600}")
+    private long maxFileSize;
+
+    @GetMapping
+    public ResponseEntity<List<TaskAttachmentResponse>> getTaskAttachments(@PathVariable Long taskId) {
+        try {
+            return ResponseEntity.ok(attachmentService.getAttachments(taskId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<?> addTaskAttachments(@PathVariable Long taskId, HttpServletRequest request) throws IOException {
+        Optional<Long> uploader = CurrentUser.id();
+        if (uploader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body("Expected multipart/form-data");
+        }
+        try {
+            attachmentService.requireTask(taskId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+
+        JakartaServletFileUpload<?, ?> upload = new JakartaServletFileUpload<>();
+        upload.setFileSizeMax(maxFileSize);
+        List<TaskAttachmentResponse> created = new ArrayList<>();
+        try {
+            FileItemInputIterator items = upload.getItemIterator(request);
+            while (items.hasNext()) {
+                FileItemInput item = items.next();
+                if (item.isFormField() || item.getName() == null || item.getName().isBlank()) continue;
+                try (InputStream content = item.getInputStream()) {
+                    TaskAttachment attachment = attachmentService.addAttachment(taskId, uploader.get(),
+                            Path.of(item.getName()).getFileName().toString(), item.getContentType(), content);
+                    created.add(attachmentService.toResponse(attachment));
+                }
+            }
+        } catch (FileUploadSizeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        }
+        if (created.isEmpty()) {
+            return ResponseEntity.badRequest().body("No file parts in request");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @GetMapping("/{attachmentId}/content")
+    public void download(@PathVariable Long taskId, @PathVariable Long attachmentId,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TaskAttachment attachment;
+        try {
+            attachment = attachmentService.getAttachment(taskId, attachmentId);
+        } catch (RuntimeException e) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path file = attachmentService.contentPath(attachment);
+        if (!Files.exists(file)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long length = Files.size(file);
+        String etag = "\"" + attachment.getSha256() + "\"";
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        boolean partial = range != null && (ifRange == null || ifRange.equals(etag));
+        if (partial) {
+            Matcher matcher = RANGE.matcher(range);
+            if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                // Multiple or malformed ranges: ignore the header and send the whole file
+                partial = false;
+            } else if (matcher.group(1).isEmpty()) {
+                start = Math.max(0, length - Long.parseLong(matcher.group(2)));
+            } else {
+                start = Long.parseLong(matcher.group(1));
+                if (!matcher.group(2).isEmpty()) end = Math.min(end, Long.parseLong(matcher.group(2)));
+            }
+            if (partial && (start >= length || start > end)) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+        long count = end - start + 1;
+
+        response.setStatus(partial ? HttpServletResponse.SC_PARTIAL_CONTENT : HttpServletResponse.SC_OK);
+        response.setContentType(attachment.getContentType());
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(attachment.getFileName(), StandardCharsets.UTF_8)
+                        .build().toString());
+        if (partial) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        if (count == 0 || "HEAD".equals(request.getMethod())) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // The connector copies file to socket with FileChannel.transferTo after this method returns
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    @DeleteMapping("/{attachmentId}")
+    public ResponseEntity<?> deleteAttachment(@PathVariable Long taskId, @PathVariable Long attachmentId) {
+        try {
+            attachmentService.deleteAttachment(taskId, attachmentId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.badrelahlou.taskmanager.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.badrelahlou.taskmanager.model.AuditLog;
+import com.badrelahlou.taskmanager.service.AuditService;
+
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+    @Autowired
+    private AuditService auditService;
+
+    @PreAuthorize("@authz.has('AUDIT_VIEW')")
+    @GetMapping
+    public ResponseEntity<List<AuditLog>> search(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTimestamp,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "50") int size) {
+        // The cursor is the last entry of the previous page: both halves or neither
+        if (size < 1 || size > 500 || (beforeTimestamp == null) != (beforeId == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(auditService.search(entityType, entityId, userId, from, to, beforeTimestamp, beforeId, size));
+    }
+}
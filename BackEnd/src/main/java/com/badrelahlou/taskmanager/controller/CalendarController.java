@@ -0,0 +1,99 @@
+package com.badrelahlou.taskmanager.controller;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.badrelahlou.taskmanager.dto.CalendarConnectionRequest;
+import com.badrelahlou.taskmanager.security.CurrentUser;
+import com.badrelahlou.taskmanager.service.CalendarSyncService;
+import com.badrelahlou.taskmanager.service.UserService;
+
+@RestController
+@RequestMapping("/api/calendar")
+public class CalendarController {
+    @Autowired
+    private CalendarSyncService calendarSyncService;
+
+    @Autowired
+    private UserService userService;
+
+    @PutMapping("/connection")
+    public ResponseEntity<?> connect(@RequestBody CalendarConnectionRequest request) {
+        Optional<Long> userId = CurrentUser.id();
+        if (userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(calendarSyncService.connect(userId.get(), request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/connection")
+    public ResponseEntity<?> getConnection() {
+        Optional<Long> userId = CurrentUser.id();
+        if (userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(calendarSyncService.getConnection(userId.get()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/connection")
+    public ResponseEntity<?> disconnect() {
+        Optional<Long> userId = CurrentUser.id();
+        if (userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            calendarSyncService.disconnect(userId.get());
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/sync")
+    public ResponseEntity<?> sync() {
+        Optional<Long> userId = CurrentUser.id();
+        if (userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(calendarSyncService.syncNow(userId.get()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // A fresh subscription link for the caller's ICS feed; any earlier link stops working
+    @PostMapping("/feed-token")
+    public ResponseEntity<?> rotateFeedToken() {
+        Optional<Long> userId = CurrentUser.id();
+        if (userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            String token = userService.rotateCalendarFeedToken(userId.get());
+            return ResponseEntity.ok(Map.of("token", token,
+                    "path", "/api/users/" + userId.get() + "/calendar.ics?token=" + token));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.badrelahlou.taskmanager.controller;
 
+import com.badrelahlou.taskmanager.dto.MarkNotificationsReadRequest;
 import com.badrelahlou.taskmanager.dto.NotificationDTO;
+import com.badrelahlou.taskmanager.dto.NotificationPageResponse;
 import com.badrelahlou.taskmanager.model.Notification;
 import com.badrelahlou.taskmanager.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,6 +28,38 @@ public class NotificationController {
         return ResponseEntity.ok(dtos);
     }
 
+    @GetMapping("/user/{userId}/inbox")
+    public ResponseEntity<NotificationPageResponse> getInbox(@PathVariable Long userId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int size,
+                                                             @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        try {
+            return ResponseEntity.ok(notificationService.getInbox(userId, cursor, size, unreadOnly));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/user/{userId}/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@PathVariable Long userId) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationService.getUnreadCount(userId)));
+    }
+
+    @PostMapping("/user/{userId}/read")
+    public ResponseEntity<?> markNotificationsAsRead(@PathVariable Long userId,
+                                                     @RequestBody MarkNotificationsReadRequest request) {
+        int updated;
+        if (request.getIds() != null) {
+            updated = notificationService.markAsRead(userId, request.getIds());
+        } else if (request.getBefore() != null) {
+            updated = notificationService.markAllReadBefore(userId, request.getBefore());
+        } else {
+            return ResponseEntity.badRequest().body("Either ids or before is required");
+        }
+        return ResponseEntity.ok(Map.of("updated", updated,
+                "unreadCount", notificationService.getUnreadCount(userId)));
+    }
+
     @PostMapping("/{notificationId}/read")
     public ResponseEntity<?> markNotificationAsRead(@PathVariable Long notificationId) {
         try {
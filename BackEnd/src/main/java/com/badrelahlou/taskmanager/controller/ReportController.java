@@ -1,62 +1,130 @@
 package com.badrelahlou.taskmanager.controller;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import com.badrelahlou.taskmanager.model.Task; 
-import com.badrelahlou.taskmanager.model.TaskStatus;
-import com.badrelahlou.taskmanager.service.TaskService;
+import com.badrelahlou.taskmanager.dto.ReportJobRequest;
+import com.badrelahlou.taskmanager.report.ReportJob;
+import com.badrelahlou.taskmanager.report.ReportType;
+import com.badrelahlou.taskmanager.service.ReportJobService;
 
 @RestController
 @RequestMapping("/api/reports")
 public class ReportController {
     @Autowired
-    private TaskService taskService;
+    private ReportJobService reportJobService;
 
-    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')") 
+    // How long the direct report endpoints wait for their job before answering 202 with it
+    @Value("${report.jobs.sync-wait-ms:10000}")
+    private long syncWaitMs;
+
+    @Value("${report.jobs.stream-timeout-ms:300000}")
+    private long streamTimeoutMs;
+
+    @PreAuthorize("@authz.has('REPORT_VIEW')")
     @GetMapping("/task-completion")
-    public Map<String, Object> getTaskCompletionReport() {
-        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE); 
-        List<Task> tasks = taskService.getAllTasks(pageable).getContent();
-        long totalTasks = tasks.size();
-
-       
-        long completedTasks = tasks.stream().filter(t -> TaskStatus.DONE.equals(t.getStatus())).count();
-        long inProgressTasks = tasks.stream().filter(t -> TaskStatus.IN_PROGRESS.equals(t.getStatus())).count();
-        long todoTasks = tasks.stream().filter(t -> TaskStatus.TODO.equals(t.getStatus())).count();
-
-        Map<String, Object> report = new HashMap<>();
-        report.put("totalTasks", totalTasks);
-        report.put("completedTasks", completedTasks);
-        report.put("inProgressTasks", inProgressTasks);
-        report.put("todoTasks", todoTasks);
-        return report;
+    public ResponseEntity<?> getTaskCompletionReport() {
+        return awaitReport(ReportType.TASK_COMPLETION, null);
     }
 
-    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')") 
+    @PreAuthorize("@authz.has('REPORT_VIEW')")
     @GetMapping("/user-activity")
-    public Map<String, Object> getUserActivityReport(@RequestParam Long userId) {
-        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
-        List<Task> tasks = taskService.getAllTasks(pageable).getContent();
-        long total = tasks.stream().filter(t -> t.getAssignedUser() != null && t.getAssignedUser().getId().equals(userId)).count();
-        long completed = tasks.stream().filter(t -> t.getAssignedUser() != null && t.getAssignedUser().getId().equals(userId) && TaskStatus.DONE.equals(t.getStatus())).count();
-        long inProgress = tasks.stream().filter(t -> t.getAssignedUser() != null && t.getAssignedUser().getId().equals(userId) && TaskStatus.IN_PROGRESS.equals(t.getStatus())).count();
-        long todo = tasks.stream().filter(t -> t.getAssignedUser() != null && t.getAssignedUser().getId().equals(userId) && TaskStatus.TODO.equals(t.getStatus())).count();
-        Map<String, Object> report = new HashMap<>();
-        report.put("totalTasks", total);
-        report.put("completedTasks", completed);
-        report.put("inProgressTasks", inProgress);
-        report.put("todoTasks", todo);
-        return report;
+    public ResponseEntity<?> getUserActivityReport(@RequestParam Long userId) {
+        return awaitReport(ReportType.USER_ACTIVITY, userId);
+    }
+
+    @PreAuthorize("@authz.has('REPORT_VIEW')")
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitJob(@RequestBody ReportJobRequest request) {
+        if (request.getType() == null) {
+            return ResponseEntity.badRequest().body("type is required");
+        }
+        try {
+            ReportJob job = reportJobService.submit(request.getType(), request.getUserId());
+            return accepted(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @PreAuthorize("@authz.has('REPORT_VIEW')")
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(reportJobService.toResponse(reportJobService.getJob(jobId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /** Server-sent events: the job's current state as "status", then its final state as "result". */
+    @PreAuthorize("@authz.has('REPORT_VIEW')")
+    @GetMapping("/jobs/{jobId}/stream")
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String jobId) {
+        ReportJob job;
+        try {
+            job = reportJobService.getJob(jobId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        try {
+            emitter.send(SseEmitter.event().name("status").data(reportJobService.toResponse(job)));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return ResponseEntity.ok(emitter);
+        }
+        job.getCompletion().whenComplete((result, error) -> {
+            try {
+                emitter.send(SseEmitter.event().name("result").data(reportJobService.toResponse(job)));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter timed out; nothing left to deliver to
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    private ResponseEntity<?> awaitReport(ReportType type, Long userId) {
+        ReportJob job;
+        try {
+            job = reportJobService.submit(type, userId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+        try {
+            return ResponseEntity.ok(job.getCompletion().get(syncWaitMs, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return accepted(job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return accepted(job);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(job.getError());
+        }
+    }
+
+    private ResponseEntity<?> accepted(ReportJob job) {
+        HttpStatus status = job.getStatus() == ReportJob.Status.DONE ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status)
+                .location(URI.create("/api/reports/jobs/" + job.getId()))
+                .body(reportJobService.toResponse(job));
     }
 }
@@ -0,0 +1,52 @@
+package com.badrelahlou.taskmanager.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.badrelahlou.taskmanager.model.Resource;
+import com.badrelahlou.taskmanager.service.ResourceService;
+
+@RestController
+@RequestMapping("/api/resources")
+public class ResourceController {
+    @Autowired
+    private ResourceService resourceService;
+
+    @PostMapping
+    public ResponseEntity<?> createResource(@RequestBody Resource resource) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(resourceService.createResource(resource));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Resource>> getAllResources() {
+        return ResponseEntity.ok(resourceService.getAllResources());
+    }
+
+    // Busy and free windows per resource over [from, to); all resources when resourceIds is omitted
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailability(
+            @RequestParam(required = false) List<Long> resourceIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(resourceService.getAvailability(resourceIds, from, to));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+}
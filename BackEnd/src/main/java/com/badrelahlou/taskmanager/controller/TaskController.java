@@ -2,6 +2,7 @@ package com.badrelahlou.taskmanager.controller;
 
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
@@ -17,9 +18,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.badrelahlou.taskmanager.dto.TaskCommentPageResponse;
 import com.badrelahlou.taskmanager.dto.TaskRequest;
 import com.badrelahlou.taskmanager.dto.TaskResponse;
+import com.badrelahlou.taskmanager.exception.ResourceConflictException;
 import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.security.CurrentUser;
+import com.badrelahlou.taskmanager.service.TaskHierarchyService;
 import com.badrelahlou.taskmanager.service.TaskService;
 
 @RestController
@@ -28,11 +33,16 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskHierarchyService taskHierarchyService;
+
     @PostMapping
     public ResponseEntity<?> createTask(@RequestBody TaskRequest taskRequest) {
         try {
             Task task = taskService.createTask(taskRequest.getTask(), taskRequest.getDependencyIds());
             return ResponseEntity.status(HttpStatus.CREATED).body(taskService.toTaskResponse(task));
+        } catch (ResourceConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             // Return error message for debugging
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -44,8 +54,8 @@ public class TaskController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
-            List<TaskResponse> tasks = taskService.getAllTasks(PageRequest.of(page, size))
-                .stream().map(taskService::toTaskResponse).toList();
+            List<TaskResponse> tasks = taskService.toTaskResponses(
+                taskService.getAllTasks(PageRequest.of(page, size)).getContent());
             return ResponseEntity.ok(tasks);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -63,10 +73,12 @@ public class TaskController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<TaskResponse> updateTask(@PathVariable Long id, @RequestBody Task task) {
+    public ResponseEntity<?> updateTask(@PathVariable Long id, @RequestBody Task task) {
         try {
             Task updatedTask = taskService.updateTask(id, task);
             return ResponseEntity.ok(taskService.toTaskResponse(updatedTask));
+        } catch (ResourceConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
         }
@@ -92,6 +104,47 @@ public class TaskController {
         }
     }
 
+    @PutMapping("/{id}/parent")
+    public ResponseEntity<?> moveTask(@PathVariable Long id, @RequestBody(required = false) Long parentId) {
+        try {
+            return ResponseEntity.ok(taskService.toTaskResponse(taskService.moveTask(id, parentId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<?> getSubtree(@PathVariable Long id, @RequestParam(defaultValue = "100") int maxDepth) {
+        if (maxDepth < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(taskHierarchyService.getSubtree(id, maxDepth));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/ancestors")
+    public ResponseEntity<?> getAncestors(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(taskHierarchyService.getAncestors(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/{id}/resources")
+    public ResponseEntity<?> assignResources(@PathVariable Long id, @RequestBody List<Long> resourceIds) {
+        try {
+            return ResponseEntity.ok(taskService.assignResources(id, resourceIds));
+        } catch (ResourceConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/filter")
     public ResponseEntity<List<TaskResponse>> filterTasks(
             @RequestParam(required = false) String status,
@@ -99,8 +152,8 @@ public class TaskController {
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
         try {
-            List<TaskResponse> tasks = taskService.filterTasks(status, priority, startDate, endDate)
-                .stream().map(taskService::toTaskResponse).toList();
+            List<TaskResponse> tasks = taskService.toTaskResponses(
+                taskService.filterTasks(status, priority, startDate, endDate));
             return ResponseEntity.ok(tasks);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
@@ -112,8 +165,7 @@ public class TaskController {
             @RequestParam String month,
             @RequestParam String year) {
         try {
-            List<TaskResponse> tasks = taskService.getTasksForCalendar(month, year)
-                .stream().map(taskService::toTaskResponse).toList();
+            List<TaskResponse> tasks = taskService.toTaskResponses(taskService.getTasksForCalendar(month, year));
             return ResponseEntity.ok(tasks);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
@@ -139,9 +191,12 @@ public class TaskController {
     }
 
     @GetMapping("/{taskId}/comments")
-    public ResponseEntity<List<String>> getTaskComments(@PathVariable Long taskId) {
+    public ResponseEntity<TaskCommentPageResponse> getTaskComments(
+            @PathVariable Long taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            return ResponseEntity.ok(taskService.getTaskComments(taskId));
+            return ResponseEntity.ok(taskService.getTaskComments(taskId, cursor, size));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
@@ -149,28 +204,25 @@ public class TaskController {
 
     @PostMapping("/{taskId}/comments")
     public ResponseEntity<?> addTaskComment(@PathVariable Long taskId, @RequestBody String comment) {
+        Optional<Long> userId = CurrentUser.id();
+        if (userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
         try {
-            taskService.addTaskComment(taskId, comment);
-            return ResponseEntity.ok().build();
+            return ResponseEntity.status(HttpStatus.CREATED).body(taskService.addTaskComment(taskId, userId.get(), comment));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
 
-    @GetMapping("/{taskId}/attachments")
-    public ResponseEntity<List<String>> getTaskAttachments(@PathVariable Long taskId) {
-        try {
-            return ResponseEntity.ok(taskService.getTaskAttachments(taskId));
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+    @PostMapping("/{taskId}/comments/batch")
+    public ResponseEntity<?> addTaskComments(@PathVariable Long taskId, @RequestBody List<String> comments) {
+        Optional<Long> userId = CurrentUser.id();
+        if (userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-    }
-
-    @PostMapping("/{taskId}/attachments")
-    public ResponseEntity<?> addTaskAttachment(@PathVariable Long taskId, @RequestBody String fileUrl) {
         try {
-            taskService.addTaskAttachment(taskId, fileUrl);
-            return ResponseEntity.ok().build();
+            return ResponseEntity.status(HttpStatus.CREATED).body(taskService.addTaskComments(taskId, userId.get(), comments));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
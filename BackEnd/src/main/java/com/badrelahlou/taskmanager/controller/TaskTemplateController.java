@@ -0,0 +1,48 @@
+package com.badrelahlou.taskmanager.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.badrelahlou.taskmanager.dto.TemplateInstantiationRequest;
+import com.badrelahlou.taskmanager.dto.TemplateSetRequest;
+import com.badrelahlou.taskmanager.dto.TemplateSetResponse;
+import com.badrelahlou.taskmanager.service.TaskTemplateService;
+
+@RestController
+@RequestMapping("/api/templates/sets")
+public class TaskTemplateController {
+    @Autowired
+    private TaskTemplateService templateService;
+
+    @PostMapping
+    public ResponseEntity<?> createTemplateSet(@RequestBody TemplateSetRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(templateService.createTemplateSet(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<TemplateSetResponse>> getTemplateSets() {
+        return ResponseEntity.ok(templateService.getTemplateSets());
+    }
+
+    @PostMapping("/{id}/instantiate")
+    public ResponseEntity<?> instantiate(@PathVariable Long id, @RequestBody TemplateInstantiationRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(templateService.instantiate(id, request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+}
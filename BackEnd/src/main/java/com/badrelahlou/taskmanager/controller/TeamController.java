@@ -13,10 +13,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.badrelahlou.taskmanager.dto.AutoAssignRequest;
+import com.badrelahlou.taskmanager.dto.TeamBoardResponse;
 import com.badrelahlou.taskmanager.dto.TeamResponse;
 import com.badrelahlou.taskmanager.model.Team;
+import com.badrelahlou.taskmanager.service.AutoAssignmentService;
 import com.badrelahlou.taskmanager.service.TeamService;
 
 @RestController
@@ -25,6 +29,9 @@ public class TeamController {
     @Autowired
     private TeamService teamService;
 
+    @Autowired
+    private AutoAssignmentService autoAssignmentService;
+
     @PostMapping
     public ResponseEntity<TeamResponse> createTeam(@RequestBody TeamCreateRequest request) {
         Team team = teamService.createTeam(request.getName(), request.getMemberIds());
@@ -47,6 +54,29 @@ public class TeamController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/tasks")
+    public ResponseEntity<TeamBoardResponse> getTeamBoard(@PathVariable Long id,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(teamService.getTeamBoard(id, page, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{id}/auto-assign")
+    public ResponseEntity<?> autoAssign(@PathVariable Long id, @RequestBody(required = false) AutoAssignRequest request) {
+        try {
+            return ResponseEntity.ok(autoAssignmentService.autoAssign(id, request != null ? request : new AutoAssignRequest()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TeamResponse> updateTeam(@PathVariable Long id, @RequestBody TeamCreateRequest request) {
         Team team = teamService.updateTeam(id, request.getName(), request.getMemberIds());
@@ -1,9 +1,12 @@
 package com.badrelahlou.taskmanager.controller;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,12 +18,23 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+
+import com.badrelahlou.taskmanager.calendar.IcsFeedCache;
 import com.badrelahlou.taskmanager.dto.UserLoginRequest;
 import com.badrelahlou.taskmanager.dto.UserProfileResponse;
 import com.badrelahlou.taskmanager.dto.UserRegistrationRequest;
+import com.badrelahlou.taskmanager.exception.GlobalExceptionHandler;
+import com.badrelahlou.taskmanager.exception.TooManyRequestsException;
 import com.badrelahlou.taskmanager.model.Notification;
 import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.security.JwtAuthenticationFilter;
+import com.badrelahlou.taskmanager.security.TokenDenyList;
+import com.badrelahlou.taskmanager.security.VerifiedTokenCache;
 import com.badrelahlou.taskmanager.service.JwtUtils;
 import com.badrelahlou.taskmanager.service.NotificationService;
 import com.badrelahlou.taskmanager.service.UserService;
@@ -36,6 +50,17 @@ public class UserController {
    
     @Autowired
     private JwtUtils jwtUtils; 
+
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
+    @Autowired
+    private IcsFeedCache icsFeedCache;
+
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
     
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody UserRegistrationRequest request) {
@@ -43,6 +68,8 @@ public class UserController {
             User user = userService.registerUser(request);
             UserProfileResponse response = userService.toUserProfileResponse(user);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (TooManyRequestsException e) {
+            return GlobalExceptionHandler.tooManyRequests(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
@@ -58,6 +85,7 @@ public class UserController {
         }
     }
 
+    @PreAuthorize("@authz.has('PERMISSION_MANAGE')")
     @PutMapping("/{id}/permissions")
     public ResponseEntity<User> updatePermissions(@PathVariable Long id, @RequestBody List<String> permissions) {
         try {
@@ -72,14 +100,32 @@ public class UserController {
     public ResponseEntity<?> login(@RequestBody UserLoginRequest request) {
         try {
             User user = userService.authenticateByEmail(request.getEmail(), request.getPassword());
-            String jwtToken = jwtUtils.generateToken(user.getUsername());
+            String jwtToken = jwtUtils.generateToken(user);
             UserProfileResponse profile = userService.toUserProfileResponse(user);
             return ResponseEntity.ok(new JwtResponse(jwtToken, user.getId(), user.getUsername(), user.getRole()));
+        } catch (TooManyRequestsException e) {
+            return GlobalExceptionHandler.tooManyRequests(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        String token = JwtAuthenticationFilter.resolveToken(request);
+        if (token == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Missing bearer token");
+        }
+        try {
+            Claims claims = jwtUtils.parseClaims(token);
+            tokenDenyList.revoke(claims.getId(), claims.getExpiration().getTime());
+            tokenCache.invalidate(token);
+            return ResponseEntity.ok().build();
+        } catch (JwtException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+        }
+    }
+
     @GetMapping("/{id}/profile")
     public ResponseEntity<UserProfileResponse> getUserProfile(@PathVariable Long id) {
         try {
@@ -91,7 +137,7 @@ public class UserController {
         }
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("@authz.has('USER_MANAGE')")
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User user) {
         try {
@@ -101,7 +147,7 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
     }
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("@authz.has('USER_MANAGE')")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         try {
@@ -112,6 +158,32 @@ public class UserController {
         }
     }
 
+    // Subscription feed for calendar clients, which cannot send a bearer token: the link carries the user's feed
+    // token instead. Conditional polls are answered with 304 from the cached feed
+    @GetMapping("/{id}/calendar.ics")
+    public ResponseEntity<byte[]> getCalendarFeed(@PathVariable Long id, @RequestParam(required = false) String token,
+                                                  WebRequest request) {
+        // Not 403: an unknown token must not reveal which user ids exist
+        if (!userService.calendarFeedTokenMatches(id, token)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        IcsFeedCache.Feed feed;
+        try {
+            feed = icsFeedCache.get(id);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (request.checkNotModified(feed.etag, feed.lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .eTag(feed.etag)
+                .lastModified(feed.lastModified)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(feed.body);
+    }
+
     @GetMapping("/{id}/notifications")
     public ResponseEntity<List<Notification>> getUserNotifications(@PathVariable Long id) {
         try {
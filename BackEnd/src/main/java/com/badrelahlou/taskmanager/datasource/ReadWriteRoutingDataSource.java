@@ -0,0 +1,56 @@
+package com.badrelahlou.taskmanager.datasource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.badrelahlou.taskmanager.security.CurrentUser;
+
+/**
+ * Sends read-only transactions to a healthy replica (round-robin) and everything else to the
+ * primary. Must sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag
+ * is only set after the transaction manager asks for a connection, so the routing decision has
+ * to be deferred until the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaHealthMonitor healthMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaHealthMonitor healthMonitor, ReadYourWritesTracker readYourWrites) {
+        this.healthMonitor = healthMonitor;
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>(healthMonitor.getReplicas());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = CurrentUser.id().orElse(null);
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.recordWriteOnCommit(userId);
+            }
+            return PRIMARY;
+        }
+        if (readYourWrites.recentlyWrote(userId)) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthMonitor.healthyReplicas();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+}
@@ -0,0 +1,48 @@
+package com.badrelahlou.taskmanager.datasource;
+
+import java.time.Duration;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Remembers which users committed a write recently. For the length of the window their
+ * read-only transactions stay on the primary, so they never read a replica that has not yet
+ * replayed their own change.
+ */
+public class ReadYourWritesTracker {
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    // Called when a read-write transaction acquires its connection; the write counts once it commits
+    public void recordWriteOnCommit(Long userId) {
+        if (userId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordWrite(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(userId);
+            }
+        });
+    }
+
+    public void recordWrite(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean recentlyWrote(Long userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+}
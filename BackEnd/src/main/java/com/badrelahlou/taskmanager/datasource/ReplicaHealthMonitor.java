@@ -0,0 +1,77 @@
+package com.badrelahlou.taskmanager.datasource;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically validates a connection from each replica pool. Replicas that fail drop out of
+ * rotation until a later check succeeds; with none healthy, reads fall back to the primary.
+ */
+public class ReplicaHealthMonitor implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private final Map<String, DataSource> replicas;
+    private final int timeoutSeconds;
+    private volatile List<String> healthy;
+
+    public ReplicaHealthMonitor(Map<String, DataSource> replicas, int timeoutSeconds) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.timeoutSeconds = timeoutSeconds;
+        this.healthy = List.copyOf(this.replicas.keySet());
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public List<String> healthyReplicas() {
+        return healthy;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.health-check-interval-ms:5000}")
+    public void check() {
+        List<String> nowHealthy = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            boolean ok;
+            try (Connection connection = replica.getValue().getConnection()) {
+                ok = connection.isValid(timeoutSeconds);
+            } catch (Exception e) {
+                ok = false;
+            }
+            if (ok) {
+                nowHealthy.add(replica.getKey());
+            }
+            boolean wasHealthy = healthy.contains(replica.getKey());
+            if (ok != wasHealthy) {
+                log.warn("Replica {} is now {}", replica.getKey(), ok ? "healthy" : "unhealthy, routing its reads to the primary");
+            }
+        }
+        healthy = List.copyOf(nowHealthy);
+    }
+
+    // For tests in this package; in service the scheduled check replaces the list wholesale
+    void markUnhealthy(String key) {
+        List<String> remaining = new ArrayList<>(healthy);
+        remaining.remove(key);
+        healthy = List.copyOf(remaining);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
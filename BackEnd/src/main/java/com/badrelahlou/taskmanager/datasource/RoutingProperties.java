@@ -0,0 +1,52 @@
+package com.badrelahlou.taskmanager.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * datasource.routing.* settings. The primary pool uses spring.datasource.* for its connection
+ * details; each replica carries its own url, credentials and pool size.
+ */
+@ConfigurationProperties("datasource.routing")
+public class RoutingProperties {
+    private boolean enabled;
+    private Pool primary = new Pool();
+    private List<Pool> replicas = new ArrayList<>();
+    private long readYourWritesMs = 5000;
+    private long healthCheckIntervalMs = 5000;
+    private int healthCheckTimeoutSeconds = 2;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Pool getPrimary() { return primary; }
+    public void setPrimary(Pool primary) { this.primary = primary; }
+    public List<Pool> getReplicas() { return replicas; }
+    public void setReplicas(List<Pool> replicas) { this.replicas = replicas; }
+    public long getReadYourWritesMs() { return readYourWritesMs; }
+    public void setReadYourWritesMs(long readYourWritesMs) { this.readYourWritesMs = readYourWritesMs; }
+    public long getHealthCheckIntervalMs() { return healthCheckIntervalMs; }
+    public void setHealthCheckIntervalMs(long healthCheckIntervalMs) { this.healthCheckIntervalMs = healthCheckIntervalMs; }
+    public int getHealthCheckTimeoutSeconds() { return healthCheckTimeoutSeconds; }
+    public void setHealthCheckTimeoutSeconds(int healthCheckTimeoutSeconds) { this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds; }
+
+    public static class Pool {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        public int getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+        public int getMinimumIdle() { return minimumIdle; }
+        public void setMinimumIdle(int minimumIdle) { this.minimumIdle = minimumIdle; }
+    }
+}
@@ -0,0 +1,15 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.util.List;
+
+public class AutoAssignRequest {
+    // Tasks to (re)assign; when empty, open unassigned tasks are used, earliest deadline first
+    private List<Long> taskIds;
+    // Compute the plan without writing it
+    private boolean dryRun;
+
+    public List<Long> getTaskIds() { return taskIds; }
+    public void setTaskIds(List<Long> taskIds) { this.taskIds = taskIds; }
+    public boolean isDryRun() { return dryRun; }
+    public void setDryRun(boolean dryRun) { this.dryRun = dryRun; }
+}
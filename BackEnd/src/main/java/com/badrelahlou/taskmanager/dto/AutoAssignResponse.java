@@ -0,0 +1,26 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class AutoAssignResponse {
+    private Long teamId;
+    private boolean dryRun;
+    // taskId -> userId, in assignment order
+    private Map<Long, Long> assignments;
+    // Tasks left alone: unknown, already done, or part of a dependency cycle
+    private List<Long> skippedTaskIds;
+    // userId -> open workload after the run, in weighted hours
+    private Map<Long, Double> loads;
+
+    public Long getTeamId() { return teamId; }
+    public void setTeamId(Long teamId) { this.teamId = teamId; }
+    public boolean isDryRun() { return dryRun; }
+    public void setDryRun(boolean dryRun) { this.dryRun = dryRun; }
+    public Map<Long, Long> getAssignments() { return assignments; }
+    public void setAssignments(Map<Long, Long> assignments) { this.assignments = assignments; }
+    public List<Long> getSkippedTaskIds() { return skippedTaskIds; }
+    public void setSkippedTaskIds(List<Long> skippedTaskIds) { this.skippedTaskIds = skippedTaskIds; }
+    public Map<Long, Double> getLoads() { return loads; }
+    public void setLoads(Map<Long, Double> loads) { this.loads = loads; }
+}
@@ -0,0 +1,13 @@
+package com.badrelahlou.taskmanager.dto;
+
+public class CalendarConnectionRequest {
+    // OAuth access token with the calendar.events scope, obtained by the client
+    private String accessToken;
+    // Defaults to "primary"
+    private String calendarId;
+
+    public String getAccessToken() { return accessToken; }
+    public void setAccessToken(String accessToken) { this.accessToken = accessToken; }
+    public String getCalendarId() { return calendarId; }
+    public void setCalendarId(String calendarId) { this.calendarId = calendarId; }
+}
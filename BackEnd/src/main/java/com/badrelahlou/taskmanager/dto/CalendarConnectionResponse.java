@@ -0,0 +1,31 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.time.LocalDateTime;
+
+// Sync status of the caller's calendar connection; the access token is never returned
+public class CalendarConnectionResponse {
+    private String calendarId;
+    private boolean enabled;
+    // False until the first full pull has stored a sync token
+    private boolean incrementalSync;
+    private LocalDateTime lastPushAt;
+    private LocalDateTime lastPullAt;
+    private String lastError;
+    // Pulled calendar edits that were not applied, for example because they overlap a resource booking
+    private long conflicts;
+
+    public String getCalendarId() { return calendarId; }
+    public void setCalendarId(String calendarId) { this.calendarId = calendarId; }
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public boolean isIncrementalSync() { return incrementalSync; }
+    public void setIncrementalSync(boolean incrementalSync) { this.incrementalSync = incrementalSync; }
+    public LocalDateTime getLastPushAt() { return lastPushAt; }
+    public void setLastPushAt(LocalDateTime lastPushAt) { this.lastPushAt = lastPushAt; }
+    public LocalDateTime getLastPullAt() { return lastPullAt; }
+    public void setLastPullAt(LocalDateTime lastPullAt) { this.lastPullAt = lastPullAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public long getConflicts() { return conflicts; }
+    public void setConflicts(long conflicts) { this.conflicts = conflicts; }
+}
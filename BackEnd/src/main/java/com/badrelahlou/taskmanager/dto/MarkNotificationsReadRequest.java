@@ -0,0 +1,15 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Either ids or before must be set; ids wins if both are present
+public class MarkNotificationsReadRequest {
+    private List<Long> ids;
+    private LocalDateTime before;
+
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    public LocalDateTime getBefore() { return before; }
+    public void setBefore(LocalDateTime before) { this.before = before; }
+}
@@ -0,0 +1,24 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.util.List;
+
+public class NotificationPageResponse {
+    private List<NotificationDTO> items;
+    private String nextCursor;
+    private long unreadCount;
+
+    public NotificationPageResponse() {}
+
+    public NotificationPageResponse(List<NotificationDTO> items, String nextCursor, long unreadCount) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.unreadCount = unreadCount;
+    }
+
+    public List<NotificationDTO> getItems() { return items; }
+    public void setItems(List<NotificationDTO> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public long getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(long unreadCount) { this.unreadCount = unreadCount; }
+}
@@ -0,0 +1,14 @@
+package com.badrelahlou.taskmanager.dto;
+
+import com.badrelahlou.taskmanager.report.ReportType;
+
+public class ReportJobRequest {
+    private ReportType type;
+    // Required for USER_ACTIVITY
+    private Long userId;
+
+    public ReportType getType() { return type; }
+    public void setType(ReportType type) { this.type = type; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+}
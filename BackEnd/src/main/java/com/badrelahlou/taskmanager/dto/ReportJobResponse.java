@@ -0,0 +1,41 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// State of a report job; result and error are only set once it has finished
+public class ReportJobResponse {
+    private String jobId;
+    private String type;
+    private Long userId;
+    private String status;
+    private long dataVersion;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    // Present once status is DONE
+    private Map<String, Object> result;
+    // Present once status is FAILED
+    private String error;
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public long getDataVersion() { return dataVersion; }
+    public void setDataVersion(long dataVersion) { this.dataVersion = dataVersion; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+    public Map<String, Object> getResult() { return result; }
+    public void setResult(Map<String, Object> result) { this.result = result; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,20 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.util.List;
+
+public class ResourceAssignmentResponse {
+    private Long taskId;
+    private List<Long> resourceIds;
+    private String conflictPolicy;
+    // Overlapping bookings of other tasks; only non-empty under the FLAG policy
+    private List<ResourceBookingResponse> conflicts;
+
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+    public List<Long> getResourceIds() { return resourceIds; }
+    public void setResourceIds(List<Long> resourceIds) { this.resourceIds = resourceIds; }
+    public String getConflictPolicy() { return conflictPolicy; }
+    public void setConflictPolicy(String conflictPolicy) { this.conflictPolicy = conflictPolicy; }
+    public List<ResourceBookingResponse> getConflicts() { return conflicts; }
+    public void setConflicts(List<ResourceBookingResponse> conflicts) { this.conflicts = conflicts; }
+}
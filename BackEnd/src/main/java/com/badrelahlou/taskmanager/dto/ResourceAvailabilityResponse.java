@@ -0,0 +1,41 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ResourceAvailabilityResponse {
+    private Long resourceId;
+    private String name;
+    private boolean available;
+    // Merged, non-overlapping windows clipped to the requested range, in order
+    private List<Window> busy;
+    private List<Window> free;
+
+    public Long getResourceId() { return resourceId; }
+    public void setResourceId(Long resourceId) { this.resourceId = resourceId; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public boolean isAvailable() { return available; }
+    public void setAvailable(boolean available) { this.available = available; }
+    public List<Window> getBusy() { return busy; }
+    public void setBusy(List<Window> busy) { this.busy = busy; }
+    public List<Window> getFree() { return free; }
+    public void setFree(List<Window> free) { this.free = free; }
+
+    public static class Window {
+        private LocalDateTime start;
+        private LocalDateTime end;
+
+        public Window() {}
+
+        public Window(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public LocalDateTime getStart() { return start; }
+        public void setStart(LocalDateTime start) { this.start = start; }
+        public LocalDateTime getEnd() { return end; }
+        public void setEnd(LocalDateTime end) { this.end = end; }
+    }
+}
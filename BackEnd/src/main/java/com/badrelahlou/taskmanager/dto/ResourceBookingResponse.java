@@ -0,0 +1,28 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.time.LocalDateTime;
+
+public class ResourceBookingResponse {
+    private Long resourceId;
+    private Long taskId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    public ResourceBookingResponse() {}
+
+    public ResourceBookingResponse(Long resourceId, Long taskId, LocalDateTime start, LocalDateTime end) {
+        this.resourceId = resourceId;
+        this.taskId = taskId;
+        this.start = start;
+        this.end = end;
+    }
+
+    public Long getResourceId() { return resourceId; }
+    public void setResourceId(Long resourceId) { this.resourceId = resourceId; }
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+    public LocalDateTime getStart() { return start; }
+    public void setStart(LocalDateTime start) { this.start = start; }
+    public LocalDateTime getEnd() { return end; }
+    public void setEnd(LocalDateTime end) { this.end = end; }
+}
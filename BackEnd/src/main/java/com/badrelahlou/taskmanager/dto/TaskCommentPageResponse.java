@@ -0,0 +1,20 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.util.List;
+
+public class TaskCommentPageResponse {
+    private List<TaskCommentResponse> items;
+    private String nextCursor;
+
+    public TaskCommentPageResponse() {}
+
+    public TaskCommentPageResponse(List<TaskCommentResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TaskCommentResponse> getItems() { return items; }
+    public void setItems(List<TaskCommentResponse> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
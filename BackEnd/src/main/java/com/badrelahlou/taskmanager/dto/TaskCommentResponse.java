@@ -0,0 +1,32 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.time.LocalDateTime;
+
+public class TaskCommentResponse {
+    private Long id;
+    private Long taskId;
+    private Long userId;
+    private String comment;
+    private LocalDateTime createdAt;
+
+    public TaskCommentResponse() {}
+
+    public TaskCommentResponse(Long id, Long taskId, Long userId, String comment, LocalDateTime createdAt) {
+        this.id = id;
+        this.taskId = taskId;
+        this.userId = userId;
+        this.comment = comment;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getComment() { return comment; }
+    public void setComment(String comment) { this.comment = comment; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
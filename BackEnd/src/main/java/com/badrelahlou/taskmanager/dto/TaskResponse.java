@@ -14,6 +14,8 @@ public class TaskResponse {
     private Long timeSpent;
     private Long assignedUserId;
     private List<Long> dependencyIds;
+    // Only filled in for list responses; see TaskService.toTaskResponses
+    private Long commentCount;
     // Add more fields as needed for frontend
 
     // Getters and setters
@@ -37,4 +39,6 @@ public class TaskResponse {
     public void setAssignedUserId(Long assignedUserId) { this.assignedUserId = assignedUserId; }
     public List<Long> getDependencyIds() { return dependencyIds; }
     public void setDependencyIds(List<Long> dependencyIds) { this.dependencyIds = dependencyIds; }
+    public Long getCommentCount() { return commentCount; }
+    public void setCommentCount(Long commentCount) { this.commentCount = commentCount; }
 }
@@ -0,0 +1,88 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+
+public class TaskTreeNode {
+    private Long id;
+    private Long parentId;
+    private String title;
+    private String status;
+    private String priority;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Long timeSpent;
+    private Long assignedUserId;
+    // Distance from the task the query started at
+    private int depth;
+    // Rollups over this node's subtree, itself included
+    private long taskCount;
+    private long todoCount;
+    private long inProgressCount;
+    private long doneCount;
+    private long totalTimeSpent;
+    private double completionPercent;
+    private List<TaskTreeNode> children = new ArrayList<>();
+
+    public TaskTreeNode() {}
+
+    public TaskTreeNode(Long id, Long parentId, String title, TaskStatus status, Priority priority,
+                        LocalDateTime startTime, LocalDateTime endTime, Long timeSpent, Long assignedUserId, int depth,
+                        Long todoCount, Long inProgressCount, Long doneCount, Long totalTimeSpent) {
+        this.id = id;
+        this.parentId = parentId;
+        this.title = title;
+        this.status = status != null ? status.name() : null;
+        this.priority = priority != null ? priority.name() : null;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.timeSpent = timeSpent;
+        this.assignedUserId = assignedUserId;
+        this.depth = depth;
+        this.todoCount = todoCount != null ? todoCount : 0;
+        this.inProgressCount = inProgressCount != null ? inProgressCount : 0;
+        this.doneCount = doneCount != null ? doneCount : 0;
+        this.totalTimeSpent = totalTimeSpent != null ? totalTimeSpent : 0;
+        this.taskCount = this.todoCount + this.inProgressCount + this.doneCount;
+        this.completionPercent = taskCount == 0 ? 0 : Math.round(1000.0 * this.doneCount / taskCount) / 10.0;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getParentId() { return parentId; }
+    public void setParentId(Long parentId) { this.parentId = parentId; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+    public Long getTimeSpent() { return timeSpent; }
+    public void setTimeSpent(Long timeSpent) { this.timeSpent = timeSpent; }
+    public Long getAssignedUserId() { return assignedUserId; }
+    public void setAssignedUserId(Long assignedUserId) { this.assignedUserId = assignedUserId; }
+    public int getDepth() { return depth; }
+    public void setDepth(int depth) { this.depth = depth; }
+    public long getTaskCount() { return taskCount; }
+    public void setTaskCount(long taskCount) { this.taskCount = taskCount; }
+    public long getTodoCount() { return todoCount; }
+    public void setTodoCount(long todoCount) { this.todoCount = todoCount; }
+    public long getInProgressCount() { return inProgressCount; }
+    public void setInProgressCount(long inProgressCount) { this.inProgressCount = inProgressCount; }
+    public long getDoneCount() { return doneCount; }
+    public void setDoneCount(long doneCount) { this.doneCount = doneCount; }
+    public long getTotalTimeSpent() { return totalTimeSpent; }
+    public void setTotalTimeSpent(long totalTimeSpent) { this.totalTimeSpent = totalTimeSpent; }
+    public double getCompletionPercent() { return completionPercent; }
+    public void setCompletionPercent(double completionPercent) { this.completionPercent = completionPercent; }
+    public List<TaskTreeNode> getChildren() { return children; }
+    public void setChildren(List<TaskTreeNode> children) { this.children = children; }
+}
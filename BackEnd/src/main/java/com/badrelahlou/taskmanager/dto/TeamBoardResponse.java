@@ -0,0 +1,26 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class TeamBoardResponse {
+    private Long teamId;
+    private int page;
+    private int size;
+    private long totalTasks;
+    private Map<String, Long> statusCounts;
+    private List<TaskResponse> tasks;
+
+    public Long getTeamId() { return teamId; }
+    public void setTeamId(Long teamId) { this.teamId = teamId; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public long getTotalTasks() { return totalTasks; }
+    public void setTotalTasks(long totalTasks) { this.totalTasks = totalTasks; }
+    public Map<String, Long> getStatusCounts() { return statusCounts; }
+    public void setStatusCounts(Map<String, Long> statusCounts) { this.statusCounts = statusCounts; }
+    public List<TaskResponse> getTasks() { return tasks; }
+    public void setTasks(List<TaskResponse> tasks) { this.tasks = tasks; }
+}
@@ -0,0 +1,19 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class TemplateInstantiationRequest {
+    // Template offsets are applied to this; defaults to now
+    private LocalDateTime startAt;
+    private Long defaultAssigneeId;
+    // templateId -> userId, overrides defaultAssigneeId
+    private Map<Long, Long> assignments;
+
+    public LocalDateTime getStartAt() { return startAt; }
+    public void setStartAt(LocalDateTime startAt) { this.startAt = startAt; }
+    public Long getDefaultAssigneeId() { return defaultAssigneeId; }
+    public void setDefaultAssigneeId(Long defaultAssigneeId) { this.defaultAssigneeId = defaultAssigneeId; }
+    public Map<Long, Long> getAssignments() { return assignments; }
+    public void setAssignments(Map<Long, Long> assignments) { this.assignments = assignments; }
+}
@@ -0,0 +1,25 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.util.Map;
+
+public class TemplateInstantiationResponse {
+    private Long templateSetId;
+    private int createdCount;
+    // templateId -> created taskId
+    private Map<Long, Long> taskIds;
+
+    public TemplateInstantiationResponse() {}
+
+    public TemplateInstantiationResponse(Long templateSetId, Map<Long, Long> taskIds) {
+        this.templateSetId = templateSetId;
+        this.taskIds = taskIds;
+        this.createdCount = taskIds.size();
+    }
+
+    public Long getTemplateSetId() { return templateSetId; }
+    public void setTemplateSetId(Long templateSetId) { this.templateSetId = templateSetId; }
+    public int getCreatedCount() { return createdCount; }
+    public void setCreatedCount(int createdCount) { this.createdCount = createdCount; }
+    public Map<Long, Long> getTaskIds() { return taskIds; }
+    public void setTaskIds(Map<Long, Long> taskIds) { this.taskIds = taskIds; }
+}
@@ -0,0 +1,48 @@
+package com.badrelahlou.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * A template graph. Templates refer to each other through client-chosen keys, which are
+ * only used to wire up parents and dependencies while the set is saved.
+ */
+public class TemplateSetRequest {
+    private String name;
+    private String description;
+    private List<Item> templates;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public List<Item> getTemplates() { return templates; }
+    public void setTemplates(List<Item> templates) { this.templates = templates; }
+
+    public static class Item {
+        private String key;
+        private String title;
+        private String description;
+        private String priority;
+        private Long startOffsetMinutes;
+        private Long durationMinutes;
+        private String parentKey;
+        private List<String> dependsOn;
+
+        public String getKey() { return key; }
+        public void setKey(String key) { this.key = key; }
+        public String getTitle() { return title; }
+        public void setTitle(String title) { this.title = title; }
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+        public String getPriority() { return priority; }
+        public void setPriority(String priority) { this.priority = priority; }
+        public Long getStartOffsetMinutes() { return startOffsetMinutes; }
+        public void setStartOffsetMinutes(Long startOffsetMinutes) { this.startOffsetMinutes = startOffsetMinutes; }
+        public Long getDurationMinutes() { return durationMinutes; }
+        public void setDurationMinutes(Long durationMinutes) { this.durationMinutes = durationMinutes; }
+        public String getParentKey() { return parentKey; }
+        public void setParentKey(String parentKey) { this.parentKey = parentKey; }
+        public List<String> getDependsOn() { return dependsOn; }
+        public void setDependsOn(List<String> dependsOn) { this.dependsOn = dependsOn; }
+    }
+}
@@ -0,0 +1,26 @@
+package com.badrelahlou.taskmanager.dto;
+
+public class TemplateSetResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private int templateCount;
+
+    public TemplateSetResponse() {}
+
+    public TemplateSetResponse(Long id, String name, String description, int templateCount) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.templateCount = templateCount;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public int getTemplateCount() { return templateCount; }
+    public void setTemplateCount(int templateCount) { this.templateCount = templateCount; }
+}
@@ -0,0 +1,49 @@
+package com.badrelahlou.taskmanager.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latency histogram for every public method of the core services, published as
+ * service.method.latency{service,method,outcome}.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.badrelahlou.taskmanager.service.TaskService.*(..))"
+            + " || execution(public * com.badrelahlou.taskmanager.service.UserService.*(..))"
+            + " || execution(public * com.badrelahlou.taskmanager.service.TeamService.*(..))"
+            + " || execution(public * com.badrelahlou.taskmanager.service.NotificationService.*(..))"
+            + " || execution(public * com.badrelahlou.taskmanager.service.DashboardService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            outcome = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            Timer.builder("service.method.latency")
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
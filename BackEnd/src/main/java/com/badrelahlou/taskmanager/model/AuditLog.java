@@ -6,7 +6,10 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+    @Index(name = "idx_audit_entity", columnList = "entity_type, entity_id, timestamp"),
+    @Index(name = "idx_audit_user", columnList = "user_id, timestamp")
+})
 @Data
 public class AuditLog {
     @Id
@@ -21,4 +24,14 @@ public class AuditLog {
 
     @Column
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+
+    @Column(length = 64)
+    private String entityType;
+
+    @Column
+    private Long entityId;
+
+    // Names of the properties an update touched; values are deliberately not recorded
+    @Column(length = 1000)
+    private String details;
+}
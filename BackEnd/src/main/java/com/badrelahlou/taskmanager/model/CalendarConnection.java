@@ -0,0 +1,47 @@
+package com.badrelahlou.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// A user's link to one Google calendar; syncToken is the incremental pull position, null before the first full pull
+@Entity
+@Table(name = "calendar_connections")
+@Data
+public class CalendarConnection {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String calendarId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String accessToken;
+
+    @Column(columnDefinition = "TEXT")
+    private String syncToken;
+
+    @Column(nullable = false)
+    private boolean enabled = true;
+
+    @Column
+    private LocalDateTime lastPushAt;
+
+    @Column
+    private LocalDateTime lastPullAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    // Held by the push or pull working on this calendar while its Google calls run outside any transaction
+    @Column(length = 36)
+    private String syncClaim;
+
+    @Column
+    private LocalDateTime syncClaimedUntil;
+}
@@ -0,0 +1,37 @@
+package com.badrelahlou.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// The calendar event mirroring a task; contentHash covers the pushed fields so unchanged tasks are skipped
+@Entity
+@Table(name = "calendar_event_links", indexes = {
+    @Index(name = "idx_calendar_event_links_user", columnList = "user_id")
+})
+@Data
+public class CalendarEventLink {
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String eventId;
+
+    @Column
+    private String etag;
+
+    @Column(nullable = false)
+    private long contentHash;
+
+    @Column
+    private LocalDateTime syncedAt;
+
+    // Why the last pulled edit was not applied, e.g. a resource overlap; cleared once an edit or push goes through
+    @Column(length = 1000)
+    private String conflict;
+}
@@ -0,0 +1,17 @@
+package com.badrelahlou.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Change counter for one data set, shared by every instance; bumped through TaskDataVersion
+@Entity
+@Table(name = "data_versions")
+@Data
+public class DataVersion {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,54 @@
+package com.badrelahlou.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+import com.badrelahlou.taskmanager.report.ReportJob;
+import com.badrelahlou.taskmanager.report.ReportType;
+
+// Shared state of a report job, so any instance can answer for it; one row per parameters and data version
+@Entity
+@Table(name = "report_jobs", indexes = {
+    @Index(name = "idx_report_jobs_submitted", columnList = "submitted_at")
+})
+@Data
+public class ReportJobRecord {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ReportType type;
+
+    @Column
+    private Long userId;
+
+    @Column(nullable = false, unique = true)
+    private String cacheKey;
+
+    @Column(nullable = false)
+    private long dataVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReportJob.Status status;
+
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt;
+
+    @Column
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime completedAt;
+
+    // The result map as JSON, once DONE
+    @Column(columnDefinition = "TEXT")
+    private String result;
+
+    @Column(length = 1000)
+    private String error;
+}
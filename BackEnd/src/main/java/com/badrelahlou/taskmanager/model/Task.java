@@ -12,6 +12,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -21,7 +22,10 @@ import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    // Per-user reads such as the ICS feed; start_time matches the feed's ordering
+    @Index(name = "idx_tasks_assignee_start", columnList = "assigned_user_id, start_time")
+})
 @Data 
 public class Task {
     @Id
@@ -3,22 +3,39 @@ package com.badrelahlou.taskmanager.model;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "task_attachments")
+@Table(name = "task_attachments", indexes = {
+    @Index(name = "idx_task_attachments_task", columnList = "task_id"),
+    @Index(name = "idx_task_attachments_sha256", columnList = "sha256")
+})
 @Data
 public class TaskAttachment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id", nullable = false)
     private Task task;
 
+    // Storage key of the content, "sha256:<hex>"
     @Column(nullable = false)
     private String fileUrl;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uploaded_by", nullable = false)
     private User uploadedBy;
-}
\ No newline at end of file
+
+    private String fileName;
+
+    private String contentType;
+
+    private Long sizeBytes;
+
+    @Column(length = 64)
+    private String sha256;
+
+    private LocalDateTime uploadedAt;
+}
@@ -0,0 +1,32 @@
+package com.badrelahlou.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.io.Serializable;
+
+// One row per (ancestor, descendant) pair in the subtask tree, including each task paired with itself at depth 0
+@Entity
+@Table(name = "task_closure", indexes = {
+    @Index(name = "idx_task_closure_descendant", columnList = "descendant_id, depth")
+})
+@IdClass(TaskClosure.Key.class)
+@Data
+public class TaskClosure {
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Data
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
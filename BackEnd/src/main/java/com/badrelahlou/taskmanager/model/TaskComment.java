@@ -6,18 +6,20 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "task_comments")
+@Table(name = "task_comments", indexes = {
+    @Index(name = "idx_task_comments_thread", columnList = "task_id, created_at, id")
+})
 @Data
 public class TaskComment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id", nullable = false)
     private Task task;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -26,4 +28,4 @@ public class TaskComment {
 
     @Column
     private LocalDateTime createdAt;
-}
\ No newline at end of file
+}
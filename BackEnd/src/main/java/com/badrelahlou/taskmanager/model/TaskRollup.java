@@ -0,0 +1,27 @@
+package com.badrelahlou.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Aggregates over a task's whole subtree, itself included; maintained by TaskHierarchyService
+@Entity
+@Table(name = "task_rollups")
+@Data
+public class TaskRollup {
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(nullable = false)
+    private long todoCount;
+
+    @Column(nullable = false)
+    private long inProgressCount;
+
+    @Column(nullable = false)
+    private long doneCount;
+
+    // Minutes, summed from Task.timeSpent
+    @Column(nullable = false)
+    private long totalTimeSpent;
+}
@@ -2,6 +2,10 @@ package com.badrelahlou.taskmanager.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.List;
 
 @Entity
 @Table(name = "task_templates")
@@ -19,4 +23,34 @@ public class TaskTemplate {
 
     @Enumerated(EnumType.STRING)
     private Priority priority;
-}
\ No newline at end of file
+
+    // Set membership, subtask nesting and dependencies; all null/empty for a standalone template
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_set_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TaskTemplateSet templateSet;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_template_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TaskTemplate parentTemplate;
+
+    @ManyToMany
+    @JoinTable(
+        name = "task_template_dependencies",
+        joinColumns = @JoinColumn(name = "template_id"),
+        inverseJoinColumns = @JoinColumn(name = "dependency_id")
+    )
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<TaskTemplate> dependencies;
+
+    // Relative to the start time given at instantiation
+    @Column
+    private Long startOffsetMinutes;
+
+    @Column
+    private Long durationMinutes;
+}
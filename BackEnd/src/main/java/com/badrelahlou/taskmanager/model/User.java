@@ -49,6 +49,11 @@ public class User {
 
     @Column
     private boolean isTwoFactorEnabled; 
+
+    // Secret in the user's ICS subscription URL; null until the user asks for a feed link
+    @Column(length = 43, unique = true)
+    @JsonIgnore
+    private String calendarFeedToken;
     
     @Transient 
     private String password; 
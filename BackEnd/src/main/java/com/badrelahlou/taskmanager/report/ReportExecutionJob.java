@@ -0,0 +1,26 @@
+package com.badrelahlou.taskmanager.report;
+
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import com.badrelahlou.taskmanager.service.ReportJobService;
+
+// Quartz entry point for a submitted report; the job data map carries the job id and cache key
+public class ReportExecutionJob extends QuartzJobBean {
+    private final ReportJobService reportJobService;
+
+    private String jobId;
+    private String cacheKey;
+
+    public ReportExecutionJob(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        reportJobService.execute(jobId, cacheKey);
+    }
+}
@@ -0,0 +1,89 @@
+package com.badrelahlou.taskmanager.report;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One report computation, or this instance's view of one stored in report_jobs. Every request
+ * for the same parameters at the same data version is handed the same job, and completion is
+ * published through a future that waiting requests and event streams attach to.
+ */
+public class ReportJob {
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private final String id;
+    private final ReportType type;
+    private final Long userId;
+    private final String cacheKey;
+    private final long dataVersion;
+    private final LocalDateTime submittedAt;
+    private final CompletableFuture<Map<String, Object>> completion = new CompletableFuture<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile String error;
+
+    public ReportJob(String id, ReportType type, Long userId, String cacheKey, long dataVersion) {
+        this(id, type, userId, cacheKey, dataVersion, LocalDateTime.now());
+    }
+
+    public ReportJob(String id, ReportType type, Long userId, String cacheKey, long dataVersion, LocalDateTime submittedAt) {
+        this.id = id;
+        this.type = type;
+        this.userId = userId;
+        this.cacheKey = cacheKey;
+        this.dataVersion = dataVersion;
+        this.submittedAt = submittedAt;
+    }
+
+    public String getId() { return id; }
+    public ReportType getType() { return type; }
+    public Long getUserId() { return userId; }
+    public String getCacheKey() { return cacheKey; }
+    public long getDataVersion() { return dataVersion; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public Status getStatus() { return status; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public String getError() { return error; }
+    public CompletableFuture<Map<String, Object>> getCompletion() { return completion; }
+
+    public Map<String, Object> getResult() {
+        return status == Status.DONE ? completion.getNow(null) : null;
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    public void start() {
+        start(LocalDateTime.now());
+    }
+
+    public void start(LocalDateTime at) {
+        startedAt = at;
+        status = Status.RUNNING;
+    }
+
+    public void complete(Map<String, Object> result) {
+        complete(result, LocalDateTime.now());
+    }
+
+    public void complete(Map<String, Object> result, LocalDateTime at) {
+        completedAt = at;
+        status = Status.DONE;
+        completion.complete(result);
+    }
+
+    public void fail(String message) {
+        fail(message, LocalDateTime.now());
+    }
+
+    public void fail(String message, LocalDateTime at) {
+        completedAt = at;
+        error = message;
+        status = Status.FAILED;
+        completion.completeExceptionally(new RuntimeException(message));
+    }
+}
@@ -0,0 +1,17 @@
+package com.badrelahlou.taskmanager.report;
+
+public enum ReportType {
+    // Task counts by status across all tasks
+    TASK_COMPLETION,
+    // Task counts by status for one assignee
+    USER_ACTIVITY;
+
+    /** Canonical form of the report's parameters, used to share jobs and cached results. */
+    public String key(Long userId) {
+        if (this == USER_ACTIVITY) {
+            if (userId == null) throw new RuntimeException("userId is required for " + this);
+            return name() + ":" + userId;
+        }
+        return name();
+    }
+}
@@ -0,0 +1,75 @@
+package com.badrelahlou.taskmanager.report;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Counter bumped after every committed change to the tasks table, shared by all instances in
+ * a data_versions row. Report results are stored under the version they were computed at, so
+ * a bump retires them without scanning anything. Entity writes bump it through
+ * TaskDataVersionListener; JDBC write paths call bumpAfterCommit.
+ *
+ * Bumps are coalesced: a commit only marks the counter dirty, and the row is incremented once
+ * per report.jobs.version-publish-ms, or right away when this instance reads the version. So
+ * a burst of writes costs one update, and other instances see it within the interval.
+ */
+@Component
+public class TaskDataVersion {
+    private static final Logger log = LoggerFactory.getLogger(TaskDataVersion.class);
+
+    static final String NAME = "tasks";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public TaskDataVersion(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** The shared version, including every bump committed on this instance so far. */
+    public long current() {
+        publish();
+        List<Long> versions = jdbcTemplate.queryForList("select version from data_versions where name = ?", Long.class, NAME);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    public void bump() {
+        dirty.set(true);
+    }
+
+    public void bumpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${report.jobs.version-publish-ms:1000}")
+    public void publish() {
+        if (!dirty.getAndSet(false)) return;
+        try {
+            if (jdbcTemplate.update("update data_versions set version = version + 1 where name = ?", NAME) == 0) {
+                jdbcTemplate.update("insert into data_versions (name, version) values (?, 1)", NAME);
+            }
+        } catch (DataAccessException e) {
+            // Left dirty for the next publish; two instances inserting the first row also end up here
+            dirty.set(true);
+            log.warn("Could not publish the task data version: {}", e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.badrelahlou.taskmanager.repository;
 
 import com.badrelahlou.taskmanager.model.AuditLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-}
\ No newline at end of file
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, JpaSpecificationExecutor<AuditLog> {
+}
@@ -0,0 +1,25 @@
+package com.badrelahlou.taskmanager.repository;
+
+import com.badrelahlou.taskmanager.model.CalendarConnection;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CalendarConnectionRepository extends JpaRepository<CalendarConnection, Long> {
+    Optional<CalendarConnection> findByUserId(Long userId);
+
+    List<CalendarConnection> findByUserIdIn(Collection<Long> userIds);
+
+    List<CalendarConnection> findByEnabledTrue();
+
+    // Row locks, taken in user id order, under which pushes and pulls claim and release these calendars
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from CalendarConnection c where c.userId in :userIds order by c.userId")
+    List<CalendarConnection> lockByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,20 @@
+package com.badrelahlou.taskmanager.repository;
+
+import com.badrelahlou.taskmanager.model.CalendarEventLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CalendarEventLinkRepository extends JpaRepository<CalendarEventLink, Long> {
+    List<CalendarEventLink> findByUserIdAndEventIdIn(Long userId, Collection<String> eventIds);
+
+    long countByUserIdAndConflictIsNotNull(Long userId);
+
+    @Modifying
+    @Query("delete from CalendarEventLink l where l.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,10 +1,61 @@
 package com.badrelahlou.taskmanager.repository;
 
 import com.badrelahlou.taskmanager.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Keyset pages, newest first; (createdAt, id) is the cursor so ties on createdAt are stable.
+    // :since is the retention lower bound and lets a partitioned table skip expired partitions.
+    // The unread variants are separate queries rather than an optional predicate, so the planner
+    // sees a plain is_read = false and can use an index covering only unread rows.
+    @Query("select n from Notification n where n.user.id = :userId " +
+           "and n.createdAt >= :since order by n.createdAt desc, n.id desc")
+    List<Notification> findInboxFirstPage(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                          Pageable pageable);
+
+    @Query("select n from Notification n where n.user.id = :userId and n.isRead = false " +
+           "and n.createdAt >= :since order by n.createdAt desc, n.id desc")
+    List<Notification> findUnreadInboxFirstPage(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                                Pageable pageable);
+
+    @Query("select n from Notification n where n.user.id = :userId " +
+           "and n.createdAt >= :since and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id)) " +
+           "order by n.createdAt desc, n.id desc")
+    List<Notification> findInboxPageAfter(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                          @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                          Pageable pageable);
+
+    @Query("select n from Notification n where n.user.id = :userId and n.isRead = false " +
+           "and n.createdAt >= :since and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id)) " +
+           "order by n.createdAt desc, n.id desc")
+    List<Notification> findUnreadInboxPageAfter(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                                @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query("select count(n) from Notification n where n.user.id = :userId and n.isRead = false and n.createdAt >= :since")
+    long countUnread(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @Query("select n.user.id from Notification n where n.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Notification n set n.isRead = true where n.user.id = :userId and n.id in :ids and n.isRead = false")
+    int markReadByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Notification n set n.isRead = true where n.user.id = :userId and n.createdAt >= :since " +
+           "and n.createdAt < :before and n.isRead = false")
+    int markReadBefore(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                       @Param("before") LocalDateTime before);
+}
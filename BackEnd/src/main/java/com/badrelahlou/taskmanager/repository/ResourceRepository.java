@@ -1,7 +1,18 @@
 package com.badrelahlou.taskmanager.repository;
 
 import com.badrelahlou.taskmanager.model.Resource;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
-}
\ No newline at end of file
+    // Row locks, taken in id order, that serialise bookings of these resources across instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Resource r where r.id in :ids order by r.id")
+    List<Resource> lockByIdIn(@Param("ids") Collection<Long> ids);
+}
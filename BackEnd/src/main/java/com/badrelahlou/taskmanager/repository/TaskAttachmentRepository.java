@@ -2,6 +2,20 @@ package com.badrelahlou.taskmanager.repository;
 
 import com.badrelahlou.taskmanager.model.TaskAttachment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment, Long> {
-}
\ No newline at end of file
+    List<TaskAttachment> findByTaskIdOrderByUploadedAtDesc(Long taskId);
+
+    Optional<TaskAttachment> findByIdAndTaskId(Long id, Long taskId);
+
+    long countBySha256(String sha256);
+
+    @Query("select distinct a.sha256 from TaskAttachment a where a.sha256 in :hashes")
+    List<String> findReferencedSha256(@Param("hashes") Collection<String> hashes);
+}
@@ -0,0 +1,27 @@
+package com.badrelahlou.taskmanager.repository;
+
+import com.badrelahlou.taskmanager.dto.TaskTreeNode;
+import com.badrelahlou.taskmanager.model.TaskClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TaskClosureRepository extends JpaRepository<TaskClosure, TaskClosure.Key> {
+    // Whole subtree with rollups in one query; parents sort before their children
+    @Query("select new com.badrelahlou.taskmanager.dto.TaskTreeNode(t.id, t.parentTask.id, t.title, t.status, t.priority, " +
+           "t.startTime, t.endTime, t.timeSpent, t.assignedUser.id, c.depth, " +
+           "r.todoCount, r.inProgressCount, r.doneCount, r.totalTimeSpent) " +
+           "from TaskClosure c join Task t on t.id = c.descendantId left join TaskRollup r on r.taskId = t.id " +
+           "where c.ancestorId = :taskId and c.depth <= :maxDepth order by c.depth, t.id")
+    List<TaskTreeNode> findSubtree(@Param("taskId") Long taskId, @Param("maxDepth") int maxDepth);
+
+    // Root first, ending with the task itself
+    @Query("select new com.badrelahlou.taskmanager.dto.TaskTreeNode(t.id, t.parentTask.id, t.title, t.status, t.priority, " +
+           "t.startTime, t.endTime, t.timeSpent, t.assignedUser.id, c.depth, " +
+           "r.todoCount, r.inProgressCount, r.doneCount, r.totalTimeSpent) " +
+           "from TaskClosure c join Task t on t.id = c.ancestorId left join TaskRollup r on r.taskId = t.id " +
+           "where c.descendantId = :taskId order by c.depth desc")
+    List<TaskTreeNode> findAncestors(@Param("taskId") Long taskId);
+}
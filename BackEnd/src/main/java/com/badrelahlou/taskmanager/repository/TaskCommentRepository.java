@@ -1,10 +1,30 @@
 package com.badrelahlou.taskmanager.repository;
 
+import com.badrelahlou.taskmanager.dto.TaskCommentResponse;
 import com.badrelahlou.taskmanager.model.TaskComment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskCommentRepository extends JpaRepository<TaskComment, Long> {
     List<TaskComment> findByTaskId(Long taskId);
-}
\ No newline at end of file
+
+    // Threads read oldest first; (createdAt, id) is the keyset and matches idx_task_comments_thread
+    @Query("select new com.badrelahlou.taskmanager.dto.TaskCommentResponse(c.id, c.task.id, c.user.id, c.comment, c.createdAt) " +
+           "from TaskComment c where c.task.id = :taskId order by c.createdAt, c.id")
+    List<TaskCommentResponse> findThreadFirstPage(@Param("taskId") Long taskId, Pageable pageable);
+
+    @Query("select new com.badrelahlou.taskmanager.dto.TaskCommentResponse(c.id, c.task.id, c.user.id, c.comment, c.createdAt) " +
+           "from TaskComment c where c.task.id = :taskId " +
+           "and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id)) order by c.createdAt, c.id")
+    List<TaskCommentResponse> findThreadPageAfter(@Param("taskId") Long taskId, @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id, Pageable pageable);
+
+    @Query("select c.task.id, count(c) from TaskComment c where c.task.id in :taskIds group by c.task.id")
+    List<Object[]> countByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+}
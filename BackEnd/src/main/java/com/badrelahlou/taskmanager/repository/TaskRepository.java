@@ -1,10 +1,31 @@
 package com.badrelahlou.taskmanager.repository;
 
 import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByAssignedUserId(Long userId);
-}
\ No newline at end of file
+
+    // Page of tasks assigned to any member of the team; no count query, the total comes from countTeamTasksByStatus
+    @Query("select t from Team tm join tm.members m join Task t on t.assignedUser = m where tm.id = :teamId order by t.id")
+    List<Task> findTeamTasks(@Param("teamId") Long teamId, Pageable pageable);
+
+    @Query("select t.status, count(t) from Team tm join tm.members m join Task t on t.assignedUser = m where tm.id = :teamId group by t.status")
+    List<Object[]> countTeamTasksByStatus(@Param("teamId") Long teamId);
+
+    // One row: lowest and highest task id, both null when there are no tasks
+    @Query("select min(t.id), max(t.id) from Task t")
+    List<Object[]> findIdBounds();
+
+    @Query("select t from Task t where t.id >= :fromId and t.id < :toId and t.recurrenceRule is not null and t.recurrenceRule <> ''")
+    List<Task> findRecurringInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("select t from Task t join fetch t.assignedUser where t.id >= :fromId and t.id < :toId and t.status = :status")
+    List<Task> findAssignedInRangeByStatus(@Param("fromId") long fromId, @Param("toId") long toId, @Param("status") TaskStatus status);
+}
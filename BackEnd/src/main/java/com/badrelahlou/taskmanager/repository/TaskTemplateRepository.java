@@ -2,6 +2,22 @@ package com.badrelahlou.taskmanager.repository;
 
 import com.badrelahlou.taskmanager.model.TaskTemplate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface TaskTemplateRepository extends JpaRepository<TaskTemplate, Long> {
-}
\ No newline at end of file
+    @Query("select t from TaskTemplate t where t.templateSet.id = :setId order by t.id")
+    List<TaskTemplate> findBySetId(@Param("setId") Long setId);
+
+    @Query("select t.templateSet.id, count(t) from TaskTemplate t where t.templateSet is not null group by t.templateSet.id")
+    List<Object[]> countBySet();
+
+    // (templateId, parentTemplateId) pairs, parent null for roots
+    @Query("select t.id, t.parentTemplate.id from TaskTemplate t where t.templateSet.id = :setId")
+    List<Object[]> findParentLinks(@Param("setId") Long setId);
+
+    @Query("select t.id, d.id from TaskTemplate t join t.dependencies d where t.templateSet.id = :setId")
+    List<Object[]> findDependencyLinks(@Param("setId") Long setId);
+}
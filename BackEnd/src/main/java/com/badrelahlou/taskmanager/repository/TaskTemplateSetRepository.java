@@ -0,0 +1,8 @@
+package com.badrelahlou.taskmanager.repository;
+
+import com.badrelahlou.taskmanager.model.TaskTemplateSet;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TaskTemplateSetRepository extends JpaRepository<TaskTemplateSet, Long> {
+    boolean existsByName(String name);
+}
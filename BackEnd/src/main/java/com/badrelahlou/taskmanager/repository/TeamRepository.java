@@ -1,8 +1,19 @@
 package com.badrelahlou.taskmanager.repository;
 
-import com.badrelahlou.taskmanager.model.Team;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.badrelahlou.taskmanager.model.Team;
 
 public interface TeamRepository extends JpaRepository<Team, Long> {
     boolean existsByName(String name);
+
+    @Query("select t.id from Team t")
+    List<Long> findAllTeamIds();
+
+    // (teamId, userId) pairs straight from the join table, without loading any entities
+    @Query("select t.id, m.id from Team t join t.members m")
+    List<Object[]> findAllMemberships();
 }
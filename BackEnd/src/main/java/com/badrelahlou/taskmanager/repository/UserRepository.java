@@ -1,12 +1,25 @@
 package com.badrelahlou.taskmanager.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.badrelahlou.taskmanager.model.Role;
 import com.badrelahlou.taskmanager.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+
+    @Query("select u.role from User u where u.id = :id")
+    Optional<Role> findRoleById(@Param("id") Long id);
+
+    @Query("select p from User u join u.permissions p where u.id = :id")
+    List<String> findPermissionsById(@Param("id") Long id);
+
+    @Query("select u.calendarFeedToken from User u where u.id = :id")
+    Optional<String> findCalendarFeedTokenById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.badrelahlou.taskmanager.retention;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps each configured table's monthly partitions in shape. It creates partitions ahead of
+ * time, and once every row in a partition is past the retention window it detaches the
+ * partition. Rows beyond the premade months land in a DEFAULT partition instead of failing
+ * to insert; when their month is created they are moved into it. The detached table is then dropped or moved to the archive schema. Detach,
+ * drop and SET SCHEMA only touch catalog metadata, so expiry cost does not grow with the
+ * number of expired rows.
+ * <p>
+ * Each table is handled in its own transaction under a transaction-scoped advisory lock, so
+ * only one instance works on a table at a time. PostgreSQL only.
+ */
+public class PartitionMaintenance {
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final RetentionProperties properties;
+    private final PartitionMigration migration;
+
+    public PartitionMaintenance(JdbcTemplate jdbc, TransactionTemplate transactions, RetentionProperties properties) {
+        this.jdbc = jdbc;
+        this.transactions = transactions;
+        this.properties = properties;
+        this.migration = new PartitionMigration(jdbc);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${retention.cron:0 15 2 * * *}")
+    public void run() {
+        for (Map.Entry<String, RetentionProperties.Table> entry : properties.getTables().entrySet()) {
+            try {
+                transactions.executeWithoutResult(status -> maintain(entry.getKey(), entry.getValue()));
+            } catch (RuntimeException e) {
+                log.error("Partition maintenance failed for {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private void maintain(String table, RetentionProperties.Table config) {
+        Boolean locked = jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(hashtext(?))", Boolean.class,
+                "partition-maintenance:" + table);
+        if (!Boolean.TRUE.equals(locked) || !migration.exists(table)) return;
+        if (!migration.isPartitioned(table)) {
+            migration.migrate(table, config.getColumn());
+        }
+        String defaultPartition = table + "_default";
+        jdbc.execute("CREATE TABLE IF NOT EXISTS " + defaultPartition + " PARTITION OF " + table + " DEFAULT");
+        createAhead(table, config.getColumn(), defaultPartition);
+        expire(table, config);
+    }
+
+    private void createAhead(String table, String column, String defaultPartition) {
+        LocalDateTime month = monthStart(LocalDateTime.now());
+        LocalDateTime last = month.plusMonths(properties.getPremakeMonths());
+        // Starting at the oldest parked row also picks up months maintenance skipped while it was not running
+        LocalDateTime oldestParked = jdbc.queryForObject("SELECT min(" + column + ") FROM " + defaultPartition,
+                LocalDateTime.class);
+        if (oldestParked != null && oldestParked.isBefore(month)) month = monthStart(oldestParked);
+        LocalDateTime covered = coveredUntil(table);
+        for (; !month.isAfter(last); month = month.plusMonths(1)) {
+            // The legacy partition may already cover the first months
+            if (covered != null && month.isBefore(covered)) continue;
+            String name = table + month.format(SUFFIX);
+            if (migration.exists(name)) continue;
+            Timestamp from = Timestamp.valueOf(month);
+            Timestamp to = Timestamp.valueOf(month.plusMonths(1));
+            String bounds = " FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+            Boolean parked = jdbc.queryForObject("SELECT EXISTS (SELECT 1 FROM " + defaultPartition + " WHERE "
+                    + column + " >= ? AND " + column + " < ?)", Boolean.class, from, to);
+            if (!Boolean.TRUE.equals(parked)) {
+                jdbc.execute("CREATE TABLE " + name + " PARTITION OF " + table + bounds);
+                continue;
+            }
+            // A partition overlapping rows still in the default partition cannot be added, so they move over first
+            jdbc.execute("CREATE TABLE " + name + " (LIKE " + table + " INCLUDING DEFAULTS INCLUDING STORAGE)");
+            int moved = jdbc.update("WITH moved AS (DELETE FROM " + defaultPartition + " WHERE " + column + " >= ? AND "
+                    + column + " < ? RETURNING *) INSERT INTO " + name + " SELECT * FROM moved", from, to);
+            jdbc.execute("ALTER TABLE " + table + " ATTACH PARTITION " + name + bounds);
+            log.info("Moved {} rows of {} from the default partition into {}", moved, table, name);
+        }
+    }
+
+    private void expire(String table, RetentionProperties.Table config) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(config.getRetentionDays());
+        for (Map<String, Object> partition : partitions(table)) {
+            LocalDateTime upper = upperBound((String) partition.get("bound"));
+            if (upper == null || upper.isAfter(cutoff)) continue;
+            String name = (String) partition.get("name");
+            jdbc.execute("ALTER TABLE " + table + " DETACH PARTITION " + name);
+            if (config.getMode() == RetentionProperties.Mode.ARCHIVE) {
+                jdbc.execute("CREATE SCHEMA IF NOT EXISTS " + properties.getArchiveSchema());
+                jdbc.execute("ALTER TABLE " + name + " SET SCHEMA " + properties.getArchiveSchema());
+                log.info("Archived partition {} of {} to schema {}", name, table, properties.getArchiveSchema());
+            } else {
+                jdbc.execute("DROP TABLE " + name);
+                log.info("Dropped partition {} of {}", name, table);
+            }
+        }
+    }
+
+    private LocalDateTime coveredUntil(String table) {
+        LocalDateTime latest = null;
+        for (Map<String, Object> partition : partitions(table)) {
+            LocalDateTime upper = upperBound((String) partition.get("bound"));
+            if (upper != null && (latest == null || upper.isAfter(latest))) latest = upper;
+        }
+        return latest;
+    }
+
+    private List<Map<String, Object>> partitions(String table) {
+        return jdbc.queryForList("SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound "
+                + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = ?::regclass", table);
+    }
+
+    // Bounds print as FOR VALUES FROM ('2026-01-01 00:00:00') TO ('2026-02-01 00:00:00'); a DEFAULT partition has none
+    static LocalDateTime upperBound(String bound) {
+        if (bound == null) return null;
+        Matcher matcher = UPPER_BOUND.matcher(bound);
+        return matcher.find() ? Timestamp.valueOf(matcher.group(1)).toLocalDateTime() : null;
+    }
+
+    static LocalDateTime monthStart(LocalDateTime time) {
+        return time.toLocalDate().withDayOfMonth(1).atStartOfDay();
+    }
+}
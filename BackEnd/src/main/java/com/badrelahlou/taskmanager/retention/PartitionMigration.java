@@ -0,0 +1,103 @@
+package com.badrelahlou.taskmanager.retention;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * One-time conversion of a plain table into a table range-partitioned by month on its
+ * timestamp column. Everything runs in the caller's transaction, so on PostgreSQL it either
+ * completes or leaves the table untouched.
+ * <p>
+ * The existing table is not copied. It is renamed to {@code <table>_legacy} and attached as
+ * the first partition, covering everything up to the start of next month. It then expires
+ * like any other partition. Rows with a null timestamp are parked at {@link RetentionProperties#EPOCH}.
+ * <p>
+ * Partitioned tables need the partition key in the primary key and cannot have identity
+ * columns before PostgreSQL 17. The primary key therefore becomes (id, column), and ids come
+ * from a sequence that continues where the old identity stopped. Secondary indexes and
+ * foreign keys are recreated on the parent under their original names, so Hibernate's schema
+ * update finds them.
+ */
+class PartitionMigration {
+    private static final Logger log = LoggerFactory.getLogger(PartitionMigration.class);
+
+    private final JdbcTemplate jdbc;
+
+    PartitionMigration(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    boolean isPartitioned(String table) {
+        List<String> kinds = jdbc.queryForList(
+                "SELECT c.relkind::text FROM pg_class c WHERE c.relname = ? AND c.relnamespace = current_schema()::regnamespace",
+                String.class, table);
+        return !kinds.isEmpty() && "p".equals(kinds.get(0));
+    }
+
+    boolean exists(String table) {
+        return jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    }
+
+    void migrate(String table, String column) {
+        String legacy = table + "_legacy";
+        String sequence = table + "_id_seq";
+        log.info("Converting {} to a table partitioned by month on {}", table, column);
+
+        List<Map<String, Object>> indexes = jdbc.queryForList(
+                "SELECT i.relname AS name, pg_get_indexdef(i.oid) AS def FROM pg_index x "
+                + "JOIN pg_class i ON i.oid = x.indexrelid WHERE x.indrelid = ?::regclass AND NOT x.indisprimary",
+                table);
+        List<Map<String, Object>> foreignKeys = jdbc.queryForList(
+                "SELECT conname AS name, pg_get_constraintdef(oid) AS def FROM pg_constraint "
+                + "WHERE conrelid = ?::regclass AND contype = 'f'", table);
+        String primaryKey = jdbc.queryForObject(
+                "SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'p'", String.class, table);
+
+        jdbc.execute("ALTER TABLE " + table + " RENAME TO " + legacy);
+        for (Map<String, Object> index : indexes) {
+            String name = (String) index.get("name");
+            jdbc.execute("ALTER INDEX " + name + " RENAME TO " + truncate(name + "_legacy"));
+        }
+        jdbc.update("UPDATE " + legacy + " SET " + column + " = ? WHERE " + column + " IS NULL",
+                Timestamp.valueOf(RetentionProperties.EPOCH));
+        Long maxId = jdbc.queryForObject("SELECT coalesce(max(id), 0) FROM " + legacy, Long.class);
+        LocalDateTime maxTimestamp = jdbc.queryForObject(
+                "SELECT max(" + column + ") FROM " + legacy, LocalDateTime.class);
+
+        jdbc.execute("ALTER TABLE " + legacy + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbc.execute("ALTER TABLE " + legacy + " ALTER COLUMN " + column + " SET NOT NULL");
+        jdbc.execute("ALTER TABLE " + legacy + " DROP CONSTRAINT " + primaryKey);
+        jdbc.execute("ALTER TABLE " + legacy + " ADD CONSTRAINT " + truncate(legacy + "_pkey")
+                + " PRIMARY KEY (id, " + column + ")");
+
+        jdbc.execute("CREATE TABLE " + table + " (LIKE " + legacy + " INCLUDING DEFAULTS INCLUDING STORAGE) "
+                + "PARTITION BY RANGE (" + column + ")");
+        jdbc.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + primaryKey + " PRIMARY KEY (id, " + column + ")");
+        jdbc.execute("CREATE SEQUENCE " + sequence + " OWNED BY " + table + ".id");
+        jdbc.queryForObject("SELECT setval(?::regclass, ?, ?)", Long.class, sequence, Math.max(maxId, 1), maxId > 0);
+        jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+        // Definitions were captured before the renames, so they already name the new parent
+        for (Map<String, Object> index : indexes) {
+            jdbc.execute((String) index.get("def"));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime latest = maxTimestamp != null && maxTimestamp.isAfter(now) ? maxTimestamp : now;
+        LocalDateTime upper = PartitionMaintenance.monthStart(latest).plusMonths(1);
+        jdbc.execute("ALTER TABLE " + table + " ATTACH PARTITION " + legacy
+                + " FOR VALUES FROM (MINVALUE) TO ('" + Timestamp.valueOf(upper) + "')");
+        for (Map<String, Object> foreignKey : foreignKeys) {
+            jdbc.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + foreignKey.get("name") + " " + foreignKey.get("def"));
+        }
+    }
+
+    private static String truncate(String identifier) {
+        return identifier.length() <= 63 ? identifier : identifier.substring(0, 63);
+    }
+}
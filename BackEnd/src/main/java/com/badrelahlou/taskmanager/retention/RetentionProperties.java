@@ -0,0 +1,58 @@
+package com.badrelahlou.taskmanager.retention;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * retention.* settings. Each entry under retention.tables names a table, the timestamp column
+ * it is range-partitioned on, how long rows are kept, and whether expired partitions are
+ * dropped or moved to the archive schema.
+ */
+@ConfigurationProperties("retention")
+public class RetentionProperties {
+    // Lower bound used when retention is off; also where rows with a null timestamp are parked
+    public static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private boolean enabled;
+    private int premakeMonths = 3;
+    private String archiveSchema = "archive";
+    private Map<String, Table> tables = new LinkedHashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getPremakeMonths() { return premakeMonths; }
+    public void setPremakeMonths(int premakeMonths) { this.premakeMonths = premakeMonths; }
+    public String getArchiveSchema() { return archiveSchema; }
+    public void setArchiveSchema(String archiveSchema) { this.archiveSchema = archiveSchema; }
+    public Map<String, Table> getTables() { return tables; }
+    public void setTables(Map<String, Table> tables) { this.tables = tables; }
+
+    /**
+     * Oldest timestamp still inside the table's retention window. Queries filter on it so the
+     * planner can prune partitions that only hold expired rows.
+     */
+    public LocalDateTime lowerBound(String table) {
+        Table config = tables.get(table);
+        if (!enabled || config == null) return EPOCH;
+        return LocalDate.now().minusDays(config.getRetentionDays()).atStartOfDay();
+    }
+
+    public enum Mode { DROP, ARCHIVE }
+
+    public static class Table {
+        private String column;
+        private int retentionDays = 90;
+        private Mode mode = Mode.DROP;
+
+        public String getColumn() { return column; }
+        public void setColumn(String column) { this.column = column; }
+        public int getRetentionDays() { return retentionDays; }
+        public void setRetentionDays(int retentionDays) { this.retentionDays = retentionDays; }
+        public Mode getMode() { return mode; }
+        public void setMode(Mode mode) { this.mode = mode; }
+    }
+}
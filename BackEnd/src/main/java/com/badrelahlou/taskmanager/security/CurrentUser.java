@@ -0,0 +1,23 @@
+package com.badrelahlou.taskmanager.security;
+
+import java.util.Optional;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+// Caller identity as established by JwtAuthenticationFilter
+public final class CurrentUser {
+    private CurrentUser() {}
+
+    public static Optional<JwtPrincipal> principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return Optional.of(principal);
+        }
+        return Optional.empty();
+    }
+
+    public static Optional<Long> id() {
+        return principal().map(JwtPrincipal::getUserId);
+    }
+}
@@ -0,0 +1,112 @@
+package com.badrelahlou.taskmanager.security;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.badrelahlou.taskmanager.security.VerifiedTokenCache.VerifiedToken;
+import com.badrelahlou.taskmanager.service.JwtUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Stateless bearer-token authentication. The principal, role and permissions all come from
+ * the token claims; a verified token is cached so repeat requests skip signature checking.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtils jwtUtils;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenDenyList denyList;
+
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, VerifiedTokenCache tokenCache, TokenDenyList denyList) {
+        this.jwtUtils = jwtUtils;
+        this.tokenCache = tokenCache;
+        this.denyList = denyList;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = resolveToken(request);
+        if (token == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        VerifiedToken verified = tokenCache.get(token);
+        if (verified == null) {
+            try {
+                verified = verify(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                reject(response, "Invalid token");
+                return;
+            }
+            tokenCache.put(token, verified);
+        }
+
+        if (denyList.isRevoked(verified.getJti())) {
+            tokenCache.invalidate(token);
+            reject(response, "Token has been revoked");
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(verified.getAuthentication());
+        SecurityContextHolder.setContext(context);
+        chain.doFilter(request, response);
+    }
+
+    public static String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        String token = header.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    private VerifiedToken verify(String token) {
+        Claims claims = jwtUtils.parseClaims(token);
+        Number uid = claims.get("uid", Number.class);
+        String role = claims.get("role", String.class);
+        List<String> permissions = new ArrayList<>();
+        Object perms = claims.get("perms");
+        if (perms instanceof List<?> list) {
+            list.forEach(p -> permissions.add(String.valueOf(p)));
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (role != null) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        permissions.forEach(p -> authorities.add(new SimpleGrantedAuthority(p)));
+
+        JwtPrincipal principal = new JwtPrincipal(uid != null ? uid.longValue() : null, claims.getSubject(), role, List.copyOf(permissions));
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : System.currentTimeMillis();
+        return new VerifiedToken(authentication, claims.getId(), expiresAt);
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        SecurityContextHolder.clearContext();
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType("text/plain");
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.badrelahlou.taskmanager.security;
+
+import java.util.List;
+
+// Identity rebuilt from token claims, so authenticated requests never need a user lookup
+public class JwtPrincipal {
+    private final Long userId;
+    private final String username;
+    private final String role;
+    private final List<String> permissions;
+
+    public JwtPrincipal(Long userId, String username, String role, List<String> permissions) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.permissions = permissions;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getRole() { return role; }
+    public List<String> getPermissions() { return permissions; }
+
+    @Override
+    public String toString() { return username; }
+}
@@ -0,0 +1,56 @@
+package com.badrelahlou.taskmanager.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.badrelahlou.taskmanager.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Per-account failed-login counter. Once an account reaches the limit inside the window,
+ * further attempts are refused before any password hashing is scheduled.
+ */
+@Component
+public class LoginAttemptThrottle {
+    private final int maxFailures;
+    private final Duration window;
+    private final Cache<String, AtomicInteger> failures;
+
+    public LoginAttemptThrottle(@Value("${login.throttle.max-failures:5}") int maxFailures,
+                                @Value("${login.throttle.window-seconds:900}") long windowSeconds) {
+        this.maxFailures = maxFailures;
+        this.window = Duration.ofSeconds(windowSeconds);
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void checkAllowed(String account) {
+        AtomicInteger count = failures.getIfPresent(key(account));
+        if (count != null && count.get() >= maxFailures) {
+            throw new TooManyRequestsException("Too many failed login attempts, try again later", window.toSeconds());
+        }
+    }
+
+    public void recordFailure(String account) {
+        failures.asMap().compute(key(account), (k, count) -> {
+            if (count == null) return new AtomicInteger(1);
+            count.incrementAndGet();
+            return count;
+        });
+    }
+
+    public void reset(String account) {
+        failures.invalidate(key(account));
+    }
+
+    private static String key(String account) {
+        return account == null ? "" : account.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,65 @@
+package com.badrelahlou.taskmanager.security;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.badrelahlou.taskmanager.model.Role;
+
+/**
+ * Fine-grained permissions, one per guarded endpoint group. Each constant owns one bit of a
+ * long, so a user's effective permissions compile to a single mask and a check is one AND.
+ * Explicit grants are stored as the constant names in User.permissions; roles imply the sets
+ * below, and roles not listed imply none.
+ */
+public enum Permission {
+    REPORT_VIEW, AUDIT_VIEW,
+    USER_MANAGE, PERMISSION_MANAGE;
+
+    private static final long ALL;
+    private static final Map<Role, Long> IMPLIED = new EnumMap<>(Role.class);
+
+    static {
+        if (values().length > Long.SIZE) {
+            throw new IllegalStateException("Permission bits no longer fit in a long");
+        }
+        long all = 0;
+        for (Permission p : values()) all |= p.bit();
+        ALL = all;
+
+        // The role checks these replace: reports for ADMIN and PROJECT_MANAGER, everything else for ADMIN only
+        IMPLIED.put(Role.ADMIN, ALL);
+        IMPLIED.put(Role.PROJECT_MANAGER, mask(REPORT_VIEW));
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public static long mask(Permission... permissions) {
+        long mask = 0;
+        for (Permission p : permissions) mask |= p.bit();
+        return mask;
+    }
+
+    /** Role-implied bits plus explicit grants. Grants that name no permission are ignored. */
+    public static long compile(Role role, Collection<String> grants) {
+        long bits = role != null ? IMPLIED.getOrDefault(role, 0L) : 0L;
+        if (grants != null) {
+            for (String grant : grants) {
+                Permission p = parse(grant);
+                if (p != null) bits |= p.bit();
+            }
+        }
+        return bits;
+    }
+
+    public static Permission parse(String name) {
+        if (name == null) return null;
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.badrelahlou.taskmanager.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.badrelahlou.taskmanager.cache.NearCache;
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.model.Role;
+import com.badrelahlou.taskmanager.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Compiled permission bits per user id, loaded on first use from the user's role and
+ * explicit grants. UserService invalidates an entry whenever it changes either, and the near
+ * cache passes that on to the other instances, so a change takes effect on the next request
+ * without waiting for a new token. Unknown users compile to no permissions.
+ */
+@Component
+public class PermissionCache {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NearCacheManager cacheManager;
+
+    @Value("${security.permissions.cache.max-users:100000}")
+    private long maxUsers;
+
+    @Value("${security.permissions.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private NearCache bits;
+
+    @PostConstruct
+    void init() {
+        bits = cacheManager.createCache("userPermissions", Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats());
+    }
+
+    public long bits(Long userId) {
+        return userId != null ? bits.get(userId, () -> load(userId)) : 0L;
+    }
+
+    public boolean has(Long userId, Permission permission) {
+        return (bits(userId) & permission.bit()) != 0;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) bits.evict(userId);
+    }
+
+    private Long load(Long userId) {
+        Role role = userRepository.findRoleById(userId).orElse(null);
+        if (role == null) return 0L;
+        return Permission.compile(role, userRepository.findPermissionsById(userId));
+    }
+}
@@ -0,0 +1,36 @@
+package com.badrelahlou.taskmanager.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Method-security helper for permission checks, e.g. {@code @PreAuthorize("@authz.has('REPORT_VIEW')")}.
+ * The caller's bits come from PermissionCache, so a check is a map lookup and an AND.
+ * Names are resolved once and memoised; an unknown name fails the check rather than the call.
+ */
+@Component("authz")
+public class PermissionExpressions {
+    @Autowired
+    private PermissionCache permissionCache;
+
+    private final Map<String, Long> masks = new ConcurrentHashMap<>();
+
+    public boolean has(String permission) {
+        long mask = masks.computeIfAbsent(permission, name -> {
+            Permission p = Permission.parse(name);
+            return p != null ? p.bit() : 0L;
+        });
+        return mask != 0 && (permissionCache.bits(CurrentUser.id().orElse(null)) & mask) != 0;
+    }
+
+    /** True when the caller holds at least one of the permissions. */
+    public boolean hasAny(String... permissions) {
+        for (String permission : permissions) {
+            if (has(permission)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.badrelahlou.taskmanager.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Revoked token ids, stored as 64-bit fingerprints of the jti claim mapped to the token expiry.
+ * Entries are dropped once the token would have expired anyway, so the list only holds
+ * tokens that are still otherwise valid.
+ */
+@Component
+public class TokenDenyList {
+    private static final int PURGE_THRESHOLD = 1024;
+
+    private final ConcurrentHashMap<Long, Long> revoked = new ConcurrentHashMap<>();
+
+    public void revoke(String jti, long expiresAtMillis) {
+        if (jti == null) return;
+        revoked.put(fingerprint(jti), expiresAtMillis);
+        if (revoked.size() > PURGE_THRESHOLD) {
+            purgeExpired();
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || revoked.isEmpty()) return false;
+        Long expiresAt = revoked.get(fingerprint(jti));
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // FNV-1a; collisions only cause a spurious revocation, never a missed one
+    private static long fingerprint(String jti) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : jti.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
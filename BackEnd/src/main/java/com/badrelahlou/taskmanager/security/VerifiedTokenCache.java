@@ -0,0 +1,94 @@
+package com.badrelahlou.taskmanager.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, keyed by the SHA-256
+ * of the raw token. Each entry lives until the token's own expiry, so a cached
+ * authentication is never served past the point where parsing would have rejected it.
+ */
+@Component
+public class VerifiedTokenCache {
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .expireAfter(new Expiry<ByteBuffer, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        // Same tag keys as the caches Boot binds, otherwise Prometheus rejects one of the two meter families
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens", "cache.manager", "security", "name", "verifiedTokens");
+    }
+
+    public VerifiedToken get(String token) {
+        return cache.getIfPresent(key(token));
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        cache.put(key(token), verified);
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(key(token));
+    }
+
+    private static long remainingNanos(VerifiedToken value) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.getExpiresAtMillis() - System.currentTimeMillis()));
+    }
+
+    private static ByteBuffer key(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static class VerifiedToken {
+        private final UsernamePasswordAuthenticationToken authentication;
+        private final String jti;
+        private final long expiresAtMillis;
+
+        public VerifiedToken(UsernamePasswordAuthenticationToken authentication, String jti, long expiresAtMillis) {
+            this.authentication = authentication;
+            this.jti = jti;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public UsernamePasswordAuthenticationToken getAuthentication() { return authentication; }
+        public String getJti() { return jti; }
+        public long getExpiresAtMillis() { return expiresAtMillis; }
+    }
+}
@@ -0,0 +1,175 @@
+package com.badrelahlou.taskmanager.service;
+
+import com.badrelahlou.taskmanager.dto.TaskAttachmentResponse;
+import com.badrelahlou.taskmanager.model.TaskAttachment;
+import com.badrelahlou.taskmanager.repository.TaskAttachmentRepository;
+import com.badrelahlou.taskmanager.repository.TaskRepository;
+import com.badrelahlou.taskmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class AttachmentService {
+    private static final Logger log = LoggerFactory.getLogger(AttachmentService.class);
+
+    private static final int SWEEP_BATCH = 500;
+    // An upload writes its temp file continuously, so one untouched this long has been abandoned
+    private static final Duration INCOMING_MAX_AGE = Duration.ofDays(1);
+
+    @Autowired
+    private TaskAttachmentRepository attachmentRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttachmentStore store;
+
+    @Value("${attachments.delete-grace-seconds:300}")
+    private long deleteGraceSeconds;
+
+    public void requireTask(Long taskId) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new RuntimeException("Task not found with id: " + taskId);
+        }
+    }
+
+    // Not transactional: no connection is held while the upload streams to disk
+    public TaskAttachment addAttachment(Long taskId, Long uploaderId, String fileName, String contentType,
+                                        InputStream content) throws IOException {
+        AttachmentStore.StoredBlob blob = store.store(content);
+        TaskAttachment attachment = new TaskAttachment();
+        attachment.setTask(taskRepository.getReferenceById(taskId));
+        attachment.setUploadedBy(userRepository.getReferenceById(uploaderId));
+        attachment.setFileName(fileName);
+        attachment.setContentType(contentType != null ? contentType : "application/octet-stream");
+        attachment.setSizeBytes(blob.size);
+        attachment.setSha256(blob.sha256);
+        attachment.setFileUrl("sha256:" + blob.sha256);
+        attachment.setUploadedAt(LocalDateTime.now());
+        return attachmentRepository.save(attachment);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskAttachmentResponse> getAttachments(Long taskId) {
+        requireTask(taskId);
+        return attachmentRepository.findByTaskIdOrderByUploadedAtDesc(taskId).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public TaskAttachment getAttachment(Long taskId, Long attachmentId) {
+        return attachmentRepository.findByIdAndTaskId(attachmentId, taskId)
+                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+    }
+
+    public Path contentPath(TaskAttachment attachment) {
+        return store.path(attachment.getSha256());
+    }
+
+    /**
+     * Removes the attachment and, once that commits, the blob too if no other attachment
+     * shares its content. Blobs stored within the grace period are kept, because a concurrent
+     * upload of the same content may not have saved its row yet. AttachmentStore refreshes
+     * the modification time on every deduplicated store. Blobs kept here are left to
+     * sweepOrphans.
+     */
+    @Transactional
+    public void deleteAttachment(Long taskId, Long attachmentId) {
+        TaskAttachment attachment = getAttachment(taskId, attachmentId);
+        attachmentRepository.delete(attachment);
+        attachmentRepository.flush();
+        if (attachmentRepository.countBySha256(attachment.getSha256()) > 0) return;
+        String sha256 = attachment.getSha256();
+        afterCommit(() -> {
+            try {
+                store.deleteIfStoredBefore(sha256, graceCutoff());
+            } catch (IOException e) {
+                log.warn("Could not delete blob {}; the orphan sweep will retry", sha256, e);
+            }
+        });
+    }
+
+    /**
+     * Deletes blobs that no attachment references and that have not been stored for the grace
+     * period: uploads whose row was never saved, content whose last reference was deleted
+     * during its grace period, and last references deleted concurrently. Runs on every
+     * instance, since each has its own storage directory.
+     */
+    @Scheduled(initialDelayString = "${attachments.sweep-interval-ms:3600000}",
+               fixedDelayString = "${attachments.sweep-interval-ms:3600000}")
+    public void sweepOrphans() {
+        try {
+            List<String> candidates = store.blobsStoredBefore(graceCutoff());
+            int deleted = 0;
+            for (int from = 0; from < candidates.size(); from += SWEEP_BATCH) {
+                List<String> batch = candidates.subList(from, Math.min(from + SWEEP_BATCH, candidates.size()));
+                Set<String> referenced = new HashSet<>(attachmentRepository.findReferencedSha256(batch));
+                for (String sha256 : batch) {
+                    // Re-checks the age, in case an upload of the same content touched it after the listing
+                    if (!referenced.contains(sha256) && store.deleteIfStoredBefore(sha256, graceCutoff())) deleted++;
+                }
+            }
+            int abandoned = store.deleteIncomingBefore(Instant.now().minus(INCOMING_MAX_AGE));
+            if (deleted > 0 || abandoned > 0) {
+                log.info("Deleted {} orphaned attachment blobs and {} abandoned uploads", deleted, abandoned);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Instant graceCutoff() {
+        return Instant.now().minus(Duration.ofSeconds(deleteGraceSeconds));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public TaskAttachmentResponse toResponse(TaskAttachment attachment) {
+        TaskAttachmentResponse dto = new TaskAttachmentResponse();
+        dto.setId(attachment.getId());
+        dto.setTaskId(attachment.getTask().getId());
+        dto.setFileName(attachment.getFileName());
+        dto.setContentType(attachment.getContentType());
+        dto.setSizeBytes(attachment.getSizeBytes());
+        dto.setSha256(attachment.getSha256());
+        dto.setUploadedBy(attachment.getUploadedBy().getId());
+        dto.setUploadedAt(attachment.getUploadedAt());
+        dto.setDownloadUrl("/api/tasks/" + attachment.getTask().getId() + "/attachments/" + attachment.getId() + "/content");
+        return dto;
+    }
+}
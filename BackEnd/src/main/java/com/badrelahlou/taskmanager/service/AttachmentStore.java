@@ -0,0 +1,143 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Local content-addressed blob store. Content lives at {@code <root>/ab/cd/<sha256>}, so
+ * identical uploads share one file. Writes stream through a digest into a temp file in the
+ * same directory tree, then are renamed into place. Readers never see a partial blob, and
+ * memory use does not depend on file size.
+ */
+@Component
+public class AttachmentStore {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${attachments.storage-dir:./data/attachments}")
+    private String storageDir;
+
+    private Path root;
+    private Path incoming;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Path.of(storageDir).toAbsolutePath().normalize();
+        incoming = root.resolve("incoming");
+        Files.createDirectories(incoming);
+    }
+
+    public static final class StoredBlob {
+        public final String sha256;
+        public final long size;
+
+        StoredBlob(String sha256, long size) {
+            this.sha256 = sha256;
+            this.size = size;
+        }
+    }
+
+    // Consumes the stream to the end; the caller closes it
+    public StoredBlob store(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            long size = 0;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            if (Files.exists(target)) {
+                // Marks the blob as recently referenced for AttachmentService.deleteAttachment
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Same content stored concurrently; either copy is fine
+                }
+            }
+            return new StoredBlob(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Path path(String sha256) {
+        if (sha256 == null || !sha256.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid content hash");
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    public void delete(String sha256) throws IOException {
+        Files.deleteIfExists(path(sha256));
+    }
+
+    /** Hashes of the blobs last stored before the cutoff. */
+    public List<String> blobsStoredBefore(Instant cutoff) throws IOException {
+        List<String> hashes = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.startsWith(incoming) || !Files.isRegularFile(file)) continue;
+                String name = file.getFileName().toString();
+                if (name.matches("[0-9a-f]{64}") && storedBefore(file, cutoff)) hashes.add(name);
+            }
+        }
+        return hashes;
+    }
+
+    /** Deletes the blob unless a deduplicated store has touched it since the cutoff. */
+    public boolean deleteIfStoredBefore(String sha256, Instant cutoff) throws IOException {
+        Path blob = path(sha256);
+        return Files.exists(blob) && storedBefore(blob, cutoff) && Files.deleteIfExists(blob);
+    }
+
+    // Temp files of uploads that died before the rename, for example in a crash
+    public int deleteIncomingBefore(Instant cutoff) throws IOException {
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(incoming)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (storedBefore(file, cutoff) && Files.deleteIfExists(file)) deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private static boolean storedBefore(Path file, Instant cutoff) throws IOException {
+        return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.badrelahlou.taskmanager.service;
+
+import com.badrelahlou.taskmanager.model.AuditLog;
+import com.badrelahlou.taskmanager.repository.AuditLogRepository;
+import com.badrelahlou.taskmanager.retention.RetentionProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class AuditService {
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private RetentionProperties retentionProperties;
+
+    /**
+     * Newest first. Pages are keyset-based: pass the timestamp and id of the last entry of the
+     * previous page to get the next one, so no page costs an OFFSET scan or a COUNT(*).
+     */
+    @Transactional(readOnly = true)
+    public List<AuditLog> search(String entityType, Long entityId, Long userId, LocalDateTime from, LocalDateTime to,
+                                 LocalDateTime beforeTimestamp, Long beforeId, int size) {
+        // Never look past the retention window, so expired partitions are pruned
+        LocalDateTime lowerBound = retentionProperties.lowerBound("audit_logs");
+        LocalDateTime since = from == null || from.isBefore(lowerBound) ? lowerBound : from;
+        Specification<AuditLog> spec = (root, query, cb) -> cb.conjunction();
+        if (entityType != null) spec = spec.and((root, query, cb) -> cb.equal(root.get("entityType"), entityType));
+        if (entityId != null) spec = spec.and((root, query, cb) -> cb.equal(root.get("entityId"), entityId));
+        if (userId != null) spec = spec.and((root, query, cb) -> cb.equal(root.get("userId"), userId));
+        spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("timestamp"), since));
+        if (to != null) spec = spec.and((root, query, cb) -> cb.lessThan(root.get("timestamp"), to));
+        Sort sort = Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id"));
+        ScrollPosition position = beforeTimestamp == null ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of("timestamp", beforeTimestamp, "id", beforeId));
+        return auditLogRepository.findBy(spec, query -> query.sortBy(sort).limit(size).scroll(position)).getContent();
+    }
+}
@@ -0,0 +1,334 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.badrelahlou.taskmanager.analytics.TaskColumnStore;
+import com.badrelahlou.taskmanager.audit.AuditBuffer;
+import com.badrelahlou.taskmanager.audit.AuditEvent;
+import com.badrelahlou.taskmanager.cache.DashboardCacheListener;
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.calendar.CalendarSyncQueue;
+import com.badrelahlou.taskmanager.calendar.IcsFeedCache;
+import com.badrelahlou.taskmanager.dto.AutoAssignRequest;
+import com.badrelahlou.taskmanager.dto.AutoAssignResponse;
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.Team;
+import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.report.TaskDataVersion;
+import com.badrelahlou.taskmanager.repository.TeamRepository;
+import com.badrelahlou.taskmanager.repository.UserRepository;
+import com.badrelahlou.taskmanager.security.CurrentUser;
+
+/**
+ * Assigns tasks to the least-loaded members of a team. A member's load is the sum of the
+ * costs of their open tasks. A task's cost is its remaining planned hours, weighted by
+ * priority and scaled up as its endTime deadline approaches. Costs are scored in parallel.
+ * Tasks are then placed in dependency order, most urgent first, each one on the member at
+ * the top of a min-heap of loads.
+ */
+@Service
+public class AutoAssignmentService {
+    private static final int IN_CHUNK = 1000;
+    private static final String WORK_COLUMNS =
+            "select id, assigned_user_id, priority, status, start_time, end_time, time_spent, timer_accumulated from tasks ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamMembershipIndex membershipIndex;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private AuditBuffer auditBuffer;
+
+    @Autowired
+    private CalendarSyncQueue calendarSyncQueue;
+
+    @Autowired
+    private IcsFeedCache icsFeedCache;
+
+    @Autowired
+    private NearCacheManager cacheManager;
+
+    @Autowired
+    private TaskDataVersion taskDataVersion;
+
+    @Autowired
+    private TaskColumnStore taskColumnStore;
+
+    @Value("${assignment.auto.max-tasks:10000}")
+    private int maxTasks;
+
+    @Value("${assignment.auto.deadline-horizon-hours:72}")
+    private double deadlineHorizonHours;
+
+    @Value("${assignment.auto.weight.high:3}")
+    private double highWeight;
+
+    @Value("${assignment.auto.weight.medium:2}")
+    private double mediumWeight;
+
+    @Value("${assignment.auto.weight.low:1}")
+    private double lowWeight;
+
+    @Transactional
+    public AutoAssignResponse autoAssign(Long teamId, AutoAssignRequest request) {
+        List<Long> memberIds = teamMemberIds(teamId);
+        if (memberIds.isEmpty()) {
+            throw new RuntimeException("Team has no members to assign to");
+        }
+        boolean bulk = request.getTaskIds() != null && !request.getTaskIds().isEmpty();
+        if (bulk && request.getTaskIds().size() > maxTasks) {
+            throw new RuntimeException("At most " + maxTasks + " tasks per run");
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        List<WorkItem> candidates = bulk
+                ? selectIn(WORK_COLUMNS + "where id in (%s)", new LinkedHashSet<>(request.getTaskIds()), this::mapWorkItem)
+                : jdbcTemplate.query(WORK_COLUMNS + "where assigned_user_id is null and status <> 'DONE' order by end_time, id limit ?",
+                        this::mapWorkItem, maxTasks);
+        List<Long> skipped = new ArrayList<>();
+        if (bulk) {
+            Set<Long> found = candidates.stream().map(w -> w.id).collect(Collectors.toSet());
+            request.getTaskIds().stream().filter(id -> !found.contains(id)).distinct().forEach(skipped::add);
+            candidates.stream().filter(w -> "DONE".equals(w.status)).forEach(w -> skipped.add(w.id));
+            candidates = candidates.stream().filter(w -> !"DONE".equals(w.status)).collect(Collectors.toList());
+        }
+        Map<Long, WorkItem> byId = candidates.stream().collect(Collectors.toMap(w -> w.id, w -> w, (a, b) -> a, LinkedHashMap::new));
+
+        // Current loads, leaving out the candidates themselves since they are being placed again
+        List<WorkItem> open = selectIn(WORK_COLUMNS + "where status <> 'DONE' and assigned_user_id in (%s)", memberIds, this::mapWorkItem);
+        Map<Long, Double> loads = open.parallelStream()
+                .filter(w -> !byId.containsKey(w.id))
+                .collect(Collectors.groupingByConcurrent(w -> w.assigneeId, Collectors.summingDouble(w -> cost(w, now))));
+        List<WorkItem> items = new ArrayList<>(byId.values());
+        double[] costs = new double[items.size()];
+        IntStream.range(0, items.size()).parallel().forEach(i -> costs[i] = cost(items.get(i), now));
+
+        PriorityQueue<MemberLoad> heap = new PriorityQueue<>(memberIds.size(),
+                Comparator.<MemberLoad>comparingDouble(m -> m.load).thenComparingLong(m -> m.userId));
+        memberIds.forEach(id -> heap.add(new MemberLoad(id, loads.getOrDefault(id, 0.0))));
+
+        Map<Long, Long> assignments = new LinkedHashMap<>();
+        List<Integer> order = dependencyOrder(items, byId, skipped);
+        for (int i : order) {
+            MemberLoad member = heap.poll();
+            member.load += costs[i];
+            heap.add(member);
+            assignments.put(items.get(i).id, member.userId);
+        }
+
+        if (!request.isDryRun() && !assignments.isEmpty()) {
+            persist(assignments, byId, now);
+            // Either calendar may change: the event moves from the previous assignee's to the new one's
+            calendarSyncQueue.markDirtyAfterCommit(assignments.entrySet().stream()
+                    .filter(e -> calendarSyncQueue.isConnected(e.getValue())
+                            || calendarSyncQueue.isConnected(byId.get(e.getKey()).assigneeId))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList()));
+            Set<Long> feedUsers = new HashSet<>(assignments.values());
+            assignments.keySet().forEach(taskId -> {
+                if (byId.get(taskId).assigneeId != null) feedUsers.add(byId.get(taskId).assigneeId);
+            });
+            icsFeedCache.invalidateAfterCommit(feedUsers);
+            taskDataVersion.bumpAfterCommit();
+            taskColumnStore.reloadAfterCommit(assignments.keySet());
+            cacheManager.evictAfterCommit(DashboardCacheListener.CACHE, feedUsers);
+        }
+
+        Map<Long, Double> after = new TreeMap<>();
+        heap.forEach(m -> after.put(m.userId, Math.round(m.load * 100) / 100.0));
+        AutoAssignResponse response = new AutoAssignResponse();
+        response.setTeamId(teamId);
+        response.setDryRun(request.isDryRun());
+        response.setAssignments(assignments);
+        response.setSkippedTaskIds(skipped);
+        response.setLoads(after);
+        return response;
+    }
+
+    /**
+     * Kahn's algorithm over the dependencies among the candidates. Dependencies on tasks
+     * outside the run are ignored. Ready tasks come out by earliest deadline, then by higher
+     * priority. Tasks on a cycle never become ready and are added to skipped.
+     */
+    private List<Integer> dependencyOrder(List<WorkItem> items, Map<Long, WorkItem> byId, List<Long> skipped) {
+        Map<Long, Integer> index = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) index.put(items.get(i).id, i);
+        int[] pending = new int[items.size()];
+        Map<Integer, List<Integer>> dependents = new HashMap<>();
+        for (long[] link : selectIn("select task_id, dependency_id from task_dependencies where task_id in (%s)",
+                byId.keySet(), (rs, n) -> new long[] { rs.getLong(1), rs.getLong(2) })) {
+            Integer task = index.get(link[0]);
+            Integer dependency = index.get(link[1]);
+            if (task == null || dependency == null) continue;
+            pending[task]++;
+            dependents.computeIfAbsent(dependency, d -> new ArrayList<>()).add(task);
+        }
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>(Comparator
+                .<Integer, LocalDateTime>comparing(i -> items.get(i).end, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(i -> items.get(i).priority, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(i -> items.get(i).id));
+        for (int i = 0; i < items.size(); i++) {
+            if (pending[i] == 0) ready.add(i);
+        }
+        List<Integer> order = new ArrayList<>(items.size());
+        while (!ready.isEmpty()) {
+            int next = ready.poll();
+            order.add(next);
+            for (int dependent : dependents.getOrDefault(next, Collections.emptyList())) {
+                if (--pending[dependent] == 0) ready.add(dependent);
+            }
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (pending[i] > 0) skipped.add(items.get(i).id);
+        }
+        return order;
+    }
+
+    private double cost(WorkItem item, LocalDateTime now) {
+        double plannedHours = item.start != null && item.end != null
+                ? Math.max(0, Duration.between(item.start, item.end).toSeconds()) / 3600.0 : 1.0;
+        double remainingHours = Math.max(0.25, plannedHours - item.spentSeconds / 3600.0);
+        double weight = item.priority == Priority.HIGH ? highWeight
+                : item.priority == Priority.LOW ? lowWeight : mediumWeight;
+        double urgency = 1.0;
+        if (item.end != null) {
+            double hoursLeft = Duration.between(now, item.end).toSeconds() / 3600.0;
+            urgency += Math.min(1.0, Math.max(0.0, (deadlineHorizonHours - hoursLeft) / deadlineHorizonHours));
+        }
+        return remainingHours * weight * urgency;
+    }
+
+    private void persist(Map<Long, Long> assignments, Map<Long, WorkItem> byId, LocalDateTime now) {
+        List<Map.Entry<Long, Long>> rows = new ArrayList<>(assignments.entrySet());
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate("UPDATE tasks SET assigned_user_id = ?, updated_at = ? WHERE id = ?", rows, 500, (ps, row) -> {
+            ps.setLong(1, row.getValue());
+            ps.setTimestamp(2, updatedAt);
+            ps.setLong(3, row.getKey());
+        });
+
+        // The batch UPDATE above skips Hibernate, so AuditEventListener records nothing for the reassignment
+        Long actor = CurrentUser.id().orElse(null);
+        auditBuffer.offerAfterCommit(rows.stream()
+                .map(row -> new AuditEvent(actor, "UPDATE", "Task", row.getKey(), "assignedUser=" + row.getValue() + " auto"))
+                .collect(Collectors.toList()));
+
+        // Only tasks that changed hands; one notification per user and kind, however many tasks moved
+        List<Map.Entry<Long, Long>> moved = rows.stream()
+                .filter(row -> !row.getValue().equals(byId.get(row.getKey()).assigneeId))
+                .collect(Collectors.toList());
+        Map<Long, Long> countByUser = moved.stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, Collectors.counting()));
+        Map<Long, Long> removedByUser = moved.stream()
+                .filter(row -> byId.get(row.getKey()).assigneeId != null)
+                .collect(Collectors.groupingBy(row -> byId.get(row.getKey()).assigneeId, Collectors.counting()));
+        Set<Long> userIds = new HashSet<>(countByUser.keySet());
+        userIds.addAll(removedByUser.keySet());
+        for (User user : userRepository.findAllById(userIds)) {
+            Long count = countByUser.get(user.getId());
+            if (count != null) {
+                notificationService.createNotification(user, count + (count == 1 ? " task has" : " tasks have")
+                        + " been assigned to you by workload balancing.");
+            }
+            Long removed = removedByUser.get(user.getId());
+            if (removed != null) {
+                notificationService.createNotification(user, removed + (removed == 1 ? " task has" : " tasks have")
+                        + " been reassigned to another team member by workload balancing.");
+            }
+        }
+    }
+
+    private List<Long> teamMemberIds(Long teamId) {
+        if (membershipIndex.isLoaded() && membershipIndex.contains(teamId)) {
+            return membershipIndex.memberIds(teamId);
+        }
+        Team team = teamRepository.findById(teamId).orElseThrow(() -> new RuntimeException("Team not found"));
+        return team.getMembers().stream().map(User::getId).collect(Collectors.toList());
+    }
+
+    // Runs the query once per chunk of ids; the %s in sql becomes that chunk's placeholders
+    private <T> List<T> selectIn(String sql, Collection<Long> ids, RowMapper<T> mapper) {
+        List<Long> all = new ArrayList<>(ids);
+        List<T> result = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_CHUNK) {
+            List<Long> chunk = all.subList(from, Math.min(all.size(), from + IN_CHUNK));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            result.addAll(jdbcTemplate.query(String.format(sql, placeholders), mapper, chunk.toArray()));
+        }
+        return result;
+    }
+
+    private WorkItem mapWorkItem(ResultSet rs, int rowNum) throws SQLException {
+        WorkItem item = new WorkItem();
+        item.id = rs.getLong("id");
+        long assignee = rs.getLong("assigned_user_id");
+        item.assigneeId = rs.wasNull() ? null : assignee;
+        String priority = rs.getString("priority");
+        item.priority = priority != null ? Priority.valueOf(priority) : null;
+        item.status = rs.getString("status");
+        Timestamp start = rs.getTimestamp("start_time");
+        Timestamp end = rs.getTimestamp("end_time");
+        item.start = start != null ? start.toLocalDateTime() : null;
+        item.end = end != null ? end.toLocalDateTime() : null;
+        item.spentSeconds = Math.max(rs.getLong("time_spent") * 60, rs.getLong("timer_accumulated"));
+        return item;
+    }
+
+    private static final class MemberLoad {
+        final long userId;
+        double load;
+
+        MemberLoad(long userId, double load) {
+            this.userId = userId;
+            this.load = load;
+        }
+    }
+
+    private static final class WorkItem {
+        long id;
+        Long assigneeId;
+        Priority priority;
+        String status;
+        LocalDateTime start;
+        LocalDateTime end;
+        long spentSeconds;
+    }
+}
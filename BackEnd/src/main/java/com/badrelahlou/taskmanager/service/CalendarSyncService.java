@@ -0,0 +1,686 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.badrelahlou.taskmanager.calendar.CalendarGateway;
+import com.badrelahlou.taskmanager.calendar.CalendarSyncQueue;
+import com.badrelahlou.taskmanager.dto.CalendarConnectionRequest;
+import com.badrelahlou.taskmanager.dto.CalendarConnectionResponse;
+import com.badrelahlou.taskmanager.exception.ResourceConflictException;
+import com.badrelahlou.taskmanager.model.CalendarConnection;
+import com.badrelahlou.taskmanager.model.CalendarEventLink;
+import com.badrelahlou.taskmanager.repository.CalendarConnectionRepository;
+import com.badrelahlou.taskmanager.repository.CalendarEventLinkRepository;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Mirrors each task onto its assignee's Google calendar, both ways.
+ *
+ * Push: task changes land in CalendarSyncQueue. Each run drains the queue, reads the current
+ * rows and skips tasks whose content hash matches the event already pushed. The rest go out
+ * as batched insert, patch and delete calls, one batch per calendar. A reassigned task is
+ * deleted from the old assignee's calendar and inserted into the new one's.
+ *
+ * Pull: each connection keeps a sync token, so a run only fetches events changed since the
+ * last one. Only events carrying our task id property are considered. Echoes of our own
+ * pushes are recognised by etag. Local changes still waiting in the queue win over remote
+ * ones. A cancelled event only unlinks the task; the task itself is never deleted remotely.
+ * An edit whose new window overlaps a resource booking that the conflict policy rejects is
+ * not applied; its link records the conflict until a later edit or push goes through.
+ *
+ * Scheduling: the queue only holds tasks committed on this instance, so every instance
+ * pushes its own, on a dedicated thread. Pulls and the reconcile read shared state and run as
+ * jobs on the clustered Quartz scheduler, once per cluster. A push or pull first claims the
+ * connections it works on in a short transaction, makes its Google calls with no transaction
+ * open, then stores the outcome and releases the claims in a second one. No two runs push the
+ * same task or pull the same calendar at once; tasks whose calendar is claimed elsewhere wait
+ * for a later push. A claim left by a crashed instance lapses after calendar.sync.claim-ms.
+ */
+@Service
+public class CalendarSyncService {
+    private static final Logger log = LoggerFactory.getLogger(CalendarSyncService.class);
+
+    private static final String TASK_COLUMNS = "select id, title, description, start_time, end_time, assigned_user_id from tasks ";
+
+    @Autowired
+    private CalendarGateway gateway;
+
+    @Autowired
+    private CalendarSyncQueue queue;
+
+    @Autowired
+    private CalendarConnectionRepository connectionRepository;
+
+    @Autowired
+    private CalendarEventLinkRepository linkRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${calendar.sync.enabled:true}")
+    private boolean enabled;
+
+    @Value("${calendar.sync.push-interval-ms:10000}")
+    private long pushIntervalMillis;
+
+    @Value("${calendar.sync.max-tasks-per-push:500}")
+    private int maxTasksPerPush;
+
+    @Value("${calendar.sync.time-zone:UTC}")
+    private String timeZone;
+
+    @Value("${calendar.sync.retry.initial-ms:5000}")
+    private long retryInitialMillis;
+
+    @Value("${calendar.sync.retry.max-ms:3600000}")
+    private long retryMaxMillis;
+
+    @Value("${calendar.sync.claim-ms:900000}")
+    private long claimMillis;
+
+    private static final class TaskRow {
+        long id;
+        String title;
+        String description;
+        LocalDateTime start;
+        LocalDateTime end;
+        Long assigneeId;
+    }
+
+    // What a push decided under its claim, carried through the calls made with no transaction open
+    private static final class PushPlan {
+        final String claim = UUID.randomUUID().toString();
+        final Map<Long, CalendarConnection> connections = new HashMap<>();
+        final Map<Long, List<CalendarGateway.Change>> changesByUser = new LinkedHashMap<>();
+        final Map<Long, Long> hashes = new HashMap<>();
+        final Map<Long, CalendarEventLink> saved = new HashMap<>();
+        final Set<Long> unlinked = new HashSet<>();
+        final Map<Long, String> errors = new HashMap<>();
+        final Set<Long> pushed = new HashSet<>();
+        LocalDateTime syncedAt;
+    }
+
+    private ScheduledExecutorService pusher;
+    // One push or pull at a time on this instance; held across Google calls, so not a monitor
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    @PostConstruct
+    void startPusher() {
+        pusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "calendar-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // An exception escaping a run would cancel the schedule
+        pusher.scheduleWithFixedDelay(() -> {
+            try {
+                push();
+            } catch (RuntimeException e) {
+                log.warn("Calendar push failed: {}", e.getMessage());
+            }
+        }, pushIntervalMillis, pushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopPusher() {
+        pusher.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadConnections() {
+        connectionRepository.findByEnabledTrue().forEach(c -> queue.connect(c.getUserId()));
+    }
+
+    @Transactional
+    public CalendarConnectionResponse connect(Long userId, CalendarConnectionRequest request) {
+        if (request.getAccessToken() == null || request.getAccessToken().isBlank()) {
+            throw new RuntimeException("Access token is required");
+        }
+        String calendarId = request.getCalendarId() != null && !request.getCalendarId().isBlank()
+                ? request.getCalendarId() : "primary";
+        CalendarConnection connection = connectionRepository.findByUserId(userId).orElseGet(CalendarConnection::new);
+        if (connection.getId() != null && !calendarId.equals(connection.getCalendarId())) {
+            // Events on the previous calendar are left alone; every task is inserted into the new one
+            linkRepository.deleteByUserId(userId);
+        }
+        if (!calendarId.equals(connection.getCalendarId())) connection.setSyncToken(null);
+        connection.setUserId(userId);
+        connection.setCalendarId(calendarId);
+        connection.setAccessToken(request.getAccessToken());
+        connection.setEnabled(true);
+        connection.setLastError(null);
+        CalendarConnection saved = connectionRepository.save(connection);
+        queue.connect(userId);
+        queue.markDirtyAfterCommit(jdbcTemplate.queryForList(
+                "select id from tasks where assigned_user_id = ?", Long.class, userId));
+        return toResponse(saved);
+    }
+
+    @Transactional
+    public void disconnect(Long userId) {
+        CalendarConnection connection = connectionRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("No calendar connection for user " + userId));
+        queue.disconnect(userId);
+        linkRepository.deleteByUserId(userId);
+        connectionRepository.delete(connection);
+    }
+
+    @Transactional(readOnly = true)
+    public CalendarConnectionResponse getConnection(Long userId) {
+        return toResponse(connectionRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("No calendar connection for user " + userId)));
+    }
+
+    /** Pushes whatever is queued, then pulls the user's calendar. */
+    public CalendarConnectionResponse syncNow(Long userId) {
+        CalendarConnection connection = connectionRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("No calendar connection for user " + userId));
+        push();
+        pull(connection.getUserId());
+        return getConnection(userId);
+    }
+
+    /**
+     * Pushes the tasks queued on this instance. Their calendars are claimed in one short
+     * transaction, the batches go out with no transaction open, and a second short
+     * transaction stores the links and errors and releases the claims.
+     */
+    public void push() {
+        if (!enabled || !queue.hasConnections()) return;
+        syncLock.lock();
+        try {
+            pushQueued();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void pushQueued() {
+        long now = System.currentTimeMillis();
+        Map<Long, Integer> due = queue.drain(maxTasksPerPush, now);
+        if (due.isEmpty()) return;
+        PushPlan plan = new PushPlan();
+        try {
+            transactionTemplate.executeWithoutResult(status -> planPush(plan, due));
+            sendPush(plan, due, now);
+            transactionTemplate.executeWithoutResult(status -> finishPush(plan));
+            log.debug("Pushed {} calendar changes for {} tasks",
+                    plan.changesByUser.values().stream().mapToInt(List::size).sum(), due.size());
+        } catch (RuntimeException e) {
+            log.warn("Calendar push of {} tasks failed: {}", due.size(), e.getMessage());
+            due.forEach((taskId, attempts) -> queue.retry(taskId, attempts, retryInitialMillis, retryMaxMillis, now));
+            release(plan.claim, new ArrayList<>(plan.connections.keySet()));
+        }
+    }
+
+    private void planPush(PushPlan plan, Map<Long, Integer> due) {
+        Map<Long, TaskRow> tasks = loadTasks(due.keySet());
+        Set<Long> userIds = linkedUserIds(due.keySet());
+        tasks.values().forEach(t -> { if (t.assigneeId != null) userIds.add(t.assigneeId); });
+        Set<Long> busy = new HashSet<>();
+        plan.connections.putAll(claim(userIds, plan.claim, busy));
+        // Links are read only once the calendars are claimed, so a link another instance just pushed is seen
+        Map<Long, CalendarEventLink> links = linkRepository.findAllById(due.keySet()).stream()
+                .collect(Collectors.toMap(CalendarEventLink::getTaskId, Function.identity()));
+
+        for (Long taskId : due.keySet()) {
+            TaskRow task = tasks.get(taskId);
+            CalendarEventLink link = links.get(taskId);
+            if (link != null && (!userIds.contains(link.getUserId()) || busy.contains(link.getUserId()))
+                    || task != null && busy.contains(task.assigneeId)) {
+                // Linked meanwhile to a calendar this run did not claim, or another run holds one; a later run takes it
+                queue.markDirty(taskId);
+                continue;
+            }
+            Long target = task != null && plan.connections.containsKey(task.assigneeId) ? task.assigneeId : null;
+            if (link != null && !link.getUserId().equals(target)) {
+                if (plan.connections.containsKey(link.getUserId())) {
+                    plan.changesByUser.computeIfAbsent(link.getUserId(), id -> new ArrayList<>())
+                            .add(new CalendarGateway.Change(taskId, link.getEventId(), null));
+                } else {
+                    plan.unlinked.add(taskId);
+                }
+                link = null;
+            }
+            if (target == null) continue;
+            long hash = contentHash(task);
+            if (link != null && link.getContentHash() == hash) continue;
+            plan.hashes.put(taskId, hash);
+            plan.changesByUser.computeIfAbsent(target, id -> new ArrayList<>())
+                    .add(new CalendarGateway.Change(taskId, link != null ? link.getEventId() : null, toEvent(task)));
+        }
+    }
+
+    // Runs with no transaction open; retries and backoff inside the gateway may take a while
+    private void sendPush(PushPlan plan, Map<Long, Integer> due, long now) {
+        plan.syncedAt = LocalDateTime.now();
+        plan.changesByUser.forEach((userId, changes) -> {
+            CalendarConnection connection = plan.connections.get(userId);
+            List<CalendarGateway.Result> results;
+            try {
+                results = gateway.push(connection.getAccessToken(), connection.getCalendarId(), changes);
+            } catch (IOException e) {
+                log.warn("Calendar push for user {} failed: {}", userId, e.getMessage());
+                changes.forEach(c -> queue.retry(c.taskId, due.get(c.taskId), retryInitialMillis, retryMaxMillis, now));
+                plan.errors.put(userId, e.getMessage());
+                return;
+            }
+            String lastError = null;
+            for (CalendarGateway.Result result : results) {
+                CalendarGateway.Change change = result.change;
+                boolean gone = result.status == 404 || result.status == 410;
+                if (change.event == null) {
+                    // A delete of an event that is already gone is as good as a successful one
+                    if (result.ok || gone) {
+                        if (!plan.saved.containsKey(change.taskId)) plan.unlinked.add(change.taskId);
+                        continue;
+                    }
+                } else if (result.ok) {
+                    CalendarEventLink link = new CalendarEventLink();
+                    link.setTaskId(change.taskId);
+                    link.setUserId(userId);
+                    link.setEventId(result.eventId);
+                    link.setEtag(result.etag);
+                    link.setContentHash(plan.hashes.get(change.taskId));
+                    link.setSyncedAt(plan.syncedAt);
+                    plan.saved.put(change.taskId, link);
+                    plan.unlinked.remove(change.taskId);
+                    continue;
+                } else if (gone && change.eventId != null) {
+                    // Deleted on the calendar side; insert a new event on the next run
+                    plan.unlinked.add(change.taskId);
+                    queue.markDirty(change.taskId);
+                    continue;
+                }
+                lastError = result.status + " " + result.error;
+                if (result.retryable || result.status == 401) {
+                    queue.retry(change.taskId, due.get(change.taskId), retryInitialMillis, retryMaxMillis, now);
+                }
+            }
+            plan.errors.put(userId, lastError);
+            plan.pushed.add(userId);
+        });
+    }
+
+    private void finishPush(PushPlan plan) {
+        Map<Long, CalendarConnection> current = (plan.connections.isEmpty() ? List.<CalendarConnection>of()
+                : connectionRepository.lockByUserIdIn(plan.connections.keySet())).stream()
+                .collect(Collectors.toMap(CalendarConnection::getUserId, Function.identity()));
+        // Disconnecting or switching calendars drops the user's links, so results for the old calendar are dropped too
+        Set<Long> stale = new HashSet<>();
+        plan.connections.forEach((userId, claimed) -> {
+            CalendarConnection connection = current.get(userId);
+            if (connection == null) {
+                stale.add(userId);
+                return;
+            }
+            releaseIfHeld(connection, plan.claim);
+            if (!connection.getCalendarId().equals(claimed.getCalendarId())) {
+                stale.add(userId);
+                return;
+            }
+            if (plan.errors.containsKey(userId)) connection.setLastError(plan.errors.get(userId));
+            if (plan.pushed.contains(userId)) connection.setLastPushAt(plan.syncedAt);
+        });
+        plan.saved.values().removeIf(link -> {
+            if (!stale.contains(link.getUserId())) return false;
+            plan.unlinked.add(link.getTaskId());
+            return true;
+        });
+
+        linkRepository.saveAll(plan.saved.values());
+        linkRepository.deleteAllById(plan.unlinked);
+    }
+
+    /** Pulls every enabled calendar; run by CalendarPullJob on one instance of the cluster. */
+    public void pullAll() {
+        if (!enabled) return;
+        for (CalendarConnection connection : connectionRepository.findByEnabledTrue()) {
+            // Users may have connected on another instance; tasks this one commits for them are queued from now on
+            queue.connect(connection.getUserId());
+            pull(connection.getUserId());
+        }
+    }
+
+    private void pull(Long userId) {
+        syncLock.lock();
+        try {
+            String claim = UUID.randomUUID().toString();
+            CalendarConnection connection = transactionTemplate.execute(status ->
+                    claim(List.of(userId), claim, new HashSet<>()).get(userId));
+            if (connection == null) return;
+            try {
+                pull(connection, claim);
+            } catch (RuntimeException e) {
+                release(claim, List.of(userId));
+                throw e;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Runs under the connection's claim, so its sync token is the one the last pull stored
+    private void pull(CalendarConnection connection, String claim) {
+        CalendarGateway.ChangeSet changes;
+        try {
+            changes = gateway.pull(connection.getAccessToken(), connection.getCalendarId(), connection.getSyncToken());
+            if (changes.tokenExpired) {
+                changes = gateway.pull(connection.getAccessToken(), connection.getCalendarId(), null);
+            }
+        } catch (IOException e) {
+            log.warn("Calendar pull for user {} failed: {}", connection.getUserId(), e.getMessage());
+            finishPull(connection, claim, null, List.of(), List.of(), e.getMessage());
+            return;
+        }
+
+        Map<Long, Event> byTask = new LinkedHashMap<>();
+        Set<String> cancelled = new HashSet<>();
+        for (Event event : changes.events) {
+            Long taskId = taskId(event);
+            if (taskId != null) {
+                byTask.put(taskId, event);
+            } else if ("cancelled".equals(event.getStatus())) {
+                // Deletions in an incremental pull may come back as just id and status
+                cancelled.add(event.getId());
+            }
+        }
+        // Read on the primary; a replica may not have the links the last push stored yet
+        List<CalendarEventLink> dropped = new ArrayList<>();
+        Map<Long, CalendarEventLink> links = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!cancelled.isEmpty()) {
+                dropped.addAll(linkRepository.findByUserIdAndEventIdIn(connection.getUserId(), cancelled));
+            }
+            linkRepository.findAllById(byTask.keySet()).forEach(link -> links.put(link.getTaskId(), link));
+        });
+        List<CalendarEventLink> updated = new ArrayList<>();
+        ZoneId zone = ZoneId.of(timeZone);
+        int applied = 0;
+        int conflicted = 0;
+        for (Map.Entry<Long, Event> entry : byTask.entrySet()) {
+            Long taskId = entry.getKey();
+            Event event = entry.getValue();
+            CalendarEventLink link = links.get(taskId);
+            if (link == null || !link.getUserId().equals(connection.getUserId()) || !link.getEventId().equals(event.getId())) continue;
+            if ("cancelled".equals(event.getStatus())) {
+                dropped.add(link);
+                continue;
+            }
+            if (Objects.equals(event.getEtag(), link.getEtag()) || queue.contains(taskId)) continue;
+            try {
+                LocalDateTime start = toLocal(event.getStart(), zone);
+                LocalDateTime end = toLocal(event.getEnd(), zone);
+                TaskRow task = new TaskRow();
+                task.id = taskId;
+                task.title = event.getSummary() != null ? event.getSummary() : "";
+                task.description = event.getDescription();
+                task.start = start;
+                task.end = end;
+                taskService.applyCalendarEdit(taskId, task.title, task.description, start, end);
+                // The edit re-queues the task; matching hash and etag turn that push into a no-op
+                link.setContentHash(contentHash(task));
+                link.setEtag(event.getEtag());
+                link.setSyncedAt(LocalDateTime.now());
+                link.setConflict(null);
+                updated.add(link);
+                applied++;
+            } catch (ResourceConflictException e) {
+                // The task keeps its window; the etag is kept so this version of the event is not retried
+                link.setConflict(e.getMessage());
+                link.setEtag(event.getEtag());
+                updated.add(link);
+                conflicted++;
+            } catch (RuntimeException e) {
+                log.warn("Could not apply calendar event {} to task {}: {}", event.getId(), taskId, e.getMessage());
+            }
+        }
+        finishPull(connection, claim, changes.nextSyncToken, dropped, updated, null);
+        log.debug("Pulled {} calendar events for user {}, applied {}, conflicted {}",
+                changes.events.size(), connection.getUserId(), applied, conflicted);
+    }
+
+    private void finishPull(CalendarConnection claimed, String claim, String syncToken,
+            List<CalendarEventLink> dropped, List<CalendarEventLink> updated, String error) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<CalendarConnection> locked = connectionRepository.lockByUserIdIn(List.of(claimed.getUserId()));
+            CalendarConnection connection = locked.isEmpty() ? null : locked.get(0);
+            if (connection == null || !claim.equals(connection.getSyncClaim())
+                    || !connection.getCalendarId().equals(claimed.getCalendarId())) {
+                // Disconnected, switched, or claimed by another run after ours lapsed; the next pull starts from the stored token
+                log.debug("Dropping calendar pull for user {}: claim no longer held", claimed.getUserId());
+                return;
+            }
+            linkRepository.deleteAll(dropped);
+            linkRepository.saveAll(updated);
+            if (error != null) {
+                connection.setLastError(error);
+            } else {
+                connection.setSyncToken(syncToken);
+                connection.setLastPullAt(LocalDateTime.now());
+                connection.setLastError(null);
+            }
+            releaseIfHeld(connection, claim);
+        });
+    }
+
+    // Must run in a transaction. Claims the enabled connections no other run holds; enabled ones still held go to busy
+    private Map<Long, CalendarConnection> claim(Collection<Long> userIds, String claim, Set<Long> busy) {
+        Map<Long, CalendarConnection> claimed = new HashMap<>();
+        if (userIds.isEmpty()) return claimed;
+        LocalDateTime now = LocalDateTime.now();
+        for (CalendarConnection connection : connectionRepository.lockByUserIdIn(userIds)) {
+            if (!connection.isEnabled()) continue;
+            if (connection.getSyncClaim() != null && connection.getSyncClaimedUntil() != null
+                    && connection.getSyncClaimedUntil().isAfter(now)) {
+                busy.add(connection.getUserId());
+                continue;
+            }
+            connection.setSyncClaim(claim);
+            connection.setSyncClaimedUntil(now.plus(claimMillis, ChronoUnit.MILLIS));
+            claimed.put(connection.getUserId(), connection);
+        }
+        return claimed;
+    }
+
+    private static void releaseIfHeld(CalendarConnection connection, String claim) {
+        if (claim.equals(connection.getSyncClaim())) {
+            connection.setSyncClaim(null);
+            connection.setSyncClaimedUntil(null);
+        }
+    }
+
+    // After a failed run; a claim that cannot be released lapses after calendar.sync.claim-ms
+    private void release(String claim, Collection<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    connectionRepository.lockByUserIdIn(userIds).forEach(c -> releaseIfHeld(c, claim)));
+        } catch (RuntimeException e) {
+            log.warn("Could not release calendar claims for users {}: {}", userIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Safety net for the in-memory queue: queues every linked task whose row no longer
+     * matches what was pushed, including deleted and reassigned tasks. Run by
+     * CalendarReconcileJob on one instance, which then pushes them.
+     */
+    public void reconcile() {
+        if (!enabled) return;
+        loadConnections();
+        int[] queued = new int[1];
+        jdbcTemplate.query("select l.task_id, l.user_id, l.content_hash, t.id, t.title, t.description, t.start_time, "
+                + "t.end_time, t.assigned_user_id from calendar_event_links l left join tasks t on t.id = l.task_id", rs -> {
+            long taskId = rs.getLong(1);
+            boolean stale;
+            if (rs.getObject(4) == null) {
+                stale = true;
+            } else {
+                TaskRow task = new TaskRow();
+                task.id = taskId;
+                task.title = rs.getString(5);
+                task.description = rs.getString(6);
+                task.start = toLocal(rs.getTimestamp(7));
+                task.end = toLocal(rs.getTimestamp(8));
+                long assignee = rs.getLong(9);
+                stale = rs.wasNull() || assignee != rs.getLong(2) || contentHash(task) != rs.getLong(3);
+            }
+            if (stale) {
+                queue.markDirty(taskId);
+                queued[0]++;
+            }
+        });
+        log.debug("Calendar reconcile queued {} tasks", queued[0]);
+    }
+
+    // Over JDBC, so the links read after locking are not served from the persistence context
+    private Set<Long> linkedUserIds(Collection<Long> taskIds) {
+        Set<Long> userIds = new HashSet<>();
+        List<Long> all = new ArrayList<>(taskIds);
+        for (int from = 0; from < all.size(); from += 500) {
+            List<Long> chunk = all.subList(from, Math.min(all.size(), from + 500));
+            String placeholders = chunk.stream().map(id -> "?").collect(Collectors.joining(","));
+            userIds.addAll(jdbcTemplate.queryForList("select user_id from calendar_event_links where task_id in ("
+                    + placeholders + ")", Long.class, chunk.toArray()));
+        }
+        return userIds;
+    }
+
+    private Map<Long, TaskRow> loadTasks(Collection<Long> ids) {
+        Map<Long, TaskRow> tasks = new HashMap<>();
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += 500) {
+            List<Long> chunk = all.subList(from, Math.min(all.size(), from + 500));
+            String placeholders = chunk.stream().map(id -> "?").collect(Collectors.joining(","));
+            jdbcTemplate.query(TASK_COLUMNS + "where id in (" + placeholders + ")", rs -> {
+                TaskRow task = new TaskRow();
+                task.id = rs.getLong(1);
+                task.title = rs.getString(2);
+                task.description = rs.getString(3);
+                task.start = toLocal(rs.getTimestamp(4));
+                task.end = toLocal(rs.getTimestamp(5));
+                long assignee = rs.getLong(6);
+                task.assigneeId = rs.wasNull() ? null : assignee;
+                tasks.put(task.id, task);
+            }, chunk.toArray());
+        }
+        return tasks;
+    }
+
+    private Event toEvent(TaskRow task) {
+        ZoneId zone = ZoneId.of(timeZone);
+        LocalDateTime start = task.start != null ? task.start : task.end;
+        LocalDateTime end = task.end != null && start != null && task.end.isAfter(start) ? task.end : start;
+        Event event = new Event()
+                .setSummary(task.title)
+                .setDescription(task.description)
+                .setExtendedProperties(new Event.ExtendedProperties()
+                        .setPrivate(Map.of(CalendarGateway.TASK_ID_PROPERTY, Long.toString(task.id))));
+        if (start != null) {
+            event.setStart(toEventTime(start, zone)).setEnd(toEventTime(end, zone));
+        }
+        return event;
+    }
+
+    private static EventDateTime toEventTime(LocalDateTime time, ZoneId zone) {
+        return new EventDateTime()
+                .setDateTime(new DateTime(Date.from(time.atZone(zone).toInstant())))
+                .setTimeZone(zone.getId());
+    }
+
+    // All-day events carry only a date; they map to midnight in the configured zone
+    private static LocalDateTime toLocal(EventDateTime time, ZoneId zone) {
+        if (time == null) return null;
+        DateTime value = time.getDateTime() != null ? time.getDateTime() : time.getDate();
+        if (value == null) return null;
+        if (value.isDateOnly()) return LocalDateTime.ofInstant(Instant.ofEpochMilli(value.getValue()), ZoneOffset.UTC);
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(value.getValue()), zone);
+    }
+
+    private static LocalDateTime toLocal(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static Long taskId(Event event) {
+        if (event.getExtendedProperties() == null || event.getExtendedProperties().getPrivate() == null) return null;
+        String value = event.getExtendedProperties().getPrivate().get(CalendarGateway.TASK_ID_PROPERTY);
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // First 8 bytes of SHA-256 over the fields that appear on the event
+    private static long contentHash(TaskRow task) {
+        String content = task.title + '\u0000' + task.description + '\u0000' + task.start + '\u0000' + task.end;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private CalendarConnectionResponse toResponse(CalendarConnection connection) {
+        CalendarConnectionResponse response = new CalendarConnectionResponse();
+        response.setCalendarId(connection.getCalendarId());
+        response.setEnabled(connection.isEnabled());
+        response.setIncrementalSync(connection.getSyncToken() != null);
+        response.setLastPushAt(connection.getLastPushAt());
+        response.setLastPullAt(connection.getLastPullAt());
+        response.setLastError(connection.getLastError());
+        response.setConflicts(linkRepository.countByUserIdAndConflictIsNotNull(connection.getUserId()));
+        return response;
+    }
+}
@@ -0,0 +1,37 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.function.Function;
+
+// Opaque keyset cursors over (timestamp, id), shared by the paginated inbox and comment threads
+final class Cursors {
+    private Cursors() {}
+
+    static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static LocalDateTime createdAt(String cursor) {
+        return part(cursor, 0, LocalDateTime::parse);
+    }
+
+    static Long id(String cursor) {
+        return part(cursor, 1, Long::valueOf);
+    }
+
+    // Decoding and parsing both happen here, so any malformed cursor fails the same way
+    private static <T> T part(String cursor, int index, Function<String, T> parser) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) throw new IllegalArgumentException();
+            return parser.apply(parts[index]);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
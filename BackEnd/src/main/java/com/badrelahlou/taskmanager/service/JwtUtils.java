@@ -1,23 +1,47 @@
 package com.badrelahlou.taskmanager.service;
 
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.badrelahlou.taskmanager.model.User;
+
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 
 @Service
 public class JwtUtils {
-    private final String SECRET_KEY = "your-secret-key";
+    @Value("${jwt.secret:your-secret-key}")
+    private String secretKey;
+
+    @Value("${jwt.expiration-ms:36000000}") // 10 hours
+    private long expirationMs;
 
-    public String generateToken(String username) {
+    public String generateToken(User user) {
+        List<String> permissions = user.getPermissions() != null ? new ArrayList<>(user.getPermissions()) : new ArrayList<>();
         return Jwts.builder()
-                .setSubject(username)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getUsername())
+                .claim("uid", user.getId())
+                .claim("role", user.getRole() != null ? user.getRole().name() : null)
+                .claim("perms", permissions)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hours
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
+                .signWith(SignatureAlgorithm.HS256, secretKey)
                 .compact();
     }
+
+    // Verifies the signature and expiry; throws io.jsonwebtoken.JwtException when the token is not valid
+    public Claims parseClaims(String token) {
+        return Jwts.parser()
+                .setSigningKey(secretKey)
+                .parseClaimsJws(token)
+                .getBody();
+    }
 }
@@ -0,0 +1,32 @@
+package com.badrelahlou.taskmanager.service;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.badrelahlou.taskmanager.model.Notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Broker publishing happens off the request thread; NotificationService calls it once the notification row has committed
+@Service
+public class NotificationPublisher {
+    static final String NOTIFICATION_QUEUE = "notificationQueue";
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Async
+    public void publish(Notification notification) {
+        Timer.builder("rabbitmq.publish.latency")
+                .tag("queue", NOTIFICATION_QUEUE)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(() -> rabbitTemplate.convertAndSend(NOTIFICATION_QUEUE, notification));
+    }
+}
@@ -1,14 +1,23 @@
 package com.badrelahlou.taskmanager.service;
 
+import com.badrelahlou.taskmanager.dto.NotificationDTO;
+import com.badrelahlou.taskmanager.dto.NotificationPageResponse;
 import com.badrelahlou.taskmanager.model.Notification;
 import com.badrelahlou.taskmanager.model.User;
 import com.badrelahlou.taskmanager.repository.NotificationRepository;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import com.badrelahlou.taskmanager.retention.RetentionProperties;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class NotificationService {
@@ -16,9 +25,16 @@ public class NotificationService {
     private NotificationRepository notificationRepository;
 
     @Autowired
-    private RabbitTemplate rabbitTemplate;
+    private NotificationPublisher notificationPublisher;
 
-    private static final String NOTIFICATION_QUEUE = "notificationQueue";
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Autowired
+    private RetentionProperties retentionProperties;
+
+    @Value("${notifications.inbox.max-page-size:100}")
+    private int maxPageSize;
 
     public void createNotification(User user, String message) {
         Notification notification = new Notification();
@@ -27,19 +43,85 @@ public class NotificationService {
         notification.setCreatedAt(LocalDateTime.now());
         notification.setRead(false);
         notificationRepository.save(notification);
+        unreadCounter.incrementAfterCommit(user.getId());
+        publishAfterCommit(notification);
+    }
 
-
-        rabbitTemplate.convertAndSend(NOTIFICATION_QUEUE, notification);
+    // A consumer may look the notification up, so it is only sent once the row is committed
+    private void publishAfterCommit(Notification notification) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notificationPublisher.publish(notification);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationPublisher.publish(notification);
+            }
+        });
     }
 
+    // Newest notifications only; use getInbox to page further back
+    @Transactional(readOnly = true)
     public List<Notification> getUserNotifications(Long userId) {
-        return notificationRepository.findByUserId(userId);
+        return notificationRepository.findInboxFirstPage(userId, since(), PageRequest.of(0, maxPageSize));
+    }
+
+    @Transactional(readOnly = true)
+    public NotificationPageResponse getInbox(Long userId, String cursor, int size, boolean unreadOnly) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row to know whether there is a next page without a count query
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Notification> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = unreadOnly ? notificationRepository.findUnreadInboxFirstPage(userId, since(), limit)
+                    : notificationRepository.findInboxFirstPage(userId, since(), limit);
+        } else if (unreadOnly) {
+            rows = notificationRepository.findUnreadInboxPageAfter(userId, since(),
+                    Cursors.createdAt(cursor), Cursors.id(cursor), limit);
+        } else {
+            rows = notificationRepository.findInboxPageAfter(userId, since(),
+                    Cursors.createdAt(cursor), Cursors.id(cursor), limit);
+        }
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Notification last = rows.get(pageSize - 1);
+            nextCursor = Cursors.encode(last.getCreatedAt(), last.getId());
+        }
+        List<NotificationDTO> items = rows.stream()
+                .map(n -> new NotificationDTO(n.getId(), n.getMessage(), n.getCreatedAt(), n.isRead()))
+                .collect(Collectors.toList());
+        return new NotificationPageResponse(items, nextCursor, unreadCounter.get(userId));
     }
 
+    public long getUnreadCount(Long userId) {
+        return unreadCounter.get(userId);
+    }
+
+    @Transactional
     public void markAsRead(Long notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
+        Long userId = notificationRepository.findUserIdById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        markAsRead(userId, List.of(notificationId));
+    }
+
+    @Transactional
+    public int markAsRead(Long userId, Collection<Long> notificationIds) {
+        if (notificationIds.isEmpty()) return 0;
+        int updated = notificationRepository.markReadByIds(userId, notificationIds);
+        unreadCounter.decrementAfterCommit(userId, updated);
+        return updated;
+    }
+
+    @Transactional
+    public int markAllReadBefore(Long userId, LocalDateTime before) {
+        int updated = notificationRepository.markReadBefore(userId, since(), before);
+        unreadCounter.decrementAfterCommit(userId, updated);
+        return updated;
+    }
+
+    private LocalDateTime since() {
+        return retentionProperties.lowerBound("notification");
     }
 }
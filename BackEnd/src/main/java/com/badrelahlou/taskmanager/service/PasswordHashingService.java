@@ -0,0 +1,118 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.badrelahlou.taskmanager.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt on a small dedicated pool instead of the request threads. The queue is bounded
+ * and full-queue submissions fail immediately with a 429, so a login storm can only ever
+ * occupy these threads and never the web container's.
+ */
+@Service
+public class PasswordHashingService {
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final int strength;
+    private final Timer queueWait;
+    private final Timer encodeLatency;
+    private final Timer matchLatency;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                  @Value("${password.hashing.threads:0}") int threads,
+                                  @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${password.hashing.timeout-ms:5000}") long timeoutMs,
+                                  @Value("${password.bcrypt.strength:10}") int strength) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+        this.strength = strength;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads(), new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        this.queueWait = Timer.builder("password.hash.queue.wait").publishPercentileHistogram().register(meterRegistry);
+        this.encodeLatency = Timer.builder("password.hash.latency").tag("operation", "encode")
+                .publishPercentileHistogram().register(meterRegistry);
+        this.matchLatency = Timer.builder("password.hash.latency").tag("operation", "match")
+                .publishPercentileHistogram().register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword), encodeLatency);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchLatency);
+    }
+
+    // True when the stored hash was produced with a different cost than the one configured now, higher or lower;
+    // the encoder's own upgradeEncoding only reports a lower one
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) return false;
+        Matcher cost = BCRYPT_COST.matcher(encodedPassword);
+        if (!cost.find()) return passwordEncoder.upgradeEncoding(encodedPassword);
+        return Integer.parseInt(cost.group(1)) != strength;
+    }
+
+    private <T> T submit(Callable<T> work, Timer latency) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return latency.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Authentication service is busy, retry shortly", 1);
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TooManyRequestsException("Authentication service is busy, retry shortly", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,451 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.simpl.RAMJobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.badrelahlou.taskmanager.dto.ReportJobResponse;
+import com.badrelahlou.taskmanager.model.ReportJobRecord;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+import com.badrelahlou.taskmanager.report.ReportExecutionJob;
+import com.badrelahlou.taskmanager.report.ReportJob;
+import com.badrelahlou.taskmanager.report.ReportType;
+import com.badrelahlou.taskmanager.report.TaskDataVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs reports as Quartz jobs instead of on request threads. A job splits the task id range
+ * into partitions and aggregates them in parallel on a dedicated pool, then stores the result
+ * under its parameters and the TaskDataVersion it started at.
+ *
+ * Job state and results live in report_jobs, one row per parameters and version, so any
+ * instance can answer for a job and identical submissions share one job across the cluster:
+ * a submission whose row is done completes at once, one whose row is queued or running joins
+ * it. A job runs on the local in-memory scheduler of the instance that stored its row; the
+ * others poll the row for the jobs their clients wait on. A queued or running row older than
+ * report.jobs.stale-after-seconds is taken for abandoned by a crashed instance and replaced.
+ */
+@Service
+public class ReportJobService {
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final String JOB_GROUP = "reports";
+    private static final String SELECT_SQL = "select id, type, user_id, cache_key, data_version, status, submitted_at, "
+            + "started_at, completed_at, result, error from report_jobs ";
+    private static final TypeReference<Map<String, Object>> RESULT_TYPE = new TypeReference<>() {};
+
+    private final Scheduler scheduler;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskDataVersion dataVersion;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService poller;
+    private final int partitions;
+    private final long minPartitionSize;
+    private final Duration resultTtl;
+    private final Duration staleAfter;
+    private final Duration retention;
+    // This instance's view of every job a client asked it about
+    private final Cache<String, ReportJob> jobs;
+    // Jobs running on this instance by cache key
+    private final Map<String, ReportJob> inFlight = new ConcurrentHashMap<>();
+    // Unfinished jobs of other instances that local clients wait on, by id
+    private final Map<String, ReportJob> watched = new ConcurrentHashMap<>();
+    private final Counter cachedSubmissions;
+    private final Counter joinedSubmissions;
+    private final Counter scheduledSubmissions;
+    private final Timer duration;
+
+    public ReportJobService(JdbcTemplate jdbcTemplate, TaskDataVersion dataVersion, ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${report.jobs.scheduler-threads:2}") int schedulerThreads,
+                            @Value("${report.jobs.workers:0}") int workers,
+                            @Value("${report.jobs.partitions:4}") int partitions,
+                            @Value("${report.jobs.min-partition-size:10000}") long minPartitionSize,
+                            @Value("${report.jobs.result-cache.ttl-seconds:600}") long resultTtlSeconds,
+                            @Value("${report.jobs.stale-after-seconds:900}") long staleAfterSeconds,
+                            @Value("${report.jobs.retention-seconds:3600}") long retentionSeconds,
+                            @Value("${report.jobs.poll-ms:500}") long pollMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataVersion = dataVersion;
+        this.objectMapper = objectMapper;
+        this.partitions = Math.max(1, partitions);
+        this.minPartitionSize = Math.max(1, minPartitionSize);
+        this.resultTtl = Duration.ofSeconds(resultTtlSeconds);
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+        this.retention = Duration.ofSeconds(Math.max(retentionSeconds, resultTtlSeconds));
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.workers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), namedThreads());
+        ExecutorServiceMetrics.monitor(meterRegistry, this.workers, "report.workers");
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(this.retention)
+                .build();
+        this.cachedSubmissions = Counter.builder("report.jobs.submitted").tag("outcome", "cached").register(meterRegistry);
+        this.joinedSubmissions = Counter.builder("report.jobs.submitted").tag("outcome", "joined").register(meterRegistry);
+        this.scheduledSubmissions = Counter.builder("report.jobs.submitted").tag("outcome", "scheduled").register(meterRegistry);
+        this.duration = Timer.builder("report.jobs.duration").publishPercentileHistogram().register(meterRegistry);
+        this.scheduler = localScheduler(schedulerThreads);
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // An exception escaping a run would cancel the schedule
+        poller.scheduleWithFixedDelay(() -> guarded("poll", this::poll), pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(() -> guarded("purge", this::purge), 1, 1, TimeUnit.MINUTES);
+    }
+
+    public ReportJob submit(ReportType type, Long userId) {
+        long version = dataVersion.current();
+        String cacheKey = type.key(userId) + "@" + version;
+        ReportJob running = inFlight.get(cacheKey);
+        if (running != null) {
+            joinedSubmissions.increment();
+            return running;
+        }
+        // A second pass joins the job another submission stored between the lookup and the insert
+        for (int attempt = 0; attempt < 2; attempt++) {
+            ReportJob existing = existing(cacheKey);
+            if (existing != null) {
+                (existing.getStatus() == ReportJob.Status.DONE ? cachedSubmissions : joinedSubmissions).increment();
+                return existing;
+            }
+            ReportJob job = new ReportJob(UUID.randomUUID().toString(), type, userId, cacheKey, version);
+            try {
+                jdbcTemplate.update("insert into report_jobs (id, type, user_id, cache_key, data_version, status, submitted_at) "
+                        + "values (?, ?, ?, ?, ?, ?, ?)", job.getId(), type.name(), userId, cacheKey, version,
+                        job.getStatus().name(), Timestamp.valueOf(job.getSubmittedAt()));
+            } catch (DuplicateKeyException e) {
+                continue;
+            }
+            inFlight.put(cacheKey, job);
+            jobs.put(job.getId(), job);
+            schedule(job);
+            scheduledSubmissions.increment();
+            return job;
+        }
+        throw new RuntimeException("Could not submit report job for " + cacheKey);
+    }
+
+    public ReportJob getJob(String jobId) {
+        ReportJob job = jobs.getIfPresent(jobId);
+        if (job != null) return job;
+        List<ReportJobRecord> rows = jdbcTemplate.query(SELECT_SQL + "where id = ?", this::mapRow, jobId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Report job not found with id: " + jobId);
+        }
+        return view(rows.get(0));
+    }
+
+    /** Called on a Quartz thread for each scheduled job. */
+    public void execute(String jobId, String cacheKey) {
+        ReportJob job = inFlight.get(cacheKey);
+        if (job == null || !job.getId().equals(jobId)) return;
+        job.start();
+        try {
+            jdbcTemplate.update("update report_jobs set status = ?, started_at = ? where id = ?",
+                    job.getStatus().name(), Timestamp.valueOf(job.getStartedAt()), jobId);
+            Map<String, Object> result = duration.recordCallable(() -> compute(job.getType(), job.getUserId()));
+            LocalDateTime completedAt = LocalDateTime.now();
+            jdbcTemplate.update("update report_jobs set status = ?, completed_at = ?, result = ? where id = ?",
+                    ReportJob.Status.DONE.name(), Timestamp.valueOf(completedAt), objectMapper.writeValueAsString(result), jobId);
+            job.complete(result, completedAt);
+        } catch (Exception e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.fail(message);
+            storeFailure(job);
+        } finally {
+            inFlight.remove(cacheKey, job);
+        }
+    }
+
+    public ReportJobResponse toResponse(ReportJob job) {
+        ReportJobResponse response = new ReportJobResponse();
+        response.setJobId(job.getId());
+        response.setType(job.getType().name());
+        response.setUserId(job.getUserId());
+        response.setStatus(job.getStatus().name());
+        response.setDataVersion(job.getDataVersion());
+        response.setSubmittedAt(job.getSubmittedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        response.setResult(job.getResult());
+        response.setError(job.getError());
+        return response;
+    }
+
+    // The job stored for the key, unless it failed, was abandoned or its result expired; such rows are cleared
+    private ReportJob existing(String cacheKey) {
+        List<ReportJobRecord> rows = jdbcTemplate.query(SELECT_SQL + "where cache_key = ?", this::mapRow, cacheKey);
+        if (rows.isEmpty()) return null;
+        ReportJobRecord row = rows.get(0);
+        LocalDateTime now = LocalDateTime.now();
+        boolean usable = switch (row.getStatus()) {
+            case DONE -> row.getCompletedAt().isAfter(now.minus(resultTtl));
+            case FAILED -> false;
+            default -> !isAbandoned(row, now);
+        };
+        if (!usable) {
+            jdbcTemplate.update("delete from report_jobs where id = ?", row.getId());
+            return null;
+        }
+        return view(row);
+    }
+
+    // The local job for the row, created from it on first sight and polled until it finishes
+    private ReportJob view(ReportJobRecord row) {
+        ReportJob job = jobs.get(row.getId(), id ->
+                new ReportJob(id, row.getType(), row.getUserId(), row.getCacheKey(), row.getDataVersion(), row.getSubmittedAt()));
+        update(job, row);
+        if (!job.isFinished() && !inFlight.containsValue(job)) watched.put(job.getId(), job);
+        return job;
+    }
+
+    private void update(ReportJob job, ReportJobRecord row) {
+        if (job.isFinished()) return;
+        switch (row.getStatus()) {
+            case RUNNING -> {
+                if (job.getStatus() == ReportJob.Status.QUEUED) job.start(row.getStartedAt());
+            }
+            case DONE -> job.complete(parse(row.getResult()), row.getCompletedAt());
+            case FAILED -> job.fail(row.getError(), row.getCompletedAt());
+            default -> { }
+        }
+    }
+
+    /** Refreshes the watched jobs from their rows; a row that vanished or went stale fails its job. */
+    void poll() {
+        if (watched.isEmpty()) return;
+        List<String> ids = new ArrayList<>(watched.keySet());
+        Map<String, ReportJobRecord> rows = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += 500) {
+            List<String> batch = ids.subList(i, Math.min(ids.size(), i + 500));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            jdbcTemplate.query(SELECT_SQL + "where id in (" + placeholders + ")", (RowCallbackHandler) rs -> {
+                ReportJobRecord row = mapRow(rs, 0);
+                rows.put(row.getId(), row);
+            }, batch.toArray());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (String id : ids) {
+            ReportJob job = watched.get(id);
+            ReportJobRecord row = rows.get(id);
+            if (row == null || isAbandoned(row, now)) {
+                job.fail("Report job was abandoned by the instance running it");
+            } else {
+                update(job, row);
+            }
+            if (job.isFinished()) watched.remove(id, job);
+        }
+    }
+
+    /** Deletes rows past report.jobs.retention-seconds. */
+    void purge() {
+        jdbcTemplate.update("delete from report_jobs where submitted_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+    }
+
+    private boolean isAbandoned(ReportJobRecord row, LocalDateTime now) {
+        if (row.getStatus() == ReportJob.Status.DONE || row.getStatus() == ReportJob.Status.FAILED) return false;
+        LocalDateTime since = row.getStartedAt() != null ? row.getStartedAt() : row.getSubmittedAt();
+        return since.isBefore(now.minus(staleAfter));
+    }
+
+    private void schedule(ReportJob job) {
+        JobDetail detail = JobBuilder.newJob(ReportExecutionJob.class)
+                .withIdentity(job.getId(), JOB_GROUP)
+                .usingJobData("jobId", job.getId())
+                .usingJobData("cacheKey", job.getCacheKey())
+                .build();
+        Trigger trigger = TriggerBuilder.newTrigger().withIdentity(job.getId(), JOB_GROUP).startNow().build();
+        try {
+            scheduler.scheduleJob(detail, trigger);
+        } catch (SchedulerException e) {
+            inFlight.remove(job.getCacheKey(), job);
+            job.fail("Could not schedule report: " + e.getMessage());
+            storeFailure(job);
+            throw new RuntimeException("Could not schedule report job", e);
+        }
+    }
+
+    // A row left queued or running after this fails is replaced once it counts as abandoned
+    private void storeFailure(ReportJob job) {
+        try {
+            jdbcTemplate.update("update report_jobs set status = ?, completed_at = ?, error = ? where id = ?",
+                    ReportJob.Status.FAILED.name(), Timestamp.valueOf(job.getCompletedAt()), job.getError(), job.getId());
+        } catch (DataAccessException e) {
+            log.warn("Could not store the failure of report job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private ReportJobRecord mapRow(ResultSet rs, int rowNum) throws SQLException {
+        ReportJobRecord row = new ReportJobRecord();
+        row.setId(rs.getString("id"));
+        row.setType(ReportType.valueOf(rs.getString("type")));
+        long userId = rs.getLong("user_id");
+        row.setUserId(rs.wasNull() ? null : userId);
+        row.setCacheKey(rs.getString("cache_key"));
+        row.setDataVersion(rs.getLong("data_version"));
+        row.setStatus(ReportJob.Status.valueOf(rs.getString("status")));
+        row.setSubmittedAt(localDateTime(rs.getTimestamp("submitted_at")));
+        row.setStartedAt(localDateTime(rs.getTimestamp("started_at")));
+        row.setCompletedAt(localDateTime(rs.getTimestamp("completed_at")));
+        row.setResult(rs.getString("result"));
+        row.setError(rs.getString("error"));
+        return row;
+    }
+
+    private Map<String, Object> parse(String result) {
+        try {
+            return result != null ? objectMapper.readValue(result, RESULT_TYPE) : Map.of();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable report result", e);
+        }
+    }
+
+    private static LocalDateTime localDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static void guarded(String what, Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("Report job {} failed: {}", what, e.getMessage());
+        }
+    }
+
+    private Map<String, Object> compute(ReportType type, Long userId) throws InterruptedException {
+        String filter = type == ReportType.USER_ACTIVITY ? " and assigned_user_id = ?" : "";
+        Map<String, Object> bounds = type == ReportType.USER_ACTIVITY
+                ? jdbcTemplate.queryForMap("select min(id) as lo, max(id) as hi from tasks where assigned_user_id = ?", userId)
+                : jdbcTemplate.queryForMap("select min(id) as lo, max(id) as hi from tasks");
+        Map<String, Long> counts = new HashMap<>();
+        if (bounds.get("lo") != null) {
+            long lo = ((Number) bounds.get("lo")).longValue();
+            long hi = ((Number) bounds.get("hi")).longValue();
+            String sql = "select status, count(*) from tasks where id >= ? and id < ?" + filter + " group by status";
+            List<Future<Map<String, Long>>> parts = new ArrayList<>();
+            for (long[] range : ranges(lo, hi)) {
+                Object[] args = type == ReportType.USER_ACTIVITY
+                        ? new Object[] { range[0], range[1], userId }
+                        : new Object[] { range[0], range[1] };
+                parts.add(workers.submit(() -> countByStatus(sql, args)));
+            }
+            try {
+                for (Future<Map<String, Long>> part : parts) {
+                    part.get().forEach((status, count) -> counts.merge(status, count, Long::sum));
+                }
+            } catch (ExecutionException e) {
+                parts.forEach(p -> p.cancel(true));
+                if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                throw new RuntimeException("Report partition failed", e.getCause());
+            }
+        }
+        Map<String, Object> report = new HashMap<>();
+        report.put("totalTasks", counts.values().stream().mapToLong(Long::longValue).sum());
+        report.put("completedTasks", counts.getOrDefault(TaskStatus.DONE.name(), 0L));
+        report.put("inProgressTasks", counts.getOrDefault(TaskStatus.IN_PROGRESS.name(), 0L));
+        report.put("todoTasks", counts.getOrDefault(TaskStatus.TODO.name(), 0L));
+        return report;
+    }
+
+    // Half-open id ranges covering [lo, hi], no more than partitions and none under minPartitionSize ids
+    private List<long[]> ranges(long lo, long hi) {
+        long span = hi - lo + 1;
+        long count = Math.max(1, Math.min(partitions, span / minPartitionSize));
+        long step = (span + count - 1) / count;
+        List<long[]> ranges = new ArrayList<>();
+        for (long from = lo; from <= hi; from += step) {
+            ranges.add(new long[] { from, Math.min(from + step, hi + 1) });
+        }
+        return ranges;
+    }
+
+    private Map<String, Long> countByStatus(String sql, Object[] args) {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> counts.put(rs.getString(1), rs.getLong(2)), args);
+        return counts;
+    }
+
+    private Scheduler localScheduler(int threads) {
+        Properties properties = new Properties();
+        // Unique per instance: the factory hands back an existing scheduler registered under the same name
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "reportScheduler-" + System.identityHashCode(this));
+        properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, RAMJobStore.class.getName());
+        properties.setProperty("org.quartz.threadPool.threadCount", String.valueOf(Math.max(1, threads)));
+        properties.setProperty("org.quartz.threadPool.threadNamePrefix", "report-scheduler");
+        try {
+            Scheduler local = new StdSchedulerFactory(properties).getScheduler();
+            local.setJobFactory((bundle, owner) -> new ReportExecutionJob(this));
+            local.start();
+            return local;
+        } catch (SchedulerException e) {
+            throw new RuntimeException("Could not start the report scheduler", e);
+        }
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "report-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() throws SchedulerException {
+        poller.shutdown();
+        scheduler.shutdown(false);
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,231 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.badrelahlou.taskmanager.booking.ConflictPolicy;
+import com.badrelahlou.taskmanager.booking.IntervalTree;
+import com.badrelahlou.taskmanager.booking.ResourceBookingIndex;
+import com.badrelahlou.taskmanager.dto.ResourceAssignmentResponse;
+import com.badrelahlou.taskmanager.dto.ResourceAvailabilityResponse;
+import com.badrelahlou.taskmanager.dto.ResourceBookingResponse;
+import com.badrelahlou.taskmanager.exception.ResourceConflictException;
+import com.badrelahlou.taskmanager.model.Resource;
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.repository.ResourceRepository;
+import com.badrelahlou.taskmanager.repository.TaskRepository;
+
+@Service
+public class ResourceService {
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ResourceBookingIndex bookingIndex;
+
+    @Value("${resources.booking.conflict-policy:REJECT}")
+    private ConflictPolicy conflictPolicy;
+
+    @Value("${resources.availability.max-range-days:366}")
+    private long maxRangeDays;
+
+    @Value("${resources.availability.max-resources:500}")
+    private int maxResources;
+
+    public Resource createResource(Resource resource) {
+        return resourceRepository.save(resource);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Resource> getAllResources() {
+        return resourceRepository.findAll();
+    }
+
+    @Transactional
+    public ResourceAssignmentResponse assignResources(Long taskId, List<Long> resourceIds) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
+        Set<Long> ids = new LinkedHashSet<>(resourceIds);
+        List<Resource> resources = resourceRepository.findAllById(ids);
+        if (resources.size() != ids.size()) {
+            throw new RuntimeException("Resource not found among ids: " + ids);
+        }
+        List<ResourceBookingResponse> conflicts = reserve(task, resourceIds(task), ids);
+        task.setResources(resources);
+        taskRepository.save(task);
+
+        ResourceAssignmentResponse response = new ResourceAssignmentResponse();
+        response.setTaskId(taskId);
+        response.setResourceIds(new ArrayList<>(ids));
+        response.setConflictPolicy(conflictPolicy.name());
+        response.setConflicts(conflicts);
+        return response;
+    }
+
+    /**
+     * Books the task's current window on resourceIds and releases the bookings it no longer
+     * holds. Under REJECT an overlap throws ResourceConflictException and nothing changes.
+     * Under FLAG the overlaps are booked anyway and returned. Call this inside the
+     * transaction that stores the assignment. It locks the resources' rows, so instances book
+     * them one at a time, and checks against the committed bookings. If that transaction rolls
+     * back, the bookings the task held before the call, resources and window alike, are
+     * restored; once it commits, the other instances are told to re-read them.
+     */
+    public List<ResourceBookingResponse> reserve(Task task, Collection<Long> previousIds, Collection<Long> resourceIds) {
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        Set<Long> affected = new LinkedHashSet<>(previousIds);
+        affected.addAll(resourceIds);
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !affected.isEmpty()) {
+            resourceRepository.lockByIdIn(affected);
+            bookingIndex.refresh(resourceIds, task.getStartTime(), task.getEndTime(), task.getId());
+        }
+        Map<Long, IntervalTree.Booking> before = transactional ? bookingIndex.snapshot(task.getId(), affected) : Map.of();
+        Map<Long, List<IntervalTree.Booking>> conflicts =
+                bookingIndex.book(task.getId(), resourceIds, task.getStartTime(), task.getEndTime(), conflictPolicy);
+        if (conflictPolicy == ConflictPolicy.REJECT && !conflicts.isEmpty()) {
+            throw new ResourceConflictException("Task " + task.getId() + " overlaps existing bookings: " + describe(conflicts));
+        }
+        Set<Long> released = new LinkedHashSet<>(previousIds);
+        released.removeAll(resourceIds);
+        bookingIndex.release(task.getId(), released);
+
+        Long taskId = task.getId();
+        if (transactional) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bookingIndex.announce(List.of(taskId));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) bookingIndex.restore(taskId, before);
+                }
+            });
+        } else {
+            bookingIndex.announce(List.of(taskId));
+        }
+
+        List<ResourceBookingResponse> flagged = new ArrayList<>();
+        conflicts.forEach((resourceId, bookings) -> bookings.forEach(b -> flagged.add(toResponse(resourceId, b))));
+        return flagged;
+    }
+
+    public void releaseBookings(Task task) {
+        Long taskId = task.getId();
+        List<Long> ids = resourceIds(task);
+        afterCommit(() -> {
+            bookingIndex.release(taskId, ids);
+            bookingIndex.announce(List.of(taskId));
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<ResourceAvailabilityResponse> getAvailability(List<Long> resourceIds, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("'from' must be before 'to'");
+        }
+        if (Duration.between(from, to).toDays() > maxRangeDays) {
+            throw new RuntimeException("Range is limited to " + maxRangeDays + " days");
+        }
+        List<Resource> resources = resourceIds == null || resourceIds.isEmpty()
+                ? resourceRepository.findAll()
+                : resourceRepository.findAllById(resourceIds);
+        if (resources.size() > maxResources) {
+            throw new RuntimeException("At most " + maxResources + " resources per request");
+        }
+        return resources.stream().map(resource -> availability(resource, from, to)).collect(Collectors.toList());
+    }
+
+    private ResourceAvailabilityResponse availability(Resource resource, LocalDateTime from, LocalDateTime to) {
+        long rangeStart = ResourceBookingIndex.toEpoch(from);
+        long rangeEnd = ResourceBookingIndex.toEpoch(to);
+        List<ResourceAvailabilityResponse.Window> busy = new ArrayList<>();
+        List<ResourceAvailabilityResponse.Window> free = new ArrayList<>();
+        // Bookings arrive in start order, so overlapping ones merge in a single pass
+        long cursor = rangeStart;
+        boolean open = false;
+        long busyStart = 0;
+        long busyEnd = 0;
+        for (IntervalTree.Booking booking : bookingIndex.bookings(resource.getId(), from, to)) {
+            long start = Math.max(booking.start, rangeStart);
+            long end = Math.min(booking.end, rangeEnd);
+            if (open && start <= busyEnd) {
+                busyEnd = Math.max(busyEnd, end);
+                continue;
+            }
+            if (open) {
+                busy.add(window(busyStart, busyEnd));
+                cursor = busyEnd;
+            }
+            if (start > cursor) free.add(window(cursor, start));
+            open = true;
+            busyStart = start;
+            busyEnd = end;
+        }
+        if (open) {
+            busy.add(window(busyStart, busyEnd));
+            cursor = busyEnd;
+        }
+        if (cursor < rangeEnd) free.add(window(cursor, rangeEnd));
+
+        ResourceAvailabilityResponse response = new ResourceAvailabilityResponse();
+        response.setResourceId(resource.getId());
+        response.setName(resource.getName());
+        response.setAvailable(resource.isAvailable());
+        response.setBusy(busy);
+        response.setFree(free);
+        return response;
+    }
+
+    private static ResourceAvailabilityResponse.Window window(long start, long end) {
+        return new ResourceAvailabilityResponse.Window(ResourceBookingIndex.fromEpoch(start), ResourceBookingIndex.fromEpoch(end));
+    }
+
+    private static ResourceBookingResponse toResponse(Long resourceId, IntervalTree.Booking booking) {
+        return new ResourceBookingResponse(resourceId, booking.taskId,
+                ResourceBookingIndex.fromEpoch(booking.start), ResourceBookingIndex.fromEpoch(booking.end));
+    }
+
+    private static String describe(Map<Long, List<IntervalTree.Booking>> conflicts) {
+        return conflicts.entrySet().stream()
+                .map(e -> "resource " + e.getKey() + " held by task(s) "
+                        + e.getValue().stream().map(b -> String.valueOf(b.taskId)).collect(Collectors.joining(", ")))
+                .collect(Collectors.joining("; "));
+    }
+
+    static List<Long> resourceIds(Task task) {
+        if (task.getResources() == null) return new ArrayList<>();
+        return task.getResources().stream().map(Resource::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,70 @@
+package com.badrelahlou.taskmanager.service;
+
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+
+/**
+ * Feeds Task inserts, updates and deletes to TaskHierarchyService. Unlike the audit listener,
+ * it runs in the flushing transaction, so closure and rollup rows commit or roll back
+ * together with the task row. JdbcTemplate joins that transaction's connection.
+ */
+public class TaskHierarchyListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+    private final TaskHierarchyService hierarchy;
+
+    public TaskHierarchyListener(TaskHierarchyService hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof Task)) return;
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getState();
+        hierarchy.onInserted((Long) event.getId(), parentId(persister, state), status(persister, state), timeSpent(persister, state));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Task)) return;
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getState();
+        Object[] old = event.getOldState();
+        hierarchy.onUpdated((Long) event.getId(), parentId(persister, state),
+                old != null ? status(persister, old) : null, old != null ? timeSpent(persister, old) : null,
+                status(persister, state), timeSpent(persister, state));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!(event.getEntity() instanceof Task)) return;
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getDeletedState();
+        hierarchy.onDeleted((Long) event.getId(), status(persister, state), timeSpent(persister, state));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static Long parentId(EntityPersister persister, Object[] state) {
+        Object parent = state[persister.getPropertyIndex("parentTask")];
+        return parent instanceof Task task ? task.getId() : null;
+    }
+
+    private static TaskStatus status(EntityPersister persister, Object[] state) {
+        return (TaskStatus) state[persister.getPropertyIndex("status")];
+    }
+
+    private static Long timeSpent(EntityPersister persister, Object[] state) {
+        return (Long) state[persister.getPropertyIndex("timeSpent")];
+    }
+}
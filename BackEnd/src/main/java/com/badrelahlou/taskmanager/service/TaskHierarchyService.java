@@ -0,0 +1,282 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.badrelahlou.taskmanager.dto.TaskTreeNode;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+import com.badrelahlou.taskmanager.repository.TaskClosureRepository;
+
+/**
+ * Maintains task_closure and task_rollups for the parentTask tree.
+ *
+ * The closure table stores every ancestor and descendant pair. Ancestor, descendant and
+ * subtree reads are each one indexed query. Each task's rollup covers its whole subtree and
+ * is kept current with deltas. A change to one task's status or timeSpent updates only the
+ * rollup rows of its ancestors, and moving a subtree moves its totals from the old
+ * ancestors to the new ones.
+ *
+ * Writes made through JPA arrive from TaskHierarchyListener inside the writing transaction.
+ * Tasks inserted over JDBC must be registered with addTasks. Changes to a tree's shape are
+ * serialized by lockTrees, which holds the tasks row of each affected tree's root.
+ */
+@Service
+public class TaskHierarchyService {
+    private static final Logger log = LoggerFactory.getLogger(TaskHierarchyService.class);
+
+    private static final String ADD_DELTA_SQL =
+            "UPDATE task_rollups SET todo_count = todo_count + ?, in_progress_count = in_progress_count + ?, "
+            + "done_count = done_count + ?, total_time_spent = total_time_spent + ? "
+            + "WHERE task_id IN (SELECT ancestor_id FROM task_closure WHERE descendant_id = ? AND depth >= ?)";
+
+    private static final String RECOMPUTE_SQL =
+            "UPDATE task_rollups r SET "
+            + "todo_count = (SELECT count(*) FROM task_closure c JOIN tasks t ON t.id = c.descendant_id WHERE c.ancestor_id = r.task_id AND t.status = 'TODO'), "
+            + "in_progress_count = (SELECT count(*) FROM task_closure c JOIN tasks t ON t.id = c.descendant_id WHERE c.ancestor_id = r.task_id AND t.status = 'IN_PROGRESS'), "
+            + "done_count = (SELECT count(*) FROM task_closure c JOIN tasks t ON t.id = c.descendant_id WHERE c.ancestor_id = r.task_id AND t.status = 'DONE'), "
+            + "total_time_spent = (SELECT coalesce(sum(t.time_spent), 0) FROM task_closure c JOIN tasks t ON t.id = c.descendant_id WHERE c.ancestor_id = r.task_id) "
+            + "WHERE r.task_id IN (SELECT ancestor_id FROM task_closure WHERE descendant_id = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskClosureRepository closureRepository;
+
+    // --- maintenance, called inside the transaction that changed the task ---
+
+    public void onInserted(long taskId, Long parentId, TaskStatus status, Long timeSpent) {
+        // The new rows copy the parent's ancestors, which a concurrent move could be rewriting
+        if (parentId != null) lockTrees(parentId);
+        jdbcTemplate.update("INSERT INTO task_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, 0)", taskId, taskId);
+        if (parentId != null) {
+            jdbcTemplate.update("INSERT INTO task_closure (ancestor_id, descendant_id, depth) "
+                    + "SELECT ancestor_id, ?, depth + 1 FROM task_closure WHERE descendant_id = ?", taskId, parentId);
+        }
+        jdbcTemplate.update("INSERT INTO task_rollups (task_id, todo_count, in_progress_count, done_count, total_time_spent) "
+                + "VALUES (?, 0, 0, 0, 0)", taskId);
+        addDelta(taskId, 0, delta(status, 1, timeSpent));
+    }
+
+    /**
+     * Applies a change to the task's own parent, status or timeSpent. Passing null for
+     * oldStatus means the previous values are unknown; the affected rollups are then
+     * recomputed from the closure table instead.
+     */
+    public void onUpdated(long taskId, Long parentId, TaskStatus oldStatus, Long oldTimeSpent,
+                          TaskStatus status, Long timeSpent) {
+        if (!isTracked(taskId)) {
+            onInserted(taskId, parentId, status, timeSpent);
+            return;
+        }
+        move(taskId, parentId);
+        if (oldStatus == null) {
+            jdbcTemplate.update(RECOMPUTE_SQL, taskId);
+            return;
+        }
+        long[] before = delta(oldStatus, 1, oldTimeSpent);
+        long[] after = delta(status, 1, timeSpent);
+        long[] change = new long[4];
+        boolean changed = false;
+        for (int i = 0; i < 4; i++) {
+            change[i] = after[i] - before[i];
+            changed |= change[i] != 0;
+        }
+        if (changed) addDelta(taskId, 0, change);
+    }
+
+    // Subtasks are deleted before their parent, so each deletion only takes the task's own share off its ancestors
+    public void onDeleted(long taskId, TaskStatus status, Long timeSpent) {
+        addDelta(taskId, 1, delta(status, -1, timeSpent));
+        jdbcTemplate.update("DELETE FROM task_rollups WHERE task_id = ?", taskId);
+        jdbcTemplate.update("DELETE FROM task_closure WHERE descendant_id = ? OR ancestor_id = ?", taskId, taskId);
+    }
+
+    /**
+     * Registers tasks inserted over JDBC, all with no time spent and the given status.
+     * Parents must come before their children in taskIds.
+     */
+    public void addTasks(List<Long> taskIds, Map<Long, Long> parentByTask, TaskStatus status) {
+        if (taskIds.isEmpty()) return;
+        jdbcTemplate.batchUpdate("INSERT INTO task_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, 0)",
+                taskIds, taskIds.size(), (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setLong(2, id);
+                });
+        List<Long> children = taskIds.stream().filter(parentByTask::containsKey).toList();
+        jdbcTemplate.batchUpdate("INSERT INTO task_closure (ancestor_id, descendant_id, depth) "
+                + "SELECT ancestor_id, ?, depth + 1 FROM task_closure WHERE descendant_id = ?",
+                children, Math.max(1, children.size()), (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setLong(2, parentByTask.get(id));
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO task_rollups (task_id, todo_count, in_progress_count, done_count, total_time_spent) "
+                + "VALUES (?, 0, 0, 0, 0)", taskIds, taskIds.size(), (ps, id) -> ps.setLong(1, id));
+        long[] delta = delta(status, 1, 0L);
+        jdbcTemplate.batchUpdate(ADD_DELTA_SQL, taskIds, taskIds.size(), (ps, id) -> {
+            for (int i = 0; i < 4; i++) ps.setLong(i + 1, delta[i]);
+            ps.setLong(5, id);
+            ps.setInt(6, 0);
+        });
+    }
+
+    /**
+     * Rebuilds both tables from tasks.parent_task_id, one tree level per statement. It runs
+     * at startup only when the tables miss tasks, for example on the first start after the
+     * upgrade or after a bulk load that bypassed the service.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfIncomplete() {
+        Long tasks = jdbcTemplate.queryForObject("SELECT count(*) FROM tasks", Long.class);
+        Long tracked = jdbcTemplate.queryForObject("SELECT count(*) FROM task_rollups", Long.class);
+        if (tasks != null && !tasks.equals(tracked)) {
+            rebuild();
+        }
+    }
+
+    @Transactional
+    public void rebuild() {
+        long started = System.nanoTime();
+        jdbcTemplate.update("DELETE FROM task_rollups");
+        jdbcTemplate.update("DELETE FROM task_closure");
+        jdbcTemplate.update("INSERT INTO task_closure (ancestor_id, descendant_id, depth) SELECT id, id, 0 FROM tasks");
+        int depth = 0;
+        int added;
+        do {
+            added = jdbcTemplate.update("INSERT INTO task_closure (ancestor_id, descendant_id, depth) "
+                    + "SELECT c.ancestor_id, t.id, c.depth + 1 FROM task_closure c JOIN tasks t ON t.parent_task_id = c.descendant_id "
+                    + "WHERE c.depth = ?", depth++);
+        } while (added > 0);
+        jdbcTemplate.update("INSERT INTO task_rollups (task_id, todo_count, in_progress_count, done_count, total_time_spent) "
+                + "SELECT c.ancestor_id, "
+                + "sum(CASE WHEN t.status = 'TODO' THEN 1 ELSE 0 END), "
+                + "sum(CASE WHEN t.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), "
+                + "sum(CASE WHEN t.status = 'DONE' THEN 1 ELSE 0 END), "
+                + "coalesce(sum(t.time_spent), 0) "
+                + "FROM task_closure c JOIN tasks t ON t.id = c.descendant_id GROUP BY c.ancestor_id");
+        log.info("Rebuilt task hierarchy ({} levels) in {} ms", depth - 1, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // --- reads ---
+
+    /** The task and its descendants down to maxDepth, assembled into a tree from one query. */
+    @Transactional(readOnly = true)
+    public TaskTreeNode getSubtree(Long taskId, int maxDepth) {
+        List<TaskTreeNode> rows = closureRepository.findSubtree(taskId, maxDepth);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Task not found with id: " + taskId);
+        }
+        Map<Long, TaskTreeNode> byId = new HashMap<>();
+        for (TaskTreeNode node : rows) {
+            byId.put(node.getId(), node);
+            TaskTreeNode parent = node.getDepth() > 0 ? byId.get(node.getParentId()) : null;
+            if (parent != null) parent.getChildren().add(node);
+        }
+        return rows.get(0);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskTreeNode> getAncestors(Long taskId) {
+        List<TaskTreeNode> path = new ArrayList<>(closureRepository.findAncestors(taskId));
+        if (path.isEmpty()) {
+            throw new RuntimeException("Task not found with id: " + taskId);
+        }
+        return path;
+    }
+
+    /**
+     * Locks the root of every tree holding one of the tasks, with SELECT ... FOR UPDATE in id
+     * order, until the transaction ends. Two moves that could together close a cycle, or
+     * rewrite the same closure rows, share a tree, so the second waits for the first to commit
+     * and its subtree check then sees the committed closure. A root that changed while this
+     * waited, because its tree was moved under another, is locked as well.
+     */
+    public void lockTrees(Long... taskIds) {
+        TreeSet<Long> locked = new TreeSet<>();
+        TreeSet<Long> roots = roots(taskIds);
+        while (!locked.containsAll(roots)) {
+            roots.removeAll(locked);
+            jdbcTemplate.queryForList("SELECT id FROM tasks WHERE id IN ("
+                    + roots.stream().map(id -> "?").collect(Collectors.joining(", ")) + ") ORDER BY id FOR UPDATE",
+                    Long.class, roots.toArray());
+            locked.addAll(roots);
+            roots = roots(taskIds);
+        }
+    }
+
+    // The topmost ancestor of each task; a task missing from the closure table counts as its own root
+    private TreeSet<Long> roots(Long... taskIds) {
+        TreeSet<Long> roots = new TreeSet<>();
+        for (Long taskId : taskIds) {
+            if (taskId == null) continue;
+            List<Long> top = jdbcTemplate.queryForList(
+                    "SELECT ancestor_id FROM task_closure WHERE descendant_id = ? ORDER BY depth DESC LIMIT 1", Long.class, taskId);
+            roots.add(top.isEmpty() ? taskId : top.get(0));
+        }
+        return roots;
+    }
+
+    public boolean isInSubtree(long ancestorId, long taskId) {
+        Integer rows = jdbcTemplate.queryForObject("SELECT count(*) FROM task_closure WHERE ancestor_id = ? AND descendant_id = ?",
+                Integer.class, ancestorId, taskId);
+        return rows != null && rows > 0;
+    }
+
+    private boolean isTracked(long taskId) {
+        Integer rows = jdbcTemplate.queryForObject("SELECT count(*) FROM task_rollups WHERE task_id = ?", Integer.class, taskId);
+        return rows != null && rows > 0;
+    }
+
+    private void move(long taskId, Long parentId) {
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT ancestor_id FROM task_closure WHERE descendant_id = ? AND depth = 1", Long.class, taskId);
+        Long oldParentId = current.isEmpty() ? null : current.get(0);
+        if (parentId == null ? oldParentId == null : parentId.equals(oldParentId)) return;
+        if (parentId != null && isInSubtree(taskId, parentId)) {
+            throw new RuntimeException("Task " + taskId + " cannot become a subtask of its own subtree");
+        }
+        long[] subtree = jdbcTemplate.queryForObject(
+                "SELECT todo_count, in_progress_count, done_count, total_time_spent FROM task_rollups WHERE task_id = ?",
+                (rs, n) -> new long[] { rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4) }, taskId);
+        long[] negated = new long[4];
+        for (int i = 0; i < 4; i++) negated[i] = -subtree[i];
+        addDelta(taskId, 1, negated);
+        jdbcTemplate.update("DELETE FROM task_closure WHERE descendant_id IN (SELECT descendant_id FROM task_closure WHERE ancestor_id = ?) "
+                + "AND ancestor_id IN (SELECT ancestor_id FROM task_closure WHERE descendant_id = ? AND depth > 0)", taskId, taskId);
+        if (parentId != null) {
+            jdbcTemplate.update("INSERT INTO task_closure (ancestor_id, descendant_id, depth) "
+                    + "SELECT p.ancestor_id, s.descendant_id, p.depth + s.depth + 1 FROM task_closure p, task_closure s "
+                    + "WHERE p.descendant_id = ? AND s.ancestor_id = ?", parentId, taskId);
+            addDelta(taskId, 1, subtree);
+        }
+    }
+
+    // Adds to the rollups of the task's ancestors at minDepth and above (0 includes the task itself)
+    private void addDelta(long taskId, int minDepth, long[] delta) {
+        jdbcTemplate.update(ADD_DELTA_SQL, delta[0], delta[1], delta[2], delta[3], taskId, minDepth);
+    }
+
+    // {todo, inProgress, done, timeSpent} contributed by one task, times sign
+    private static long[] delta(TaskStatus status, int sign, Long timeSpent) {
+        long[] delta = new long[4];
+        if (status == TaskStatus.TODO) delta[0] = sign;
+        else if (status == TaskStatus.IN_PROGRESS) delta[1] = sign;
+        else if (status == TaskStatus.DONE) delta[2] = sign;
+        delta[3] = sign * (timeSpent != null ? timeSpent : 0L);
+        return delta;
+    }
+}
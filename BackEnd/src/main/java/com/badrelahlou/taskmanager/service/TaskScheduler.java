@@ -1,42 +1,122 @@
 package com.badrelahlou.taskmanager.service;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.badrelahlou.taskmanager.model.Task;
 import com.badrelahlou.taskmanager.model.TaskStatus;
 import com.badrelahlou.taskmanager.repository.TaskRepository;
+import com.badrelahlou.taskmanager.sweep.TaskSweep;
+import com.badrelahlou.taskmanager.sweep.TaskSweepShardJob;
 
+import io.micrometer.core.instrument.MeterRegistry;
 
-@Service
+/**
+ * Recurring task copies and pending-task reminders, run on Quartz's clustered JDBC job store.
+ * Each firing of a sweep's trigger goes to one node, which splits the task id range into shards
+ * and stores a job per shard. Every node's Quartz pool claims shard jobs from the shared store,
+ * so a sweep runs once across the cluster and its shards spread over the nodes.
+ */
+// Explicit name: the default "taskScheduler" collides with Spring's scheduling executor bean
+@Service("recurringTaskScheduler")
 public class TaskScheduler {
+    public static final String SHARD_GROUP = "task-sweep-shards";
+
     @Autowired
     private TaskRepository taskRepository;
 
     @Autowired
     private NotificationService notificationService;
 
-    @Scheduled(fixedRate = 86400000) 
-    public void createRecurringTasks() {
-        taskRepository.findAll().stream()
-                .filter(task -> task.getRecurrenceRule() != null && !task.getRecurrenceRule().isEmpty())
-                .forEach(task -> {
-                    
-                    Task newTask = new Task();
-                    newTask.setTitle(task.getTitle());
-                    newTask.setDescription(task.getDescription());
-                    newTask.setPriority(task.getPriority());
-                    task.setStatus(TaskStatus.TODO);
-                    taskRepository.save(newTask);
-                });
+    @Autowired
+    private Scheduler scheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${task.sweep.shard-size:5000}")
+    private long shardSize;
+
+    @Value("${task.sweep.max-shards:256}")
+    private int maxShards;
+
+    /** Stores one shard job per task id range in a single job store transaction; returns how many. */
+    public int planShards(TaskSweep sweep, Date fireTime) throws SchedulerException {
+        Object[] bounds = taskRepository.findIdBounds().get(0);
+        if (bounds[0] == null) return 0;
+        List<long[]> shards = shards(((Number) bounds[0]).longValue(), ((Number) bounds[1]).longValue());
+        // Named after the firing, so a plan repeated for the same firing is refused instead of run twice
+        String run = sweep.name() + "-" + fireTime.getTime();
+        Map<JobDetail, Set<? extends Trigger>> jobs = new LinkedHashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            long[] shard = shards.get(i);
+            // If the node running a shard dies, cluster recovery re-runs the shard on another node
+            JobDetail detail = JobBuilder.newJob(TaskSweepShardJob.class)
+                    .withIdentity(run + "-" + i, SHARD_GROUP)
+                    .requestRecovery(true)
+                    .usingJobData("sweep", sweep.name())
+                    .usingJobData("fromId", String.valueOf(shard[0]))
+                    .usingJobData("toId", String.valueOf(shard[1]))
+                    .build();
+            Trigger trigger = TriggerBuilder.newTrigger().withIdentity(run + "-" + i, SHARD_GROUP).startNow().build();
+            jobs.put(detail, Set.of(trigger));
+        }
+        scheduler.scheduleJobs(jobs, false);
+        meterRegistry.counter("task.sweep.shards", "sweep", sweep.name()).increment(shards.size());
+        return shards.size();
+    }
+
+    public void runShard(TaskSweep sweep, long fromId, long toId) {
+        meterRegistry.timer("task.sweep.shard.duration", "sweep", sweep.name()).record(() -> {
+            if (sweep == TaskSweep.RECURRING_TASKS) {
+                createRecurringTasks(fromId, toId);
+            } else {
+                sendReminders(fromId, toId);
+            }
+        });
     }
 
-    @Scheduled(fixedRate = 3600000) 
-    public void sendReminders() {
-        taskRepository.findAll().stream()
-        .filter(task -> task.getStatus() == TaskStatus.TODO && task.getAssignedUser() != null)
+    private void createRecurringTasks(long fromId, long toId) {
+        List<Task> copies = new ArrayList<>();
+        for (Task task : taskRepository.findRecurringInRange(fromId, toId)) {
+            Task newTask = new Task();
+            newTask.setTitle(task.getTitle());
+            newTask.setDescription(task.getDescription());
+            newTask.setPriority(task.getPriority());
+            newTask.setStatus(TaskStatus.TODO);
+            copies.add(newTask);
+        }
+        taskRepository.saveAll(copies);
+    }
+
+    private void sendReminders(long fromId, long toId) {
+        taskRepository.findAssignedInRangeByStatus(fromId, toId, TaskStatus.TODO)
                 .forEach(task -> notificationService.createNotification(task.getAssignedUser(),
                         "Reminder: Task '" + task.getTitle() + "' is pending."));
     }
+
+    // Half-open id ranges covering [lo, hi], shardSize ids each unless that would exceed maxShards
+    private List<long[]> shards(long lo, long hi) {
+        long span = hi - lo + 1;
+        long step = Math.max(Math.max(1, shardSize), (span + maxShards - 1) / Math.max(1, maxShards));
+        List<long[]> shards = new ArrayList<>();
+        for (long from = lo; from <= hi; from += step) {
+            shards.add(new long[] { from, Math.min(from + step, hi + 1) });
+        }
+        return shards;
+    }
 }
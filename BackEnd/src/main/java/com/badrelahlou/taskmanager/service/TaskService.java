@@ -1,28 +1,47 @@
 package com.badrelahlou.taskmanager.service;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.badrelahlou.taskmanager.analytics.TaskColumnStore;
+import com.badrelahlou.taskmanager.dto.ResourceAssignmentResponse;
+import com.badrelahlou.taskmanager.dto.TaskCommentPageResponse;
+import com.badrelahlou.taskmanager.dto.TaskCommentResponse;
 import com.badrelahlou.taskmanager.dto.TaskResponse;
-import com.badrelahlou.taskmanager.model.Resource; 
 import com.badrelahlou.taskmanager.model.Task;
 import com.badrelahlou.taskmanager.model.TaskStatus;
 import com.badrelahlou.taskmanager.model.User;
-import com.badrelahlou.taskmanager.repository.ResourceRepository;
+import com.badrelahlou.taskmanager.repository.TaskCommentRepository;
 import com.badrelahlou.taskmanager.repository.TaskRepository;
 import com.badrelahlou.taskmanager.repository.UserRepository;
 
 @Service
 public class TaskService {
+    // Ids per comment-count query, well under PostgreSQL's bind parameter limit
+    private static final int IN_CHUNK = 1000;
+
     @Autowired
     private TaskRepository taskRepository;
 
@@ -33,17 +52,36 @@ public class TaskService {
     private NotificationService notificationService;
 
     @Autowired
-    private ResourceRepository resourceRepository; 
+    private TaskCommentRepository taskCommentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private TaskHierarchyService taskHierarchyService;
+
+    @Autowired
+    private TaskColumnStore taskColumnStore;
+
+    @Value("${comments.max-page-size:100}")
+    private int maxCommentPageSize;
 
+    @Transactional
     public Task createTask(Task task, List<Long> dependencyIds) {
         if (dependencyIds != null && !dependencyIds.isEmpty()) {
             List<Task> dependencies = taskRepository.findAllById(dependencyIds);
             task.setDependencies(dependencies);
         }
         task.setStatus(TaskStatus.TODO);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        resourceService.reserve(saved, List.of(), ResourceService.resourceIds(saved));
+        return saved;
     }
 
+    @Transactional
     public Task startTimer(Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
@@ -52,9 +90,12 @@ public class TaskService {
         }
         task.setStartTime(LocalDateTime.now());
         task.setStatus(TaskStatus.IN_PROGRESS);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        resourceService.reserve(saved, ResourceService.resourceIds(saved), ResourceService.resourceIds(saved));
+        return saved;
     }
 
+    @Transactional
     public Task stopTimer(Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
@@ -74,26 +115,31 @@ public class TaskService {
                 .forEach(t -> notificationService.createNotification(t.getAssignedUser(),
                         "Dependency '" + task.getTitle() + "' completed for task '" + t.getTitle() + "'"));
 
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        resourceService.reserve(saved, ResourceService.resourceIds(saved), ResourceService.resourceIds(saved));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public Page<Task> getAllTasks(Pageable pageable) {
         return taskRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
     public Task getTaskById(Long id) {
         return taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
     }
 
+    @Transactional
     public Task updateTask(Long id, Task updatedTask) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+        List<Long> previousResourceIds = ResourceService.resourceIds(task);
         task.setTitle(updatedTask.getTitle());
         task.setDescription(updatedTask.getDescription());
         task.setPriority(updatedTask.getPriority());
         task.setStatus(updatedTask.getStatus());
-        task.setSubtasks(updatedTask.getSubtasks());
         task.setRecurrenceRule(updatedTask.getRecurrenceRule());
         task.setResources(updatedTask.getResources());
     
@@ -103,16 +149,54 @@ public class TaskService {
                 "Your task '" + task.getTitle() + "' status changed to " + updatedTask.getStatus());
         }
     
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        resourceService.reserve(saved, previousResourceIds, ResourceService.resourceIds(saved));
+        return saved;
     }
     
 
+    @Transactional
     public void deleteTask(Long id) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+        resourceService.releaseBookings(task);
         taskRepository.delete(task);
     }
 
+    // Closure rows and ancestor rollups follow through TaskHierarchyListener in the same transaction
+    @Transactional
+    public Task moveTask(Long taskId, Long parentId) {
+        // Holds off other moves in the old and new trees until this one commits, so the check below stays true
+        taskHierarchyService.lockTrees(taskId, parentId);
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
+        Task parent = parentId == null ? null : taskRepository.findById(parentId)
+                .orElseThrow(() -> new RuntimeException("Task not found with id: " + parentId));
+        if (parent != null && taskHierarchyService.isInSubtree(taskId, parentId)) {
+            throw new RuntimeException("Task " + taskId + " cannot become a subtask of its own subtree");
+        }
+        task.setParentTask(parent);
+        return taskRepository.save(task);
+    }
+
+    /**
+     * An edit pulled from the assignee's calendar. The new window is booked like any other
+     * change, so under REJECT an overlap throws ResourceConflictException. It runs in its own
+     * transaction because the pull that calls it keeps going after a rejected edit.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Task applyCalendarEdit(Long taskId, String title, String description, LocalDateTime start, LocalDateTime end) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setStartTime(start);
+        task.setEndTime(end);
+        Task saved = taskRepository.save(task);
+        resourceService.reserve(saved, ResourceService.resourceIds(saved), ResourceService.resourceIds(saved));
+        return saved;
+    }
+
     public Task assignTaskToUser(Long taskId, Long userId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
@@ -124,12 +208,8 @@ public class TaskService {
         return task;
     }
 
-    public Task assignResources(Long taskId, List<Long> resourceIds) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
-        List<Resource> resources = resourceRepository.findAllById(resourceIds);
-        task.setResources(resources);
-        return taskRepository.save(task);
+    public ResourceAssignmentResponse assignResources(Long taskId, List<Long> resourceIds) {
+        return resourceService.assignResources(taskId, resourceIds);
     }
 
     public TaskResponse toTaskResponse(Task task) {
@@ -148,6 +228,23 @@ public class TaskService {
         return dto;
     }
 
+    // For whole pages of tasks: comment counts come from one grouped query instead of one per task
+    @Transactional(readOnly = true)
+    public List<TaskResponse> toTaskResponses(List<Task> tasks) {
+        List<TaskResponse> responses = tasks.stream().map(this::toTaskResponse).collect(Collectors.toList());
+        if (responses.isEmpty()) return responses;
+        Map<Long, Long> counts = new HashMap<>();
+        List<Long> ids = responses.stream().map(TaskResponse::getId).distinct().collect(Collectors.toList());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            for (Object[] row : taskCommentRepository.countByTaskIds(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK)))) {
+                counts.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        responses.forEach(r -> r.setCommentCount(counts.getOrDefault(r.getId(), 0L)));
+        return responses;
+    }
+
+    @Transactional(readOnly = true)
     public List<Task> filterTasks(String status, String priority, String startDate, String endDate) {
         List<Task> all = taskRepository.findAll();
         return all.stream().filter(task -> {
@@ -171,6 +268,7 @@ public class TaskService {
         }).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<Task> getTasksForCalendar(String month, String year) {
         int m = Integer.parseInt(month);
         int y = Integer.parseInt(year);
@@ -181,35 +279,84 @@ public class TaskService {
             .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public Long getUserTimeSummary(Long userId) {
+        if (taskColumnStore.isLoaded()) {
+            return taskColumnStore.aggregate(userId, null, null, null, null).getTimeSpent();
+        }
         return taskRepository.findAll().stream()
             .filter(task -> task.getAssignedUser() != null && userId.equals(task.getAssignedUser().getId()))
             .mapToLong(task -> task.getTimeSpent() != null ? task.getTimeSpent() : 0L)
             .sum();
     }
 
+    @Transactional(readOnly = true)
     public Long getTaskTimeSummary(Long taskId) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new RuntimeException("Task not found"));
         return task.getTimeSpent() != null ? task.getTimeSpent() : 0L;
     }
 
-    public List<String> getTaskComments(Long taskId) {
-        // TODO: Replace with real TaskComment entity/DTO
-        return new java.util.ArrayList<>();
+    @Transactional(readOnly = true)
+    public TaskCommentPageResponse getTaskComments(Long taskId, String cursor, int size) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new RuntimeException("Task not found with id: " + taskId);
+        }
+        int pageSize = Math.max(1, Math.min(size, maxCommentPageSize));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<TaskCommentResponse> rows = cursor == null || cursor.isBlank()
+                ? taskCommentRepository.findThreadFirstPage(taskId, limit)
+                : taskCommentRepository.findThreadPageAfter(taskId, Cursors.createdAt(cursor), Cursors.id(cursor), limit);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            TaskCommentResponse last = rows.get(pageSize - 1);
+            nextCursor = Cursors.encode(last.getCreatedAt(), last.getId());
+        }
+        return new TaskCommentPageResponse(new ArrayList<>(rows), nextCursor);
     }
 
-    public void addTaskComment(Long taskId, String comment) {
-        // TODO: Replace with real TaskComment entity/DTO and persistence
+    public TaskCommentResponse addTaskComment(Long taskId, Long userId, String comment) {
+        return addTaskComments(taskId, userId, List.of(comment)).get(0);
     }
 
-    public List<String> getTaskAttachments(Long taskId) {
-        // TODO: Replace with real TaskAttachment entity/DTO
-        return new java.util.ArrayList<>();
-    }
+    // One JDBC batch per call; IDENTITY ids rule out Hibernate's insert batching
+    @Transactional
+    public List<TaskCommentResponse> addTaskComments(Long taskId, Long userId, List<String> comments) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new RuntimeException("Task not found with id: " + taskId);
+        }
+        if (comments.isEmpty() || comments.stream().anyMatch(c -> c == null || c.isBlank())) {
+            throw new RuntimeException("Comment text is required");
+        }
+        // Truncated to the column's precision so returned timestamps match what a later read sees
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(
+                        "INSERT INTO task_comments (task_id, user_id, comment, created_at) VALUES (?, ?, ?, ?)",
+                        new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, taskId);
+                        ps.setLong(2, userId);
+                        ps.setString(3, comments.get(i));
+                        ps.setTimestamp(4, Timestamp.valueOf(now));
+                    }
 
-    public void addTaskAttachment(Long taskId, String fileUrl) {
-        // TODO: Replace with real TaskAttachment entity/DTO and persistence
+                    @Override
+                    public int getBatchSize() {
+                        return comments.size();
+                    }
+                },
+                keys);
+        List<TaskCommentResponse> created = new ArrayList<>(comments.size());
+        for (int i = 0; i < comments.size(); i++) {
+            Long id = ((Number) keys.getKeyList().get(i).get("id")).longValue();
+            created.add(new TaskCommentResponse(id, taskId, userId, comments.get(i), now));
+        }
+        return created;
     }
 
     // --- TIMER LOGIC FOR ROBUST PERSISTENCE ---
@@ -0,0 +1,305 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.badrelahlou.taskmanager.analytics.TaskColumnStore;
+import com.badrelahlou.taskmanager.audit.AuditBuffer;
+import com.badrelahlou.taskmanager.audit.AuditEvent;
+import com.badrelahlou.taskmanager.cache.DashboardCacheListener;
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.calendar.CalendarSyncQueue;
+import com.badrelahlou.taskmanager.calendar.IcsFeedCache;
+import com.badrelahlou.taskmanager.dto.TemplateInstantiationRequest;
+import com.badrelahlou.taskmanager.dto.TemplateInstantiationResponse;
+import com.badrelahlou.taskmanager.dto.TemplateSetRequest;
+import com.badrelahlou.taskmanager.dto.TemplateSetResponse;
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+import com.badrelahlou.taskmanager.model.TaskTemplate;
+import com.badrelahlou.taskmanager.model.TaskTemplateSet;
+import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.report.TaskDataVersion;
+import com.badrelahlou.taskmanager.repository.TaskTemplateRepository;
+import com.badrelahlou.taskmanager.repository.TaskTemplateSetRepository;
+import com.badrelahlou.taskmanager.repository.UserRepository;
+import com.badrelahlou.taskmanager.security.CurrentUser;
+import com.badrelahlou.taskmanager.security.JwtPrincipal;
+
+@Service
+public class TaskTemplateService {
+    private static final String INSERT_TASK_SQL =
+            "INSERT INTO tasks (title, description, start_time, end_time, priority, status, assigned_user_id, "
+            + "created_at, updated_at, created_by, parent_task_id, timer_running, timer_accumulated) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, 0)";
+
+    @Autowired
+    private TaskTemplateSetRepository templateSetRepository;
+
+    @Autowired
+    private TaskTemplateRepository templateRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private AuditBuffer auditBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CalendarSyncQueue calendarSyncQueue;
+
+    @Autowired
+    private IcsFeedCache icsFeedCache;
+
+    @Autowired
+    private NearCacheManager cacheManager;
+
+    @Autowired
+    private TaskDataVersion taskDataVersion;
+
+    @Autowired
+    private TaskColumnStore taskColumnStore;
+
+    @Autowired
+    private TaskHierarchyService taskHierarchyService;
+
+    @Transactional
+    public TemplateSetResponse createTemplateSet(TemplateSetRequest request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new RuntimeException("Template set name is required");
+        }
+        if (templateSetRepository.existsByName(request.getName())) {
+            throw new RuntimeException("Template set name already exists");
+        }
+        List<TemplateSetRequest.Item> items = request.getTemplates() != null ? request.getTemplates() : List.of();
+        Map<String, TemplateSetRequest.Item> byKey = new LinkedHashMap<>();
+        for (TemplateSetRequest.Item item : items) {
+            if (item.getKey() == null || byKey.put(item.getKey(), item) != null) {
+                throw new RuntimeException("Every template needs a unique key");
+            }
+        }
+        Map<String, List<String>> edges = new HashMap<>();
+        for (TemplateSetRequest.Item item : items) {
+            List<String> targets = new ArrayList<>(item.getDependsOn() != null ? item.getDependsOn() : List.of());
+            if (item.getParentKey() != null) targets.add(item.getParentKey());
+            for (String target : targets) {
+                if (!byKey.containsKey(target)) {
+                    throw new RuntimeException("Template '" + item.getKey() + "' refers to unknown key '" + target + "'");
+                }
+            }
+            edges.put(item.getKey(), targets);
+        }
+        requireAcyclic(edges);
+
+        TaskTemplateSet set = new TaskTemplateSet();
+        set.setName(request.getName());
+        set.setDescription(request.getDescription());
+        set.setCreatedAt(LocalDateTime.now());
+        templateSetRepository.save(set);
+
+        Map<String, TaskTemplate> saved = new LinkedHashMap<>();
+        for (TemplateSetRequest.Item item : items) {
+            TaskTemplate template = new TaskTemplate();
+            template.setTemplateSet(set);
+            template.setTitle(item.getTitle());
+            template.setDescription(item.getDescription());
+            template.setPriority(item.getPriority() != null ? Priority.valueOf(item.getPriority()) : Priority.MEDIUM);
+            template.setStartOffsetMinutes(item.getStartOffsetMinutes() != null ? item.getStartOffsetMinutes() : 0L);
+            template.setDurationMinutes(item.getDurationMinutes() != null ? item.getDurationMinutes() : 60L);
+            saved.put(item.getKey(), template);
+        }
+        templateRepository.saveAll(saved.values());
+        for (TemplateSetRequest.Item item : items) {
+            TaskTemplate template = saved.get(item.getKey());
+            if (item.getParentKey() != null) template.setParentTemplate(saved.get(item.getParentKey()));
+            if (item.getDependsOn() != null) {
+                template.setDependencies(item.getDependsOn().stream().map(saved::get).collect(Collectors.toList()));
+            }
+        }
+        return new TemplateSetResponse(set.getId(), set.getName(), set.getDescription(), items.size());
+    }
+
+    @Transactional(readOnly = true)
+    public List<TemplateSetResponse> getTemplateSets() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : templateRepository.countBySet()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return templateSetRepository.findAll().stream()
+                .map(s -> new TemplateSetResponse(s.getId(), s.getName(), s.getDescription(),
+                        counts.getOrDefault(s.getId(), 0L).intValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates one task per template in a single transaction. Parents are inserted before
+     * their subtasks, one JDBC batch per nesting level, so parent ids are known when a level
+     * is written. Dependency rows are then written in one batch from the in-memory
+     * template-to-task id map. Each assignee gets one notification for the whole set.
+     */
+    @Transactional
+    public TemplateInstantiationResponse instantiate(Long setId, TemplateInstantiationRequest request) {
+        TaskTemplateSet set = templateSetRepository.findById(setId)
+                .orElseThrow(() -> new RuntimeException("Template set not found"));
+        List<TaskTemplate> templates = templateRepository.findBySetId(setId);
+        Map<Long, Long> parents = new HashMap<>();
+        for (Object[] row : templateRepository.findParentLinks(setId)) {
+            if (row[1] != null) parents.put((Long) row[0], (Long) row[1]);
+        }
+        List<long[]> dependencyLinks = templateRepository.findDependencyLinks(setId).stream()
+                .map(row -> new long[] { (Long) row[0], (Long) row[1] })
+                .collect(Collectors.toList());
+
+        Map<Long, Long> assignments = request.getAssignments() != null ? request.getAssignments() : Map.of();
+        Map<Long, Long> assigneeByTemplate = new HashMap<>();
+        for (TaskTemplate template : templates) {
+            Long assignee = assignments.getOrDefault(template.getId(), request.getDefaultAssigneeId());
+            if (assignee != null) assigneeByTemplate.put(template.getId(), assignee);
+        }
+        Set<Long> assigneeIds = new HashSet<>(assigneeByTemplate.values());
+        Map<Long, User> assignees = userRepository.findAllById(assigneeIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
+        if (assignees.size() != assigneeIds.size()) {
+            throw new RuntimeException("Unknown assignee in instantiation request");
+        }
+
+        // Group by nesting depth so each level's parents already have task ids
+        TreeMap<Integer, List<TaskTemplate>> levels = new TreeMap<>();
+        for (TaskTemplate template : templates) {
+            int depth = 0;
+            for (Long p = parents.get(template.getId()); p != null; p = parents.get(p)) depth++;
+            levels.computeIfAbsent(depth, d -> new ArrayList<>()).add(template);
+        }
+
+        LocalDateTime base = (request.getStartAt() != null ? request.getStartAt() : LocalDateTime.now())
+                .truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        String createdBy = CurrentUser.principal().map(JwtPrincipal::getUsername).orElse(null);
+        Map<Long, Long> taskIds = new LinkedHashMap<>();
+        for (List<TaskTemplate> level : levels.values()) {
+            GeneratedKeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_TASK_SQL, new String[] { "id" }),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            TaskTemplate template = level.get(i);
+                            LocalDateTime start = base.plusMinutes(template.getStartOffsetMinutes() != null ? template.getStartOffsetMinutes() : 0);
+                            LocalDateTime end = start.plusMinutes(template.getDurationMinutes() != null ? template.getDurationMinutes() : 60);
+                            ps.setString(1, template.getTitle());
+                            ps.setString(2, template.getDescription());
+                            ps.setTimestamp(3, Timestamp.valueOf(start));
+                            ps.setTimestamp(4, Timestamp.valueOf(end));
+                            ps.setString(5, (template.getPriority() != null ? template.getPriority() : Priority.MEDIUM).name());
+                            ps.setString(6, TaskStatus.TODO.name());
+                            setNullableLong(ps, 7, assigneeByTemplate.get(template.getId()));
+                            ps.setTimestamp(8, Timestamp.valueOf(now));
+                            ps.setTimestamp(9, Timestamp.valueOf(now));
+                            ps.setString(10, createdBy);
+                            Long parent = parents.get(template.getId());
+                            setNullableLong(ps, 11, parent != null ? taskIds.get(parent) : null);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return level.size();
+                        }
+                    }, keys);
+            for (int i = 0; i < level.size(); i++) {
+                taskIds.put(level.get(i).getId(), ((Number) keys.getKeyList().get(i).get("id")).longValue());
+            }
+        }
+
+        Map<Long, Long> parentByTask = new HashMap<>();
+        parents.forEach((template, parent) -> parentByTask.put(taskIds.get(template), taskIds.get(parent)));
+        taskHierarchyService.addTasks(new ArrayList<>(taskIds.values()), parentByTask, TaskStatus.TODO);
+
+        jdbcTemplate.batchUpdate("INSERT INTO task_dependencies (task_id, dependency_id) VALUES (?, ?)",
+                dependencyLinks, dependencyLinks.size(), (ps, link) -> {
+                    ps.setLong(1, taskIds.get(link[0]));
+                    ps.setLong(2, taskIds.get(link[1]));
+                });
+
+        // Inserted by batch, not saved as entities: one CREATE per task has to be queued by hand
+        Long actor = CurrentUser.id().orElse(null);
+        auditBuffer.offerAfterCommit(taskIds.values().stream()
+                .map(id -> new AuditEvent(actor, "CREATE", "Task", id, "templateSet=" + setId))
+                .collect(Collectors.toList()));
+        calendarSyncQueue.markDirtyAfterCommit(assigneeByTemplate.entrySet().stream()
+                .filter(e -> calendarSyncQueue.isConnected(e.getValue()))
+                .map(e -> taskIds.get(e.getKey()))
+                .collect(Collectors.toList()));
+        icsFeedCache.invalidateAfterCommit(assigneeIds);
+        taskDataVersion.bumpAfterCommit();
+        taskColumnStore.reloadAfterCommit(taskIds.values());
+        cacheManager.evictAfterCommit(DashboardCacheListener.CACHE, assigneeIds);
+
+        Map<Long, Long> countByAssignee = assigneeByTemplate.values().stream()
+                .collect(Collectors.groupingBy(id -> id, Collectors.counting()));
+        countByAssignee.forEach((userId, count) -> notificationService.createNotification(assignees.get(userId),
+                count + (count == 1 ? " task" : " tasks") + " from template '" + set.getName() + "'"
+                        + (count == 1 ? " has" : " have") + " been assigned to you."));
+
+        return new TemplateInstantiationResponse(setId, taskIds);
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) ps.setLong(index, value); else ps.setNull(index, Types.BIGINT);
+    }
+
+    // Depth-first search for a back edge over dependsOn and parent links
+    private static void requireAcyclic(Map<String, List<String>> edges) {
+        Map<String, Integer> state = new HashMap<>();
+        for (String start : edges.keySet()) {
+            if (state.containsKey(start)) continue;
+            List<String> stack = new ArrayList<>(List.of(start));
+            List<Integer> cursor = new ArrayList<>(List.of(0));
+            state.put(start, 1);
+            while (!stack.isEmpty()) {
+                int top = stack.size() - 1;
+                List<String> next = edges.getOrDefault(stack.get(top), List.of());
+                int i = cursor.get(top);
+                if (i == next.size()) {
+                    state.put(stack.remove(top), 2);
+                    cursor.remove(top);
+                    continue;
+                }
+                cursor.set(top, i + 1);
+                String target = next.get(i);
+                Integer s = state.get(target);
+                if (s == null) {
+                    state.put(target, 1);
+                    stack.add(target);
+                    cursor.add(0);
+                } else if (s == 1) {
+                    throw new RuntimeException("Template graph has a cycle through '" + target + "'");
+                }
+            }
+        }
+    }
+}
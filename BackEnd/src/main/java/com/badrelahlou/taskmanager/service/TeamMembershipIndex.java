@@ -0,0 +1,196 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.cache.RemoteChangeListener;
+import com.badrelahlou.taskmanager.repository.TeamRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory team membership as one compressed bitmap of user ids per team. Bitmaps are
+ * never mutated after publication; every change swaps in a new one, so readers need no
+ * locking. Kept current by TeamService, which announces changed teams through the near cache
+ * manager so the other instances re-read them, and rebuilt from the join table on a schedule
+ * or when announcements were lost; teams updated while a rebuild is loading keep their updated
+ * bitmap rather than the loaded one.
+ */
+@Component
+public class TeamMembershipIndex {
+    // Near cache topic carrying the ids of teams whose members changed
+    public static final String CHANGES_TOPIC = "teamMembers";
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    // Remote changes are read through JDBC outside a transaction, so from the primary rather than a lagging replica
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NearCacheManager cacheManager;
+
+    private volatile Map<Long, Roaring64Bitmap> membersByTeam = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // Writers share the read lock; a rebuild takes the write lock only to swap in the new map
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // Serialises rebuilds; unlike a monitor it lets a virtual thread unmount while the queries run
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Teams changed while a rebuild was loading. Their current entry is copied over instead of the possibly older loaded one.
+    private volatile Set<Long> touchedDuringRebuild;
+
+    @PostConstruct
+    void subscribe() {
+        cacheManager.onRemoteChange(CHANGES_TOPIC, new RemoteChangeListener() {
+            @Override
+            public void changed(Set<Object> keys) {
+                List<Long> teamIds = new ArrayList<>(keys.size());
+                for (Object key : keys) teamIds.add(((Number) key).longValue());
+                reload(teamIds);
+            }
+
+            @Override
+            public void missed() {
+                rebuild();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${teams.membership-index.rebuild-interval-ms:600000}",
+               fixedDelayString = "${teams.membership-index.rebuild-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            swapLock.writeLock().lock();
+            try {
+                touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            Map<Long, Roaring64Bitmap> fresh = new ConcurrentHashMap<>();
+            teamRepository.findAllTeamIds().forEach(id -> fresh.put(id, new Roaring64Bitmap()));
+            for (Object[] row : teamRepository.findAllMemberships()) {
+                fresh.computeIfAbsent((Long) row[0], id -> new Roaring64Bitmap()).addLong((Long) row[1]);
+            }
+            fresh.values().forEach(Roaring64Bitmap::runOptimize);
+            swapLock.writeLock().lock();
+            try {
+                Map<Long, Roaring64Bitmap> previous = membersByTeam;
+                for (Long teamId : touchedDuringRebuild) {
+                    Roaring64Bitmap current = previous.get(teamId);
+                    if (current == null) {
+                        fresh.remove(teamId);
+                    } else {
+                        fresh.put(teamId, current);
+                    }
+                }
+                membersByTeam = fresh;
+                touchedDuringRebuild = null;
+                loaded = true;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void update(Long teamId, Collection<Long> memberIds) {
+        Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        memberIds.forEach(bitmap::addLong);
+        bitmap.runOptimize();
+        swapLock.readLock().lock();
+        try {
+            membersByTeam.put(teamId, bitmap);
+            touch(teamId);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public void remove(Long teamId) {
+        swapLock.readLock().lock();
+        try {
+            membersByTeam.remove(teamId);
+            touch(teamId);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /** Re-reads the members of these teams; ids no longer found are removed. */
+    public void reload(List<Long> teamIds) {
+        for (int i = 0; i < teamIds.size(); i += 1000) {
+            List<Long> batch = teamIds.subList(i, Math.min(teamIds.size(), i + 1000));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(
+                    "select id from teams where id in (" + placeholders + ")", Long.class, batch.toArray()));
+            Map<Long, List<Long>> members = new HashMap<>();
+            jdbcTemplate.query("select team_id, user_id from team_members where team_id in (" + placeholders + ")",
+                    rs -> {
+                        members.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+                    }, batch.toArray());
+            for (Long teamId : batch) {
+                if (existing.contains(teamId)) {
+                    update(teamId, members.getOrDefault(teamId, List.of()));
+                } else {
+                    remove(teamId);
+                }
+            }
+        }
+    }
+
+    /** Tells the other instances to re-read the members of these committed teams. */
+    public void announce(Collection<Long> teamIds) {
+        cacheManager.announce(CHANGES_TOPIC, teamIds);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean contains(Long teamId) {
+        return membersByTeam.containsKey(teamId);
+    }
+
+    public List<Long> memberIds(Long teamId) {
+        Roaring64Bitmap bitmap = membersByTeam.get(teamId);
+        if (bitmap == null) return new ArrayList<>();
+        List<Long> ids = new ArrayList<>((int) bitmap.getLongCardinality());
+        bitmap.forEach(ids::add);
+        return ids;
+    }
+
+    public boolean isMember(Long teamId, Long userId) {
+        Roaring64Bitmap bitmap = membersByTeam.get(teamId);
+        return bitmap != null && userId != null && bitmap.contains(userId);
+    }
+
+    private void touch(Long teamId) {
+        Set<Long> touched = touchedDuringRebuild;
+        if (touched != null) touched.add(teamId);
+    }
+}
@@ -1,14 +1,20 @@
 package com.badrelahlou.taskmanager.service;
 
+import com.badrelahlou.taskmanager.dto.TeamBoardResponse;
 import com.badrelahlou.taskmanager.dto.TeamResponse;
 import com.badrelahlou.taskmanager.model.Team;
 import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.repository.TaskRepository;
 import com.badrelahlou.taskmanager.repository.TeamRepository;
 import com.badrelahlou.taskmanager.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -18,6 +24,12 @@ public class TeamService {
     private TeamRepository teamRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TeamMembershipIndex membershipIndex;
 
     public Team createTeam(String name, List<Long> memberIds) {
         if (teamRepository.existsByName(name)) {
@@ -27,7 +39,11 @@ public class TeamService {
         team.setName(name);
         List<User> members = userRepository.findAllById(memberIds);
         team.setMembers(members);
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        membershipIndex.update(saved.getId(), members.stream().map(User::getId).toList());
+        // No surrounding transaction: the save has committed by now
+        membershipIndex.announce(List.of(saved.getId()));
+        return saved;
     }
 
     public List<Team> getAllTeams() {
@@ -43,18 +59,49 @@ public class TeamService {
         team.setName(name);
         List<User> members = userRepository.findAllById(memberIds);
         team.setMembers(members);
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        membershipIndex.update(saved.getId(), members.stream().map(User::getId).toList());
+        membershipIndex.announce(List.of(saved.getId()));
+        return saved;
     }
 
     public void deleteTeam(Long id) {
         teamRepository.deleteById(id);
+        membershipIndex.remove(id);
+        membershipIndex.announce(List.of(id));
+    }
+
+    @Transactional(readOnly = true)
+    public TeamBoardResponse getTeamBoard(Long teamId, int page, int size) {
+        if (!membershipIndex.contains(teamId) && !teamRepository.existsById(teamId)) {
+            throw new RuntimeException("Team not found");
+        }
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        long total = 0;
+        for (Object[] row : taskRepository.countTeamTasksByStatus(teamId)) {
+            long count = (Long) row[1];
+            statusCounts.put(row[0] == null ? "NONE" : row[0].toString(), count);
+            total += count;
+        }
+        TeamBoardResponse board = new TeamBoardResponse();
+        board.setTeamId(teamId);
+        board.setPage(page);
+        board.setSize(size);
+        board.setTotalTasks(total);
+        board.setStatusCounts(statusCounts);
+        board.setTasks(total <= (long) page * size ? List.of()
+                : taskService.toTaskResponses(taskRepository.findTeamTasks(teamId, PageRequest.of(page, size))));
+        return board;
     }
 
     public TeamResponse toTeamResponse(Team team) {
         TeamResponse dto = new TeamResponse();
         dto.setId(team.getId());
         dto.setName(team.getName());
-        dto.setMemberIds(team.getMembers().stream().map(User::getId).collect(Collectors.toList()));
+        // Served from the index so listing teams doesn't initialize every lazy members collection
+        dto.setMemberIds(membershipIndex.isLoaded() && membershipIndex.contains(team.getId())
+                ? membershipIndex.memberIds(team.getId())
+                : team.getMembers().stream().map(User::getId).collect(Collectors.toList()));
         return dto;
     }
 }
@@ -0,0 +1,89 @@
+package com.badrelahlou.taskmanager.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.badrelahlou.taskmanager.repository.NotificationRepository;
+import com.badrelahlou.taskmanager.retention.RetentionProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-user unread counts kept in memory. A counter is loaded from the database the first
+ * time it is asked for and then adjusted once a transaction creating or marking notifications
+ * read commits, so a rollback leaves it alone.
+ * Entries expire after a fixed time so counts changed by other instances are re-read.
+ */
+@Component
+public class UnreadNotificationCounter {
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private RetentionProperties retentionProperties;
+
+    @Value("${notifications.unread-counter.max-users:100000}")
+    private long maxUsers;
+
+    @Value("${notifications.unread-counter.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private LoadingCache<Long, AtomicLong> counters;
+
+    @PostConstruct
+    void init() {
+        counters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(userId -> new AtomicLong(notificationRepository.countUnread(userId,
+                        retentionProperties.lowerBound("notification"))));
+    }
+
+    public long get(Long userId) {
+        return counters.get(userId).get();
+    }
+
+    public void incrementAfterCommit(Long userId) {
+        afterCommit(() -> increment(userId));
+    }
+
+    public void decrementAfterCommit(Long userId, long by) {
+        if (by > 0) afterCommit(() -> decrement(userId, by));
+    }
+
+    public void invalidate(Long userId) {
+        counters.invalidate(userId);
+    }
+
+    // Only adjusts counters already loaded; an absent one will be read fresh from the database
+    private void increment(Long userId) {
+        AtomicLong counter = counters.getIfPresent(userId);
+        if (counter != null) counter.incrementAndGet();
+    }
+
+    private void decrement(Long userId, long by) {
+        AtomicLong counter = counters.getIfPresent(userId);
+        if (counter != null) counter.updateAndGet(v -> Math.max(0, v - by));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
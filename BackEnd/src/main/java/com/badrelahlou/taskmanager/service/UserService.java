@@ -1,23 +1,39 @@
 package com.badrelahlou.taskmanager.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.badrelahlou.taskmanager.dto.UserProfileResponse;
 import com.badrelahlou.taskmanager.dto.UserRegistrationRequest;
 import com.badrelahlou.taskmanager.model.User;
 import com.badrelahlou.taskmanager.repository.UserRepository;
+import com.badrelahlou.taskmanager.security.LoginAttemptThrottle;
+import com.badrelahlou.taskmanager.security.PermissionCache;
 
 @Service
 public class UserService {
+    private static final SecureRandom FEED_TOKENS = new SecureRandom();
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginAttemptThrottle loginAttemptThrottle;
+
+    @Autowired
+    private PermissionCache permissionCache;
+
+    @Autowired
+    private DashboardService dashboardService;
 
     public User createUser(User user) {
         userRepository.findByUsername(user.getUsername())
@@ -27,7 +43,7 @@ public class UserService {
     
        
         String plainPassword = user.getPasswordHash();  
-        String hashedPassword = passwordEncoder.encode(plainPassword);
+        String hashedPassword = passwordHashingService.encode(plainPassword);
         
         user.setPasswordHash(hashedPassword);
         return userRepository.save(user);
@@ -39,7 +55,7 @@ public class UserService {
         User user = new User();
         user.setUsername(request.getEmail()); // Use email as username for simplicity
         user.setEmail(request.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
         user.setRole(com.badrelahlou.taskmanager.model.Role.TEAM_MEMBER); // Default role
         // Optionally set firstName/lastName if your User entity supports it
         return userRepository.save(user);
@@ -53,32 +69,36 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setPermissions(permissions);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        permissionCache.invalidate(userId);
+        return saved;
     }
 
     public User authenticate(String username, String password) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-    
-        System.out.println("Entered Password: " + password);
-        System.out.println("Stored Hash: " + user.getPasswordHash());
-    
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
-            System.out.println("Password does NOT match!");
+        if (!passwordHashingService.matches(password, user.getPasswordHash())) {
             throw new RuntimeException("Invalid credentials");
-        } else {
-            System.out.println("Password matches successfully!");
         }
-    
         return user;
     }
     
     public User authenticateByEmail(String email, String password) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+        loginAttemptThrottle.checkAllowed(email);
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            loginAttemptThrottle.recordFailure(email);
+            throw new RuntimeException("User not found");
+        }
+        if (!passwordHashingService.matches(password, user.getPasswordHash())) {
+            loginAttemptThrottle.recordFailure(email);
             throw new RuntimeException("Invalid credentials");
         }
+        loginAttemptThrottle.reset(email);
+        if (passwordHashingService.needsRehash(user.getPasswordHash())) {
+            user.setPasswordHash(passwordHashingService.encode(password));
+            user = userRepository.save(user);
+        }
         return user;
     }
 
@@ -103,15 +123,39 @@ public class UserService {
         user.setEmail(updatedUser.getEmail());
         user.setRole(updatedUser.getRole());
         if (updatedUser.getPasswordHash() != null) {
-            user.setPasswordHash(passwordEncoder.encode(updatedUser.getPasswordHash()));
+            user.setPasswordHash(passwordHashingService.encode(updatedUser.getPasswordHash()));
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        permissionCache.invalidate(id);
+        return saved;
     }
 
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         userRepository.delete(user);
+        permissionCache.invalidate(id);
+    }
+
+    /** Issues a new ICS feed token, so links handed out before stop working. */
+    public String rotateCalendarFeedToken(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        byte[] random = new byte[32];
+        FEED_TOKENS.nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+        user.setCalendarFeedToken(token);
+        userRepository.save(user);
+        return token;
+    }
+
+    // Compared in constant time; users who never asked for a feed link have no token and match nothing
+    public boolean calendarFeedTokenMatches(Long userId, String token) {
+        if (token == null || token.isEmpty()) return false;
+        return userRepository.findCalendarFeedTokenById(userId)
+                .map(stored -> MessageDigest.isEqual(stored.getBytes(StandardCharsets.US_ASCII),
+                        token.getBytes(StandardCharsets.US_ASCII)))
+                .orElse(false);
     }
 
    
@@ -132,7 +176,7 @@ public class UserService {
     }
 
     public DashboardDTO getUserDashboard(Long userId) {
-        return new DashboardService().getUserDashboard(userId);
+        return dashboardService.getUserDashboard(userId);
     }
 
     public User updateUserSettings(Long id, UserProfileResponse settings) {
@@ -0,0 +1,32 @@
+package com.badrelahlou.taskmanager.sweep;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.quartz.QuartzDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.quartz.QuartzProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Creates the Quartz job store tables from the script shipped for the database, but only when
+ * they are missing. The stock initializer runs the script on every start when set to always,
+ * and the script drops the tables first, which would wipe the cluster's schedules on each deploy.
+ */
+public class QuartzSchemaInitializer extends QuartzDataSourceScriptDatabaseInitializer {
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuartzSchemaInitializer(DataSource dataSource, QuartzProperties properties) {
+        super(dataSource, properties);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public boolean initializeDatabase() {
+        try {
+            jdbcTemplate.queryForObject("select count(*) from qrtz_locks", Long.class);
+            return false;
+        } catch (DataAccessException e) {
+            return super.initializeDatabase();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.badrelahlou.taskmanager.sweep;
+
+// Periodic passes over the task table, each run as one coordinator firing and a job per task id shard
+public enum TaskSweep {
+    RECURRING_TASKS,
+    REMINDERS
+}
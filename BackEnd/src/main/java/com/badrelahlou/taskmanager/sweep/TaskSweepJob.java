@@ -0,0 +1,34 @@
+package com.badrelahlou.taskmanager.sweep;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import com.badrelahlou.taskmanager.service.TaskScheduler;
+
+/**
+ * Coordinator for one sweep. The clustered job store hands each firing of its trigger to a
+ * single node, which only plans the work: it schedules a shard job per task id range for any
+ * node to claim. Concurrent execution is disallowed so a slow plan never overlaps the next one.
+ */
+@DisallowConcurrentExecution
+public class TaskSweepJob extends QuartzJobBean {
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private String sweep;
+
+    public void setSweep(String sweep) { this.sweep = sweep; }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+        try {
+            taskScheduler.planShards(TaskSweep.valueOf(sweep), context.getScheduledFireTime());
+        } catch (SchedulerException e) {
+            throw new JobExecutionException("Could not schedule " + sweep + " shards", e);
+        }
+    }
+}
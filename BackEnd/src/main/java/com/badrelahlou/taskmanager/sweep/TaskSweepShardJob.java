@@ -0,0 +1,26 @@
+package com.badrelahlou.taskmanager.sweep;
+
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import com.badrelahlou.taskmanager.service.TaskScheduler;
+
+// One shard of a sweep, run by whichever node claims it; the job data map carries the sweep and its [fromId, toId) range
+public class TaskSweepShardJob extends QuartzJobBean {
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private String sweep;
+    private long fromId;
+    private long toId;
+
+    public void setSweep(String sweep) { this.sweep = sweep; }
+    public void setFromId(long fromId) { this.fromId = fromId; }
+    public void setToId(long toId) { this.toId = toId; }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        taskScheduler.runShard(TaskSweep.valueOf(sweep), fromId, toId);
+    }
+}
@@ -0,0 +1,82 @@
+package com.badrelahlou.taskmanager.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.badrelahlou.taskmanager.admission.AdmissionControl.Admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// A slow refill keeps the bucket from topping up between the admits in each test
+class AdmissionControlTests {
+    private AdmissionControl admissionControl;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRefillPerSecond(0.1);
+        properties.setBurst(10);
+        AdmissionProperties.EndpointClass reports = new AdmissionProperties.EndpointClass();
+        reports.setPaths(List.of("/api/reports/**"));
+        reports.setCost(4);
+        reports.setMaxConcurrent(1);
+        properties.getClasses().put("reports", reports);
+        AdmissionProperties.EndpointClass search = new AdmissionProperties.EndpointClass();
+        search.setPaths(List.of("/api/tasks/filter"));
+        search.setCost(1);
+        properties.getClasses().put("search", search);
+        admissionControl = new AdmissionControl(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void chargesEachClassItsCostFromOneBucketPerClient() {
+        admitAndRelease("/api/reports/task-completion", "user:1");
+        admitAndRelease("/api/reports/user-activity", "user:1");
+        admitAndRelease("/api/tasks/filter", "user:1");
+        admitAndRelease("/api/tasks/filter", "user:1");
+
+        Admission refused = admissionControl.admit("/api/tasks/filter", "user:1");
+        assertFalse(refused.isAdmitted());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, refused.getRejection());
+        // One token at 0.1 per second
+        assertEquals(10, refused.getRetryAfterSeconds());
+
+        admitAndRelease("/api/tasks/filter", "user:2");
+    }
+
+    @Test
+    void leavesUnmatchedPathsUnmetered() {
+        for (int i = 0; i < 100; i++) {
+            admitAndRelease("/api/tasks/1", "user:1");
+        }
+        admitAndRelease("/api/reports/task-completion", "user:1");
+    }
+
+    @Test
+    void capsConcurrentRequestsPerClassWithoutChargingTheRefused() {
+        Admission running = admissionControl.admit("/api/reports/task-completion", "user:1");
+        assertTrue(running.isAdmitted());
+
+        Admission busy = admissionControl.admit("/api/reports/task-completion", "user:2");
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, busy.getRejection());
+        assertEquals(1, busy.getRetryAfterSeconds());
+        admitAndRelease("/api/tasks/filter", "user:2");
+
+        running.release();
+        admitAndRelease("/api/reports/task-completion", "user:2");
+        admitAndRelease("/api/reports/task-completion", "user:2");
+    }
+
+    private void admitAndRelease(String path, String client) {
+        Admission admission = admissionControl.admit(path, client);
+        assertTrue(admission.isAdmitted(), path + " refused for " + client);
+        admission.release();
+    }
+}
@@ -0,0 +1,222 @@
+package com.badrelahlou.taskmanager.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.badrelahlou.taskmanager.cache.InProcessInvalidationBroker;
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.TaskStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Backed by an in-memory H2 copy of the columns the store loads from tasks
+class TaskColumnStoreTests {
+    private static final LocalDateTime NINE = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private NearCacheManager cacheManager;
+    private TaskColumnStore store;
+    private Runnable duringLoad = () -> {};
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:columns;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource) {
+            @Override
+            public void query(String sql, RowCallbackHandler handler) {
+                super.query(sql, handler);
+                duringLoad.run();
+            }
+        };
+        jdbc.execute("create table tasks (id bigint primary key, status varchar(20), priority varchar(20), "
+                + "assigned_user_id bigint, time_spent bigint, start_time timestamp, end_time timestamp)");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new NearCacheManager(new InProcessInvalidationBroker().connect(), meterRegistry,
+                "maximumSize=100", List.of(), 60_000, 100);
+        store = new TaskColumnStore();
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(store, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(store, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(store, "chunkRows", 65536);
+        store.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.destroy();
+        jdbc.execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    @Test
+    void aggregateCountsLiveRowsMatchingEveryFilter() {
+        store.put(3, TaskStatus.TODO, Priority.HIGH, 7L, 30L, NINE, NINE.plusHours(1));
+        store.put(1, TaskStatus.DONE, Priority.LOW, 7L, 60L, NINE.plusDays(1), null);
+        store.put(2, TaskStatus.TODO, null, 8L, null, null, null);
+
+        TaskAggregate all = store.aggregate(null, null, null, null, null);
+        assertEquals(3, all.getCount());
+        assertEquals(90, all.getTimeSpent());
+        assertEquals(2, all.status(TaskStatus.TODO));
+        assertEquals(1L, all.getByPriority().get(Priority.HIGH));
+        assertEquals(0L, all.getByPriority().get(Priority.MEDIUM));
+
+        assertEquals(2, store.aggregate(7L, null, null, null, null).getCount());
+        assertEquals(1, store.aggregate(7L, TaskStatus.TODO, Priority.HIGH, null, null).getCount());
+        // The start range is half-open, and a task without a start never falls inside one
+        assertEquals(1, store.aggregate(null, null, null, NINE, NINE.plusDays(1)).getCount());
+        assertEquals(2, store.aggregate(null, null, null, NINE, null).getCount());
+    }
+
+    @Test
+    void putOverwritesARowAndRemoveLeavesATombstone() {
+        store.put(1, TaskStatus.TODO, Priority.HIGH, 7L, 30L, NINE, null);
+        store.put(2, TaskStatus.TODO, Priority.HIGH, 7L, 30L, NINE, null);
+
+        store.put(1, TaskStatus.DONE, Priority.LOW, 8L, 45L, NINE, null);
+        store.remove(2);
+        // Removing a task the store never saw is harmless
+        store.remove(99);
+
+        TaskAggregate all = store.aggregate(null, null, null, null, null);
+        assertEquals(1, all.getCount());
+        assertEquals(45, all.getTimeSpent());
+        assertEquals(1, all.status(TaskStatus.DONE));
+        assertEquals(0, all.status(TaskStatus.TODO));
+        assertEquals(0, store.aggregate(7L, null, null, null, null).getCount());
+        assertEquals(2, all.getRows());
+    }
+
+    @Test
+    void rebuildKeepsRowsChangedWhileItLoads() {
+        insertTask(1, TaskStatus.TODO, 7L);
+        insertTask(2, TaskStatus.TODO, 7L);
+        insertTask(3, TaskStatus.IN_PROGRESS, 8L);
+        // Changes the loader has already read past: task 1 is done, task 2 deleted, task 4 is new
+        duringLoad = () -> {
+            store.put(1, TaskStatus.DONE, null, 7L, null, null, null);
+            store.remove(2);
+            store.put(4, TaskStatus.TODO, null, 9L, null, null, null);
+        };
+
+        store.rebuild();
+        assertTrue(store.isLoaded());
+        TaskAggregate all = store.aggregate(null, null, null, null, null);
+        assertEquals(3, all.getCount());
+        assertEquals(1, all.status(TaskStatus.DONE));
+        assertEquals(1, all.status(TaskStatus.TODO));
+        assertEquals(1, store.aggregate(9L, null, null, null, null).getCount());
+
+        // Outside a rebuild nothing is tracked, so the next one takes the rows as loaded
+        duringLoad = () -> {};
+        store.rebuild();
+        all = store.aggregate(null, null, null, null, null);
+        assertEquals(3, all.getCount());
+        assertEquals(2, all.status(TaskStatus.TODO));
+        assertEquals(0, store.aggregate(9L, null, null, null, null).getCount());
+    }
+
+    @Test
+    void concurrentRebuildsRunOneAfterTheOther() throws InterruptedException {
+        insertTask(1, TaskStatus.TODO, 7L);
+        ReentrantLock rebuildLock = (ReentrantLock) ReflectionTestUtils.getField(store, "rebuildLock");
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread second = new Thread(() -> {
+            try {
+                store.rebuild();
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        AtomicInteger loads = new AtomicInteger();
+        duringLoad = () -> {
+            if (loads.incrementAndGet() > 1) return;
+            store.put(2, TaskStatus.DONE, null, 7L, null, null, null);
+            second.start();
+            // The second rebuild waits for this one instead of replacing its touched set
+            while (!rebuildLock.hasQueuedThread(second)) Thread.onSpinWait();
+        };
+
+        store.rebuild();
+        second.join(10_000);
+        assertNull(failure.get());
+        assertEquals(2, loads.get());
+        // Task 2 was kept by the first rebuild and is gone after the second, which only sees the table
+        assertEquals(1, store.aggregate(null, null, null, null, null).getCount());
+    }
+
+    @Test
+    void missedAnnouncementsDuringARebuildQueueOneMore() {
+        insertTask(1, TaskStatus.TODO, 7L);
+        AtomicInteger loads = new AtomicInteger();
+        duringLoad = () -> {
+            if (loads.incrementAndGet() > 1) return;
+            // Committed after this load read the table; the announcement for it was lost
+            insertTask(2, TaskStatus.TODO, 7L);
+            Thread delivering = new Thread(() -> ReflectionTestUtils.invokeMethod(store, "requestRebuild"));
+            delivering.start();
+            try {
+                delivering.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        store.rebuild();
+        assertEquals(2, loads.get());
+        assertEquals(2, store.aggregate(null, null, null, null, null).getCount());
+    }
+
+    @Test
+    void forkJoinScanAddsUpTheSameAsASingleLoop() {
+        // 1024 is the smallest leaf, so 5000 rows split into several ranges
+        ReflectionTestUtils.setField(store, "chunkRows", 1024);
+        TaskStatus[] statuses = TaskStatus.values();
+        Priority[] priorities = Priority.values();
+        // Descending ids land out of order, which lookups must still find
+        for (int id = 5000; id >= 1; id--) {
+            store.put(id, statuses[id % 3], id % 5 == 0 ? null : priorities[id % 3], (long) (id % 4), (long) id,
+                    NINE.plusMinutes(id), null);
+        }
+        for (int id = 7; id <= 5000; id += 7) store.remove(id);
+
+        long count = 0;
+        long time = 0;
+        long inProgress = 0;
+        for (int id = 1; id < 4000; id++) {
+            if (id % 7 == 0 || id % 4 != 1) continue;
+            count++;
+            time += id;
+            if (statuses[id % 3] == TaskStatus.IN_PROGRESS) inProgress++;
+        }
+
+        TaskAggregate aggregate = store.aggregate(1L, null, null, null, NINE.plusMinutes(4000));
+        assertEquals(5000, aggregate.getRows());
+        assertEquals(count, aggregate.getCount());
+        assertEquals(time, aggregate.getTimeSpent());
+        assertEquals(inProgress, aggregate.status(TaskStatus.IN_PROGRESS));
+        assertEquals(inProgress,
+                store.aggregate(1L, TaskStatus.IN_PROGRESS, null, null, NINE.plusMinutes(4000)).getCount());
+    }
+
+    private void insertTask(long id, TaskStatus status, Long assigneeId) {
+        jdbc.update("insert into tasks (id, status, assigned_user_id) values (?, ?, ?)", id, status.name(), assigneeId);
+    }
+}
@@ -0,0 +1,94 @@
+package com.badrelahlou.taskmanager.audit;
+
+import static com.badrelahlou.taskmanager.audit.AuditWriterTests.buffer;
+import static com.badrelahlou.taskmanager.audit.AuditWriterTests.event;
+import static com.badrelahlou.taskmanager.audit.AuditWriterTests.writer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// A buffer of two events, offered a third under each overflow policy
+class AuditBufferTests {
+    private SimpleMeterRegistry meterRegistry;
+    private AuditWriterTests.RecordingJdbcTemplate jdbc;
+    private AuditWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jdbc = new AuditWriterTests.RecordingJdbcTemplate();
+        writer = writer(jdbc, meterRegistry, 10);
+    }
+
+    @Test
+    void dropNewestDiscardsTheIncomingEvent() {
+        AuditBuffer buffer = fill(OverflowPolicy.DROP_NEWEST);
+
+        assertEquals(List.of(1L, 2L), drain(buffer));
+        assertEquals(1, dropped());
+    }
+
+    @Test
+    void dropOldestMakesRoomForTheIncomingEvent() {
+        AuditBuffer buffer = fill(OverflowPolicy.DROP_OLDEST);
+
+        assertEquals(List.of(2L, 3L), drain(buffer));
+        assertEquals(1, dropped());
+    }
+
+    @Test
+    void callerFlushesWritesTheQueueBeforeEnqueueing() {
+        AuditBuffer buffer = fill(OverflowPolicy.CALLER_FLUSHES);
+
+        assertEquals(List.of(List.of(1L, 2L)), jdbc.written());
+        assertEquals(List.of(3L), drain(buffer));
+        assertEquals(0, dropped());
+    }
+
+    @Test
+    void failedCallerFlushDropsTheBatchWithoutFailingTheOffer() {
+        jdbc.failures = 3;
+        AuditBuffer buffer = fill(OverflowPolicy.CALLER_FLUSHES);
+
+        assertEquals(List.of(), jdbc.written());
+        assertEquals(List.of(3L), drain(buffer));
+        assertEquals(2, meterRegistry.get("audit.events.dropped").tag("reason", "write-failed").counter().count());
+        assertEquals(0, dropped());
+    }
+
+    @Test
+    void drainReleasesTheSlotsItTook() {
+        AuditBuffer buffer = fill(OverflowPolicy.DROP_NEWEST);
+        List<AuditEvent> drained = new ArrayList<>();
+
+        assertEquals(1, buffer.drainTo(drained, 1));
+        assertEquals(1, buffer.size());
+        buffer.offer(event(4));
+        assertEquals(List.of(2L, 4L), drain(buffer));
+    }
+
+    private AuditBuffer fill(OverflowPolicy policy) {
+        AuditBuffer buffer = buffer(writer, meterRegistry, 2, policy);
+        ReflectionTestUtils.setField(writer, "buffer", buffer);
+        for (long id = 1; id <= 3; id++) buffer.offer(event(id));
+        return buffer;
+    }
+
+    private static List<Long> drain(AuditBuffer buffer) {
+        List<AuditEvent> drained = new ArrayList<>();
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+        assertEquals(0, buffer.size());
+        return drained.stream().map(event -> event.entityId).toList();
+    }
+
+    private double dropped() {
+        return meterRegistry.get("audit.events.dropped").tag("reason", "overflow").counter().count();
+    }
+}
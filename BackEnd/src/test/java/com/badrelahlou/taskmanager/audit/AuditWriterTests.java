@@ -0,0 +1,129 @@
+package com.badrelahlou.taskmanager.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The writer thread is never started; each test flushes on its own thread
+class AuditWriterTests {
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingJdbcTemplate jdbc;
+    private AuditBuffer buffer;
+    private AuditWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jdbc = new RecordingJdbcTemplate();
+        writer = writer(jdbc, meterRegistry, 2);
+        buffer = buffer(writer, meterRegistry, 100, OverflowPolicy.DROP_NEWEST);
+        ReflectionTestUtils.setField(writer, "buffer", buffer);
+    }
+
+    @Test
+    void flushWritesTheBufferInBatchesOfBatchSize() {
+        for (long id = 1; id <= 5; id++) buffer.offer(event(id));
+
+        writer.flush();
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L)), jdbc.written());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void failedBatchIsRetriedUntilItSucceeds() {
+        jdbc.failures = 2;
+        buffer.offer(event(1));
+
+        writer.flush();
+        assertEquals(3, jdbc.attempts);
+        assertEquals(List.of(List.of(1L)), jdbc.written());
+        assertEquals(0, dropped());
+    }
+
+    @Test
+    void batchIsDroppedOnceTheAttemptsAreSpent() {
+        jdbc.failures = Integer.MAX_VALUE;
+        for (long id = 1; id <= 3; id++) buffer.offer(event(id));
+
+        assertThrows(DataAccessException.class, writer::flush);
+        assertEquals(3, jdbc.attempts);
+        assertEquals(2, dropped());
+        // The rest of the buffer waits for the next cycle
+        assertEquals(1, buffer.size());
+
+        jdbc.failures = 0;
+        writer.flush();
+        assertEquals(List.of(List.of(3L)), jdbc.written());
+    }
+
+    private double dropped() {
+        return meterRegistry.get("audit.events.dropped").tag("reason", "write-failed").counter().count();
+    }
+
+    static AuditWriter writer(JdbcTemplate jdbc, SimpleMeterRegistry meterRegistry, int batchSize) {
+        AuditWriter writer = new AuditWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(writer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(writer, "batchSize", batchSize);
+        ReflectionTestUtils.setField(writer, "maxAttempts", 3);
+        ReflectionTestUtils.setField(writer, "retryBackoffMs", 1L);
+        ReflectionTestUtils.setField(writer, "dropped",
+                Counter.builder("audit.events.dropped").tag("reason", "write-failed").register(meterRegistry));
+        return writer;
+    }
+
+    static AuditBuffer buffer(AuditWriter writer, SimpleMeterRegistry meterRegistry, int capacity, OverflowPolicy policy) {
+        AuditBuffer buffer = new AuditBuffer();
+        ReflectionTestUtils.setField(buffer, "writer", writer);
+        ReflectionTestUtils.setField(buffer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(buffer, "capacity", capacity);
+        ReflectionTestUtils.setField(buffer, "overflowPolicy", policy);
+        buffer.init();
+        return buffer;
+    }
+
+    static AuditEvent event(long entityId) {
+        return new AuditEvent(1L, "UPDATE", "Task", entityId, null);
+    }
+
+    // Records the entity ids of each batch inserted, failing the first few attempts when asked to
+    static final class RecordingJdbcTemplate extends JdbcTemplate {
+        final List<List<Long>> batches = new ArrayList<>();
+        int failures;
+        int attempts;
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            attempts++;
+            if (failures > 0) {
+                failures--;
+                throw new TransientDataAccessResourceException("audit_logs unavailable");
+            }
+            List<Long> ids = new ArrayList<>();
+            for (T event : batchArgs) ids.add(((AuditEvent) event).entityId);
+            batches.add(ids);
+            return new int[0][];
+        }
+
+        List<List<Long>> written() {
+            List<List<Long>> written = new ArrayList<>(batches);
+            batches.clear();
+            return written;
+        }
+    }
+}
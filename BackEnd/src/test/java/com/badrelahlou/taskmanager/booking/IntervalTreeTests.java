@@ -0,0 +1,99 @@
+package com.badrelahlou.taskmanager.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+// Overlap queries are checked against a linear scan; a stale maxEnd after a rotation would prune a match
+class IntervalTreeTests {
+
+    @Test
+    void overlapIsHalfOpenAndExcludesTheCallersTask() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, 10, 20);
+        tree.put(2, 20, 30);
+
+        assertEquals(List.of(1L), taskIds(tree.overlapping(15, 20, -1, Integer.MAX_VALUE)));
+        assertEquals(List.of(1L, 2L), taskIds(tree.overlapping(19, 21, -1, Integer.MAX_VALUE)));
+        assertEquals(List.of(2L), taskIds(tree.overlapping(19, 21, 1, Integer.MAX_VALUE)));
+        assertEquals(List.of(), taskIds(tree.overlapping(30, 40, -1, Integer.MAX_VALUE)));
+        assertEquals(List.of(1L), taskIds(tree.overlapping(0, 100, -1, 1)));
+    }
+
+    @Test
+    void putIfFreeLeavesTheTreeUnchangedOnConflict() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1, 10, 20);
+
+        assertEquals(List.of(1L), taskIds(tree.putIfFree(2, 15, 25)));
+        assertFalse(tree.contains(2));
+        // Moving a task over its own booking is not a conflict
+        assertTrue(tree.putIfFree(1, 12, 22).isEmpty());
+        assertEquals(12, tree.get(1).start);
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    void longBookingStaysVisibleUnderLaterInserts() {
+        IntervalTree tree = new IntervalTree();
+        // Starts first but ends last, so only its ancestors' maxEnd leads a query to it
+        tree.put(0, 0, 2_000);
+        for (long id = 1; id <= 500; id++) {
+            tree.put(id, id * 2, id * 2 + 1);
+        }
+        assertEquals(List.of(0L), taskIds(tree.overlapping(1_500, 1_600, -1, Integer.MAX_VALUE)));
+
+        tree.remove(0);
+        assertEquals(List.of(), taskIds(tree.overlapping(1_500, 1_600, -1, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void randomOperationsMatchALinearScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, long[]> expected = new LinkedHashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            long taskId = random.nextInt(300);
+            int op = random.nextInt(10);
+            if (op < 5) {
+                long start = random.nextInt(10_000);
+                long end = start + 1 + random.nextInt(random.nextInt(10) == 0 ? 5_000 : 50);
+                tree.put(taskId, start, end);
+                expected.put(taskId, new long[] { start, end });
+            } else if (op < 7) {
+                assertEquals(expected.remove(taskId) != null, tree.remove(taskId));
+            } else {
+                long start = random.nextInt(10_000);
+                long end = start + 1 + random.nextInt(200);
+                assertEquals(scan(expected, start, end), taskIds(tree.overlapping(start, end, -1, Integer.MAX_VALUE)));
+            }
+            assertEquals(expected.size(), tree.size());
+        }
+    }
+
+    private static List<Long> scan(Map<Long, long[]> bookings, long start, long end) {
+        List<Map.Entry<Long, long[]>> hits = new ArrayList<>();
+        for (Map.Entry<Long, long[]> entry : bookings.entrySet()) {
+            if (entry.getValue()[0] < end && entry.getValue()[1] > start) hits.add(entry);
+        }
+        hits.sort(Comparator.<Map.Entry<Long, long[]>>comparingLong(e -> e.getValue()[0]).thenComparingLong(Map.Entry::getKey));
+        List<Long> ids = new ArrayList<>();
+        hits.forEach(e -> ids.add(e.getKey()));
+        return ids;
+    }
+
+    private static List<Long> taskIds(List<IntervalTree.Booking> bookings) {
+        List<Long> ids = new ArrayList<>();
+        bookings.forEach(b -> ids.add(b.taskId));
+        return ids;
+    }
+}
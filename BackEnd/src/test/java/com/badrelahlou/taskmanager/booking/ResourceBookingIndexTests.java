@@ -0,0 +1,161 @@
+package com.badrelahlou.taskmanager.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// Backed by an in-memory H2 copy of the two tables the rebuild reads
+class ResourceBookingIndexTests {
+    private static final LocalDateTime NINE = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private ResourceBookingIndex index;
+    private Runnable duringLoad = () -> {};
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:bookings;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource) {
+            @Override
+            public void query(String sql, RowCallbackHandler handler) {
+                super.query(sql, handler);
+                duringLoad.run();
+            }
+        };
+        jdbc.execute("create table tasks (id bigint primary key, start_time timestamp, end_time timestamp)");
+        jdbc.execute("create table task_resources (task_id bigint, resource_id bigint)");
+        index = new ResourceBookingIndex();
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbc);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    @Test
+    void rejectBooksNothingWhenAnyResourceConflicts() {
+        index.put(1, List.of(10L), NINE, NINE.plusHours(2));
+
+        Map<Long, List<IntervalTree.Booking>> conflicts =
+                index.book(2, List.of(20L, 10L), NINE.plusHours(1), NINE.plusHours(3), ConflictPolicy.REJECT);
+        assertEquals(List.of(10L), new ArrayList<>(conflicts.keySet()));
+        assertEquals(1L, conflicts.get(10L).get(0).taskId);
+        assertTrue(index.bookings(20, NINE, NINE.plusDays(1)).isEmpty());
+        assertEquals(1, index.bookings(10, NINE, NINE.plusDays(1)).size());
+    }
+
+    @Test
+    void flagBooksEveryResourceAndReportsTheOverlaps() {
+        index.put(1, List.of(10L), NINE, NINE.plusHours(2));
+
+        Map<Long, List<IntervalTree.Booking>> conflicts =
+                index.book(2, List.of(20L, 10L), NINE.plusHours(1), NINE.plusHours(3), ConflictPolicy.FLAG);
+        assertEquals(List.of(10L), new ArrayList<>(conflicts.keySet()));
+        assertEquals(2, index.bookings(10, NINE, NINE.plusDays(1)).size());
+        assertEquals(1, index.bookings(20, NINE, NINE.plusDays(1)).size());
+    }
+
+    @Test
+    void bookingAnEmptyWindowReleasesTheOldOne() {
+        index.put(1, List.of(10L, 20L), NINE, NINE.plusHours(2));
+
+        assertTrue(index.book(1, List.of(10L, 20L), NINE.plusHours(1), NINE.plusHours(1), ConflictPolicy.REJECT).isEmpty());
+        assertTrue(index.book(1, List.of(20L), NINE.plusHours(1), NINE, ConflictPolicy.REJECT).isEmpty());
+        assertTrue(index.bookings(10, NINE, NINE.plusDays(1)).isEmpty());
+        assertTrue(index.bookings(20, NINE, NINE.plusDays(1)).isEmpty());
+
+        // The slot is free for another task again
+        assertTrue(index.book(2, List.of(10L), NINE, NINE.plusHours(2), ConflictPolicy.REJECT).isEmpty());
+    }
+
+    @Test
+    void restorePutsBackTheSnapshottedWindowAndResources() {
+        index.put(1, List.of(10L), NINE, NINE.plusHours(1));
+        Map<Long, IntervalTree.Booking> before = index.snapshot(1, List.of(10L, 20L));
+
+        index.book(1, List.of(20L), NINE.plusHours(4), NINE.plusHours(5), ConflictPolicy.REJECT);
+        index.release(1, List.of(10L));
+        index.restore(1, before);
+
+        List<IntervalTree.Booking> restored = index.bookings(10, NINE, NINE.plusDays(1));
+        assertEquals(1, restored.size());
+        assertEquals(NINE, ResourceBookingIndex.fromEpoch(restored.get(0).start));
+        assertEquals(NINE.plusHours(1), ResourceBookingIndex.fromEpoch(restored.get(0).end));
+        assertTrue(index.bookings(20, NINE, NINE.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void rebuildKeepsBookingsChangedWhileItLoads() {
+        insertTask(1, NINE, NINE.plusHours(1), 10);
+        insertTask(2, NINE.plusHours(2), NINE.plusHours(3), 10);
+        insertTask(3, NINE, null, 10);
+        // Changes the loader has already read past: task 1 moves, task 2 is released, task 4 is new
+        duringLoad = () -> {
+            index.put(1, List.of(10L), NINE.plusHours(5), NINE.plusHours(6));
+            index.release(2, List.of(10L));
+            index.put(4, List.of(10L), NINE.plusHours(7), NINE.plusHours(8));
+        };
+
+        index.rebuild();
+        assertTrue(index.isLoaded());
+        List<IntervalTree.Booking> bookings = index.bookings(10, NINE, NINE.plusDays(1));
+        assertEquals(List.of(1L, 4L), bookings.stream().map(b -> b.taskId).toList());
+        assertEquals(NINE.plusHours(5), ResourceBookingIndex.fromEpoch(bookings.get(0).start));
+
+        // Outside a rebuild nothing is tracked, so the next one takes the rows as loaded
+        duringLoad = () -> {};
+        index.rebuild();
+        bookings = index.bookings(10, NINE, NINE.plusDays(1));
+        assertEquals(List.of(1L, 2L), bookings.stream().map(b -> b.taskId).toList());
+        assertNull(index.snapshot(4, List.of(10L)).get(10L));
+    }
+
+    @Test
+    void reloadReplacesTheTasksBookingsWithTheCommittedRows() {
+        index.put(1, List.of(10L, 20L), NINE, NINE.plusHours(1));
+        index.put(2, List.of(10L), NINE.plusHours(2), NINE.plusHours(3));
+        // Another instance moved task 1 to resource 30 and deleted task 2
+        insertTask(1, NINE.plusHours(4), NINE.plusHours(5), 30);
+
+        index.reload(List.of(1L, 2L));
+        assertTrue(index.bookings(10, NINE, NINE.plusDays(1)).isEmpty());
+        assertTrue(index.bookings(20, NINE, NINE.plusDays(1)).isEmpty());
+        List<IntervalTree.Booking> moved = index.bookings(30, NINE, NINE.plusDays(1));
+        assertEquals(1, moved.size());
+        assertEquals(NINE.plusHours(4), ResourceBookingIndex.fromEpoch(moved.get(0).start));
+    }
+
+    @Test
+    void refreshSeesBookingsCommittedByAnotherInstance() {
+        insertTask(1, NINE, NINE.plusHours(2), 10);
+        index.put(3, List.of(10L), NINE.plusHours(1), NINE.plusHours(2));
+        index.put(5, List.of(10L), NINE.plusHours(6), NINE.plusHours(7));
+
+        index.refresh(List.of(10L), NINE.plusHours(1), NINE.plusHours(3), 2);
+        // Task 1 was booked elsewhere, task 3 released elsewhere; task 5 lies outside the window and stays
+        assertEquals(List.of(1L, 5L), index.bookings(10, NINE, NINE.plusDays(1)).stream().map(b -> b.taskId).toList());
+        assertEquals(List.of(10L), new ArrayList<>(
+                index.book(2, List.of(10L), NINE.plusHours(1), NINE.plusHours(3), ConflictPolicy.REJECT).keySet()));
+    }
+
+    private void insertTask(long id, LocalDateTime start, LocalDateTime end, long resourceId) {
+        jdbc.update("insert into tasks (id, start_time, end_time) values (?, ?, ?)", id, start, end);
+        jdbc.update("insert into task_resources (task_id, resource_id) values (?, ?)", id, resourceId);
+    }
+}
@@ -0,0 +1,133 @@
+package com.badrelahlou.taskmanager.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Two instances joined by the in-process broker; the flush interval is long enough that only explicit flushes publish
+class NearCacheManagerTests {
+    private static final String CACHE = "userDashboard";
+
+    private InProcessInvalidationBroker broker;
+    private NearCacheManager nodeA;
+    private NearCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        broker = new InProcessInvalidationBroker();
+        nodeA = node(broker.connect());
+        nodeB = node(broker.connect());
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.destroy();
+        nodeB.destroy();
+    }
+
+    @Test
+    void evictionsReachOtherNodesInOneBatch() {
+        for (long id = 1; id <= 3; id++) {
+            nodeA.getCache(CACHE).put(id, "a" + id);
+            nodeB.getCache(CACHE).put(id, "b" + id);
+        }
+
+        nodeA.getCache(CACHE).evict(1L);
+        nodeA.getCache(CACHE).evict(2L);
+        nodeA.getCache(CACHE).evict(1L);
+        assertNull(nodeA.getCache(CACHE).get(1L));
+        assertNotNull(nodeB.getCache(CACHE).get(1L));
+
+        nodeA.flush();
+        assertEquals(1, broker.getPublished());
+        assertNull(nodeB.getCache(CACHE).get(1L));
+        assertNull(nodeB.getCache(CACHE).get(2L));
+        assertEquals("b3", nodeB.getCache(CACHE).get(3L).get());
+
+        nodeA.flush();
+        assertEquals(1, broker.getPublished());
+    }
+
+    @Test
+    void loadOvertakenByAClearIsNotCached() throws InterruptedException {
+        NearCache cache = nodeB.getCache(CACHE);
+        // A clears the cache and the batch reaches B while B is still loading
+        Thread writer = new Thread(() -> {
+            nodeA.getCache(CACHE).clear();
+            nodeA.flush();
+        });
+        String loaded = cache.get(7L, () -> {
+            writer.start();
+            writer.join();
+            return "read before the write";
+        });
+
+        assertEquals("read before the write", loaded);
+        assertNull(cache.get(7L));
+        assertEquals("fresh", cache.get(7L, () -> "fresh"));
+        assertEquals("fresh", cache.get(7L).get());
+    }
+
+    @Test
+    void announcedChangesReachListenersBeforeTheEvictions() {
+        List<String> seen = new ArrayList<>();
+        nodeB.getCache(CACHE).put(1L, "stale");
+        nodeB.onRemoteChange("rows", new RemoteChangeListener() {
+            @Override
+            public void changed(Set<Object> keys) {
+                seen.add("rows " + keys + ", cached " + (nodeB.getCache(CACHE).get(1L) != null));
+            }
+
+            @Override
+            public void missed() {
+                seen.add("missed");
+            }
+        });
+
+        nodeA.announce("rows", List.of(10L, 11L));
+        nodeA.getCache(CACHE).evict(1L);
+        nodeA.flush();
+        assertEquals(List.of("rows [10, 11], cached true"), seen);
+        assertNull(nodeB.getCache(CACHE).get(1L));
+
+        nodeB.receive(batch("node-c", 1, 99L));
+        nodeB.receive(batch("node-c", 3, 99L));
+        assertEquals("missed", seen.get(seen.size() - 1));
+    }
+
+    @Test
+    void gapInSequenceClearsEveryCache() {
+        nodeB.getCache(CACHE).put(1L, "one");
+        nodeB.getCache("other").put(2L, "two");
+        nodeB.receive(batch("node-c", 1, 99L));
+        assertNotNull(nodeB.getCache(CACHE).get(1L));
+
+        // Batch 2 never arrived
+        nodeB.receive(batch("node-c", 3, 99L));
+        assertNull(nodeB.getCache(CACHE).get(1L));
+        assertNull(nodeB.getCache("other").get(2L));
+    }
+
+    private static NearCacheManager node(InvalidationTransport transport) {
+        return new NearCacheManager(transport, new SimpleMeterRegistry(), "maximumSize=100,recordStats",
+                List.of(CACHE), 60_000, 100);
+    }
+
+    private static InvalidationBatch batch(String origin, long sequence, Long key) {
+        HashMap<String, HashSet<Object>> keys = new HashMap<>();
+        keys.put(CACHE, new HashSet<>(Set.of(key)));
+        return new InvalidationBatch(origin, sequence, keys, new HashSet<>());
+    }
+}
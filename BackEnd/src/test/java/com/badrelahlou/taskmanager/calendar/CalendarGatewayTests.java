@@ -0,0 +1,186 @@
+package com.badrelahlou.taskmanager.calendar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.calendar.model.Event;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// A local HTTP stand-in for the Calendar v3 endpoints the gateway uses: batch, events.list
+class CalendarGatewayTests {
+    private HttpServer server;
+    private CalendarGateway gateway;
+    private final Map<String, String> events = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<String> batchCalls = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failBatches = new AtomicInteger();
+    private final AtomicInteger rateLimitParts = new AtomicInteger();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/batch/calendar/v3", this::batch);
+        server.createContext("/calendar/v3/calendars/primary/events", this::list);
+        server.start();
+        gateway = new CalendarGateway("http://localhost:" + server.getAddress().getPort(), "test", 2, 10, 2000);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void pushesChangesInBatchesOfTheConfiguredSize() throws IOException {
+        events.put("existing", "{\"id\":\"existing\",\"etag\":\"\\\"e0\\\"\",\"summary\":\"old\"}");
+        events.put("gone", "{\"id\":\"gone\",\"etag\":\"\\\"g0\\\"\"}");
+
+        List<CalendarGateway.Result> results = gateway.push("token", "primary", List.of(
+                new CalendarGateway.Change(1, null, new Event().setSummary("first")),
+                new CalendarGateway.Change(2, null, new Event().setSummary("second")),
+                new CalendarGateway.Change(3, "existing", new Event().setSummary("renamed")),
+                new CalendarGateway.Change(4, "gone", null)));
+
+        assertEquals(2, batchCalls.size());
+        assertEquals(4, results.size());
+        assertTrue(results.stream().allMatch(r -> r.ok));
+        assertTrue(results.get(0).eventId.startsWith("evt"));
+        assertTrue(events.get("existing").contains("renamed"));
+        assertFalse(events.containsKey("gone"));
+    }
+
+    @Test
+    void retriesServerErrorsWithBackoff() throws IOException {
+        failBatches.set(2);
+
+        List<CalendarGateway.Result> results = gateway.push("token", "primary",
+                List.of(new CalendarGateway.Change(1, null, new Event().setSummary("first"))));
+
+        assertEquals(3, batchCalls.size());
+        assertTrue(results.get(0).ok);
+    }
+
+    @Test
+    void reportsPartsThatStayRateLimitedAsRetryable() throws IOException {
+        rateLimitParts.set(Integer.MAX_VALUE);
+
+        List<CalendarGateway.Result> results = gateway.push("token", "primary",
+                List.of(new CalendarGateway.Change(1, null, new Event().setSummary("first"))));
+
+        assertFalse(results.get(0).ok);
+        assertTrue(results.get(0).retryable);
+        assertEquals(429, results.get(0).status);
+    }
+
+    @Test
+    void pullsIncrementallyWithSyncTokens() throws IOException {
+        events.put("a", "{\"id\":\"a\",\"summary\":\"a\"}");
+
+        CalendarGateway.ChangeSet full = gateway.pull("token", "primary", null);
+        assertEquals(1, full.events.size());
+        assertEquals("sync-1", full.nextSyncToken);
+
+        events.put("b", "{\"id\":\"b\",\"summary\":\"b\"}");
+        CalendarGateway.ChangeSet delta = gateway.pull("token", "primary", "sync-1");
+        assertEquals(List.of("b"), delta.events.stream().map(Event::getId).toList());
+
+        CalendarGateway.ChangeSet expired = gateway.pull("token", "primary", "expired");
+        assertTrue(expired.tokenExpired);
+        assertNull(expired.nextSyncToken);
+    }
+
+    // events.list: no token lists everything, "sync-N" lists what was added after that point, anything else is 410
+    private void list(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        Matcher token = Pattern.compile("syncToken=([^&]+)").matcher(query != null ? query : "");
+        List<String> items = new ArrayList<>(events.values());
+        if (token.find()) {
+            if (!token.group(1).startsWith("sync-")) {
+                respond(exchange, 410, "{\"error\":{\"code\":410,\"message\":\"Sync token is no longer valid\"}}");
+                return;
+            }
+            items = items.subList(Integer.parseInt(token.group(1).substring(5)), items.size());
+        }
+        respond(exchange, 200, "{\"items\":[" + String.join(",", items) + "],\"nextSyncToken\":\"sync-" + events.size() + "\"}");
+    }
+
+    // Parses the multipart/mixed batch body and answers each part in order
+    private void batch(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        batchCalls.add(body);
+        if (failBatches.getAndDecrement() > 0) {
+            respond(exchange, 503, "{\"error\":{\"code\":503,\"message\":\"Backend Error\"}}");
+            return;
+        }
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + 9);
+        StringBuilder out = new StringBuilder();
+        int index = 0;
+        for (String part : body.split("--" + Pattern.quote(boundary))) {
+            String[] sections = part.split("\r\n\r\n", 3);
+            if (sections.length < 2) continue;
+            String[] requestLine = sections[1].split("\r\n")[0].split(" ");
+            // NetHttpTransport cannot send PATCH, so the client tunnels it through POST
+            Matcher override = Pattern.compile("X-HTTP-Method-Override: (\\w+)", Pattern.CASE_INSENSITIVE).matcher(sections[1]);
+            String method = override.find() ? override.group(1) : requestLine[0];
+            String path = requestLine[1].replaceAll("^https?://[^/]+", "").replaceAll("\\?.*", "");
+            String json = sections.length > 2 ? sections[2].trim() : "";
+            String status;
+            String response;
+            if (rateLimitParts.getAndDecrement() > 0) {
+                status = "429 Too Many Requests";
+                response = "{\"error\":{\"code\":429,\"message\":\"Rate Limit Exceeded\",\"errors\":[{\"reason\":\"rateLimitExceeded\"}]}}";
+            } else if (method.equals("POST")) {
+                String id = "evt" + nextId.incrementAndGet();
+                response = "{\"id\":\"" + id + "\",\"etag\":\"\\\"1\\\"\"," + json.substring(1);
+                events.put(id, response);
+                status = "200 OK";
+            } else if (method.equals("PATCH")) {
+                String id = path.substring(path.lastIndexOf('/') + 1);
+                response = "{\"id\":\"" + id + "\",\"etag\":\"\\\"2\\\"\"," + json.substring(1);
+                events.put(id, response);
+                status = "200 OK";
+            } else {
+                events.remove(path.substring(path.lastIndexOf('/') + 1));
+                status = "204 No Content";
+                response = "";
+            }
+            out.append("--batch_x\r\nContent-Type: application/http\r\nContent-ID: response-").append(++index)
+                    .append("\r\n\r\nHTTP/1.1 ").append(status).append("\r\nContent-Type: application/json; charset=UTF-8\r\n\r\n")
+                    .append(response).append("\r\n");
+        }
+        out.append("--batch_x--\r\n");
+        exchange.getResponseHeaders().add("Content-Type", "multipart/mixed; boundary=batch_x");
+        byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
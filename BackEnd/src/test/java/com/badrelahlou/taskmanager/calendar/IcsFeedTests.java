@@ -0,0 +1,177 @@
+package com.badrelahlou.taskmanager.calendar;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.badrelahlou.taskmanager.controller.CalendarController;
+import com.badrelahlou.taskmanager.controller.UserController;
+import com.badrelahlou.taskmanager.model.Task;
+import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.repository.UserRepository;
+import com.badrelahlou.taskmanager.security.JwtPrincipal;
+import com.badrelahlou.taskmanager.service.UserService;
+
+// Feed tokens live on a single in-memory User behind a mocked repository; tasks are in H2
+class IcsFeedTests {
+    private static final long USER = 7L;
+    private static final String[] PROPERTIES = { "assignedUser", "timeSpent", "title" };
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private IcsFeedCache feeds;
+    private UserController userController;
+    private CalendarController calendarController;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:icsfeed;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table users (id bigint primary key)");
+        jdbc.execute("create table tasks (id bigint primary key, title varchar(255), description varchar(255), "
+                + "start_time timestamp, end_time timestamp, status varchar(20), priority varchar(20), "
+                + "created_at timestamp, updated_at timestamp, assigned_user_id bigint)");
+        jdbc.update("insert into users (id) values (?)", USER);
+        jdbc.update("insert into tasks (id, title, status, assigned_user_id) values (1, 'Write report', 'TODO', ?)", USER);
+
+        feeds = new IcsFeedCache();
+        ReflectionTestUtils.setField(feeds, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(feeds, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(feeds, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(feeds, "timeZone", "UTC");
+        feeds.init();
+
+        User user = new User();
+        user.setId(USER);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(USER)).thenReturn(Optional.of(user));
+        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.findCalendarFeedTokenById(USER))
+                .thenAnswer(invocation -> Optional.ofNullable(user.getCalendarFeedToken()));
+        UserService userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+
+        userController = new UserController();
+        ReflectionTestUtils.setField(userController, "userService", userService);
+        ReflectionTestUtils.setField(userController, "icsFeedCache", feeds);
+        calendarController = new CalendarController();
+        ReflectionTestUtils.setField(calendarController, "userService", userService);
+        JwtPrincipal principal = new JwtPrincipal(USER, "user7", "USER", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbc.execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    @Test
+    void feedNeedsTheCurrentToken() {
+        // No link requested yet, so no token opens the feed
+        assertEquals(404, poll(null).getStatusCode().value());
+        assertEquals(404, poll("anything").getStatusCode().value());
+
+        String first = rotate();
+        ResponseEntity<byte[]> feed = poll(first);
+        assertEquals(200, feed.getStatusCode().value());
+        assertTrue(new String(feed.getBody(), StandardCharsets.UTF_8).contains("SUMMARY:Write report"));
+        assertEquals(404, poll(first + "x").getStatusCode().value());
+        // Another user's feed with this user's token
+        assertEquals(404, userController.getCalendarFeed(8L, first, webRequest(null)).getStatusCode().value());
+
+        String second = rotate();
+        assertNotEquals(first, second);
+        assertEquals(404, poll(first).getStatusCode().value());
+        assertEquals(200, poll(second).getStatusCode().value());
+    }
+
+    @Test
+    void renderedTaskChangesInvalidateTheCachedFeed() {
+        String token = rotate();
+        ResponseEntity<byte[]> before = poll(token);
+        String etag = before.getHeaders().getETag();
+        // Unchanged feeds answer a conditional poll with 304 and no body
+        assertNull(userController.getCalendarFeed(USER, token, webRequest(etag)));
+
+        jdbc.update("update tasks set title = 'Write final report' where id = 1");
+        // Until the listener hears of the commit, the cached bytes are served
+        assertArrayEquals(before.getBody(), poll(token).getBody());
+        IcsFeedListener listener = new IcsFeedListener(feeds);
+        IcsFeedCache.Feed cached = feeds.get(USER);
+        listener.onPostUpdate(taskUpdate(1));
+        assertSame(cached, feeds.get(USER));
+        listener.onPostUpdate(taskUpdate(2));
+
+        ResponseEntity<byte[]> after = poll(token);
+        assertTrue(new String(after.getBody(), StandardCharsets.UTF_8).contains("SUMMARY:Write final report"));
+        assertNotEquals(etag, after.getHeaders().getETag());
+        assertEquals(200, userController.getCalendarFeed(USER, token, webRequest(etag)).getStatusCode().value());
+    }
+
+    @Test
+    void jdbcWritesInvalidateWithoutATransactionAtOnce() {
+        IcsFeedCache.Feed first = feeds.get(USER);
+        feeds.invalidateAfterCommit(List.of(USER));
+        IcsFeedCache.Feed second = feeds.get(USER);
+        assertNotSame(first, second);
+        // Same tasks, same bytes: the ETag survives a re-render
+        assertEquals(first.etag, second.etag);
+    }
+
+    private String rotate() {
+        ResponseEntity<?> response = calendarController.rotateFeedToken();
+        assertEquals(200, response.getStatusCode().value());
+        return (String) ((Map<?, ?>) response.getBody()).get("token");
+    }
+
+    private ResponseEntity<byte[]> poll(String token) {
+        return userController.getCalendarFeed(USER, token, webRequest(null));
+    }
+
+    private static ServletWebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/" + USER + "/calendar.ics");
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    // An update of the task's timeSpent (index 1), which the feed does not render, or of its title (index 2)
+    private static PostUpdateEvent taskUpdate(int dirtyProperty) {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getPropertyNames()).thenReturn(PROPERTIES);
+        when(persister.getPropertyIndex("assignedUser")).thenReturn(0);
+        User assignee = new User();
+        assignee.setId(USER);
+        Object[] state = { assignee, 0L, "Write final report" };
+        return new PostUpdateEvent(new Task(), 1L, state, state.clone(), new int[] { dirtyProperty }, persister, null);
+    }
+}
@@ -0,0 +1,137 @@
+package com.badrelahlou.taskmanager.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.badrelahlou.taskmanager.security.JwtPrincipal;
+
+// Two in-memory H2 databases stand in for primary and replica; each knows its own name
+class ReadWriteRoutingDataSourceTests {
+    private ReplicaHealthMonitor healthMonitor;
+    private DataSource routing;
+    private EntityManagerFactory entityManagerFactory;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        healthMonitor = new ReplicaHealthMonitor(Map.of("replica-0", replica), 1);
+        routing = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                primary, healthMonitor, new ReadYourWritesTracker(Duration.ofMinutes(1))));
+
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (entityManagerFactory != null) entityManagerFactory.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void readWriteTransactionsGoToPrimary() {
+        assertEquals("primary", readWrite.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void unhealthyReplicaFallsBackToPrimary() {
+        healthMonitor.markUnhealthy("replica-0");
+        assertEquals("primary", readOnly.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimaryWithinWindow() {
+        authenticateAs(7L);
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET touched = TRUE"));
+        assertEquals("primary", readOnly.execute(status -> whoAmI()));
+
+        authenticateAs(8L);
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+    }
+
+    // The application's path: JpaTransactionManager with the Hibernate dialect, which begins the
+    // transaction on the lazy proxy before the read-only flag is exposed to the router
+    @Test
+    void readOnlyJpaTransactionsGoToReplica() {
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory());
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        assertEquals(HibernateJpaDialect.class, transactionManager.getJpaDialect().getClass());
+        TransactionTemplate jpaReadOnly = new TransactionTemplate(transactionManager);
+        jpaReadOnly.setReadOnly(true);
+
+        assertEquals("replica", jpaReadOnly.execute(status -> whoAmI(entityManager)));
+        assertEquals("primary", new TransactionTemplate(transactionManager).execute(status -> whoAmI(entityManager)));
+    }
+
+    private EntityManagerFactory entityManagerFactory() {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(routing);
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setPackagesToScan(getClass().getPackageName());
+        // No connection while booting, so the first one taken is inside the transactions under test
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.boot.allow_jdbc_metadata_access", "false"));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+        return entityManagerFactory;
+    }
+
+    private static String whoAmI(EntityManager entityManager) {
+        return (String) entityManager.createNativeQuery("SELECT name FROM marker").getSingleResult();
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static void authenticateAs(Long userId) {
+        JwtPrincipal principal = new JwtPrincipal(userId, "user" + userId, "TEAM_MEMBER", List.of());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20), touched BOOLEAN DEFAULT FALSE)");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
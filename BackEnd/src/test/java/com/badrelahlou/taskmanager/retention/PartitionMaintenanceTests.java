@@ -0,0 +1,158 @@
+package com.badrelahlou.taskmanager.retention;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// Against a throwaway PostgreSQL; every test starts from a fresh public schema with a plain events table
+class PartitionMaintenanceTests {
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transactions;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbc = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbc.execute("DROP SCHEMA IF EXISTS archive CASCADE");
+        jdbc.execute("DROP SCHEMA public CASCADE");
+        jdbc.execute("CREATE SCHEMA public");
+        jdbc.execute("CREATE TABLE users (id bigint PRIMARY KEY)");
+        jdbc.execute("CREATE TABLE events (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "user_id bigint REFERENCES users (id), created_at timestamp, payload varchar(50))");
+        jdbc.execute("CREATE INDEX idx_events_user ON events (user_id)");
+        jdbc.update("INSERT INTO users VALUES (1)");
+    }
+
+    @Test
+    void migratesAPlainTableInPlace() {
+        LocalDateTime now = LocalDateTime.now();
+        insert(now.minusYears(2));
+        insert(now);
+        jdbc.update("INSERT INTO events (user_id, created_at, payload) VALUES (1, NULL, 'undated')");
+
+        maintenance(RetentionProperties.Mode.DROP, 100_000, 3).run();
+
+        assertEquals("p", jdbc.queryForObject("SELECT relkind::text FROM pg_class WHERE relname = 'events'", String.class));
+        assertEquals(3, count("events"));
+        assertEquals(3, count("events_legacy"));
+        assertEquals(Timestamp.valueOf(RetentionProperties.EPOCH), jdbc.queryForObject(
+                "SELECT created_at FROM events WHERE payload = 'undated'", Timestamp.class));
+        Long id = jdbc.queryForObject("INSERT INTO events (user_id, created_at) VALUES (1, now()) RETURNING id", Long.class);
+        assertEquals(4L, id);
+        assertTrue(exists("idx_events_user"));
+        assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM pg_constraint "
+                + "WHERE conrelid = 'events'::regclass AND contype = 'f'", Integer.class));
+    }
+
+    @Test
+    void premakesMonthsAndParksLaterRowsInTheDefaultPartition() {
+        maintenance(RetentionProperties.Mode.DROP, 100_000, 3).run();
+
+        LocalDateTime month = PartitionMaintenance.monthStart(LocalDateTime.now());
+        for (int ahead = 1; ahead <= 3; ahead++) {
+            assertTrue(exists("events" + month.plusMonths(ahead).format(SUFFIX)));
+        }
+        assertFalse(exists("events" + month.plusMonths(4).format(SUFFIX)));
+
+        LocalDateTime later = month.plusMonths(10).plusDays(3);
+        insert(later);
+        assertEquals(1, count("events_default"));
+
+        maintenance(RetentionProperties.Mode.DROP, 100_000, 12).run();
+        assertEquals(0, count("events_default"));
+        assertEquals(1, count("events" + later.format(SUFFIX)));
+        assertEquals(1, count("events"));
+    }
+
+    @Test
+    void dropsExpiredPartitions() {
+        partitionedWithPastMonth();
+        insert(LocalDateTime.of(2020, 1, 15, 12, 0));
+
+        maintenance(RetentionProperties.Mode.DROP, 90, 1).run();
+
+        assertFalse(exists("events_p2020_01"));
+        assertEquals(0, count("events"));
+        assertTrue(exists("events_default"));
+    }
+
+    @Test
+    void archivesExpiredPartitions() {
+        partitionedWithPastMonth();
+        insert(LocalDateTime.of(2020, 1, 15, 12, 0));
+
+        maintenance(RetentionProperties.Mode.ARCHIVE, 90, 1).run();
+
+        assertEquals(0, count("events"));
+        assertEquals(1, count("archive.events_p2020_01"));
+        assertEquals(List.of(), jdbc.queryForList("SELECT inhrelid FROM pg_inherits "
+                + "WHERE inhrelid = 'archive.events_p2020_01'::regclass", Long.class));
+    }
+
+    private void partitionedWithPastMonth() {
+        jdbc.execute("DROP TABLE events");
+        jdbc.execute("CREATE TABLE events (id bigint NOT NULL, user_id bigint, created_at timestamp NOT NULL, "
+                + "payload varchar(50), PRIMARY KEY (id, created_at)) PARTITION BY RANGE (created_at)");
+        jdbc.execute("CREATE SEQUENCE events_id_seq OWNED BY events.id");
+        jdbc.execute("ALTER TABLE events ALTER COLUMN id SET DEFAULT nextval('events_id_seq')");
+        jdbc.execute("CREATE TABLE events_p2020_01 PARTITION OF events "
+                + "FOR VALUES FROM ('2020-01-01 00:00:00') TO ('2020-02-01 00:00:00')");
+    }
+
+    private PartitionMaintenance maintenance(RetentionProperties.Mode mode, int retentionDays, int premakeMonths) {
+        RetentionProperties.Table table = new RetentionProperties.Table();
+        table.setColumn("created_at");
+        table.setRetentionDays(retentionDays);
+        table.setMode(mode);
+        RetentionProperties properties = new RetentionProperties();
+        properties.setEnabled(true);
+        properties.setPremakeMonths(premakeMonths);
+        properties.getTables().put("events", table);
+        return new PartitionMaintenance(jdbc, transactions, properties);
+    }
+
+    private void insert(LocalDateTime createdAt) {
+        jdbc.update("INSERT INTO events (user_id, created_at) VALUES (1, ?)", Timestamp.valueOf(createdAt));
+    }
+
+    private int count(String table) {
+        return jdbc.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+    }
+
+    private boolean exists(String relation) {
+        return jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, relation);
+    }
+}
@@ -0,0 +1,164 @@
+package com.badrelahlou.taskmanager.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.badrelahlou.taskmanager.model.Role;
+import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.security.VerifiedTokenCache.VerifiedToken;
+import com.badrelahlou.taskmanager.service.JwtUtils;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Tokens are minted by the real JwtUtils; the filter runs against mock requests
+class JwtAuthenticationFilterTests {
+    private JwtUtils jwtUtils;
+    private VerifiedTokenCache tokenCache;
+    private TokenDenyList denyList;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = jwtUtils("test-signing-secret", 60_000);
+        tokenCache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+        denyList = new TokenDenyList();
+        filter = new JwtAuthenticationFilter(jwtUtils, tokenCache, denyList);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenIsVerifiedOnceAndThenServedFromTheCache() throws Exception {
+        String token = jwtUtils.generateToken(user());
+
+        assertEquals(200, filter(token).getStatus());
+        VerifiedToken cached = tokenCache.get(token);
+        assertNotNull(cached);
+        assertEquals(7L, ((JwtPrincipal) cached.getAuthentication().getPrincipal()).getUserId());
+
+        assertEquals(200, filter(token).getStatus());
+        assertEquals(cached, tokenCache.get(token));
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenWhileItIsCached() throws Exception {
+        String token = jwtUtils.generateToken(user());
+        filter(token);
+        assertNotNull(tokenCache.get(token));
+
+        Claims claims = jwtUtils.parseClaims(token);
+        denyList.revoke(claims.getId(), claims.getExpiration().getTime());
+        MockHttpServletResponse response = filter(token);
+        assertEquals(401, response.getStatus());
+        assertEquals("Token has been revoked", response.getContentAsString());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNull(tokenCache.get(token));
+    }
+
+    @Test
+    void cachedEntryIsDroppedWhenTheTokenExpires() throws Exception {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken("user7", null, List.of());
+        tokenCache.put("short-lived", new VerifiedToken(authentication, "jti-1", System.currentTimeMillis() + 100));
+        tokenCache.put("already-expired", new VerifiedToken(authentication, "jti-2", System.currentTimeMillis() - 1));
+        assertNotNull(tokenCache.get("short-lived"));
+        assertNull(tokenCache.get("already-expired"));
+
+        Thread.sleep(200);
+        assertNull(tokenCache.get("short-lived"));
+    }
+
+    @Test
+    void expiredTokenIsRejectedAndNotCached() throws Exception {
+        String token = jwtUtils("test-signing-secret", -1_000).generateToken(user());
+
+        assertEquals(401, filter(token).getStatus());
+        assertNull(tokenCache.get(token));
+    }
+
+    @Test
+    void denyListEntryExpiresWithTheToken() throws Exception {
+        denyList.revoke("jti-1", System.currentTimeMillis() + 100);
+        denyList.revoke("jti-2", System.currentTimeMillis() - 1);
+        assertTrue(denyList.isRevoked("jti-1"));
+        // Already expired: the token would be rejected by parsing anyway
+        assertFalse(denyList.isRevoked("jti-2"));
+        assertFalse(denyList.isRevoked("jti-3"));
+
+        Thread.sleep(200);
+        assertFalse(denyList.isRevoked("jti-1"));
+        denyList.purgeExpired();
+        assertEquals(0, denyList.size());
+    }
+
+    @Test
+    void malformedOrForeignTokensAreRejectedAndNeverCached() throws Exception {
+        String foreign = jwtUtils("another-signing-secret", 60_000).generateToken(user());
+        String valid = jwtUtils.generateToken(user());
+        String tampered = valid.substring(0, valid.lastIndexOf('.') + 1) + "AAAA";
+
+        for (String token : List.of("not-a-jwt", "a.b.c", foreign, tampered)) {
+            MockHttpServletResponse response = filter(token);
+            assertEquals(401, response.getStatus(), token);
+            assertEquals("Invalid token", response.getContentAsString());
+            assertNull(tokenCache.get(token), token);
+        }
+    }
+
+    @Test
+    void requestsWithoutABearerTokenPassThroughUnauthenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Basic dXNlcjpwYXNz");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private MockHttpServletResponse filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        // The chain only continues for accepted tokens
+        assertEquals(response.getStatus() == 200, chain.getRequest() != null);
+        return response;
+    }
+
+    private static JwtUtils jwtUtils(String secret, long expirationMs) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretKey", secret);
+        ReflectionTestUtils.setField(jwtUtils, "expirationMs", expirationMs);
+        return jwtUtils;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("user7");
+        user.setRole(Role.values()[0]);
+        user.setPermissions(List.of("TASK_VIEW"));
+        return user;
+    }
+}
@@ -0,0 +1,89 @@
+package com.badrelahlou.taskmanager.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.badrelahlou.taskmanager.model.Role;
+import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.repository.UserRepository;
+import com.badrelahlou.taskmanager.service.JwtUtils;
+
+// Full application on the embedded H2 profile; callers authenticate with real tokens
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class PermissionGuardTests {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void callerWithoutPermissionManageCannotGrantPermissions() throws Exception {
+        User member = user("guard-member", Role.TEAM_MEMBER);
+
+        mvc.perform(put("/api/users/" + member.getId() + "/permissions")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(member))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"PERMISSION_MANAGE\"]"))
+                .andExpect(status().isForbidden());
+        assertEquals(List.of(), userRepository.findPermissionsById(member.getId()));
+    }
+
+    @Test
+    void adminCanGrantPermissions() throws Exception {
+        User admin = user("guard-admin", Role.ADMIN);
+        User member = user("guard-grantee", Role.TEAM_MEMBER);
+
+        mvc.perform(put("/api/users/" + member.getId() + "/permissions")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(admin))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"AUDIT_VIEW\"]"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/audit").header(HttpHeaders.AUTHORIZATION, bearer(member)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rolesKeepTheirOriginalRights() throws Exception {
+        User principal = user("guard-principal", Role.PRINCIPAL);
+        User manager = user("guard-manager", Role.PROJECT_MANAGER);
+
+        mvc.perform(get("/api/reports/task-completion").header(HttpHeaders.AUTHORIZATION, bearer(principal)))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/reports/task-completion").header(HttpHeaders.AUTHORIZATION, bearer(manager)))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/audit").header(HttpHeaders.AUTHORIZATION, bearer(manager)))
+                .andExpect(status().isForbidden());
+    }
+
+    private User user(String name, Role role) {
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPasswordHash("unused");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtUtils.generateToken(user);
+    }
+}
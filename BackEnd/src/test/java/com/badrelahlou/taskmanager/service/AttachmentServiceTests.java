@@ -0,0 +1,70 @@
+package com.badrelahlou.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.badrelahlou.taskmanager.repository.TaskAttachmentRepository;
+
+// A real store in a temp directory; the repository only answers which hashes are still referenced
+class AttachmentServiceTests {
+    @TempDir
+    Path storageDir;
+
+    private AttachmentStore store;
+    private TaskAttachmentRepository attachmentRepository;
+    private AttachmentService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new AttachmentStore();
+        ReflectionTestUtils.setField(store, "storageDir", storageDir.toString());
+        ReflectionTestUtils.invokeMethod(store, "init");
+        attachmentRepository = mock(TaskAttachmentRepository.class);
+        service = new AttachmentService();
+        ReflectionTestUtils.setField(service, "store", store);
+        ReflectionTestUtils.setField(service, "attachmentRepository", attachmentRepository);
+        ReflectionTestUtils.setField(service, "deleteGraceSeconds", 300L);
+    }
+
+    @Test
+    void sweepDeletesOnlyUnreferencedBlobsPastTheGracePeriod() throws IOException {
+        String referenced = store("still attached", Duration.ofHours(1));
+        String orphaned = store("row never saved", Duration.ofHours(1));
+        String fresh = store("upload in flight", Duration.ZERO);
+        Path abandoned = Files.createTempFile(storageDir.resolve("incoming"), "upload-", ".part");
+        Files.setLastModifiedTime(abandoned, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        Path uploading = Files.createTempFile(storageDir.resolve("incoming"), "upload-", ".part");
+        when(attachmentRepository.findReferencedSha256(anyCollection())).thenReturn(List.of(referenced));
+
+        service.sweepOrphans();
+        assertTrue(Files.exists(store.path(referenced)));
+        assertFalse(Files.exists(store.path(orphaned)));
+        assertTrue(Files.exists(store.path(fresh)));
+        assertFalse(Files.exists(abandoned));
+        assertTrue(Files.exists(uploading));
+    }
+
+    private String store(String content, Duration age) throws IOException {
+        String sha256 = store.store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))).sha256;
+        Files.setLastModifiedTime(store.path(sha256), FileTime.from(Instant.now().minus(age)));
+        return sha256;
+    }
+}
@@ -0,0 +1,220 @@
+package com.badrelahlou.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.badrelahlou.taskmanager.analytics.TaskColumnStore;
+import com.badrelahlou.taskmanager.audit.AuditBuffer;
+import com.badrelahlou.taskmanager.cache.DashboardCacheListener;
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.calendar.CalendarSyncQueue;
+import com.badrelahlou.taskmanager.calendar.IcsFeedCache;
+import com.badrelahlou.taskmanager.dto.AutoAssignRequest;
+import com.badrelahlou.taskmanager.dto.AutoAssignResponse;
+import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.report.TaskDataVersion;
+import com.badrelahlou.taskmanager.repository.TeamRepository;
+import com.badrelahlou.taskmanager.repository.UserRepository;
+
+// Tasks live in H2; everything the run hands off after commit is a mock, apart from the data version
+class AutoAssignmentServiceTests {
+    private static final long TEAM = 1L;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TeamMembershipIndex membershipIndex;
+    private UserRepository userRepository;
+    private NotificationService notificationService;
+    private AuditBuffer auditBuffer;
+    private IcsFeedCache icsFeedCache;
+    private NearCacheManager cacheManager;
+    private TaskColumnStore taskColumnStore;
+    private TaskDataVersion taskDataVersion;
+    private AutoAssignmentService service;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:autoassign;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table tasks (id bigint primary key, assigned_user_id bigint, priority varchar(20), "
+                + "status varchar(20), start_time timestamp, end_time timestamp, time_spent bigint, "
+                + "timer_accumulated bigint, updated_at timestamp)");
+        jdbc.execute("create table task_dependencies (task_id bigint, dependency_id bigint)");
+        jdbc.execute("create table data_versions (name varchar(50) primary key, version bigint)");
+        now = LocalDateTime.now();
+
+        membershipIndex = mock(TeamMembershipIndex.class);
+        userRepository = mock(UserRepository.class);
+        notificationService = mock(NotificationService.class);
+        auditBuffer = mock(AuditBuffer.class);
+        icsFeedCache = mock(IcsFeedCache.class);
+        cacheManager = mock(NearCacheManager.class);
+        taskColumnStore = mock(TaskColumnStore.class);
+        taskDataVersion = new TaskDataVersion(jdbc);
+        service = new AutoAssignmentService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(service, "teamRepository", mock(TeamRepository.class));
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "membershipIndex", membershipIndex);
+        ReflectionTestUtils.setField(service, "notificationService", notificationService);
+        ReflectionTestUtils.setField(service, "auditBuffer", auditBuffer);
+        ReflectionTestUtils.setField(service, "calendarSyncQueue", mock(CalendarSyncQueue.class));
+        ReflectionTestUtils.setField(service, "icsFeedCache", icsFeedCache);
+        ReflectionTestUtils.setField(service, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(service, "taskDataVersion", taskDataVersion);
+        ReflectionTestUtils.setField(service, "taskColumnStore", taskColumnStore);
+        ReflectionTestUtils.setField(service, "maxTasks", 100);
+        ReflectionTestUtils.setField(service, "deadlineHorizonHours", 72.0);
+        ReflectionTestUtils.setField(service, "highWeight", 3.0);
+        ReflectionTestUtils.setField(service, "mediumWeight", 2.0);
+        ReflectionTestUtils.setField(service, "lowWeight", 1.0);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+        jdbc.execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    @Test
+    void dependenciesArePlacedBeforeTheTasksWaitingOnThem() {
+        members(10L);
+        // Task 1 is the most urgent but waits on 2, which is due after 3
+        insertTask(1, null, now.plusHours(1));
+        insertTask(2, null, now.plusDays(10));
+        insertTask(3, null, now.plusDays(5));
+        dependsOn(1, 2);
+
+        AutoAssignResponse response = service.autoAssign(TEAM, dryRun(null));
+        assertEquals(List.of(3L, 2L, 1L), List.copyOf(response.getAssignments().keySet()));
+        assertEquals(List.of(), response.getSkippedTaskIds());
+    }
+
+    @Test
+    void tasksOnADependencyCycleAreSkipped() {
+        members(10L);
+        insertTask(4, null, null);
+        insertTask(5, null, null);
+        insertTask(6, null, null);
+        insertTask(7, null, null);
+        dependsOn(4, 5);
+        dependsOn(5, 4);
+        // Not on the cycle, but behind it
+        dependsOn(6, 4);
+        // Dependencies outside the run do not hold anything back
+        dependsOn(7, 99);
+
+        AutoAssignResponse response = service.autoAssign(TEAM, dryRun(null));
+        assertEquals(Map.of(7L, 10L), response.getAssignments());
+        assertEquals(Set.of(4L, 5L, 6L), Set.copyOf(response.getSkippedTaskIds()));
+    }
+
+    @Test
+    void eachTaskGoesToTheLeastLoadedMember() {
+        members(10L, 11L, 12L);
+        // Eight planned hours at medium weight: a load of 16 already on member 10
+        insertPlannedTask(20, 10L, 8);
+        for (long id = 1; id <= 4; id++) insertTask(id, null, null);
+
+        AutoAssignResponse response = service.autoAssign(TEAM, dryRun(null));
+        // Each unplanned task costs 2; ties go to the lower user id
+        assertEquals(Map.of(1L, 11L, 2L, 12L, 3L, 11L, 4L, 12L), response.getAssignments());
+        assertEquals(Map.of(10L, 16.0, 11L, 4.0, 12L, 4.0), response.getLoads());
+        // A dry run writes nothing
+        assertEquals(1, jdbc.queryForObject("select count(*) from tasks where assigned_user_id is not null", Integer.class));
+        verify(auditBuffer, never()).offerAfterCommit(any());
+        verify(taskColumnStore, never()).reloadAfterCommit(any());
+    }
+
+    @Test
+    void assignmentsAreBatchUpdatedAndAnnouncedAfterCommit() {
+        members(10L, 11L);
+        insertTask(1, 10L, null);
+        insertTask(2, null, null);
+        insertTask(3, 10L, null);
+        jdbc.update("update tasks set status = 'DONE' where id = 3");
+        // Keeps member 10 busy, so task 1 moves to 11
+        insertPlannedTask(20, 10L, 8);
+        User ten = user(10L);
+        User eleven = user(11L);
+        when(userRepository.findAllById(any())).thenReturn(List.of(ten, eleven));
+        AutoAssignRequest request = dryRun(List.of(1L, 2L, 3L, 99L));
+        request.setDryRun(false);
+
+        AutoAssignResponse response = service.autoAssign(TEAM, request);
+        assertEquals(Map.of(1L, 11L, 2L, 11L), response.getAssignments());
+        assertEquals(List.of(99L, 3L), response.getSkippedTaskIds());
+        assertEquals(List.of(11L, 11L), jdbc.queryForList("select assigned_user_id from tasks where id in (1, 2) order by id", Long.class));
+        assertEquals(2, jdbc.queryForObject("select count(*) from tasks where updated_at is not null", Integer.class));
+        verify(notificationService).createNotification(eleven, "2 tasks have been assigned to you by workload balancing.");
+        verify(notificationService).createNotification(ten, "1 task has been reassigned to another team member by workload balancing.");
+        verify(notificationService, never()).createNotification(eq(ten), eq("1 task has been assigned to you by workload balancing."));
+
+        // Both the old and the new assignee's feeds and dashboards change
+        verify(auditBuffer).offerAfterCommit(any());
+        verify(icsFeedCache).invalidateAfterCommit(Set.of(10L, 11L));
+        verify(taskColumnStore).reloadAfterCommit(Set.of(1L, 2L));
+        verify(cacheManager).evictAfterCommit(DashboardCacheListener.CACHE, Set.of(10L, 11L));
+        // The version is only bumped once the transaction commits
+        assertEquals(0, taskDataVersion.current());
+        UnreadNotificationCounterTests.complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(1, taskDataVersion.current());
+    }
+
+    private void members(Long... userIds) {
+        when(membershipIndex.isLoaded()).thenReturn(true);
+        when(membershipIndex.contains(TEAM)).thenReturn(true);
+        when(membershipIndex.memberIds(TEAM)).thenReturn(List.of(userIds));
+    }
+
+    private void insertTask(long id, Long assigneeId, LocalDateTime end) {
+        jdbc.update("insert into tasks (id, assigned_user_id, priority, status, end_time, time_spent, timer_accumulated) "
+                + "values (?, ?, 'MEDIUM', 'TODO', ?, 0, 0)", id, assigneeId, end != null ? Timestamp.valueOf(end) : null);
+    }
+
+    // Far enough out that the deadline adds no urgency
+    private void insertPlannedTask(long id, Long assigneeId, int hours) {
+        insertTask(id, assigneeId, now.plusDays(30).plusHours(hours));
+        jdbc.update("update tasks set start_time = ? where id = ?", Timestamp.valueOf(now.plusDays(30)), id);
+    }
+
+    private void dependsOn(long taskId, long dependencyId) {
+        jdbc.update("insert into task_dependencies (task_id, dependency_id) values (?, ?)", taskId, dependencyId);
+    }
+
+    private static AutoAssignRequest dryRun(List<Long> taskIds) {
+        AutoAssignRequest request = new AutoAssignRequest();
+        request.setTaskIds(taskIds);
+        request.setDryRun(true);
+        return request;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
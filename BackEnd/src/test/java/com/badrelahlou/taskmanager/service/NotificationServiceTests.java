@@ -0,0 +1,158 @@
+package com.badrelahlou.taskmanager.service;
+
+import static com.badrelahlou.taskmanager.service.UnreadNotificationCounterTests.complete;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.badrelahlou.taskmanager.dto.NotificationDTO;
+import com.badrelahlou.taskmanager.dto.NotificationPageResponse;
+import com.badrelahlou.taskmanager.model.Notification;
+import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.repository.NotificationRepository;
+import com.badrelahlou.taskmanager.retention.RetentionProperties;
+
+// Retention is off, so every query's lower bound is RetentionProperties.EPOCH
+class NotificationServiceTests {
+    private static final LocalDateTime NINE = LocalDateTime.of(2026, 3, 2, 9, 0);
+    private static final LocalDateTime SINCE = RetentionProperties.EPOCH;
+
+    private NotificationRepository notificationRepository;
+    private NotificationPublisher notificationPublisher;
+    private NotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        notificationPublisher = mock(NotificationPublisher.class);
+        service = new NotificationService();
+        ReflectionTestUtils.setField(service, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(service, "notificationPublisher", notificationPublisher);
+        ReflectionTestUtils.setField(service, "unreadCounter", UnreadNotificationCounterTests.counter(notificationRepository));
+        ReflectionTestUtils.setField(service, "retentionProperties", new RetentionProperties());
+        ReflectionTestUtils.setField(service, "maxPageSize", 100);
+        when(notificationRepository.countUnread(eq(1L), any())).thenReturn(4L);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void inboxPagesResumeAfterTheLastItemOfTheCursor() {
+        // Two rows share a createdAt, so the id breaks the tie
+        Notification newest = notification(3, NINE.plusMinutes(5));
+        Notification tiedHigh = notification(2, NINE);
+        Notification tiedLow = notification(1, NINE);
+        when(notificationRepository.findInboxFirstPage(1L, SINCE, PageRequest.of(0, 3)))
+                .thenReturn(List.of(newest, tiedHigh, tiedLow));
+        when(notificationRepository.findInboxPageAfter(1L, SINCE, NINE, 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(tiedLow));
+
+        NotificationPageResponse first = service.getInbox(1L, null, 2, false);
+        assertEquals(List.of(3L, 2L), ids(first));
+        assertEquals(4, first.getUnreadCount());
+
+        NotificationPageResponse second = service.getInbox(1L, first.getNextCursor(), 2, false);
+        assertEquals(List.of(1L), ids(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void unreadInboxUsesTheUnreadQueriesAndClampsThePageSize() {
+        when(notificationRepository.findUnreadInboxFirstPage(1L, SINCE, PageRequest.of(0, 101)))
+                .thenReturn(List.of(notification(1, NINE)));
+        when(notificationRepository.findUnreadInboxPageAfter(1L, SINCE, NINE, 9L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(notification(8, NINE)));
+
+        assertEquals(List.of(1L), ids(service.getInbox(1L, "", 500, true)));
+        assertEquals(List.of(8L), ids(service.getInbox(1L, Cursors.encode(NINE, 9L), 0, true)));
+        verify(notificationRepository, never()).findInboxFirstPage(any(), any(), any());
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertInvalidCursor("not-a-cursor!");
+        // Well-formed base64 around no separator, a bad timestamp and a bad id
+        for (String raw : List.of("2026-03-02T09:00", "yesterday|9", "2026-03-02T09:00|nine")) {
+            assertInvalidCursor(Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    void bulkMarkReadLowersTheCountByTheRowsUpdatedOnceCommitted() {
+        when(notificationRepository.markReadByIds(1L, List.of(1L, 2L, 3L))).thenReturn(2);
+        assertEquals(4, service.getUnreadCount(1L));
+
+        assertEquals(2, service.markAsRead(1L, List.of(1L, 2L, 3L)));
+        assertEquals(4, service.getUnreadCount(1L));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(2, service.getUnreadCount(1L));
+
+        assertEquals(0, service.markAsRead(1L, List.of()));
+        verify(notificationRepository, never()).markReadByIds(1L, List.of());
+    }
+
+    @Test
+    void markAllReadBeforeIsUndoneByARollback() {
+        when(notificationRepository.markReadBefore(1L, SINCE, NINE)).thenReturn(3);
+        service.getUnreadCount(1L);
+
+        assertEquals(3, service.markAllReadBefore(1L, NINE));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(4, service.getUnreadCount(1L));
+    }
+
+    @Test
+    void createdNotificationIsCountedAndPublishedOnlyAfterCommit() {
+        User user = new User();
+        user.setId(1L);
+        service.getUnreadCount(1L);
+
+        service.createNotification(user, "Task assigned");
+        verify(notificationPublisher, never()).publish(any());
+        assertEquals(4, service.getUnreadCount(1L));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        verify(notificationPublisher).publish(any());
+        assertEquals(5, service.getUnreadCount(1L));
+    }
+
+    private void assertInvalidCursor(String cursor) {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.getInbox(1L, cursor, 10, false));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    private static Notification notification(long id, LocalDateTime createdAt) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setMessage("n" + id);
+        notification.setCreatedAt(createdAt);
+        return notification;
+    }
+
+    private static List<Long> ids(NotificationPageResponse page) {
+        return page.getItems().stream().map(NotificationDTO::getId).toList();
+    }
+}
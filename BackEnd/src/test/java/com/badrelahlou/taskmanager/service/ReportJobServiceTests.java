@@ -0,0 +1,141 @@
+package com.badrelahlou.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.badrelahlou.taskmanager.controller.ReportController;
+import com.badrelahlou.taskmanager.dto.ReportJobRequest;
+import com.badrelahlou.taskmanager.dto.ReportJobResponse;
+import com.badrelahlou.taskmanager.report.ReportJob;
+import com.badrelahlou.taskmanager.report.ReportType;
+import com.badrelahlou.taskmanager.report.TaskDataVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Jobs run on the service's own Quartz scheduler against an in-memory H2 tasks table
+class ReportJobServiceTests {
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TaskDataVersion dataVersion;
+    private ReportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:reports;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table tasks (id bigint primary key, status varchar(20), assigned_user_id bigint)");
+        jdbc.execute("create table data_versions (name varchar(50) primary key, version bigint)");
+        jdbc.execute("create table report_jobs (id varchar(36) primary key, type varchar(32) not null, user_id bigint, "
+                + "cache_key varchar(255) not null unique, data_version bigint not null, status varchar(16) not null, "
+                + "submitted_at timestamp not null, started_at timestamp, completed_at timestamp, result text, error varchar(1000))");
+        dataVersion = new TaskDataVersion(jdbc);
+        service = new ReportJobService(jdbc, dataVersion, new ObjectMapper(), new SimpleMeterRegistry(),
+                2, 2, 4, 10, 600, 900, 3600, 50);
+        insertTask(1, "DONE");
+        insertTask(2, "TODO");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.shutdown();
+        jdbc.execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    @Test
+    void identicalSubmissionsShareOneJob() throws Exception {
+        int submitters = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(submitters);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<ReportJob>> submitted = new ArrayList<>();
+            for (int i = 0; i < submitters; i++) {
+                submitted.add(pool.submit(() -> {
+                    start.await();
+                    return service.submit(ReportType.TASK_COMPLETION, null);
+                }));
+            }
+            start.countDown();
+            ReportJob first = submitted.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<ReportJob> job : submitted) {
+                assertEquals(first.getId(), job.get(10, TimeUnit.SECONDS).getId());
+            }
+            assertEquals(Map.of("totalTasks", 2L, "completedTasks", 1L, "inProgressTasks", 0L, "todoTasks", 1L),
+                    first.getCompletion().get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Finished and still current, so a later submission is answered from the stored result
+        ReportJob again = service.submit(ReportType.TASK_COMPLETION, null);
+        assertEquals(ReportJob.Status.DONE, again.getStatus());
+        assertEquals(1, jdbc.queryForObject("select count(*) from report_jobs", Integer.class));
+        // Other parameters are another job
+        assertNotEquals(again.getId(), service.submit(ReportType.USER_ACTIVITY, 7L).getId());
+    }
+
+    @Test
+    void versionBumpForcesARecompute() throws Exception {
+        ReportJob before = service.submit(ReportType.TASK_COMPLETION, null);
+        before.getCompletion().get(10, TimeUnit.SECONDS);
+
+        insertTask(3, "IN_PROGRESS");
+        // Without a bump the stale result is still served
+        assertSame(before, service.submit(ReportType.TASK_COMPLETION, null));
+        dataVersion.bumpAfterCommit();
+
+        ReportJob after = service.submit(ReportType.TASK_COMPLETION, null);
+        assertNotEquals(before.getId(), after.getId());
+        assertEquals(before.getDataVersion() + 1, after.getDataVersion());
+        Map<String, Object> result = after.getCompletion().get(10, TimeUnit.SECONDS);
+        assertEquals(3L, result.get("totalTasks"));
+        assertEquals(1L, result.get("inProgressTasks"));
+        assertEquals(2L, before.getResult().get("totalTasks"));
+    }
+
+    @Test
+    void controllerPointsRepeatedSubmissionsAtTheSameJob() throws Exception {
+        ReportController controller = new ReportController();
+        ReflectionTestUtils.setField(controller, "reportJobService", service);
+        ReportJobRequest request = new ReportJobRequest();
+        request.setType(ReportType.USER_ACTIVITY);
+        request.setUserId(7L);
+
+        ResponseEntity<?> first = controller.submitJob(request);
+        ResponseEntity<?> second = controller.submitJob(request);
+        String jobId = ((ReportJobResponse) first.getBody()).getJobId();
+        assertEquals(first.getHeaders().getLocation(), second.getHeaders().getLocation());
+        assertEquals("/api/reports/jobs/" + jobId, first.getHeaders().getLocation().toString());
+
+        service.getJob(jobId).getCompletion().get(10, TimeUnit.SECONDS);
+        dataVersion.bump();
+        ResponseEntity<?> third = controller.submitJob(request);
+        assertNotEquals(jobId, ((ReportJobResponse) third.getBody()).getJobId());
+        // A user activity report without a user is rejected up front
+        request.setUserId(null);
+        assertEquals(400, controller.submitJob(request).getStatusCode().value());
+    }
+
+    private void insertTask(long id, String status) {
+        jdbc.update("insert into tasks (id, status) values (?, ?)", id, status);
+    }
+}
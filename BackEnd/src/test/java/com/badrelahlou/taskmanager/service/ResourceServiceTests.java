@@ -0,0 +1,90 @@
+package com.badrelahlou.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.badrelahlou.taskmanager.booking.ConflictPolicy;
+import com.badrelahlou.taskmanager.booking.IntervalTree;
+import com.badrelahlou.taskmanager.booking.ResourceBookingIndex;
+import com.badrelahlou.taskmanager.exception.ResourceConflictException;
+import com.badrelahlou.taskmanager.model.Task;
+
+// Transaction synchronization is driven by hand so a test can decide how the transaction ends
+class ResourceServiceTests {
+    private static final LocalDateTime NINE = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    private ResourceBookingIndex index;
+    private ResourceService service;
+
+    @BeforeEach
+    void setUp() {
+        index = new ResourceBookingIndex();
+        service = new ResourceService();
+        ReflectionTestUtils.setField(service, "bookingIndex", index);
+        ReflectionTestUtils.setField(service, "conflictPolicy", ConflictPolicy.REJECT);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void rollbackRestoresThePreviousWindowAndResources() {
+        index.put(1, List.of(10L), NINE, NINE.plusHours(1));
+
+        service.reserve(task(1, NINE.plusHours(4), NINE.plusHours(5)), List.of(10L), List.of(10L, 20L));
+        assertEquals(NINE.plusHours(4), start(10));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(NINE, start(10));
+        assertTrue(index.bookings(20, NINE, NINE.plusDays(1)).isEmpty());
+        // The restored window is what later requests conflict with
+        assertThrows(ResourceConflictException.class,
+                () -> service.reserve(task(2, NINE.plusMinutes(30), NINE.plusHours(2)), List.of(), List.of(10L)));
+    }
+
+    @Test
+    void commitKeepsTheNewBookings() {
+        index.put(1, List.of(10L), NINE, NINE.plusHours(1));
+
+        service.reserve(task(1, NINE.plusHours(4), NINE.plusHours(5)), List.of(10L), List.of(20L));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertTrue(index.bookings(10, NINE, NINE.plusDays(1)).isEmpty());
+        assertEquals(NINE.plusHours(4), start(20));
+    }
+
+    private LocalDateTime start(long resourceId) {
+        List<IntervalTree.Booking> bookings = index.bookings(resourceId, NINE, NINE.plusDays(1));
+        assertEquals(1, bookings.size());
+        return ResourceBookingIndex.fromEpoch(bookings.get(0).start);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(status));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static Task task(long id, LocalDateTime start, LocalDateTime end) {
+        Task task = new Task();
+        task.setId(id);
+        task.setStartTime(start);
+        task.setEndTime(end);
+        return task;
+    }
+}
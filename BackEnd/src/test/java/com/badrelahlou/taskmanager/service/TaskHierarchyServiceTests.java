@@ -0,0 +1,132 @@
+package com.badrelahlou.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.badrelahlou.taskmanager.model.TaskStatus;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// Against a throwaway PostgreSQL, so FOR UPDATE blocks the way it does in production; moves mirror TaskService.moveTask
+class TaskHierarchyServiceTests {
+    private static final long A = 1, A1 = 2, B = 3, B1 = 4;
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transactions;
+    private TaskHierarchyService hierarchy;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbc = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbc.execute("DROP SCHEMA public CASCADE");
+        jdbc.execute("CREATE SCHEMA public");
+        jdbc.execute("CREATE TABLE tasks (id bigint PRIMARY KEY, status varchar(20), time_spent bigint)");
+        jdbc.execute("CREATE TABLE task_closure (ancestor_id bigint, descendant_id bigint, depth int NOT NULL, "
+                + "PRIMARY KEY (ancestor_id, descendant_id))");
+        jdbc.execute("CREATE TABLE task_rollups (task_id bigint PRIMARY KEY, todo_count bigint NOT NULL, "
+                + "in_progress_count bigint NOT NULL, done_count bigint NOT NULL, total_time_spent bigint NOT NULL)");
+        hierarchy = new TaskHierarchyService();
+        ReflectionTestUtils.setField(hierarchy, "jdbcTemplate", jdbc);
+        // Two trees: A over A1 and B over B1
+        insert(A, null);
+        insert(A1, A);
+        insert(B, null);
+        insert(B1, B);
+    }
+
+    @Test
+    void moveIntoOwnSubtreeIsRefused() {
+        assertThrows(RuntimeException.class, () -> transactions.executeWithoutResult(s -> move(A, A1)));
+
+        transactions.executeWithoutResult(s -> move(A, B1));
+        assertTrue(hierarchy.isInSubtree(B, A1));
+        assertEquals(4, todoCount(B));
+        assertEquals(3, todoCount(B1));
+        assertEquals(2, todoCount(A));
+    }
+
+    @Test
+    void crossMovesInSeparateTreesCannotCloseACycle() throws Exception {
+        CountDownLatch firstChecked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactions.executeWithoutResult(s -> {
+            move(A, B1);
+            firstChecked.countDown();
+            await(releaseFirst);
+        }));
+        assertTrue(firstChecked.await(10, TimeUnit.SECONDS));
+
+        // Checked alone, B under A1 is legal; it only closes a cycle together with the first move
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactions.executeWithoutResult(s -> move(B, A1)));
+        assertThrows(TimeoutException.class, () -> second.get(500, TimeUnit.MILLISECONDS));
+
+        releaseFirst.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        ExecutionException refused = assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+        assertTrue(refused.getCause().getMessage().contains("own subtree"));
+
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM task_closure WHERE ancestor_id = descendant_id AND depth > 0",
+                Integer.class));
+        assertFalse(hierarchy.isInSubtree(A, B));
+        assertEquals(4, todoCount(B));
+    }
+
+    private void move(long taskId, Long parentId) {
+        hierarchy.lockTrees(taskId, parentId);
+        if (parentId != null && hierarchy.isInSubtree(taskId, parentId)) {
+            throw new RuntimeException("Task " + taskId + " cannot become a subtask of its own subtree");
+        }
+        hierarchy.onUpdated(taskId, parentId, TaskStatus.TODO, 0L, TaskStatus.TODO, 0L);
+    }
+
+    private void insert(long id, Long parentId) {
+        jdbc.update("INSERT INTO tasks (id, status, time_spent) VALUES (?, 'TODO', 0)", id);
+        hierarchy.onInserted(id, parentId, TaskStatus.TODO, 0L);
+    }
+
+    private long todoCount(long taskId) {
+        return jdbc.queryForObject("SELECT todo_count FROM task_rollups WHERE task_id = ?", Long.class, taskId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
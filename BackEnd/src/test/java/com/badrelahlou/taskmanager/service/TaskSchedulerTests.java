@@ -0,0 +1,110 @@
+package com.badrelahlou.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.badrelahlou.taskmanager.repository.TaskRepository;
+import com.badrelahlou.taskmanager.sweep.TaskSweep;
+import com.badrelahlou.taskmanager.sweep.TaskSweepShardJob;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The Quartz scheduler is a mock; each test inspects the shard jobs handed to it in one scheduleJobs call
+class TaskSchedulerTests {
+    private static final Date FIRE_TIME = new Date(1_772_442_000_000L);
+
+    private TaskRepository taskRepository;
+    private Scheduler scheduler;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskScheduler taskScheduler;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        scheduler = mock(Scheduler.class);
+        meterRegistry = new SimpleMeterRegistry();
+        taskScheduler = new TaskScheduler();
+        ReflectionTestUtils.setField(taskScheduler, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(taskScheduler, "scheduler", scheduler);
+        ReflectionTestUtils.setField(taskScheduler, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(taskScheduler, "shardSize", 5000L);
+        ReflectionTestUtils.setField(taskScheduler, "maxShards", 256);
+    }
+
+    @Test
+    void idRangeIsSplitIntoRecoverableShardJobs() throws Exception {
+        bounds(1L, 12_000L);
+
+        assertEquals(3, taskScheduler.planShards(TaskSweep.REMINDERS, FIRE_TIME));
+        List<JobDetail> jobs = scheduled();
+        assertEquals(List.of("1-5001", "5001-10001", "10001-12001"), ranges(jobs));
+        for (int i = 0; i < jobs.size(); i++) {
+            JobDetail job = jobs.get(i);
+            assertEquals(new JobKey("REMINDERS-" + FIRE_TIME.getTime() + "-" + i, TaskScheduler.SHARD_GROUP), job.getKey());
+            assertEquals(TaskSweepShardJob.class, job.getJobClass());
+            assertEquals("REMINDERS", job.getJobDataMap().getString("sweep"));
+            assertTrue(job.requestsRecovery());
+        }
+        assertEquals(3, meterRegistry.counter("task.sweep.shards", "sweep", "REMINDERS").count());
+    }
+
+    @Test
+    void shardsGrowPastShardSizeToStayUnderMaxShards() throws Exception {
+        ReflectionTestUtils.setField(taskScheduler, "maxShards", 4);
+        bounds(101L, 100_100L);
+
+        assertEquals(4, taskScheduler.planShards(TaskSweep.RECURRING_TASKS, FIRE_TIME));
+        assertEquals(List.of("101-25101", "25101-50101", "50101-75101", "75101-100101"), ranges(scheduled()));
+    }
+
+    @Test
+    void emptyTableSchedulesNothing() throws Exception {
+        bounds(null, null);
+
+        assertEquals(0, taskScheduler.planShards(TaskSweep.RECURRING_TASKS, FIRE_TIME));
+        verify(scheduler, never()).scheduleJobs(any(), anyBoolean());
+    }
+
+    private void bounds(Long lo, Long hi) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { lo, hi });
+        when(taskRepository.findIdBounds()).thenReturn(rows);
+    }
+
+    // In shard order; a repeated plan for the same firing must be refused, so nothing is replaced
+    @SuppressWarnings("unchecked")
+    private List<JobDetail> scheduled() throws Exception {
+        ArgumentCaptor<Map<JobDetail, Set<? extends Trigger>>> jobs = ArgumentCaptor.forClass(Map.class);
+        verify(scheduler).scheduleJobs(jobs.capture(), eq(false));
+        jobs.getValue().forEach((job, triggers) -> assertEquals(1, triggers.size()));
+        return new ArrayList<>(jobs.getValue().keySet());
+    }
+
+    private static List<String> ranges(List<JobDetail> jobs) {
+        return jobs.stream()
+                .map(job -> job.getJobDataMap().getString("fromId") + "-" + job.getJobDataMap().getString("toId"))
+                .toList();
+    }
+}
@@ -0,0 +1,162 @@
+package com.badrelahlou.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.badrelahlou.taskmanager.analytics.TaskColumnStore;
+import com.badrelahlou.taskmanager.audit.AuditBuffer;
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.calendar.CalendarSyncQueue;
+import com.badrelahlou.taskmanager.calendar.IcsFeedCache;
+import com.badrelahlou.taskmanager.dto.TemplateInstantiationRequest;
+import com.badrelahlou.taskmanager.model.Priority;
+import com.badrelahlou.taskmanager.model.TaskTemplate;
+import com.badrelahlou.taskmanager.model.TaskTemplateSet;
+import com.badrelahlou.taskmanager.model.User;
+import com.badrelahlou.taskmanager.report.TaskDataVersion;
+import com.badrelahlou.taskmanager.repository.TaskTemplateRepository;
+import com.badrelahlou.taskmanager.repository.TaskTemplateSetRepository;
+import com.badrelahlou.taskmanager.repository.UserRepository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// Tasks, closure and rollups in a throwaway PostgreSQL; the template set itself comes from mocked repositories
+class TaskTemplateServiceTests {
+    private static final long SET = 1, ROOT = 100, CHILD = 101, GRANDCHILD = 102, SIBLING = 103;
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbc;
+    private TaskTemplateRepository templateRepository;
+    private NotificationService notificationService;
+    private TaskTemplateService service;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbc.execute("DROP SCHEMA public CASCADE");
+        jdbc.execute("CREATE SCHEMA public");
+        jdbc.execute("CREATE TABLE tasks (id bigserial PRIMARY KEY, title varchar(255), description text, "
+                + "start_time timestamp, end_time timestamp, priority varchar(20), status varchar(20), assigned_user_id bigint, "
+                + "created_at timestamp, updated_at timestamp, created_by varchar(255), parent_task_id bigint, "
+                + "timer_running boolean, timer_accumulated bigint)");
+        jdbc.execute("CREATE TABLE task_dependencies (task_id bigint, dependency_id bigint)");
+        jdbc.execute("CREATE TABLE task_closure (ancestor_id bigint, descendant_id bigint, depth int NOT NULL, "
+                + "PRIMARY KEY (ancestor_id, descendant_id))");
+        jdbc.execute("CREATE TABLE task_rollups (task_id bigint PRIMARY KEY, todo_count bigint NOT NULL, "
+                + "in_progress_count bigint NOT NULL, done_count bigint NOT NULL, total_time_spent bigint NOT NULL)");
+
+        TaskTemplateSetRepository templateSetRepository = mock(TaskTemplateSetRepository.class);
+        TaskTemplateSet set = new TaskTemplateSet();
+        set.setId(SET);
+        set.setName("Onboarding");
+        when(templateSetRepository.findById(SET)).thenReturn(Optional.of(set));
+        templateRepository = mock(TaskTemplateRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        User user = new User();
+        user.setId(7L);
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        notificationService = mock(NotificationService.class);
+        TaskHierarchyService hierarchy = new TaskHierarchyService();
+        ReflectionTestUtils.setField(hierarchy, "jdbcTemplate", jdbc);
+
+        service = new TaskTemplateService();
+        ReflectionTestUtils.setField(service, "templateSetRepository", templateSetRepository);
+        ReflectionTestUtils.setField(service, "templateRepository", templateRepository);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "notificationService", notificationService);
+        ReflectionTestUtils.setField(service, "auditBuffer", mock(AuditBuffer.class));
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(service, "calendarSyncQueue", mock(CalendarSyncQueue.class));
+        ReflectionTestUtils.setField(service, "icsFeedCache", mock(IcsFeedCache.class));
+        ReflectionTestUtils.setField(service, "cacheManager", mock(NearCacheManager.class));
+        ReflectionTestUtils.setField(service, "taskDataVersion", mock(TaskDataVersion.class));
+        ReflectionTestUtils.setField(service, "taskColumnStore", mock(TaskColumnStore.class));
+        ReflectionTestUtils.setField(service, "taskHierarchyService", hierarchy);
+    }
+
+    @Test
+    void nestedTemplatesBecomeATaskTreeWithItsClosureRows() {
+        // Listed child first: levels, not list order, decide when a task is inserted
+        when(templateRepository.findBySetId(SET)).thenReturn(List.of(
+                template(GRANDCHILD, 30), template(CHILD, 0), template(ROOT, 0), template(SIBLING, 90)));
+        when(templateRepository.findParentLinks(SET)).thenReturn(List.of(
+                new Object[] { ROOT, null }, new Object[] { CHILD, ROOT }, new Object[] { GRANDCHILD, CHILD },
+                new Object[] { SIBLING, null }));
+        when(templateRepository.findDependencyLinks(SET)).thenReturn(List.<Object[]>of(new Object[] { GRANDCHILD, SIBLING }));
+        TemplateInstantiationRequest request = new TemplateInstantiationRequest();
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+        request.setStartAt(start);
+        request.setDefaultAssigneeId(7L);
+
+        Map<Long, Long> tasks = service.instantiate(SET, request).getTaskIds();
+        assertEquals(4, tasks.size());
+        long root = tasks.get(ROOT), child = tasks.get(CHILD), grandchild = tasks.get(GRANDCHILD), sibling = tasks.get(SIBLING);
+        assertNull(parentOf(root));
+        assertEquals(root, parentOf(child));
+        assertEquals(child, parentOf(grandchild));
+        assertNull(parentOf(sibling));
+        assertEquals(start.plusMinutes(30), jdbc.queryForObject("SELECT start_time FROM tasks WHERE id = ?",
+                LocalDateTime.class, grandchild));
+
+        // One row per ancestor, the task itself included at depth 0
+        assertEquals(Map.of(root, 2, child, 1, grandchild, 0), closureOf(grandchild));
+        assertEquals(Map.of(root, 1, child, 0), closureOf(child));
+        assertEquals(Map.of(sibling, 0), closureOf(sibling));
+        assertEquals(7, jdbc.queryForObject("SELECT count(*) FROM task_closure", Integer.class));
+        assertEquals(3, jdbc.queryForObject("SELECT todo_count FROM task_rollups WHERE task_id = ?", Long.class, root));
+        assertEquals(List.of(Map.of("task_id", grandchild, "dependency_id", sibling)),
+                jdbc.queryForList("SELECT task_id, dependency_id FROM task_dependencies"));
+        verify(notificationService).createNotification(any(), eq("4 tasks from template 'Onboarding' have been assigned to you."));
+    }
+
+    private Long parentOf(long taskId) {
+        return jdbc.queryForObject("SELECT parent_task_id FROM tasks WHERE id = ?", Long.class, taskId);
+    }
+
+    private Map<Long, Integer> closureOf(long taskId) {
+        Map<Long, Integer> depths = new HashMap<>();
+        jdbc.query("SELECT ancestor_id, depth FROM task_closure WHERE descendant_id = ?",
+                rs -> { depths.put(rs.getLong(1), rs.getInt(2)); }, taskId);
+        return depths;
+    }
+
+    private static TaskTemplate template(long id, long startOffsetMinutes) {
+        TaskTemplate template = new TaskTemplate();
+        template.setId(id);
+        template.setTitle("Template " + id);
+        template.setPriority(Priority.MEDIUM);
+        template.setStartOffsetMinutes(startOffsetMinutes);
+        template.setDurationMinutes(60L);
+        return template;
+    }
+}
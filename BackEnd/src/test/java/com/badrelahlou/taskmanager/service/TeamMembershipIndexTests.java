@@ -0,0 +1,123 @@
+package com.badrelahlou.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.badrelahlou.taskmanager.cache.InProcessInvalidationBroker;
+import com.badrelahlou.taskmanager.cache.NearCacheManager;
+import com.badrelahlou.taskmanager.repository.TeamRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The membership query stands in for a slow load; updates made while it runs must survive the swap
+class TeamMembershipIndexTests {
+    private TeamRepository teamRepository;
+    private TeamMembershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        teamRepository = mock(TeamRepository.class);
+        index = new TeamMembershipIndex();
+        ReflectionTestUtils.setField(index, "teamRepository", teamRepository);
+    }
+
+    @Test
+    void rebuildLoadsEveryTeam() {
+        when(teamRepository.findAllTeamIds()).thenReturn(List.of(1L, 2L));
+        when(teamRepository.findAllMemberships()).thenReturn(rows(new Object[] { 1L, 10L }, new Object[] { 1L, 11L }));
+        index.update(3L, List.of(30L));
+
+        index.rebuild();
+        assertEquals(List.of(10L, 11L), index.memberIds(1L));
+        assertEquals(List.of(), index.memberIds(2L));
+        assertFalse(index.contains(3L));
+    }
+
+    @Test
+    void changesDuringARebuildWinOverTheLoadedRows() {
+        index.update(1L, List.of(10L));
+        index.update(2L, List.of(20L));
+        when(teamRepository.findAllTeamIds()).thenReturn(List.of(1L, 2L));
+        when(teamRepository.findAllMemberships()).thenAnswer(invocation -> {
+            // Committed after the rebuild's read
+            index.update(1L, List.of(10L, 12L));
+            index.remove(2L);
+            index.update(4L, List.of(40L));
+            return rows(new Object[] { 1L, 10L }, new Object[] { 2L, 20L });
+        });
+
+        index.rebuild();
+        assertEquals(List.of(10L, 12L), index.memberIds(1L));
+        assertFalse(index.contains(2L));
+        assertEquals(List.of(40L), index.memberIds(4L));
+
+        // Outside a rebuild nothing is tracked, so the next one takes the rows as loaded
+        when(teamRepository.findAllTeamIds()).thenReturn(List.of(1L));
+        when(teamRepository.findAllMemberships()).thenReturn(rows(new Object[] { 1L, 10L }));
+        index.rebuild();
+        assertEquals(List.of(10L), index.memberIds(1L));
+        assertFalse(index.contains(4L));
+    }
+
+    @Test
+    void otherInstancesReReadAnnouncedTeams() {
+        SingleConnectionDataSource dataSource =
+                new SingleConnectionDataSource("jdbc:h2:mem:teams;DB_CLOSE_DELAY=-1", "sa", "", true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table teams (id bigint primary key)");
+        jdbc.execute("create table team_members (team_id bigint, user_id bigint)");
+        InProcessInvalidationBroker broker = new InProcessInvalidationBroker();
+        NearCacheManager local = node(broker);
+        NearCacheManager remote = node(broker);
+        try {
+            wire(index, jdbc, local);
+            TeamMembershipIndex other = wire(new TeamMembershipIndex(), jdbc, remote);
+            other.update(2L, List.of(20L));
+
+            // Team 1 was created with two members and team 2 deleted, both committed on this instance
+            jdbc.update("insert into teams (id) values (1)");
+            jdbc.update("insert into team_members (team_id, user_id) values (1, 10), (1, 11)");
+            index.update(1L, List.of(10L, 11L));
+            index.remove(2L);
+            index.announce(List.of(1L, 2L));
+            local.flush();
+
+            assertEquals(List.of(10L, 11L), other.memberIds(1L));
+            assertTrue(other.isMember(1L, 11L));
+            assertFalse(other.contains(2L));
+        } finally {
+            local.destroy();
+            remote.destroy();
+            jdbc.execute("drop all objects");
+            dataSource.destroy();
+        }
+    }
+
+    private TeamMembershipIndex wire(TeamMembershipIndex target, JdbcTemplate jdbc, NearCacheManager cacheManager) {
+        ReflectionTestUtils.setField(target, "teamRepository", teamRepository);
+        ReflectionTestUtils.setField(target, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(target, "cacheManager", cacheManager);
+        target.subscribe();
+        return target;
+    }
+
+    private static NearCacheManager node(InProcessInvalidationBroker broker) {
+        return new NearCacheManager(broker.connect(), new SimpleMeterRegistry(), "maximumSize=100", List.of(), 60_000, 100);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,109 @@
+package com.badrelahlou.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.badrelahlou.taskmanager.repository.NotificationRepository;
+import com.badrelahlou.taskmanager.retention.RetentionProperties;
+
+// Transaction synchronization is driven by hand so a test can decide how the transaction ends
+class UnreadNotificationCounterTests {
+    private NotificationRepository notificationRepository;
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        counter = counter(notificationRepository);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void loadedCounterMovesOnlyWhenTheTransactionCommits() {
+        when(notificationRepository.countUnread(eq(1L), any())).thenReturn(5L);
+        assertEquals(5, counter.get(1L));
+
+        counter.incrementAfterCommit(1L);
+        counter.decrementAfterCommit(1L, 3);
+        assertEquals(5, counter.get(1L));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(3, counter.get(1L));
+
+        counter.decrementAfterCommit(1L, 2);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(3, counter.get(1L));
+        // Loaded once; every later value came from the adjustments
+        verify(notificationRepository, times(1)).countUnread(eq(1L), any());
+    }
+
+    @Test
+    void adjustmentsSkipCountersNotLoadedYet() {
+        counter.incrementAfterCommit(1L);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // The committed row is already in what the first read loads, so it is not counted twice
+        when(notificationRepository.countUnread(eq(1L), any())).thenReturn(1L);
+        assertEquals(1, counter.get(1L));
+    }
+
+    @Test
+    void decrementNeverGoesBelowZero() {
+        when(notificationRepository.countUnread(eq(1L), any())).thenReturn(2L);
+        counter.get(1L);
+
+        counter.decrementAfterCommit(1L, 5);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(0, counter.get(1L));
+    }
+
+    @Test
+    void withoutATransactionAdjustmentsApplyAtOnce() {
+        when(notificationRepository.countUnread(eq(1L), any())).thenReturn(2L);
+        counter.get(1L);
+
+        TransactionSynchronizationManager.clearSynchronization();
+        try {
+            counter.incrementAfterCommit(1L);
+            assertEquals(3, counter.get(1L));
+        } finally {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+    }
+
+    static UnreadNotificationCounter counter(NotificationRepository notificationRepository) {
+        UnreadNotificationCounter counter = new UnreadNotificationCounter();
+        ReflectionTestUtils.setField(counter, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(counter, "retentionProperties", new RetentionProperties());
+        ReflectionTestUtils.setField(counter, "maxUsers", 100L);
+        ReflectionTestUtils.setField(counter, "ttlSeconds", 300L);
+        counter.init();
+        return counter;
+    }
+
+    static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(status));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}